@@ -4,4 +4,25 @@ ALTER TABLE ACT_ID_USER
   ADD LOCK_EXP_TIME_ timestamp(3) NULL;
 
 ALTER TABLE ACT_ID_USER
-  ADD ATTEMPTS_ integer;
\ No newline at end of file
+  ADD ATTEMPTS_ integer;
+
+-- hash partitioned job acquisition
+
+ALTER TABLE ACT_RU_JOB
+  ADD PARTITION_ integer;
+
+create index ACT_IDX_JOB_PARTITION ON ACT_RU_JOB(PARTITION_);
+
+-- metric rollups
+
+create table ACT_RU_METER_ROLLUP (
+  ID_ varchar(64) not null,
+  NAME_ varchar(64) not null,
+  REPORTER_ varchar(255),
+  PERIOD_ integer not null,
+  MILLISECONDS_ bigint not null,
+  VALUE_ bigint,
+  primary key (ID_)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
+
+CREATE INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP(PERIOD_, MILLISECONDS_);
\ No newline at end of file
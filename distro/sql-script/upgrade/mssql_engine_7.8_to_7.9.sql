@@ -4,4 +4,25 @@ ALTER TABLE ACT_ID_USER
   ADD LOCK_EXP_TIME_ datetime2;
 
 ALTER TABLE ACT_ID_USER
-  ADD ATTEMPTS_ int;
\ No newline at end of file
+  ADD ATTEMPTS_ int;
+
+-- hash partitioned job acquisition
+
+ALTER TABLE ACT_RU_JOB
+  ADD PARTITION_ int;
+
+create index ACT_IDX_JOB_PARTITION ON ACT_RU_JOB(PARTITION_);
+
+-- metric rollups
+
+create table ACT_RU_METER_ROLLUP (
+  ID_ nvarchar(64) not null,
+  NAME_ nvarchar(64) not null,
+  REPORTER_ nvarchar(255),
+  PERIOD_ int not null,
+  MILLISECONDS_ numeric(19,0) not null,
+  VALUE_ numeric(19,0),
+  primary key (ID_)
+);
+
+CREATE INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP(PERIOD_, MILLISECONDS_);
\ No newline at end of file
@@ -4,4 +4,25 @@ ALTER TABLE ACT_ID_USER
   ADD LOCK_EXP_TIME_ TIMESTAMP(6);
 
 ALTER TABLE ACT_ID_USER
-  ADD ATTEMPTS_ INTEGER;
\ No newline at end of file
+  ADD ATTEMPTS_ INTEGER;
+
+-- hash partitioned job acquisition
+
+ALTER TABLE ACT_RU_JOB
+  ADD PARTITION_ INTEGER;
+
+create index ACT_IDX_JOB_PARTITION ON ACT_RU_JOB(PARTITION_);
+
+-- metric rollups
+
+create table ACT_RU_METER_ROLLUP (
+  ID_ NVARCHAR2(64) not null,
+  NAME_ NVARCHAR2(64) not null,
+  REPORTER_ NVARCHAR2(255),
+  PERIOD_ INTEGER not null,
+  MILLISECONDS_ NUMBER(19,0) not null,
+  VALUE_ NUMBER(19,0),
+  primary key (ID_)
+);
+
+CREATE INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP(PERIOD_, MILLISECONDS_);
\ No newline at end of file
@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest;
+
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksStreamDto;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Streams the external tasks locked for a worker as server-sent events
+ * instead of answering a single fetch and lock request.
+ */
+public interface ExternalTaskStreamRestService {
+
+  String PATH = "/external-task/stream";
+
+  String MEDIA_TYPE_EVENT_STREAM = "text/event-stream";
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MEDIA_TYPE_EVENT_STREAM)
+  StreamingOutput subscribe(FetchExternalTasksStreamDto dto);
+
+}
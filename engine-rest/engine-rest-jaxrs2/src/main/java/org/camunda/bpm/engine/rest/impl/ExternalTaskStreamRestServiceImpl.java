@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.camunda.bpm.engine.rest.ExternalTaskStreamRestService;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksStreamDto;
+import org.camunda.bpm.engine.rest.exception.RestException;
+import org.camunda.bpm.engine.rest.spi.FetchAndLockHandler;
+import org.camunda.bpm.engine.rest.spi.FetchAndLockStreamHandler;
+
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+
+public class ExternalTaskStreamRestServiceImpl extends AbstractRestProcessEngineAware implements ExternalTaskStreamRestService {
+
+  public ExternalTaskStreamRestServiceImpl(String processEngine, ObjectMapper objectMapper) {
+    super(processEngine, objectMapper);
+  }
+
+  @Override
+  public StreamingOutput subscribe(FetchExternalTasksStreamDto dto) {
+    FetchAndLockHandler fetchAndLockHandler = FetchAndLockContextListener.getFetchAndLockHandler();
+    if (!(fetchAndLockHandler instanceof FetchAndLockStreamHandler)) {
+      throw new RestException(Status.NOT_IMPLEMENTED,
+        "The " + FetchAndLockHandler.class.getSimpleName() + " does not support streaming external tasks");
+    }
+
+    return ((FetchAndLockStreamHandler) fetchAndLockHandler).addSubscription(dto, getObjectMapper(), getProcessEngine());
+  }
+
+}
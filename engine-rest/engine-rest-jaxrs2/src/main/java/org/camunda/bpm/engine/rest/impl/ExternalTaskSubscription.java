@@ -0,0 +1,212 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.rest.dto.ExceptionDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Stream of the external tasks locked for a subscribed worker. The tasks are delivered by the
+ * {@link FetchAndLockHandlerImpl} and written as server-sent events by the request thread:
+ * one <code>task</code> event per locked external task and a final <code>error</code> event
+ * if fetching fails.</p>
+ *
+ * <p>The credit limits the number of external tasks locked by the worker at the same time. Since
+ * completing or unlocking a task does not pass the subscription, the handler counts the tasks
+ * still locked by the worker once the credit is used up.</p>
+ *
+ * <p>Since the stream occupies a request thread until it ends, each subscription holds one of the
+ * stream slots of the handler and releases it when the stream ends.</p>
+ */
+public class ExternalTaskSubscription implements StreamingOutput {
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  /**
+   * Interval of the comments written while no tasks are available, which reveal closed connections.
+   */
+  protected static final long HEARTBEAT_INTERVAL = 15000;
+
+  protected static final Object END_OF_STREAM = new Object();
+
+  protected final int credit;
+  protected final ObjectMapper objectMapper;
+  protected final ExternalTaskService externalTaskService;
+  protected final Semaphore streamSlots;
+
+  protected final BlockingQueue<Object> events = new LinkedBlockingQueue<Object>();
+  protected boolean closed = false;
+
+  // accessed by the handler thread only
+  protected int lockedTasks = 0;
+  protected long nextFetchTime;
+
+  /**
+   * @param streamSlots the stream slots of the handler, one of which was acquired for this subscription
+   */
+  public ExternalTaskSubscription(int credit, ObjectMapper objectMapper, ExternalTaskService externalTaskService, Semaphore streamSlots) {
+    this.credit = credit;
+    this.objectMapper = objectMapper;
+    this.externalTaskService = externalTaskService;
+    this.streamSlots = streamSlots;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    Writer writer = new OutputStreamWriter(output, CHARSET);
+    // commit the response headers
+    writer.flush();
+
+    try {
+      Object event = events.poll(HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+
+      while (event != END_OF_STREAM) {
+        if (event == null) {
+          writer.write(":\n\n");
+        }
+        else if (event instanceof LockedExternalTaskDto) {
+          writeEvent(writer, "task", event);
+        }
+        else {
+          writeEvent(writer, "error", ExceptionDto.fromException((Exception) event));
+          break;
+        }
+        writer.flush();
+
+        event = events.poll(HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+      }
+
+      writer.flush();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      close();
+      streamSlots.release();
+      unlockUndeliveredTasks();
+    }
+  }
+
+  protected void writeEvent(Writer writer, String eventName, Object data) throws IOException {
+    writer.write("event: ");
+    writer.write(eventName);
+    writer.write("\ndata: ");
+    writer.write(objectMapper.writeValueAsString(data));
+    writer.write("\n\n");
+  }
+
+  /**
+   * @return false if the subscription is closed and the tasks were not delivered
+   */
+  public synchronized boolean deliver(List<LockedExternalTaskDto> tasks) {
+    if (closed) {
+      return false;
+    }
+
+    events.addAll(tasks);
+    lockedTasks += tasks.size();
+    return true;
+  }
+
+  /**
+   * Writes the exception as last event of the stream.
+   */
+  public synchronized void fail(Exception exception) {
+    if (!closed) {
+      events.add(exception);
+      closed = true;
+    }
+  }
+
+  public synchronized void close() {
+    if (!closed) {
+      events.add(END_OF_STREAM);
+      closed = true;
+    }
+  }
+
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Unlocks the tasks which were delivered but could not be written since the stream was
+   * closed. Tasks which cannot be unlocked are released when their lock expires.
+   */
+  protected void unlockUndeliveredTasks() {
+    List<Object> undeliveredEvents = new ArrayList<Object>();
+    events.drainTo(undeliveredEvents);
+
+    List<LockedExternalTaskDto> undeliveredTasks = new ArrayList<LockedExternalTaskDto>();
+    for (Object event : undeliveredEvents) {
+      if (event instanceof LockedExternalTaskDto) {
+        undeliveredTasks.add((LockedExternalTaskDto) event);
+      }
+    }
+    unlock(undeliveredTasks);
+  }
+
+  public void unlock(Collection<LockedExternalTaskDto> tasks) {
+    for (LockedExternalTaskDto task : tasks) {
+      try {
+        externalTaskService.unlock(task.getId());
+      }
+      catch (ProcessEngineException e) {
+        // the lock expires eventually
+      }
+    }
+  }
+
+  public int getCredit() {
+    return credit;
+  }
+
+  public int getLockedTasks() {
+    return lockedTasks;
+  }
+
+  public void setLockedTasks(int lockedTasks) {
+    this.lockedTasks = lockedTasks;
+  }
+
+  public int getAvailableCredit() {
+    return Math.max(0, credit - lockedTasks);
+  }
+
+  public long getNextFetchTime() {
+    return nextFetchTime;
+  }
+
+  public void setNextFetchTime(long nextFetchTime) {
+    this.nextFetchTime = nextFetchTime;
+  }
+
+}
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.rest.impl;
 import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.spi.FetchAndLockHandler;
 
+import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 import javax.ws.rs.core.Response;
@@ -32,6 +33,7 @@ public class FetchAndLockContextListener implements ServletContextListener {
   public void contextInitialized(ServletContextEvent sce) {
     if (fetchAndLockHandler == null) {
       fetchAndLockHandler = lookupFetchAndLockHandler();
+      configureFetchAndLockHandler(sce.getServletContext());
       fetchAndLockHandler.start();
     }
   }
@@ -45,6 +47,19 @@ public class FetchAndLockContextListener implements ServletContextListener {
     return fetchAndLockHandler;
   }
 
+  protected void configureFetchAndLockHandler(ServletContext servletContext) {
+    String queueCapacity = servletContext.getInitParameter(FetchAndLockHandlerImpl.QUEUE_CAPACITY_PARAM_NAME);
+    if (queueCapacity != null && fetchAndLockHandler instanceof FetchAndLockHandlerImpl) {
+      try {
+        ((FetchAndLockHandlerImpl) fetchAndLockHandler).setQueueCapacity(Integer.parseInt(queueCapacity.trim()));
+      }
+      catch (IllegalArgumentException e) {
+        throw new RestException(Response.Status.INTERNAL_SERVER_ERROR, e,
+          "Invalid value '" + queueCapacity + "' of " + FetchAndLockHandlerImpl.QUEUE_CAPACITY_PARAM_NAME + ", a positive integer is expected");
+      }
+    }
+  }
+
   protected FetchAndLockHandler lookupFetchAndLockHandler() {
     ServiceLoader<FetchAndLockHandler> serviceLoader = ServiceLoader.load(FetchAndLockHandler.class);
     Iterator<FetchAndLockHandler> iterator = serviceLoader.iterator();
@@ -12,45 +12,80 @@
  */
 package org.camunda.bpm.engine.rest.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.IdentityService;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.FetchExternalTasksCmd;
+import org.camunda.bpm.engine.impl.cmd.FetchExternalTasksForWorkersCmd;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderImpl;
 import org.camunda.bpm.engine.impl.identity.Authentication;
 import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskCreatedListener;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto.FetchExternalTaskTopicDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksStreamDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.spi.FetchAndLockHandler;
+import org.camunda.bpm.engine.rest.spi.FetchAndLockStreamHandler;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
 
 /**
  * @author Tassilo Weidner
  */
-public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, ExternalTaskCreatedListener {
+public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, FetchAndLockStreamHandler, ExternalTaskCreatedListener {
 
   protected static final long MAX_BACK_OFF_TIME = Long.MAX_VALUE;
   protected static final long MAX_TIMEOUT = 1800000; // 30 minutes
 
-  protected BlockingQueue<FetchAndLockRequest> queue = new ArrayBlockingQueue<FetchAndLockRequest>(200);
+  // subscriptions which used up their credit wait for the worker to complete tasks
+  protected static final long SUBSCRIPTION_CREDIT_CHECK_INTERVAL = 1000;
+  // external tasks whose lock expired or which are retried do not notify the handler
+  protected static final long SUBSCRIPTION_FETCH_INTERVAL = 10000;
+  // each subscription occupies a request thread while its stream is open
+  protected static final int MAX_SUBSCRIPTIONS = 100;
+
+  /**
+   * The servlet context parameter which sets the number of fetch and lock requests that
+   * can wait to be picked up by the handler thread, further requests are answered with
+   * "too many requests".
+   */
+  public static final String QUEUE_CAPACITY_PARAM_NAME = "org.camunda.bpm.engine.rest.fetchAndLock.queueCapacity";
+  public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+  protected BlockingQueue<FetchAndLockRequest> queue = new ArrayBlockingQueue<FetchAndLockRequest>(DEFAULT_QUEUE_CAPACITY);
   protected List<FetchAndLockRequest> pendingRequests = new ArrayList<FetchAndLockRequest>();
+  protected Map<String, List<FetchAndLockRequest>> pendingRequestsByTopic = new HashMap<String, List<FetchAndLockRequest>>();
   protected Set<ProcessEngine> processEngines = new HashSet<ProcessEngine>();
+  protected Semaphore subscriptionSlots = new Semaphore(MAX_SUBSCRIPTIONS);
 
   protected final Object MONITOR = new Object();
   protected Thread handlerThread = new Thread(this, this.getClass().getSimpleName());
 
+  // topics of the external tasks created since the last acquisition, guarded by MONITOR
+  protected Set<String> createdTopics = new HashSet<String>();
+
   protected boolean isWaiting = false;
   protected boolean isRunning = false;
 
@@ -63,45 +98,229 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
     rejectPendingRequests();
   }
 
+  /**
+   * Serves the new pending requests, the pending requests waiting for a topic for which
+   * external tasks were created and the pending requests which timed out. The external
+   * tasks are fetched with a single selection for all requests which can share it.
+   * Subscriptions stay pending until their stream is closed.
+   */
   protected void acquire() {
-    queue.drainTo(pendingRequests);
+    List<FetchAndLockRequest> newRequests = new ArrayList<FetchAndLockRequest>();
+    queue.drainTo(newRequests);
+    for (FetchAndLockRequest newRequest : newRequests) {
+      addToPendingRequests(newRequest);
+    }
+    removeClosedSubscriptions();
+
+    // new requests may have missed external tasks created before they were queued
+    Set<FetchAndLockRequest> affectedRequests = Collections.newSetFromMap(new IdentityHashMap<FetchAndLockRequest, Boolean>());
+    affectedRequests.addAll(newRequests);
+    for (String topicName : takeCreatedTopics()) {
+      List<FetchAndLockRequest> waitingRequests = pendingRequestsByTopic.get(topicName);
+      if (waitingRequests != null) {
+        affectedRequests.addAll(waitingRequests);
+      }
+    }
 
-    long backoffTime = MAX_BACK_OFF_TIME;     //timestamp
+    long currentTime = ClockUtil.getCurrentTime().getTime();
 
-    Iterator<FetchAndLockRequest> iterator = pendingRequests.iterator();
-    while (iterator.hasNext()) {
+    // the requests are served in the order of their arrival
+    List<FetchAndLockRequest> requestsToServe = new ArrayList<FetchAndLockRequest>();
+    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+      if (affectedRequests.contains(pendingRequest) || pendingRequest.getTimeoutTimestamp() <= currentTime) {
+        if (pendingRequest.getSubscription() == null || prepareSubscriptionFetch(pendingRequest, currentTime)) {
+          requestsToServe.add(pendingRequest);
+        }
+      }
+    }
 
-      FetchAndLockRequest pendingRequest = iterator.next();
+    Map<FetchAndLockRequest, FetchAndLockResult> results = tryFetchAndLock(requestsToServe);
 
-      long currentTime = ClockUtil.getCurrentTime().getTime();
-      FetchAndLockResult result = tryFetchAndLock(pendingRequest);
+    for (FetchAndLockRequest pendingRequest : requestsToServe) {
+      FetchAndLockResult result = results.get(pendingRequest);
 
-      if (result.wasSuccessful()) {
+      if (pendingRequest.getSubscription() != null) {
+        serveSubscription(pendingRequest, result, currentTime);
+      }
+      else if (result.wasSuccessful()) {
 
         List<LockedExternalTaskDto> lockedTasks = result.getTasks();
 
-        long timeout = pendingRequest.getTimeoutTimestamp();
-
-        if (!lockedTasks.isEmpty() || timeout <= currentTime) {
+        if (!lockedTasks.isEmpty() || pendingRequest.getTimeoutTimestamp() <= currentTime) {
           AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
-          iterator.remove();
+          removeFromPendingRequests(pendingRequest);
           asyncResponse.resume(lockedTasks);
-        } else {
-          if (timeout < backoffTime) {
-            backoffTime = timeout;
-          }
         }
       } else {
         AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
-        iterator.remove();
+        removeFromPendingRequests(pendingRequest);
         ProcessEngineException processEngineException = result.getProcessEngineException();
         asyncResponse.resume(processEngineException);
       }
     }
 
+    long backoffTime = MAX_BACK_OFF_TIME;     //timestamp
+    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+      backoffTime = Math.min(backoffTime, pendingRequest.getTimeoutTimestamp());
+    }
+
     suspend(Math.max(0, backoffTime - ClockUtil.getCurrentTime().getTime()));
   }
 
+  /**
+   * Limits the next fetch of the subscription to its available credit.
+   *
+   * @return false if the subscription has no credit left or failed
+   */
+  protected boolean prepareSubscriptionFetch(FetchAndLockRequest request, long currentTime) {
+    ExternalTaskSubscription subscription = request.getSubscription();
+
+    int availableCredit;
+    try {
+      availableCredit = determineAvailableCredit(request);
+    }
+    catch (ProcessEngineException e) {
+      subscription.fail(e);
+      return false;
+    }
+
+    if (availableCredit > 0) {
+      request.getDto().setMaxTasks(availableCredit);
+      return true;
+    }
+    else {
+      subscription.setNextFetchTime(currentTime + SUBSCRIPTION_CREDIT_CHECK_INTERVAL);
+      return false;
+    }
+  }
+
+  protected int determineAvailableCredit(FetchAndLockRequest request) {
+    ExternalTaskSubscription subscription = request.getSubscription();
+
+    if (subscription.getAvailableCredit() == 0) {
+      // the worker may have completed or unlocked tasks in the meantime
+      ProcessEngine processEngine = request.getProcessEngine();
+      IdentityService identityService = processEngine.getIdentityService();
+
+      try {
+        identityService.setAuthentication(request.getAuthentication());
+        long lockedTasks = processEngine.getExternalTaskService()
+          .createExternalTaskQuery()
+          .workerId(request.getDto().getWorkerId())
+          .locked()
+          .count();
+        subscription.setLockedTasks((int) lockedTasks);
+      }
+      finally {
+        identityService.clearAuthentication();
+      }
+    }
+
+    return subscription.getAvailableCredit();
+  }
+
+  protected void serveSubscription(FetchAndLockRequest request, FetchAndLockResult result, long currentTime) {
+    ExternalTaskSubscription subscription = request.getSubscription();
+
+    if (result.wasSuccessful()) {
+      List<LockedExternalTaskDto> lockedTasks = result.getTasks();
+
+      if (subscription.deliver(lockedTasks)) {
+        long fetchInterval = subscription.getAvailableCredit() > 0 ? SUBSCRIPTION_FETCH_INTERVAL : SUBSCRIPTION_CREDIT_CHECK_INTERVAL;
+        subscription.setNextFetchTime(currentTime + fetchInterval);
+      }
+      else {
+        // the worker closed the stream in the meantime
+        removeFromPendingRequests(request);
+        unlock(request, lockedTasks);
+      }
+    }
+    else {
+      removeFromPendingRequests(request);
+      subscription.fail(result.getProcessEngineException());
+    }
+  }
+
+  protected void unlock(FetchAndLockRequest request, List<LockedExternalTaskDto> lockedTasks) {
+    IdentityService identityService = request.getProcessEngine().getIdentityService();
+    try {
+      identityService.setAuthentication(request.getAuthentication());
+      request.getSubscription().unlock(lockedTasks);
+    }
+    finally {
+      identityService.clearAuthentication();
+    }
+  }
+
+  protected void removeClosedSubscriptions() {
+    for (FetchAndLockRequest pendingRequest : new ArrayList<FetchAndLockRequest>(pendingRequests)) {
+      ExternalTaskSubscription subscription = pendingRequest.getSubscription();
+      if (subscription != null && subscription.isClosed()) {
+        removeFromPendingRequests(pendingRequest);
+      }
+    }
+  }
+
+  protected void addToPendingRequests(FetchAndLockRequest request) {
+    pendingRequests.add(request);
+
+    for (String topicName : getTopicNames(request)) {
+      List<FetchAndLockRequest> waitingRequests = pendingRequestsByTopic.get(topicName);
+      if (waitingRequests == null) {
+        waitingRequests = new ArrayList<FetchAndLockRequest>();
+        pendingRequestsByTopic.put(topicName, waitingRequests);
+      }
+      waitingRequests.add(request);
+    }
+  }
+
+  protected void removeFromPendingRequests(FetchAndLockRequest request) {
+    pendingRequests.remove(request);
+
+    for (String topicName : getTopicNames(request)) {
+      List<FetchAndLockRequest> waitingRequests = pendingRequestsByTopic.get(topicName);
+      if (waitingRequests != null) {
+        waitingRequests.remove(request);
+        if (waitingRequests.isEmpty()) {
+          pendingRequestsByTopic.remove(topicName);
+        }
+      }
+    }
+  }
+
+  protected Set<String> getTopicNames(FetchAndLockRequest request) {
+    Set<String> topicNames = new HashSet<String>();
+    List<FetchExternalTaskTopicDto> topics = request.getDto().getTopics();
+    if (topics != null) {
+      for (FetchExternalTaskTopicDto topic : topics) {
+        topicNames.add(topic.getTopicName());
+      }
+    }
+    return topicNames;
+  }
+
+  protected Set<String> takeCreatedTopics() {
+    synchronized (MONITOR) {
+      Set<String> topicNames = createdTopics;
+      createdTopics = new HashSet<String>();
+      return topicNames;
+    }
+  }
+
+  /**
+   * Sets the number of requests which can be queued, must be called before the handler is started.
+   */
+  public void setQueueCapacity(int queueCapacity) {
+    if (isRunning) {
+      throw new IllegalStateException("The queue capacity cannot be changed while the handler is running");
+    }
+    queue = new ArrayBlockingQueue<FetchAndLockRequest>(queueCapacity);
+  }
+
+  public int getQueueCapacity() {
+    return queue.size() + queue.remainingCapacity();
+  }
+
   @Override
   public void start() {
     if (isRunning) {
@@ -138,7 +357,7 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
   protected void suspendAcquisition(long millis) {
     try {
       synchronized (MONITOR) {
-        if (queue.isEmpty()) {
+        if (queue.isEmpty() && createdTopics.isEmpty()) {
           isWaiting = true;
           MONITOR.wait(millis);
         }
@@ -155,8 +374,14 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
 
   protected void addRequest(FetchAndLockRequest request) {
     if (!queue.offer(request)) {
-      AsyncResponse asyncResponse = request.getAsyncResponse();
-      errorTooManyRequests(asyncResponse);
+      ExternalTaskSubscription subscription = request.getSubscription();
+      if (subscription != null) {
+        subscription.fail(tooManyRequests());
+      }
+      else {
+        errorTooManyRequests(request.getAsyncResponse());
+      }
+      return;
     }
 
     // Listen for new ExternalTasks from the process engines
@@ -166,8 +391,13 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
   }
 
   @Override
-  public void onExternalTaskCreated() {
-    notifyAcquisition();
+  public void onExternalTaskCreated(Set<String> topicNames) {
+    synchronized (MONITOR) {
+      createdTopics.addAll(topicNames);
+      if (isWaiting) {
+        MONITOR.notifyAll();
+      }
+    }
   }
 
   protected void notifyAcquisition() {
@@ -179,6 +409,13 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
   }
 
   protected FetchAndLockResult tryFetchAndLock(FetchAndLockRequest request) {
+    return tryFetchAndLock(request, null);
+  }
+
+  /**
+   * @param fetchBuilder the query of the request or null if it was not built yet
+   */
+  protected FetchAndLockResult tryFetchAndLock(FetchAndLockRequest request, ExternalTaskQueryBuilder fetchBuilder) {
     ProcessEngine processEngine = request.getProcessEngine();
     IdentityService identityService = processEngine.getIdentityService();
 
@@ -186,8 +423,14 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
 
     try {
       identityService.setAuthentication(request.getAuthentication());
-      FetchExternalTasksExtendedDto fetchingDto = request.getDto();
-      List<LockedExternalTaskDto> lockedTasks = executeFetchAndLock(fetchingDto, processEngine);
+      List<LockedExternalTaskDto> lockedTasks;
+      if (fetchBuilder == null) {
+        FetchExternalTasksExtendedDto fetchingDto = request.getDto();
+        lockedTasks = executeFetchAndLock(fetchingDto, processEngine);
+      }
+      else {
+        lockedTasks = LockedExternalTaskDto.fromLockedExternalTasks(fetchBuilder.execute());
+      }
       result = FetchAndLockResult.successful(lockedTasks);
     }
     catch (ProcessEngineException e) {
@@ -206,21 +449,140 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
     return LockedExternalTaskDto.fromLockedExternalTasks(externalTasks);
   }
 
+  /**
+   * Fetches the external tasks for the given requests. Requests of the same process engine and
+   * authentication which do not filter by business key or process variables share a single
+   * selection of external tasks; the other requests are executed one by one.
+   */
+  protected Map<FetchAndLockRequest, FetchAndLockResult> tryFetchAndLock(List<FetchAndLockRequest> requests) {
+    Map<FetchAndLockRequest, FetchAndLockResult> results = new IdentityHashMap<FetchAndLockRequest, FetchAndLockResult>();
+    Map<List<Object>, Map<FetchAndLockRequest, FetchExternalTasksCmd>> sharedFetches = new LinkedHashMap<List<Object>, Map<FetchAndLockRequest, FetchExternalTasksCmd>>();
+
+    for (FetchAndLockRequest request : requests) {
+      ExternalTaskQueryBuilder fetchBuilder;
+      FetchExternalTasksCmd fetch;
+      try {
+        fetchBuilder = request.getDto().buildQuery(request.getProcessEngine());
+        fetch = createSharedFetch(fetchBuilder);
+        if (fetch != null) {
+          // an invalid request must not fail the other requests sharing the selection
+          fetch.validateInput();
+        }
+      }
+      catch (ProcessEngineException e) {
+        results.put(request, FetchAndLockResult.failed(e));
+        continue;
+      }
+
+      if (fetch != null) {
+        List<Object> key = getSharedFetchKey(request);
+        Map<FetchAndLockRequest, FetchExternalTasksCmd> fetches = sharedFetches.get(key);
+        if (fetches == null) {
+          fetches = new LinkedHashMap<FetchAndLockRequest, FetchExternalTasksCmd>();
+          sharedFetches.put(key, fetches);
+        }
+        fetches.put(request, fetch);
+      }
+      else {
+        results.put(request, tryFetchAndLock(request, fetchBuilder));
+      }
+    }
+
+    for (Map<FetchAndLockRequest, FetchExternalTasksCmd> fetches : sharedFetches.values()) {
+      if (fetches.size() == 1) {
+        FetchAndLockRequest request = fetches.keySet().iterator().next();
+        results.put(request, tryFetchAndLock(request));
+      }
+      else {
+        results.putAll(tryFetchAndLock(fetches));
+      }
+    }
+
+    return results;
+  }
+
+  protected Map<FetchAndLockRequest, FetchAndLockResult> tryFetchAndLock(Map<FetchAndLockRequest, FetchExternalTasksCmd> fetches) {
+    FetchAndLockRequest firstRequest = fetches.keySet().iterator().next();
+    ProcessEngine processEngine = firstRequest.getProcessEngine();
+    IdentityService identityService = processEngine.getIdentityService();
+
+    Map<FetchAndLockRequest, FetchAndLockResult> results = new IdentityHashMap<FetchAndLockRequest, FetchAndLockResult>();
+
+    try {
+      identityService.setAuthentication(firstRequest.getAuthentication());
+
+      List<List<LockedExternalTask>> externalTasks = ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+        .getCommandExecutorTxRequired()
+        .execute(new FetchExternalTasksForWorkersCmd(new ArrayList<FetchExternalTasksCmd>(fetches.values())));
+
+      Iterator<List<LockedExternalTask>> it = externalTasks.iterator();
+      for (FetchAndLockRequest request : fetches.keySet()) {
+        List<LockedExternalTaskDto> lockedTasks = LockedExternalTaskDto.fromLockedExternalTasks(it.next());
+        results.put(request, FetchAndLockResult.successful(lockedTasks));
+      }
+    }
+    catch (ProcessEngineException e) {
+      for (FetchAndLockRequest request : fetches.keySet()) {
+        results.put(request, FetchAndLockResult.failed(e));
+      }
+    }
+    finally {
+      identityService.clearAuthentication();
+    }
+
+    return results;
+  }
+
+  /**
+   * @return the fetch of the query if it can share the selection of external tasks with
+   * other requests, null otherwise
+   */
+  protected FetchExternalTasksCmd createSharedFetch(ExternalTaskQueryBuilder fetchBuilder) {
+    if (fetchBuilder instanceof ExternalTaskQueryTopicBuilderImpl) {
+      FetchExternalTasksCmd fetch = ((ExternalTaskQueryTopicBuilderImpl) fetchBuilder).createFetchCommand();
+      if (FetchExternalTasksForWorkersCmd.isSelectionShareable(fetch)) {
+        return fetch;
+      }
+    }
+    return null;
+  }
+
+  protected List<Object> getSharedFetchKey(FetchAndLockRequest request) {
+    Authentication authentication = request.getAuthentication();
+    if (authentication == null) {
+      return Arrays.<Object>asList(request.getProcessEngine());
+    }
+    else {
+      return Arrays.<Object>asList(request.getProcessEngine(), authentication.getUserId(),
+        authentication.getGroupIds(), authentication.getTenantIds());
+    }
+  }
+
   protected void invalidRequest(AsyncResponse asyncResponse, String message) {
     InvalidRequestException invalidRequestException = new InvalidRequestException(Status.BAD_REQUEST, message);
     asyncResponse.resume(invalidRequestException);
   }
 
   protected void errorTooManyRequests(AsyncResponse asyncResponse) {
+    asyncResponse.resume(tooManyRequests());
+  }
+
+  protected InvalidRequestException tooManyRequests() {
     String errorMessage = "At the moment the server has to handle too many requests at the same time. Please try again later.";
-    InvalidRequestException invalidRequestException = new InvalidRequestException(Status.INTERNAL_SERVER_ERROR, errorMessage); // status code 429 would fit better
-    asyncResponse.resume(invalidRequestException);
+    return new InvalidRequestException(Status.INTERNAL_SERVER_ERROR, errorMessage); // status code 429 would fit better
   }
 
   protected void rejectPendingRequests() {
     for (FetchAndLockRequest pendingRequest : pendingRequests) {
-      AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
-      invalidRequest(asyncResponse, "Request rejected due to shutdown of application server.");
+      String message = "Request rejected due to shutdown of application server.";
+
+      ExternalTaskSubscription subscription = pendingRequest.getSubscription();
+      if (subscription != null) {
+        subscription.fail(new InvalidRequestException(Status.BAD_REQUEST, message));
+      }
+      else {
+        invalidRequest(pendingRequest.getAsyncResponse(), message);
+      }
     }
   }
 
@@ -258,6 +620,33 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler, E
     }
   }
 
+  @Override
+  public StreamingOutput addSubscription(FetchExternalTasksStreamDto dto, ObjectMapper objectMapper, ProcessEngine processEngine) {
+    Integer credit = dto.getCredit();
+    if (credit == null || credit <= 0) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "The credit of a subscription must be greater than 0");
+    }
+
+    IdentityService identityService = processEngine.getIdentityService();
+    Authentication authentication = identityService.getCurrentAuthentication();
+
+    if (!subscriptionSlots.tryAcquire()) {
+      throw tooManyRequests();
+    }
+
+    ExternalTaskSubscription subscription = new ExternalTaskSubscription(credit, objectMapper, processEngine.getExternalTaskService(), subscriptionSlots);
+
+    FetchAndLockRequest incomingRequest = new FetchAndLockRequest()
+      .setProcessEngine(processEngine)
+      .setSubscription(subscription)
+      .setAuthentication(authentication)
+      .setDto(dto);
+
+    addRequest(incomingRequest);
+
+    return subscription;
+  }
+
   public List<FetchAndLockRequest> getPendingRequests() {
     return pendingRequests;
   }
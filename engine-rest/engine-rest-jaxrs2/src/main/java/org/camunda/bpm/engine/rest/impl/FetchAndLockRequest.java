@@ -30,6 +30,7 @@ public class FetchAndLockRequest {
   protected AsyncResponse asyncResponse;
   protected ProcessEngine processEngine;
   protected Authentication authentication;
+  protected ExternalTaskSubscription subscription;
 
   public Date getRequestTime() {
     return requestTime;
@@ -76,7 +77,23 @@ public class FetchAndLockRequest {
     return this;
   }
 
+  /**
+   * @return the subscription if the request streams the external tasks, null if it waits for a single response
+   */
+  public ExternalTaskSubscription getSubscription() {
+    return subscription;
+  }
+
+  public FetchAndLockRequest setSubscription(ExternalTaskSubscription subscription) {
+    this.subscription = subscription;
+    return this;
+  }
+
   public long getTimeoutTimestamp() {
+    if (subscription != null) {
+      return subscription.getNextFetchTime();
+    }
+
     FetchExternalTasksExtendedDto dto = getDto();
     long requestTime = getRequestTime().getTime();
     long asyncResponseTimeout = dto.getAsyncResponseTimeout();
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.rest.impl;
 
+import org.camunda.bpm.engine.rest.ExternalTaskStreamRestService;
 import org.camunda.bpm.engine.rest.FetchAndLockRestService;
 
 import javax.ws.rs.Path;
@@ -30,4 +31,12 @@ public class JaxRsTwoDefaultProcessEngineRestServiceImpl extends DefaultProcessE
     return subResource;
   }
 
+  @Path(ExternalTaskStreamRestService.PATH)
+  public ExternalTaskStreamRestService streamExternalTasks() {
+    String rootResourcePath = getRelativeEngineUri(null).toASCIIString();
+    ExternalTaskStreamRestServiceImpl subResource = new ExternalTaskStreamRestServiceImpl(null, getObjectMapper());
+    subResource.setRelativeRootResourceUri(rootResourcePath);
+    return subResource;
+  }
+
 }
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.rest.impl;
 
+import org.camunda.bpm.engine.rest.ExternalTaskStreamRestService;
 import org.camunda.bpm.engine.rest.FetchAndLockRestService;
 
 import javax.ws.rs.Path;
@@ -31,4 +32,12 @@ public class JaxRsTwoNamedProcessEngineRestServiceImpl extends NamedProcessEngin
     return subResource;
   }
 
+  @Path("/{name}" + ExternalTaskStreamRestService.PATH)
+  public ExternalTaskStreamRestService streamExternalTasks(@PathParam("name") String engineName) {
+    String rootResourcePath = getRelativeEngineUri(engineName).toASCIIString();
+    ExternalTaskStreamRestServiceImpl subResource = new ExternalTaskStreamRestServiceImpl(engineName, getObjectMapper());
+    subResource.setRelativeRootResourceUri(rootResourcePath);
+    return subResource;
+  }
+
 }
@@ -0,0 +1,37 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.spi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksStreamDto;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Optional extension of the {@link FetchAndLockHandler} SPI which pushes the external
+ * tasks to subscribed workers as they become available
+ */
+public interface FetchAndLockStreamHandler {
+
+  /**
+   * Invoked if a worker subscribes to the stream of external tasks
+   *
+   * @param dto which is supposed to hold the payload
+   * @param objectMapper to serialize the streamed external tasks
+   * @param processEngine provides the process engine context of the respective request
+   * @return the stream of locked external tasks which is written to the response
+   */
+  StreamingOutput addSubscription(FetchExternalTasksStreamDto dto, ObjectMapper objectMapper, ProcessEngine processEngine);
+
+}
@@ -12,15 +12,18 @@
  */
 package org.camunda.bpm.engine.rest.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.ExternalTaskService;
 import org.camunda.bpm.engine.IdentityService;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksStreamDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.hamcrest.collection.IsCollectionWithSize;
@@ -34,13 +37,20 @@ import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import javax.ws.rs.container.AsyncResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.hamcrest.core.StringEndsWith.endsWith;
+import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyListOf;
@@ -269,6 +279,7 @@ public class FetchAndLockHandlerTest {
 
     // when
     doThrow(new ProcessEngineException()).when(fetchTopicBuilder).execute();
+    handler.onExternalTaskCreated(Collections.singleton("aTopicName"));
     handler.acquire();
 
     // then
@@ -277,6 +288,52 @@ public class FetchAndLockHandlerTest {
     verify(asyncResponse).resume(any(ProcessEngineException.class));
   }
 
+  @Test
+  public void shouldResumeOnlyAsyncResponsesWaitingForCreatedTopic() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    AsyncResponse anotherAsyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L), asyncResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherTopicName"), anotherAsyncResponse, processEngine);
+    handler.acquire();
+
+    // assume
+    assertThat(handler.getPendingRequests().size(), is(2));
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).when(fetchTopicBuilder).execute();
+
+    // when
+    handler.onExternalTaskCreated(Collections.singleton("aTopicName"));
+    handler.acquire();
+
+    // then
+    verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    verify(anotherAsyncResponse, never()).resume(any());
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
+  @Test
+  public void shouldNotFetchWithoutCreatedTopicOrTimeout() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L), asyncResponse, processEngine);
+    handler.acquire();
+
+    // when
+    handler.onExternalTaskCreated(Collections.singleton("anotherTopicName"));
+    handler.acquire();
+
+    // then the request was only fetched when it was added and when it became pending
+    verify(fetchTopicBuilder, times(2)).execute();
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
   @Test
   public void shouldResumeAsyncResponseDueToTimeoutExceeded() {
     // given - no pending requests
@@ -313,6 +370,28 @@ public class FetchAndLockHandlerTest {
       "many requests at the same time. Please try again later."));
   }
 
+  @Test
+  public void shouldRejectRequestsBeyondQueueCapacity() {
+    // given
+    handler.setQueueCapacity(1);
+
+    AsyncResponse queuedResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L), queuedResponse, processEngine);
+
+    // when
+    AsyncResponse rejectedResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L), rejectedResponse, processEngine);
+
+    // then
+    verify(queuedResponse, never()).resume(any());
+    verify(handler).errorTooManyRequests(rejectedResponse);
+  }
+
+  @Test
+  public void shouldQueueRequestsUpToDefaultCapacity() {
+    assertThat(handler.getQueueCapacity(), is(FetchAndLockHandlerImpl.DEFAULT_QUEUE_CAPACITY));
+  }
+
   @Test
   public void shouldSuspendForeverDueToNoPendingRequests() {
     // given - no pending requests
@@ -363,11 +442,159 @@ public class FetchAndLockHandlerTest {
     verify(handler).unregisterExternalTaskListeners();
   }
 
+  @Test
+  public void shouldDeliverTasksToSubscriptionAndKeepItPending() {
+    // given
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).when(fetchTopicBuilder).execute();
+
+    ExternalTaskSubscription subscription = (ExternalTaskSubscription) handler.addSubscription(createStreamDto(5), new ObjectMapper(), processEngine);
+
+    // when
+    handler.acquire();
+
+    // then
+    assertThat(subscription.events.size(), is(1));
+    assertThat(subscription.getAvailableCredit(), is(4));
+    assertThat(handler.getPendingRequests().size(), is(1));
+    verify(externalTaskService).fetchAndLock(5, "aWorkerId", false);
+    verify(handler).suspend(FetchAndLockHandlerImpl.SUBSCRIPTION_FETCH_INTERVAL);
+  }
+
+  @Test
+  public void shouldNotFetchForSubscriptionWithoutCredit() {
+    // given
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).when(fetchTopicBuilder).execute();
+
+    ExternalTaskQuery lockedTasksQuery = mock(ExternalTaskQuery.class);
+    when(externalTaskService.createExternalTaskQuery()).thenReturn(lockedTasksQuery);
+    when(lockedTasksQuery.workerId("aWorkerId")).thenReturn(lockedTasksQuery);
+    when(lockedTasksQuery.locked()).thenReturn(lockedTasksQuery);
+    when(lockedTasksQuery.count()).thenReturn(1L);
+
+    ExternalTaskSubscription subscription = (ExternalTaskSubscription) handler.addSubscription(createStreamDto(1), new ObjectMapper(), processEngine);
+    handler.acquire();
+
+    // when the worker did not complete the delivered task
+    handler.onExternalTaskCreated(Collections.singleton("aTopicName"));
+    handler.acquire();
+
+    // then
+    verify(externalTaskService, times(1)).fetchAndLock(anyInt(), any(String.class), any(Boolean.class));
+    assertThat(subscription.events.size(), is(1));
+
+    // when the worker completed the delivered task
+    when(lockedTasksQuery.count()).thenReturn(0L);
+    addSecondsToClock(1);
+    handler.acquire();
+
+    // then
+    verify(externalTaskService, times(2)).fetchAndLock(1, "aWorkerId", false);
+    assertThat(subscription.events.size(), is(2));
+  }
+
+  @Test
+  public void shouldRemoveClosedSubscription() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    ExternalTaskSubscription subscription = (ExternalTaskSubscription) handler.addSubscription(createStreamDto(5), new ObjectMapper(), processEngine);
+    handler.acquire();
+
+    // assume
+    assertThat(handler.getPendingRequests().size(), is(1));
+
+    // when
+    subscription.close();
+    handler.acquire();
+
+    // then
+    assertThat(handler.getPendingRequests().size(), is(0));
+  }
+
+  @Test
+  public void shouldEndStreamDueToProcessEngineException() throws IOException {
+    // given
+    doThrow(new ProcessEngineException("aMessage")).when(fetchTopicBuilder).execute();
+
+    ExternalTaskSubscription subscription = (ExternalTaskSubscription) handler.addSubscription(createStreamDto(5), new ObjectMapper(), processEngine);
+
+    // when
+    handler.acquire();
+
+    // then
+    assertThat(handler.getPendingRequests().size(), is(0));
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    subscription.write(output);
+    String stream = output.toString("UTF-8");
+    assertThat(stream, startsWith("event: error\ndata: {"));
+    assertThat(stream, containsString("\"message\":\"aMessage\""));
+    assertThat(stream, endsWith("}\n\n"));
+  }
+
+  @Test
+  public void shouldRejectSubscriptionWithoutCredit() {
+    try {
+      handler.addSubscription(createStreamDto(0), new ObjectMapper(), processEngine);
+      fail("exception expected");
+    }
+    catch (InvalidRequestException e) {
+      assertThat(e.getMessage(), is("The credit of a subscription must be greater than 0"));
+    }
+  }
+
+  @Test
+  public void shouldRejectSubscriptionIfAllStreamSlotsAreTaken() throws IOException {
+    // given
+    handler.subscriptionSlots = new Semaphore(1);
+    ExternalTaskSubscription subscription = (ExternalTaskSubscription) handler.addSubscription(createStreamDto(5), new ObjectMapper(), processEngine);
+
+    // when
+    try {
+      handler.addSubscription(createStreamDto(5), new ObjectMapper(), processEngine);
+      fail("exception expected");
+    }
+    catch (InvalidRequestException e) {
+      // then
+      assertThat(e.getMessage(), containsString("too many requests"));
+    }
+
+    // when the stream of the first subscription ends
+    subscription.close();
+    subscription.write(new ByteArrayOutputStream());
+
+    // then the slot is released
+    handler.addSubscription(createStreamDto(5), new ObjectMapper(), processEngine);
+    assertThat(handler.subscriptionSlots.availablePermits(), is(0));
+  }
+
+  protected FetchExternalTasksStreamDto createStreamDto(int credit) {
+    FetchExternalTasksStreamDto dto = new FetchExternalTasksStreamDto();
+
+    FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto topic = new FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto();
+    topic.setTopicName("aTopicName");
+    topic.setLockDuration(12354L);
+
+    dto.setWorkerId("aWorkerId");
+    dto.setTopics(Collections.singletonList(topic));
+    dto.setCredit(credit);
+
+    return dto;
+  }
+
   protected FetchExternalTasksExtendedDto createDto(Long responseTimeout) {
+    return createDto(responseTimeout, "aTopicName");
+  }
+
+  protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, String topicName) {
     FetchExternalTasksExtendedDto externalTask = new FetchExternalTasksExtendedDto();
 
     FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto topic = new FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto();
-    topic.setTopicName("aTopicName");
+    topic.setTopicName(topicName);
     topic.setLockDuration(12354L);
 
     externalTask.setMaxTasks(5);
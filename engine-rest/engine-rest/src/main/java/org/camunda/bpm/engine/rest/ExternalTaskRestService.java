@@ -28,6 +28,8 @@ import javax.ws.rs.core.UriInfo;
 
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.CompleteExternalTasksDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskCompletionFailureDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto;
@@ -73,6 +75,12 @@ public interface ExternalTaskRestService {
   @Produces(MediaType.APPLICATION_JSON)
   List<LockedExternalTaskDto> fetchAndLock(FetchExternalTasksDto fetchingDto);
 
+  @POST
+  @Path("/complete")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  List<ExternalTaskCompletionFailureDto> completeAll(CompleteExternalTasksDto completionDto);
+
   @Path("/{id}")
   ExternalTaskResource getExternalTask(@PathParam("id") String externalTaskId);
 
@@ -20,6 +20,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
+import org.camunda.bpm.engine.impl.metrics.export.PrometheusTextFormat;
 import org.camunda.bpm.engine.rest.dto.metrics.MetricsIntervalResultDto;
 
 import org.camunda.bpm.engine.rest.sub.metrics.MetricsResource;
@@ -40,4 +41,13 @@ public interface MetricsRestService {
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   List<MetricsIntervalResultDto> interval(@Context UriInfo uriInfo);
+
+  /**
+   * Exposes the current values of the meters and timers of the process engine
+   * in the Prometheus text exposition format.
+   */
+  @GET
+  @Path("/prometheus")
+  @Produces(PrometheusTextFormat.CONTENT_TYPE)
+  String prometheus();
 }
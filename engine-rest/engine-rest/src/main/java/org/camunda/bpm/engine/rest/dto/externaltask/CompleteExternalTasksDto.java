@@ -0,0 +1,92 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.externaltask;
+
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.externaltask.CompleteExternalTasksBuilder;
+import org.camunda.bpm.engine.rest.dto.VariableValueDto;
+import org.camunda.bpm.engine.variable.VariableMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CompleteExternalTasksDto {
+
+  protected String workerId;
+  protected List<ExternalTaskCompletionDto> tasks;
+
+  public String getWorkerId() {
+    return workerId;
+  }
+
+  public void setWorkerId(String workerId) {
+    this.workerId = workerId;
+  }
+
+  public List<ExternalTaskCompletionDto> getTasks() {
+    return tasks;
+  }
+
+  public void setTasks(List<ExternalTaskCompletionDto> tasks) {
+    this.tasks = tasks;
+  }
+
+  public CompleteExternalTasksBuilder buildCompletion(ProcessEngine processEngine, ObjectMapper objectMapper) {
+    CompleteExternalTasksBuilder builder = processEngine.getExternalTaskService().completeAll(workerId);
+
+    if (tasks != null) {
+      for (ExternalTaskCompletionDto task : tasks) {
+        VariableMap variables = VariableValueDto.toMap(task.getVariables(), processEngine, objectMapper);
+        VariableMap localVariables = VariableValueDto.toMap(task.getLocalVariables(), processEngine, objectMapper);
+
+        builder.task(task.getExternalTaskId(), variables, localVariables);
+      }
+    }
+
+    return builder;
+  }
+
+  public static class ExternalTaskCompletionDto {
+
+    protected String externalTaskId;
+    protected Map<String, VariableValueDto> variables;
+    protected Map<String, VariableValueDto> localVariables;
+
+    public String getExternalTaskId() {
+      return externalTaskId;
+    }
+
+    public void setExternalTaskId(String externalTaskId) {
+      this.externalTaskId = externalTaskId;
+    }
+
+    public Map<String, VariableValueDto> getVariables() {
+      return variables;
+    }
+
+    public void setVariables(Map<String, VariableValueDto> variables) {
+      this.variables = variables;
+    }
+
+    public Map<String, VariableValueDto> getLocalVariables() {
+      return localVariables;
+    }
+
+    public void setLocalVariables(Map<String, VariableValueDto> localVariables) {
+      this.localVariables = localVariables;
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.externaltask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.rest.dto.ExceptionDto;
+
+/**
+ * An external task which was skipped by a batch completion, with the reason.
+ */
+public class ExternalTaskCompletionFailureDto extends ExceptionDto {
+
+  protected String externalTaskId;
+
+  public String getExternalTaskId() {
+    return externalTaskId;
+  }
+
+  public void setExternalTaskId(String externalTaskId) {
+    this.externalTaskId = externalTaskId;
+  }
+
+  public static List<ExternalTaskCompletionFailureDto> fromFailures(Map<String, ProcessEngineException> failures) {
+    List<ExternalTaskCompletionFailureDto> dtos = new ArrayList<ExternalTaskCompletionFailureDto>();
+    for (Entry<String, ProcessEngineException> failure : failures.entrySet()) {
+      ExternalTaskCompletionFailureDto dto = new ExternalTaskCompletionFailureDto();
+      dto.externalTaskId = failure.getKey();
+      dto.type = failure.getValue().getClass().getSimpleName();
+      dto.message = failure.getValue().getMessage();
+      dtos.add(dto);
+    }
+    return dtos;
+  }
+
+}
@@ -14,6 +14,7 @@ package org.camunda.bpm.engine.rest.impl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.core.Response.Status;
@@ -21,8 +22,11 @@ import javax.ws.rs.core.Response.Status;
 import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.ExternalTaskService;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.exception.NullValueException;
+import org.camunda.bpm.engine.externaltask.CompleteExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
@@ -33,6 +37,8 @@ import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.rest.ExternalTaskRestService;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.CompleteExternalTasksDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskCompletionFailureDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto;
@@ -121,6 +127,18 @@ public class ExternalTaskRestServiceImpl extends AbstractRestProcessEngineAware
     return LockedExternalTaskDto.fromLockedExternalTasks(externalTasks);
   }
 
+  @Override
+  public List<ExternalTaskCompletionFailureDto> completeAll(CompleteExternalTasksDto completionDto) {
+    try {
+      CompleteExternalTasksBuilder builder = completionDto.buildCompletion(getProcessEngine(), getObjectMapper());
+      Map<String, ProcessEngineException> failures = builder.execute();
+      return ExternalTaskCompletionFailureDto.fromFailures(failures);
+    }
+    catch (NullValueException e) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, e.getMessage());
+    }
+  }
+
   @Override
   public ExternalTaskResource getExternalTask(String externalTaskId) {
     return new ExternalTaskResourceImpl(getProcessEngine(), externalTaskId, getObjectMapper());
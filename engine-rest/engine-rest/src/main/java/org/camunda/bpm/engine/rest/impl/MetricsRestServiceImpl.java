@@ -17,17 +17,24 @@ import org.camunda.bpm.engine.rest.sub.metrics.MetricsResource;
 import org.camunda.bpm.engine.rest.sub.metrics.MetricsResourceImpl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.export.PrometheusTextFormat;
 import org.camunda.bpm.engine.management.MetricsQuery;
 import org.camunda.bpm.engine.rest.dto.metrics.MetricsIntervalResultDto;
 import org.camunda.bpm.engine.management.MetricIntervalValue;
 import org.camunda.bpm.engine.rest.dto.converter.DateConverter;
 import org.camunda.bpm.engine.rest.dto.converter.IntegerConverter;
 import org.camunda.bpm.engine.rest.dto.converter.LongConverter;
+import org.camunda.bpm.engine.rest.exception.RestException;
 
 /**
  * @author Daniel Meyer
@@ -75,6 +82,22 @@ public class MetricsRestServiceImpl extends AbstractRestProcessEngineAware imple
     return convertToDtos(metrics);
   }
 
+  @Override
+  public String prometheus() {
+    MetricsRegistry metricsRegistry = ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+      .getMetricsRegistry();
+
+    StringWriter writer = new StringWriter();
+    if (metricsRegistry != null) {
+      try {
+        new PrometheusTextFormat().write(writer, processEngine.getName(), metricsRegistry);
+      } catch (IOException e) {
+        throw new RestException(Status.INTERNAL_SERVER_ERROR, e, "Cannot write metrics of process engine '" + processEngine.getName() + "'");
+      }
+    }
+    return writer.toString();
+  }
+
   protected void applyQueryParams(MetricsQuery query, MultivaluedMap<String, String> queryParameters) {
 
     DateConverter dateConverter = new DateConverter();
@@ -33,7 +33,9 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -43,8 +45,11 @@ import javax.ws.rs.core.Response.Status;
 import org.camunda.bpm.engine.AuthorizationException;
 import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.exception.NullValueException;
+import org.camunda.bpm.engine.externaltask.CompleteExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
@@ -59,6 +64,7 @@ import org.camunda.bpm.engine.impl.RuntimeServiceImpl;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceQueryDto;
 import org.camunda.bpm.engine.rest.dto.runtime.ProcessInstanceQueryDto;
+import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.helper.EqualsVariableMap;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
@@ -90,6 +96,7 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
   protected static final String FETCH_EXTERNAL_TASK_URL = EXTERNAL_TASK_URL + "/fetchAndLock";
   protected static final String SINGLE_EXTERNAL_TASK_URL = EXTERNAL_TASK_URL + "/{id}";
   protected static final String COMPLETE_EXTERNAL_TASK_URL = SINGLE_EXTERNAL_TASK_URL + "/complete";
+  protected static final String COMPLETE_EXTERNAL_TASKS_URL = EXTERNAL_TASK_URL + "/complete";
   protected static final String GET_EXTERNAL_TASK_ERROR_DETAILS_URL = SINGLE_EXTERNAL_TASK_URL + "/errorDetails";
   protected static final String HANDLE_EXTERNAL_TASK_FAILURE_URL = SINGLE_EXTERNAL_TASK_URL + "/failure";
   protected static final String HANDLE_EXTERNAL_TASK_BPMN_ERROR_URL = SINGLE_EXTERNAL_TASK_URL + "/bpmnError";
@@ -563,6 +570,92 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
       .post(COMPLETE_EXTERNAL_TASK_URL);
   }
 
+  @Test
+  public void testCompleteAll() {
+    CompleteExternalTasksBuilder completionBuilder = mockCompleteExternalTasksBuilder();
+    Map<String, ProcessEngineException> failures = new LinkedHashMap<String, ProcessEngineException>();
+    failures.put("anotherExternalTaskId", new BadUserRequestException("aMessage"));
+    when(completionBuilder.execute()).thenReturn(failures);
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("tasks", Arrays.asList(
+        Collections.singletonMap("externalTaskId", "anExternalTaskId"),
+        Collections.singletonMap("externalTaskId", "anotherExternalTaskId")));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("size()", equalTo(1))
+      .body("[0].externalTaskId", equalTo("anotherExternalTaskId"))
+      .body("[0].type", equalTo(BadUserRequestException.class.getSimpleName()))
+      .body("[0].message", equalTo("aMessage"))
+    .when()
+      .post(COMPLETE_EXTERNAL_TASKS_URL);
+
+    InOrder inOrder = inOrder(externalTaskService, completionBuilder);
+    inOrder.verify(externalTaskService).completeAll("aWorkerId");
+    inOrder.verify(completionBuilder).task("anExternalTaskId", null, null);
+    inOrder.verify(completionBuilder).task("anotherExternalTaskId", null, null);
+    inOrder.verify(completionBuilder).execute();
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void testCompleteAllWithVariables() {
+    CompleteExternalTasksBuilder completionBuilder = mockCompleteExternalTasksBuilder();
+
+    Map<String, Object> task = new HashMap<String, Object>();
+    task.put("externalTaskId", "anExternalTaskId");
+    task.put("variables", VariablesBuilder.create().variable("var1", "val1").getVariables());
+    task.put("localVariables", VariablesBuilder.create().variable("var2", "val2", "String").getVariables());
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("tasks", Collections.singletonList(task));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("size()", equalTo(0))
+    .when()
+      .post(COMPLETE_EXTERNAL_TASKS_URL);
+
+    verify(completionBuilder).task(
+        eq("anExternalTaskId"),
+        argThat(EqualsVariableMap.matches()
+          .matcher("var1", EqualsUntypedValue.matcher().value("val1"))),
+        argThat(EqualsVariableMap.matches()
+          .matcher("var2", EqualsPrimitiveValue.stringValue("val2"))));
+    verify(completionBuilder).execute();
+  }
+
+  @Test
+  public void testCompleteAllWithoutWorkerId() {
+    CompleteExternalTasksBuilder completionBuilder = mockCompleteExternalTasksBuilder();
+    when(completionBuilder.execute()).thenThrow(new NullValueException("workerId is null"));
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("tasks", Collections.singletonList(Collections.singletonMap("externalTaskId", "anExternalTaskId")));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+    .then()
+      .expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .body("message", equalTo("workerId is null"))
+    .when()
+      .post(COMPLETE_EXTERNAL_TASKS_URL);
+  }
+
   @Test
   public void testUnlock() {
     given()
@@ -1501,4 +1594,13 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
       .post(EXTEND_LOCK_ON_EXTERNAL_TASK);
   }
 
+  protected CompleteExternalTasksBuilder mockCompleteExternalTasksBuilder() {
+    CompleteExternalTasksBuilder completionBuilder = mock(CompleteExternalTasksBuilder.class);
+    when(externalTaskService.completeAll(any(String.class))).thenReturn(completionBuilder);
+    when(completionBuilder.task(any(String.class), anyMapOf(String.class, Object.class), anyMapOf(String.class, Object.class)))
+      .thenReturn(completionBuilder);
+    when(completionBuilder.execute()).thenReturn(new HashMap<String, ProcessEngineException>());
+    return completionBuilder;
+  }
+
 }
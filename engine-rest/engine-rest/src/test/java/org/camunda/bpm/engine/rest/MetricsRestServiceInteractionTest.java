@@ -29,6 +29,8 @@ import javax.ws.rs.core.Response.Status;
 
 
 import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.management.Metrics;
 import org.camunda.bpm.engine.management.MetricsQuery;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
@@ -296,5 +298,26 @@ public class MetricsRestServiceInteractionTest extends AbstractRestServiceTest {
 
   }
 
+  @Test
+  public void testGetPrometheus() {
+    MetricsRegistry metricsRegistry = new MetricsRegistry();
+    metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_START).markTimes(3);
+    metricsRegistry.createTimer(Metrics.COMMAND_EXECUTION_TIME).record(2000000000L);
+
+    ProcessEngineConfigurationImpl processEngineConfigurationMock = mock(ProcessEngineConfigurationImpl.class);
+    when(processEngine.getProcessEngineConfiguration()).thenReturn(processEngineConfigurationMock);
+    when(processEngineConfigurationMock.getMetricsRegistry()).thenReturn(metricsRegistry);
+    when(processEngine.getName()).thenReturn("default");
+
+    given()
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .contentType(containsString("text/plain"))
+      .body(containsString("camunda_activity_instance_start_total{engine=\"default\"} 3\n"))
+      .body(containsString("camunda_command_execution_time_seconds_count{engine=\"default\"} 1\n"))
+      .body(containsString("camunda_command_execution_time_seconds{engine=\"default\",quantile=\"0.5\"} 2.0\n"))
+     .when()
+      .get(METRICS_URL + "/prometheus");
+  }
 
 }
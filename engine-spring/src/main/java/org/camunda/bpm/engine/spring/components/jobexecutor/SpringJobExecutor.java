@@ -52,15 +52,22 @@ public class SpringJobExecutor extends JobExecutor {
 	}
 
 	public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
-	  try {
-      taskExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
-    } catch (RejectedExecutionException e) {
+	  if (!tryExecuteJobs(jobIds, processEngine)) {
 
       logRejectedExecution(processEngine, jobIds.size());
       rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
     }
 	}
 
+	public boolean tryExecuteJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+	  try {
+      taskExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+	}
+
 	@Override
 	protected void startExecutingJobs() {
 		startJobAcquisitionThread();
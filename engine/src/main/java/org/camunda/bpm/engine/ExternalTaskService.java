@@ -19,6 +19,7 @@ import org.camunda.bpm.engine.authorization.Permissions;
 import org.camunda.bpm.engine.authorization.Resources;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.externaltask.CompleteExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
@@ -145,6 +146,17 @@ public interface ExternalTaskService {
    */
   public void complete(String externalTaskId, String workerId, Map<String, Object> variables, Map<String, Object> localVariables);
 
+  /**
+   * <p>Completes several external tasks on behalf of a worker in one transaction. Each
+   * task must be assigned to the worker; tasks which cannot be completed are reported
+   * by the builder without preventing the completion of the others.</p>
+   *
+   * @param workerId the id of the worker that completes the tasks
+   * @return a builder to define and execute the completion of the external tasks
+   * @since 7.9
+   */
+  public CompleteExternalTasksBuilder completeAll(String workerId);
+
   /**
    * <p>Extends a lock of an external task on behalf of a worker.
    * The given task must be assigned to the worker.</p>
@@ -28,6 +28,8 @@ import org.camunda.bpm.engine.batch.BatchQuery;
 import org.camunda.bpm.engine.batch.BatchStatisticsQuery;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+import org.camunda.bpm.engine.management.DeploymentCacheStatistics;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
@@ -1154,6 +1156,29 @@ public interface ManagementService {
    */
   void reportDbMetricsNow();
 
+  /**
+   * Returns the database load caused by each class of commands, as sampled by the
+   * {@link org.camunda.bpm.engine.impl.db.profiler.SqlProfilerPlugin}. The statistics
+   * are ordered by the time spent executing SQL statements, descending.
+   *
+   * @return the statistics of the sampled commands; empty if the SQL profiler plugin
+   * is not configured
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   */
+  List<CommandSqlStatistics> getCommandSqlStatistics();
+
+  /**
+   * Returns the size of each cache of the deployment cache. Caches created by the
+   * {@link org.camunda.bpm.engine.impl.persistence.deploy.cache.WeightedCacheFactory}
+   * also provide their estimated size in bytes and their hit ratio.
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   */
+  List<DeploymentCacheStatistics> getDeploymentCacheStatistics();
+
   /**
    * Creates a query to search for {@link org.camunda.bpm.engine.batch.Batch} instances.
    *
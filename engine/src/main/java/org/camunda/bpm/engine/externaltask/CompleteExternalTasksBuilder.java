@@ -0,0 +1,82 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+import java.util.Map;
+
+import org.camunda.bpm.engine.AuthorizationException;
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.SuspendedEntityInteractionException;
+import org.camunda.bpm.engine.authorization.Permissions;
+import org.camunda.bpm.engine.authorization.Resources;
+import org.camunda.bpm.engine.exception.NotFoundException;
+
+/**
+ * Completes several external tasks of a worker in one command.
+ */
+public interface CompleteExternalTasksBuilder {
+
+  /**
+   * Adds an external task to complete. If a task is added repeatedly,
+   * it is completed with the variables given last.
+   *
+   * @param externalTaskId the id of the external task to complete
+   */
+  CompleteExternalTasksBuilder task(String externalTaskId);
+
+  /**
+   * Adds an external task to complete.
+   *
+   * @param externalTaskId the id of the external task to complete
+   * @param variables a map of variables to set on the execution (non-local)
+   *   the external task is assigned to
+   */
+  CompleteExternalTasksBuilder task(String externalTaskId, Map<String, Object> variables);
+
+  /**
+   * Adds an external task to complete.
+   *
+   * @param externalTaskId the id of the external task to complete
+   * @param variables a map of variables to set on the execution
+   *   the external task is assigned to
+   * @param localVariables a map of variables to set on the execution locally
+   */
+  CompleteExternalTasksBuilder task(String externalTaskId, Map<String, Object> variables, Map<String, Object> localVariables);
+
+  /**
+   * <p>Completes the external tasks in one transaction. A task which cannot be completed
+   * by the worker is skipped and its exception is returned instead:</p>
+   * <ul>
+   *   <li>{@link NotFoundException} if no external task with the given id exists</li>
+   *   <li>{@link BadUserRequestException} if the task is assigned to a different worker,
+   *     e.g. because its lock expired and it was fetched again</li>
+   *   <li>{@link SuspendedEntityInteractionException} if the task is suspended</li>
+   *   <li>{@link AuthorizationException} if the current user does not possess
+   *     {@link Permissions#UPDATE} on {@link Resources#PROCESS_INSTANCE} or
+   *     {@link Permissions#UPDATE_INSTANCE} on {@link Resources#PROCESS_DEFINITION}</li>
+   * </ul>
+   *
+   * <p>Exceptions raised while continuing the process instances (e.g. by a failing
+   * delegate) or concurrent modifications roll back all completions.</p>
+   *
+   * @return the exceptions of the skipped external tasks by their ids, empty if
+   *   all tasks were completed
+   *
+   * @throws OptimisticLockingException if one of the tasks was modified concurrently
+   * @throws ProcessEngineException if continuing one of the process instances fails
+   */
+  Map<String, ProcessEngineException> execute();
+
+}
@@ -14,11 +14,22 @@
 
 package org.camunda.bpm.engine.impl;
 
+import java.util.List;
+
 import org.camunda.bpm.engine.ProcessEngineBootstrapCommand;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxDrainer;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitioning;
+import org.camunda.bpm.engine.impl.metrics.rollup.MetricsRollupJobDeclaration;
+import org.camunda.bpm.engine.impl.metrics.rollup.MetricsRollupJobHandler;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
 
 /**
  * @author Nikola Koevski
@@ -28,12 +39,17 @@ public class BootstrapEngineCommand implements ProcessEngineBootstrapCommand {
 
   private final static EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
 
+  protected static final MetricsRollupJobDeclaration METRICS_ROLLUP_JOB_DECLARATION = new MetricsRollupJobDeclaration();
+
   @Override
   public Void execute(CommandContext commandContext) {
 
     checkDeploymentLockExists(commandContext);
     checkHistoryCleanupLockExists(commandContext);
+    createJobPartitionLeases(commandContext);
+    createHistoryOutboxLock(commandContext);
     createHistoryCleanupJob();
+    createMetricsRollupJob(commandContext);
 
     return null;
   }
@@ -44,6 +60,71 @@ public class BootstrapEngineCommand implements ProcessEngineBootstrapCommand {
     }
   }
 
+  protected void createMetricsRollupJob(CommandContext commandContext) {
+    if (!Context.getProcessEngineConfiguration().isMetricsRollupEnabled()
+        || Context.getProcessEngineConfiguration().getManagementService().getTableMetaData("ACT_RU_JOB") == null) {
+      return;
+    }
+
+    JobManager jobManager = commandContext.getJobManager();
+    List<Job> rollupJobs = jobManager.findJobsByHandlerType(MetricsRollupJobHandler.TYPE);
+
+    if (rollupJobs.isEmpty()) {
+      // prevent other process engines from creating a second job
+      commandContext.getPropertyManager().acquireExclusiveLockForStartup();
+
+      if (jobManager.findJobsByHandlerType(MetricsRollupJobHandler.TYPE).isEmpty()) {
+        JobEntity rollupJob = METRICS_ROLLUP_JOB_DECLARATION.createJobInstance(null);
+        jobManager.insertAndHintJobExecutor(rollupJob);
+      }
+    }
+    else {
+      JobEntity rollupJob = (JobEntity) rollupJobs.get(0);
+      if (rollupJob.isSuspended() || rollupJob.getRetries() == 0) {
+        // rollups were disabled or the job failed
+        jobManager.reschedule(rollupJob, ClockUtil.getCurrentTime());
+      }
+    }
+  }
+
+  protected void createJobPartitionLeases(CommandContext commandContext) {
+    JobPartitioning jobPartitioning = Context.getProcessEngineConfiguration().getJobPartitioning();
+    if (jobPartitioning == null) {
+      return;
+    }
+
+    PropertyManager propertyManager = commandContext.getPropertyManager();
+    int partitionCount = jobPartitioning.getPartitionCount();
+
+    if (propertyManager.findPropertiesByNamePrefix(JobPartitioning.LEASE_PROPERTY_PREFIX).size() < partitionCount) {
+      // prevent other process engines from creating the same leases
+      propertyManager.acquireExclusiveLockForStartup();
+
+      for (int partition = 0; partition < partitionCount; partition++) {
+        String leaseName = JobPartitioning.LEASE_PROPERTY_PREFIX + partition;
+        if (propertyManager.findPropertyById(leaseName) == null) {
+          commandContext.getDbEntityManager().insert(new PropertyEntity(leaseName, ""));
+        }
+      }
+    }
+  }
+
+  protected void createHistoryOutboxLock(CommandContext commandContext) {
+    if (!Context.getProcessEngineConfiguration().isHistoryOutboxEnabled()) {
+      return;
+    }
+
+    PropertyManager propertyManager = commandContext.getPropertyManager();
+    if (propertyManager.findPropertyById(HistoryOutboxDrainer.LOCK_PROPERTY_NAME) == null) {
+      // prevent other process engines from creating the same lock
+      propertyManager.acquireExclusiveLockForStartup();
+
+      if (propertyManager.findPropertyById(HistoryOutboxDrainer.LOCK_PROPERTY_NAME) == null) {
+        commandContext.getDbEntityManager().insert(new PropertyEntity(HistoryOutboxDrainer.LOCK_PROPERTY_NAME, "0"));
+      }
+    }
+  }
+
   public void checkDeploymentLockExists(CommandContext commandContext) {
     PropertyEntity deploymentLockProperty = commandContext.getPropertyManager().findPropertyById("deployment.lock");
     if (deploymentLockProperty == null) {
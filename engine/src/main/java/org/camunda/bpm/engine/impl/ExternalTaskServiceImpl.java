@@ -17,10 +17,12 @@ import java.util.Map;
 
 import org.camunda.bpm.engine.ExternalTaskService;
 import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.externaltask.CompleteExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesSelectBuilder;
 import org.camunda.bpm.engine.impl.cmd.*;
+import org.camunda.bpm.engine.impl.externaltask.CompleteExternalTasksBuilderImpl;
 import org.camunda.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderImpl;
 
 /**
@@ -52,6 +54,10 @@ public class ExternalTaskServiceImpl extends ServiceImpl implements ExternalTask
     commandExecutor.execute(new CompleteExternalTaskCmd(externalTaskId, workerId, variables, localVariables));
   }
 
+  public CompleteExternalTasksBuilder completeAll(String workerId) {
+    return new CompleteExternalTasksBuilderImpl(commandExecutor, workerId);
+  }
+
   public void handleFailure(String externalTaskId, String workerId, String errorMessage, int retries, long retryDuration) {
     this.handleFailure(externalTaskId,workerId,errorMessage,null,retries,retryDuration);
   }
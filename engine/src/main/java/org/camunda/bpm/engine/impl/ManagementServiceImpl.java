@@ -33,6 +33,8 @@ import org.camunda.bpm.engine.impl.management.UpdateJobDefinitionSuspensionState
 import org.camunda.bpm.engine.impl.management.UpdateJobSuspensionStateBuilderImpl;
 import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+import org.camunda.bpm.engine.management.DeploymentCacheStatistics;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
 import org.camunda.bpm.engine.management.MetricsQuery;
@@ -433,6 +435,14 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     commandExecutor.execute(new ReportDbMetricsCmd());
   }
 
+  public List<CommandSqlStatistics> getCommandSqlStatistics() {
+    return commandExecutor.execute(new GetCommandSqlStatisticsCmd());
+  }
+
+  public List<DeploymentCacheStatistics> getDeploymentCacheStatistics() {
+    return commandExecutor.execute(new GetDeploymentCacheStatisticsCmd());
+  }
+
   public void setOverridingJobPriorityForJobDefinition(String jobDefinitionId, long priority) {
     commandExecutor.execute(new SetJobDefinitionPriorityCmd(jobDefinitionId, priority, false));
   }
@@ -12,17 +12,23 @@
  */
 package org.camunda.bpm.engine.impl;
 
+import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.engine.*;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxDrainer;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobNotificationChannel;
+import org.camunda.bpm.engine.impl.metrics.export.MetricsExporter;
 import org.camunda.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCacheWarmUp;
 
 /**
  * @author Tom Baeyens
@@ -84,6 +90,12 @@ public class ProcessEngineImpl implements ProcessEngine {
 
     executeSchemaOperations();
 
+    DeploymentCacheWarmUp deploymentCacheWarmUp = processEngineConfiguration.getDeploymentCacheWarmUp();
+    if (deploymentCacheWarmUp != null) {
+      // blocks until the definitions are loaded if configured
+      deploymentCacheWarmUp.start();
+    }
+
     if (name == null) {
       LOG.processEngineCreated(ProcessEngines.NAME_DEFAULT);
     } else {
@@ -97,6 +109,16 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.registerProcessEngine(this);
     }
 
+    JobNotificationChannel jobNotificationChannel = processEngineConfiguration.getJobNotificationChannel();
+    if (jobNotificationChannel != null) {
+      jobNotificationChannel.start(this);
+    }
+
+    ExternalTaskNotificationChannel externalTaskNotificationChannel = processEngineConfiguration.getExternalTaskNotificationChannel();
+    if (externalTaskNotificationChannel != null) {
+      externalTaskNotificationChannel.start(this);
+    }
+
     if (processEngineConfiguration.isMetricsEnabled()) {
       String reporterId = processEngineConfiguration.getMetricsReporterIdProvider().provideId(this);
       DbMetricsReporter dbMetricsReporter = processEngineConfiguration.getDbMetricsReporter();
@@ -105,6 +127,18 @@ public class ProcessEngineImpl implements ProcessEngine {
       if(processEngineConfiguration.isDbMetricsReporterActivate()) {
         dbMetricsReporter.start();
       }
+
+      List<MetricsExporter> metricsExporters = processEngineConfiguration.getMetricsExporters();
+      if (metricsExporters != null) {
+        for (MetricsExporter metricsExporter : metricsExporters) {
+          metricsExporter.start(this);
+        }
+      }
+    }
+
+    HistoryOutboxDrainer historyOutboxDrainer = processEngineConfiguration.getHistoryOutboxDrainer();
+    if (historyOutboxDrainer != null) {
+      historyOutboxDrainer.start();
     }
   }
 
@@ -126,6 +160,30 @@ public class ProcessEngineImpl implements ProcessEngine {
 
     if(processEngineConfiguration.isMetricsEnabled()) {
       processEngineConfiguration.getDbMetricsReporter().stop();
+
+      List<MetricsExporter> metricsExporters = processEngineConfiguration.getMetricsExporters();
+      if (metricsExporters != null) {
+        for (MetricsExporter metricsExporter : metricsExporters) {
+          metricsExporter.stop();
+        }
+      }
+    }
+
+    if (processEngineConfiguration.getHistoryOutboxDrainer() != null) {
+      // write the remaining history events before the schema may be dropped
+      processEngineConfiguration.getHistoryOutboxDrainer().stop();
+    }
+
+    if (processEngineConfiguration.getJobNotificationChannel() != null) {
+      processEngineConfiguration.getJobNotificationChannel().stop();
+    }
+
+    if (processEngineConfiguration.getExternalTaskNotificationChannel() != null) {
+      processEngineConfiguration.getExternalTaskNotificationChannel().stop();
+    }
+
+    if (processEngineConfiguration.getDeploymentCacheWarmUp() != null) {
+      processEngineConfiguration.getDeploymentCacheWarmUp().stop();
     }
 
     if ((jobExecutor != null)) {
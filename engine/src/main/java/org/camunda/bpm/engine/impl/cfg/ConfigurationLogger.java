@@ -87,5 +87,20 @@ public class ConfigurationLogger extends ProcessEngineLogger {
       "Invalid value '{}' for configuration property '{}'.", propertyValue, propertyName), e);
   }
 
+  public void debugDatabaseVersion(int majorVersion, int minorVersion) {
+    logDebug(
+        "012", "Database version {}.{}", majorVersion, minorVersion);
+  }
+
+  public void exceptionWhileReadingDatabaseMetaData(Exception e) {
+    logWarn(
+        "013", "Exception while reading the database meta data", e);
+  }
+
+  public void exceptionWhileClosingConnection(Exception e) {
+    logWarn(
+        "014", "Exception while closing the connection used to read the database meta data", e);
+  }
+
 
 }
@@ -125,9 +125,13 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformFactory;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformListener;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
+import org.camunda.bpm.engine.impl.db.ConcurrentDbIdGenerator;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DefaultSharedDbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.SharedDbEntityCache;
+import org.camunda.bpm.engine.impl.db.profiler.SqlProfiler;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
@@ -151,7 +155,9 @@ import org.camunda.bpm.engine.impl.event.EventHandler;
 import org.camunda.bpm.engine.impl.event.EventHandlerImpl;
 import org.camunda.bpm.engine.impl.event.EventType;
 import org.camunda.bpm.engine.impl.event.SignalEventHandler;
+import org.camunda.bpm.engine.impl.externaltask.DbExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.externaltask.DefaultExternalTaskPriorityProvider;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.form.engine.FormEngine;
 import org.camunda.bpm.engine.impl.form.engine.HtmlFormEngine;
 import org.camunda.bpm.engine.impl.form.engine.JuelFormEngine;
@@ -171,8 +177,12 @@ import org.camunda.bpm.engine.impl.form.validator.ReadOnlyValidator;
 import org.camunda.bpm.engine.impl.form.validator.RequiredValidator;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceManager;
+import org.camunda.bpm.engine.impl.history.handler.BatchDbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxDrainer;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxEventHandler;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxSession;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
 import org.camunda.bpm.engine.impl.history.producer.CacheAwareCmmnHistoryEventProducer;
 import org.camunda.bpm.engine.impl.history.producer.CacheAwareHistoryEventProducer;
@@ -194,12 +204,16 @@ import org.camunda.bpm.engine.impl.interceptor.DelegateInterceptor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.DbJobNotificationChannel;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobPriorityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobCommandFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultFailedJobCommandFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.JobNotificationChannel;
+import org.camunda.bpm.engine.impl.jobexecutor.LocalJobHandOff;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitioning;
 import org.camunda.bpm.engine.impl.jobexecutor.NotifyAcquisitionRejectedJobsHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.ProcessEventJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.RejectedJobsHandler;
@@ -217,9 +231,12 @@ import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobH
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.metrics.MetricsReporterIdProvider;
 import org.camunda.bpm.engine.impl.metrics.SimpleIpBasedProvider;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+import org.camunda.bpm.engine.impl.metrics.export.MetricsExporter;
 import org.camunda.bpm.engine.impl.metrics.parser.MetricsBpmnParseListener;
 import org.camunda.bpm.engine.impl.metrics.parser.MetricsCmmnTransformListener;
 import org.camunda.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.metrics.rollup.MetricsRollupJobHandler;
 import org.camunda.bpm.engine.impl.migration.DefaultMigrationActivityMatcher;
 import org.camunda.bpm.engine.impl.migration.DefaultMigrationInstructionGenerator;
 import org.camunda.bpm.engine.impl.migration.MigrationActivityMatcher;
@@ -256,6 +273,9 @@ import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCacheWarmUp;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LatestDefinitionIndex;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.SoftValueCacheFactory;
 import org.camunda.bpm.engine.impl.persistence.entity.AttachmentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.BatchManager;
@@ -430,6 +450,36 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected int cacheCapacity = 1000;
   protected boolean enableFetchProcessDefinitionDescription = true;
 
+  /**
+   * If true, the ids of the latest definitions by key are kept in a {@link LatestDefinitionIndex}
+   * instead of querying for the latest definition on each start by key. Deployments and deletions
+   * of other process engines are detected at most every {@link #deploymentVersionCheckIntervalInMillis}.
+   */
+  protected boolean latestDefinitionIndexEnabled = false;
+  protected long deploymentVersionCheckIntervalInMillis = 1000;
+
+  /**
+   * If true, the latest {@link #deploymentCacheWarmUpVersions} versions of the definitions are
+   * loaded into the deployment cache by the {@link DeploymentCacheWarmUp} when the process engine
+   * is built. If {@link #deploymentCacheWarmUpBlocking} is false, they are loaded in the background.
+   */
+  protected boolean deploymentCacheWarmUpEnabled = false;
+  protected int deploymentCacheWarmUpVersions = 1;
+  /** the keys of the definitions to load, <code>null</code> to load all definitions */
+  protected Set<String> deploymentCacheWarmUpDefinitionKeys;
+  protected int deploymentCacheWarmUpThreads = Runtime.getRuntime().availableProcessors();
+  protected boolean deploymentCacheWarmUpBlocking = false;
+  protected DeploymentCacheWarmUp deploymentCacheWarmUp;
+
+  /**
+   * If true, the BPMN, CMMN and DMN model instances are held by soft references in the deployment
+   * cache, so that they can be reclaimed when the heap becomes scarce and are parsed again when
+   * requested. The process, case and decision definitions are not affected.
+   */
+  protected boolean softModelInstanceReferencesEnabled = false;
+  /** the capacity of the model instance caches, a negative value to use {@link #cacheCapacity} */
+  protected int modelInstanceCacheCapacity = -1;
+
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
   protected List<JobHandler> customJobHandlers;
@@ -438,9 +488,60 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected PriorityProvider<JobDeclaration<?, ?>> jobPriorityProvider;
 
+  /**
+   * If true, the jobs are hash partitioned and each job executor only acquires
+   * the jobs of the partitions it has leased (see {@link JobPartitioning}).
+   */
+  protected boolean jobExecutorPartitioningEnabled = false;
+
+  /**
+   * the number of job partitions; must be the same for all process engines sharing the database
+   */
+  protected int jobExecutorPartitionCount = 16;
+  protected long jobExecutorPartitionLeaseTimeInMillis = 30000;
+  protected JobPartitioning jobPartitioning;
+
+  /**
+   * If true, the job executors of other nodes are notified via the {@link JobNotificationChannel}
+   * when due jobs are created. Unless a custom channel is set, a {@link DbJobNotificationChannel}
+   * polling every {@link #jobNotificationPollIntervalInMillis} is used.
+   */
+  protected boolean jobNotificationEnabled = false;
+  protected long jobNotificationPollIntervalInMillis = 500;
+  protected JobNotificationChannel jobNotificationChannel;
+
+  /**
+   * If true, due jobs created by a job executor thread are inserted locked by the local job
+   * executor and submitted for execution after commit, skipping their acquisition
+   * (see {@link LocalJobHandOff}).
+   */
+  protected boolean jobExecutorLocalHandOffEnabled = false;
+
   // EXTERNAL TASK /////////////////////////////////////////////////////////////
   protected PriorityProvider<ExternalTaskActivityBehavior> externalTaskPriorityProvider;
 
+  /**
+   * If true, external tasks are fetched with <code>SELECT ... FOR UPDATE SKIP LOCKED</code> on
+   * databases supporting it, instead of optimistic locking.
+   */
+  protected boolean externalTaskFetchWithSkipLocked = false;
+
+  /**
+   * If true, the fetched external tasks are locked with a single update statement and
+   * their variables are selected with one query instead of once per task.
+   */
+  protected boolean externalTaskBulkFetchAndLockEnabled = false;
+
+  /**
+   * If true, the external task created listeners of other nodes, e.g. long polling workers, are
+   * notified via the {@link ExternalTaskNotificationChannel} when external tasks are created. Unless
+   * a custom channel is set, a {@link DbExternalTaskNotificationChannel} polling every
+   * {@link #externalTaskNotificationPollIntervalInMillis} is used.
+   */
+  protected boolean externalTaskNotificationEnabled = false;
+  protected long externalTaskNotificationPollIntervalInMillis = 500;
+  protected ExternalTaskNotificationChannel externalTaskNotificationChannel;
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
@@ -452,6 +553,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected DataSource idGeneratorDataSource;
   protected String idGeneratorDataSourceJndiName;
 
+  /**
+   * If true, a {@link ConcurrentDbIdGenerator} is used which hands out ids from
+   * thread local sub blocks and prefetches id blocks in the background.
+   */
+  protected boolean concurrentIdGeneratorEnabled = false;
+  protected int idSubBlockSize = 10;
+  protected int maxIdBlockSize = 10000;
+
   // INCIDENT HANDLER /////////////////////////////////////////////////////////
 
   protected Map<String, IncidentHandler> incidentHandlers;
@@ -577,6 +686,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected String databaseSchema = null;
 
+  /**
+   * The major and minor version of the database; determined from the database metadata
+   * if the major version is not set.
+   */
+  protected int databaseMajorVersion = -1;
+  protected int databaseMinorVersion = -1;
+
   protected boolean isCreateDiagramOnDeploy = false;
 
   protected ProcessApplicationManager processApplicationManager;
@@ -612,6 +728,20 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected HistoryEventHandler historyEventHandler;
 
+  /**
+   * If true, history events are not written to the history tables in the transaction
+   * of the command but enqueued in a history outbox which is drained asynchronously
+   * by the {@link HistoryOutboxDrainer}. History queries may not see the latest events.
+   */
+  protected boolean isHistoryOutboxEnabled = false;
+  protected HistoryOutboxDrainer historyOutboxDrainer;
+  protected long historyOutboxDrainIntervalInMillis = 1000;
+
+  /**
+   * the maximum number of outbox entries (i.e. commands) drained in one transaction
+   */
+  protected int historyOutboxDrainBatchSize = 100;
+
   protected boolean isExecutionTreePrefetchEnabled = true;
 
   /**
@@ -645,6 +775,34 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected DbEntityCacheKeyMapping dbEntityCacheKeyMapping = DbEntityCacheKeyMapping.defaultEntityCacheKeyMapping();
 
+  /**
+   * If true, the INSERTs of entities of the same type are combined into
+   * multi row INSERT statements on flush, if the type supports it
+   * (see {@link DbSqlSessionFactory#getBulkInsertEntityTypes()}).
+   */
+  protected boolean isJdbcBulkInsertEnabled = false;
+
+  /**
+   * The maximum number of rows of a single multi row INSERT statement. Note that some
+   * databases limit the number of parameters of a statement (e.g. 2100 on SQL Server).
+   */
+  protected int jdbcBulkInsertMaxRows = 50;
+
+  /**
+   * If true, rarely changing entities are kept in a {@link SharedDbEntityCache}
+   * which is shared by all commands.
+   */
+  protected boolean isSharedDbEntityCacheEnabled = false;
+  protected SharedDbEntityCache sharedDbEntityCache;
+  protected Set<Class<?>> sharedDbEntityCacheTypes;
+  protected int sharedDbEntityCacheCapacity = 1000;
+
+  /**
+   * time in milliseconds after which an entry of the shared entity cache expires;
+   * bounds the staleness of entities changed by other nodes of a cluster
+   */
+  protected long sharedDbEntityCacheTimeToLive = 10000;
+
   /**
    * the metrics registry
    */
@@ -657,6 +815,36 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected MetricsReporterIdProvider metricsReporterIdProvider;
 
+  /**
+   * records the durations of commands, flushes, job executions, job acquisitions and
+   * external task fetches in timers of the metrics registry; costs two clock reads
+   * per measurement and is therefore disabled by default
+   */
+  protected boolean isTimerMetricsEnabled = false;
+
+  /**
+   * maintain hourly and daily rollups of the meter log in a background job; metrics
+   * interval queries read the rollups for intervals which are a multiple of an hour or a day
+   */
+  protected boolean isMetricsRollupEnabled = false;
+
+  /**
+   * number of days raw meter log entries are kept once they are contained in the
+   * rollups; zero or less keeps them forever. Only applies if metrics rollups are enabled.
+   */
+  protected int metricsRawRetentionDays = 30;
+
+  /**
+   * publish the meters and timers of the metrics registry, e.g. via JMX
+   */
+  protected List<MetricsExporter> metricsExporters;
+
+  /**
+   * records the SQL statements of sampled commands; set by the
+   * {@link org.camunda.bpm.engine.impl.db.profiler.SqlProfilerPlugin}
+   */
+  protected SqlProfiler sqlProfiler;
+
   /**
    * handling of expressions submitted via API; can be used as guards against remote code execution
    */
@@ -770,12 +958,16 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initCommandExecutors();
     initServices();
     initIdGenerator();
+    initSharedDbEntityCache();
     initFailedJobCommandFactory();
     initDeployers();
+    initDeploymentCacheWarmUp();
     initJobProvider();
     initExternalTaskPriorityProvider();
     initBatchHandlers();
     initJobExecutor();
+    initJobPartitioning();
+    initJobNotificationChannel();
     initDataSource();
     initTransactionFactory();
     initSqlSessionFactory();
@@ -787,6 +979,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initDelegateInterceptor();
     initEventHandlers();
     initExternalTaskCreatedListeners();
+    initExternalTaskNotificationChannel();
     initProcessApplicationManager();
     initCorrelationHandler();
     initConditionHandler();
@@ -795,6 +988,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initDeploymentRegistration();
     initResourceAuthorizationProvider();
     initMetrics();
+    initHistoryOutbox();
     initMigration();
     initCommandCheckers();
     initDefaultUserPermissionForTask();
@@ -985,7 +1179,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initExternalTaskCreatedListeners() {
     if (this.externalTaskCreatedListeners == null) {
-      this.externalTaskCreatedListeners = new HashSet<ExternalTaskCreatedListener>();
+      // notified by the threads committing transactions and by the notification channel
+      this.externalTaskCreatedListeners = new CopyOnWriteArraySet<ExternalTaskCreatedListener>();
+    }
+  }
+
+  protected void initExternalTaskNotificationChannel() {
+    if (externalTaskNotificationEnabled && externalTaskNotificationChannel == null) {
+      externalTaskNotificationChannel = new DbExternalTaskNotificationChannel(externalTaskNotificationPollIntervalInMillis);
     }
   }
 
@@ -1142,7 +1343,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       }
     }
 
-    if (databaseType == null) {
+    if (databaseType == null || databaseMajorVersion < 0) {
       initDatabaseType();
     }
   }
@@ -1181,29 +1382,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return databaseTypeMappings;
   }
 
+  /**
+   * Determines the type of the database unless it is configured and the version of the
+   * database, which decides whether version dependent statements (e.g. SKIP LOCKED on
+   * MySQL and PostgreSQL) are used.
+   */
   public void initDatabaseType() {
     Connection connection = null;
     try {
       connection = dataSource.getConnection();
       DatabaseMetaData databaseMetaData = connection.getMetaData();
-      String databaseProductName = databaseMetaData.getDatabaseProductName();
-      if (MY_SQL_PRODUCT_NAME.equals(databaseProductName)) {
-        databaseProductName = checkForMariaDb(databaseMetaData, databaseProductName);
+      if (databaseType == null) {
+        String databaseProductName = databaseMetaData.getDatabaseProductName();
+        if (MY_SQL_PRODUCT_NAME.equals(databaseProductName)) {
+          databaseProductName = checkForMariaDb(databaseMetaData, databaseProductName);
+        }
+        LOG.debugDatabaseproductName(databaseProductName);
+        databaseType = databaseTypeMappings.getProperty(databaseProductName);
+        ensureNotNull("couldn't deduct database type from database product name '" + databaseProductName + "'", "databaseType", databaseType);
+        LOG.debugDatabaseType(databaseType);
+      }
+
+      if (databaseMajorVersion < 0) {
+        databaseMajorVersion = databaseMetaData.getDatabaseMajorVersion();
+        databaseMinorVersion = databaseMetaData.getDatabaseMinorVersion();
+        LOG.debugDatabaseVersion(databaseMajorVersion, databaseMinorVersion);
       }
-      LOG.debugDatabaseproductName(databaseProductName);
-      databaseType = databaseTypeMappings.getProperty(databaseProductName);
-      ensureNotNull("couldn't deduct database type from database product name '" + databaseProductName + "'", "databaseType", databaseType);
-      LOG.debugDatabaseType(databaseType);
 
     } catch (SQLException e) {
-      e.printStackTrace();
+      LOG.exceptionWhileReadingDatabaseMetaData(e);
     } finally {
       try {
         if (connection != null) {
           connection.close();
         }
       } catch (SQLException e) {
-        e.printStackTrace();
+        LOG.exceptionWhileClosingConnection(e);
       }
     }
   }
@@ -1389,6 +1603,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(PropertyManager.class));
       addSessionFactory(new GenericManagerFactory(ResourceManager.class));
       addSessionFactory(new GenericManagerFactory(ByteArrayManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryOutboxSession.class));
       addSessionFactory(new GenericManagerFactory(TableDataManager.class));
       addSessionFactory(new GenericManagerFactory(TaskManager.class));
       addSessionFactory(new GenericManagerFactory(TaskReportManager.class));
@@ -1433,6 +1648,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     ensurePrefixAndSchemaFitToegether(databaseTablePrefix, databaseSchema);
     dbSqlSessionFactory = new DbSqlSessionFactory();
     dbSqlSessionFactory.setDatabaseType(databaseType);
+    dbSqlSessionFactory.setDatabaseMajorVersion(databaseMajorVersion);
+    dbSqlSessionFactory.setDatabaseMinorVersion(databaseMinorVersion);
     dbSqlSessionFactory.setIdGenerator(idGenerator);
     dbSqlSessionFactory.setSqlSessionFactory(sqlSessionFactory);
     dbSqlSessionFactory.setDbIdentityUsed(isDbIdentityUsed);
@@ -1566,8 +1783,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       }
 
       initCacheFactory();
-      deploymentCache = new DeploymentCache(cacheFactory, cacheCapacity);
+      initDeploymentCache();
       deploymentCache.setDeployers(deployers);
+      if (latestDefinitionIndexEnabled) {
+        deploymentCache.setLatestDefinitionIndex(new LatestDefinitionIndex(deploymentVersionCheckIntervalInMillis));
+      }
+    }
+  }
+
+  protected void initDeploymentCache() {
+    CacheFactory modelInstanceCacheFactory = cacheFactory;
+    if (softModelInstanceReferencesEnabled) {
+      modelInstanceCacheFactory = new SoftValueCacheFactory(cacheFactory);
+    }
+    int modelInstanceCapacity = modelInstanceCacheCapacity >= 0 ? modelInstanceCacheCapacity : cacheCapacity;
+
+    deploymentCache = new DeploymentCache(cacheFactory, cacheCapacity, modelInstanceCacheFactory, modelInstanceCapacity);
+  }
+
+  protected void initDeploymentCacheWarmUp() {
+    if (deploymentCacheWarmUpEnabled && deploymentCacheWarmUp == null) {
+      deploymentCacheWarmUp = new DeploymentCacheWarmUp(commandExecutorTxRequired);
+      deploymentCacheWarmUp.setVersions(deploymentCacheWarmUpVersions);
+      deploymentCacheWarmUp.setDefinitionKeys(deploymentCacheWarmUpDefinitionKeys);
+      deploymentCacheWarmUp.setThreads(deploymentCacheWarmUpThreads);
+      deploymentCacheWarmUp.setBlocking(deploymentCacheWarmUpBlocking);
+      deploymentCacheWarmUp.setCmmnEnabled(cmmnEnabled);
+      deploymentCacheWarmUp.setDmnEnabled(dmnEnabled);
     }
   }
 
@@ -1744,6 +1986,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     HistoryCleanupJobHandler historyCleanupJobHandler = new HistoryCleanupJobHandler();
     jobHandlers.put(historyCleanupJobHandler.getType(), historyCleanupJobHandler);
 
+    MetricsRollupJobHandler metricsRollupJobHandler = new MetricsRollupJobHandler();
+    jobHandlers.put(metricsRollupJobHandler.getType(), metricsRollupJobHandler);
+
     for (JobHandler batchHandler : batchHandlers.values()) {
       jobHandlers.put(batchHandler.getType(), batchHandler);
     }
@@ -1767,6 +2012,18 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   }
 
+  protected void initJobPartitioning() {
+    if (jobExecutorPartitioningEnabled && jobPartitioning == null) {
+      jobPartitioning = new JobPartitioning(jobExecutorPartitionCount, jobExecutorPartitionLeaseTimeInMillis);
+    }
+  }
+
+  protected void initJobNotificationChannel() {
+    if (jobNotificationEnabled && jobNotificationChannel == null) {
+      jobNotificationChannel = new DbJobNotificationChannel(jobNotificationPollIntervalInMillis);
+    }
+  }
+
   protected void initJobProvider() {
     if (producePrioritizedJobs && jobPriorityProvider == null) {
       jobPriorityProvider = new DefaultJobPriorityProvider();
@@ -1838,13 +2095,32 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         idGeneratorCommandExecutor = commandExecutorTxRequiresNew;
       }
 
-      DbIdGenerator dbIdGenerator = new DbIdGenerator();
+      DbIdGenerator dbIdGenerator;
+      if (concurrentIdGeneratorEnabled) {
+        ConcurrentDbIdGenerator concurrentDbIdGenerator = new ConcurrentDbIdGenerator();
+        concurrentDbIdGenerator.setSubBlockSize(idSubBlockSize);
+        concurrentDbIdGenerator.setMaxIdBlockSize(Math.max(idBlockSize, maxIdBlockSize));
+        dbIdGenerator = concurrentDbIdGenerator;
+      } else {
+        dbIdGenerator = new DbIdGenerator();
+      }
       dbIdGenerator.setIdBlockSize(idBlockSize);
       dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
       idGenerator = dbIdGenerator;
     }
   }
 
+  // shared entity cache /////////////////////////////////////////////////////
+
+  protected void initSharedDbEntityCache() {
+    if (isSharedDbEntityCacheEnabled && sharedDbEntityCache == null) {
+      if (sharedDbEntityCacheTypes == null) {
+        sharedDbEntityCacheTypes = DefaultSharedDbEntityCache.defaultCacheableTypes();
+      }
+      sharedDbEntityCache = new DefaultSharedDbEntityCache(sharedDbEntityCacheTypes, sharedDbEntityCacheCapacity, sharedDbEntityCacheTimeToLive);
+    }
+  }
+
   // OTHER ////////////////////////////////////////////////////////////////////
 
   protected void initCommandContextFactory() {
@@ -1888,6 +2164,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
       initDefaultMetrics(metricsRegistry);
 
+      if (isTimerMetricsEnabled) {
+        initDefaultTimers(metricsRegistry);
+      }
+
       if (dbMetricsReporter == null) {
         dbMetricsReporter = new DbMetricsReporter(metricsRegistry, commandExecutorTxRequired);
       }
@@ -1904,9 +2184,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     metricsRegistry.createMeter(Metrics.JOB_SUCCESSFUL);
     metricsRegistry.createMeter(Metrics.JOB_FAILED);
     metricsRegistry.createMeter(Metrics.JOB_LOCKED_EXCLUSIVE);
+    metricsRegistry.createMeter(Metrics.JOB_HANDED_OFF);
     metricsRegistry.createMeter(Metrics.JOB_EXECUTION_REJECTED);
 
     metricsRegistry.createMeter(Metrics.EXECUTED_DECISION_ELEMENTS);
+
+    metricsRegistry.createMeter(Metrics.HISTORY_OUTBOX_EVENTS_ENQUEUED);
+    metricsRegistry.createMeter(Metrics.HISTORY_OUTBOX_EVENTS_DRAINED);
+  }
+
+  protected void initDefaultTimers(MetricsRegistry metricsRegistry) {
+    metricsRegistry.createTimer(Metrics.COMMAND_EXECUTION_TIME);
+    metricsRegistry.createTimer(Metrics.DB_FLUSH_TIME);
+    metricsRegistry.createTimer(Metrics.JOB_EXECUTION_TIME);
+    metricsRegistry.createTimer(Metrics.JOB_ACQUISITION_TIME);
+    metricsRegistry.createTimer(Metrics.EXTERNAL_TASK_FETCH_TIME);
   }
 
   protected void initSerialization() {
@@ -2174,7 +2466,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initHistoryEventHandler() {
     if (historyEventHandler == null) {
-      historyEventHandler = new DbHistoryEventHandler();
+      if (isHistoryOutboxEnabled) {
+        historyEventHandler = new HistoryOutboxEventHandler(new BatchDbHistoryEventHandler());
+      }
+      else {
+        historyEventHandler = new DbHistoryEventHandler();
+      }
+    }
+  }
+
+  protected void initHistoryOutbox() {
+    if (historyOutboxDrainer == null && historyEventHandler instanceof HistoryOutboxEventHandler) {
+      HistoryEventHandler delegate = ((HistoryOutboxEventHandler) historyEventHandler).getDelegate();
+      historyOutboxDrainer = new HistoryOutboxDrainer(commandExecutorTxRequired, delegate);
+      historyOutboxDrainer.setDrainIntervalInMillis(historyOutboxDrainIntervalInMillis);
+      historyOutboxDrainer.setBatchSize(historyOutboxDrainBatchSize);
     }
   }
 
@@ -2478,6 +2784,55 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.externalTaskPriorityProvider = externalTaskPriorityProvider;
   }
 
+  public boolean isExternalTaskFetchWithSkipLocked() {
+    return externalTaskFetchWithSkipLocked;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskFetchWithSkipLocked(boolean externalTaskFetchWithSkipLocked) {
+    this.externalTaskFetchWithSkipLocked = externalTaskFetchWithSkipLocked;
+    return this;
+  }
+
+  public boolean isExternalTaskBulkFetchAndLockEnabled() {
+    return externalTaskBulkFetchAndLockEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskBulkFetchAndLockEnabled(boolean externalTaskBulkFetchAndLockEnabled) {
+    this.externalTaskBulkFetchAndLockEnabled = externalTaskBulkFetchAndLockEnabled;
+    return this;
+  }
+
+  public boolean isExternalTaskNotificationEnabled() {
+    return externalTaskNotificationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskNotificationEnabled(boolean externalTaskNotificationEnabled) {
+    this.externalTaskNotificationEnabled = externalTaskNotificationEnabled;
+    return this;
+  }
+
+  public long getExternalTaskNotificationPollIntervalInMillis() {
+    return externalTaskNotificationPollIntervalInMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskNotificationPollIntervalInMillis(long externalTaskNotificationPollIntervalInMillis) {
+    this.externalTaskNotificationPollIntervalInMillis = externalTaskNotificationPollIntervalInMillis;
+    return this;
+  }
+
+  public ExternalTaskNotificationChannel getExternalTaskNotificationChannel() {
+    return externalTaskNotificationChannel;
+  }
+
+  /**
+   * Sets a custom channel; the other nodes are then notified
+   * regardless of {@link #isExternalTaskNotificationEnabled()}.
+   */
+  public ProcessEngineConfigurationImpl setExternalTaskNotificationChannel(ExternalTaskNotificationChannel externalTaskNotificationChannel) {
+    this.externalTaskNotificationChannel = externalTaskNotificationChannel;
+    return this;
+  }
+
   public IdGenerator getIdGenerator() {
     return idGenerator;
   }
@@ -2487,6 +2842,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isConcurrentIdGeneratorEnabled() {
+    return concurrentIdGeneratorEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setConcurrentIdGeneratorEnabled(boolean concurrentIdGeneratorEnabled) {
+    this.concurrentIdGeneratorEnabled = concurrentIdGeneratorEnabled;
+    return this;
+  }
+
+  public int getIdSubBlockSize() {
+    return idSubBlockSize;
+  }
+
+  public ProcessEngineConfigurationImpl setIdSubBlockSize(int idSubBlockSize) {
+    this.idSubBlockSize = idSubBlockSize;
+    return this;
+  }
+
+  public int getMaxIdBlockSize() {
+    return maxIdBlockSize;
+  }
+
+  public ProcessEngineConfigurationImpl setMaxIdBlockSize(int maxIdBlockSize) {
+    this.maxIdBlockSize = maxIdBlockSize;
+    return this;
+  }
+
   public String getWsSyncFactoryClassName() {
     return wsSyncFactoryClassName;
   }
@@ -3012,6 +3394,172 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJobExecutorPartitioningEnabled() {
+    return jobExecutorPartitioningEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorPartitioningEnabled(boolean jobExecutorPartitioningEnabled) {
+    this.jobExecutorPartitioningEnabled = jobExecutorPartitioningEnabled;
+    return this;
+  }
+
+  public int getJobExecutorPartitionCount() {
+    return jobExecutorPartitionCount;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorPartitionCount(int jobExecutorPartitionCount) {
+    this.jobExecutorPartitionCount = jobExecutorPartitionCount;
+    return this;
+  }
+
+  public long getJobExecutorPartitionLeaseTimeInMillis() {
+    return jobExecutorPartitionLeaseTimeInMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorPartitionLeaseTimeInMillis(long jobExecutorPartitionLeaseTimeInMillis) {
+    this.jobExecutorPartitionLeaseTimeInMillis = jobExecutorPartitionLeaseTimeInMillis;
+    return this;
+  }
+
+  public JobPartitioning getJobPartitioning() {
+    return jobPartitioning;
+  }
+
+  public ProcessEngineConfigurationImpl setJobPartitioning(JobPartitioning jobPartitioning) {
+    this.jobPartitioning = jobPartitioning;
+    return this;
+  }
+
+  public boolean isLatestDefinitionIndexEnabled() {
+    return latestDefinitionIndexEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setLatestDefinitionIndexEnabled(boolean latestDefinitionIndexEnabled) {
+    this.latestDefinitionIndexEnabled = latestDefinitionIndexEnabled;
+    return this;
+  }
+
+  public long getDeploymentVersionCheckIntervalInMillis() {
+    return deploymentVersionCheckIntervalInMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentVersionCheckIntervalInMillis(long deploymentVersionCheckIntervalInMillis) {
+    this.deploymentVersionCheckIntervalInMillis = deploymentVersionCheckIntervalInMillis;
+    return this;
+  }
+
+  public boolean isDeploymentCacheWarmUpEnabled() {
+    return deploymentCacheWarmUpEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmUpEnabled(boolean deploymentCacheWarmUpEnabled) {
+    this.deploymentCacheWarmUpEnabled = deploymentCacheWarmUpEnabled;
+    return this;
+  }
+
+  public int getDeploymentCacheWarmUpVersions() {
+    return deploymentCacheWarmUpVersions;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmUpVersions(int deploymentCacheWarmUpVersions) {
+    this.deploymentCacheWarmUpVersions = deploymentCacheWarmUpVersions;
+    return this;
+  }
+
+  public Set<String> getDeploymentCacheWarmUpDefinitionKeys() {
+    return deploymentCacheWarmUpDefinitionKeys;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmUpDefinitionKeys(Set<String> deploymentCacheWarmUpDefinitionKeys) {
+    this.deploymentCacheWarmUpDefinitionKeys = deploymentCacheWarmUpDefinitionKeys;
+    return this;
+  }
+
+  public int getDeploymentCacheWarmUpThreads() {
+    return deploymentCacheWarmUpThreads;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmUpThreads(int deploymentCacheWarmUpThreads) {
+    this.deploymentCacheWarmUpThreads = deploymentCacheWarmUpThreads;
+    return this;
+  }
+
+  public boolean isDeploymentCacheWarmUpBlocking() {
+    return deploymentCacheWarmUpBlocking;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmUpBlocking(boolean deploymentCacheWarmUpBlocking) {
+    this.deploymentCacheWarmUpBlocking = deploymentCacheWarmUpBlocking;
+    return this;
+  }
+
+  public DeploymentCacheWarmUp getDeploymentCacheWarmUp() {
+    return deploymentCacheWarmUp;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmUp(DeploymentCacheWarmUp deploymentCacheWarmUp) {
+    this.deploymentCacheWarmUp = deploymentCacheWarmUp;
+    return this;
+  }
+
+  public boolean isSoftModelInstanceReferencesEnabled() {
+    return softModelInstanceReferencesEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setSoftModelInstanceReferencesEnabled(boolean softModelInstanceReferencesEnabled) {
+    this.softModelInstanceReferencesEnabled = softModelInstanceReferencesEnabled;
+    return this;
+  }
+
+  public int getModelInstanceCacheCapacity() {
+    return modelInstanceCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setModelInstanceCacheCapacity(int modelInstanceCacheCapacity) {
+    this.modelInstanceCacheCapacity = modelInstanceCacheCapacity;
+    return this;
+  }
+
+  public boolean isJobNotificationEnabled() {
+    return jobNotificationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJobNotificationEnabled(boolean jobNotificationEnabled) {
+    this.jobNotificationEnabled = jobNotificationEnabled;
+    return this;
+  }
+
+  public long getJobNotificationPollIntervalInMillis() {
+    return jobNotificationPollIntervalInMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setJobNotificationPollIntervalInMillis(long jobNotificationPollIntervalInMillis) {
+    this.jobNotificationPollIntervalInMillis = jobNotificationPollIntervalInMillis;
+    return this;
+  }
+
+  public boolean isJobExecutorLocalHandOffEnabled() {
+    return jobExecutorLocalHandOffEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorLocalHandOffEnabled(boolean jobExecutorLocalHandOffEnabled) {
+    this.jobExecutorLocalHandOffEnabled = jobExecutorLocalHandOffEnabled;
+    return this;
+  }
+
+  public JobNotificationChannel getJobNotificationChannel() {
+    return jobNotificationChannel;
+  }
+
+  /**
+   * Sets a custom channel; the job executors of other nodes are then notified
+   * regardless of {@link #isJobNotificationEnabled()}.
+   */
+  public ProcessEngineConfigurationImpl setJobNotificationChannel(JobNotificationChannel jobNotificationChannel) {
+    this.jobNotificationChannel = jobNotificationChannel;
+    return this;
+  }
+
   public EventHandler getEventHandler(String eventType) {
     return eventHandlers.get(eventType);
   }
@@ -3080,6 +3628,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.databaseSchema = databaseSchema;
   }
 
+  public int getDatabaseMajorVersion() {
+    return databaseMajorVersion;
+  }
+
+  public ProcessEngineConfigurationImpl setDatabaseMajorVersion(int databaseMajorVersion) {
+    this.databaseMajorVersion = databaseMajorVersion;
+    return this;
+  }
+
+  public int getDatabaseMinorVersion() {
+    return databaseMinorVersion;
+  }
+
+  public ProcessEngineConfigurationImpl setDatabaseMinorVersion(int databaseMinorVersion) {
+    this.databaseMinorVersion = databaseMinorVersion;
+    return this;
+  }
+
   public DataSource getIdGeneratorDataSource() {
     return idGeneratorDataSource;
   }
@@ -3133,6 +3699,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isHistoryOutboxEnabled() {
+    return isHistoryOutboxEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryOutboxEnabled(boolean isHistoryOutboxEnabled) {
+    this.isHistoryOutboxEnabled = isHistoryOutboxEnabled;
+    return this;
+  }
+
+  public HistoryOutboxDrainer getHistoryOutboxDrainer() {
+    return historyOutboxDrainer;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryOutboxDrainer(HistoryOutboxDrainer historyOutboxDrainer) {
+    this.historyOutboxDrainer = historyOutboxDrainer;
+    return this;
+  }
+
+  public long getHistoryOutboxDrainIntervalInMillis() {
+    return historyOutboxDrainIntervalInMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryOutboxDrainIntervalInMillis(long historyOutboxDrainIntervalInMillis) {
+    this.historyOutboxDrainIntervalInMillis = historyOutboxDrainIntervalInMillis;
+    return this;
+  }
+
+  public int getHistoryOutboxDrainBatchSize() {
+    return historyOutboxDrainBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryOutboxDrainBatchSize(int historyOutboxDrainBatchSize) {
+    this.historyOutboxDrainBatchSize = historyOutboxDrainBatchSize;
+    return this;
+  }
+
   public HistoryEventHandler getHistoryEventHandler() {
     return historyEventHandler;
   }
@@ -3181,9 +3783,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       this.externalTaskCreatedListeners.remove(externalTaskCreatedListener);
   }
 
-  public void notifyExternalTaskCreatedListeners() {
+  public void notifyExternalTaskCreatedListeners(Set<String> topicNames) {
     for (ExternalTaskCreatedListener externalTaskCreatedListener : externalTaskCreatedListeners) {
-      externalTaskCreatedListener.onExternalTaskCreated();
+      externalTaskCreatedListener.onExternalTaskCreated(topicNames);
     }
   }
 
@@ -3515,6 +4117,69 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJdbcBulkInsertEnabled() {
+    return isJdbcBulkInsertEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcBulkInsertEnabled(boolean isJdbcBulkInsertEnabled) {
+    this.isJdbcBulkInsertEnabled = isJdbcBulkInsertEnabled;
+    return this;
+  }
+
+  public int getJdbcBulkInsertMaxRows() {
+    return jdbcBulkInsertMaxRows;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcBulkInsertMaxRows(int jdbcBulkInsertMaxRows) {
+    this.jdbcBulkInsertMaxRows = jdbcBulkInsertMaxRows;
+    return this;
+  }
+
+  public boolean isSharedDbEntityCacheEnabled() {
+    return isSharedDbEntityCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setSharedDbEntityCacheEnabled(boolean isSharedDbEntityCacheEnabled) {
+    this.isSharedDbEntityCacheEnabled = isSharedDbEntityCacheEnabled;
+    return this;
+  }
+
+  public SharedDbEntityCache getSharedDbEntityCache() {
+    return sharedDbEntityCache;
+  }
+
+  public ProcessEngineConfigurationImpl setSharedDbEntityCache(SharedDbEntityCache sharedDbEntityCache) {
+    this.sharedDbEntityCache = sharedDbEntityCache;
+    return this;
+  }
+
+  public Set<Class<?>> getSharedDbEntityCacheTypes() {
+    return sharedDbEntityCacheTypes;
+  }
+
+  public ProcessEngineConfigurationImpl setSharedDbEntityCacheTypes(Set<Class<?>> sharedDbEntityCacheTypes) {
+    this.sharedDbEntityCacheTypes = sharedDbEntityCacheTypes;
+    return this;
+  }
+
+  public int getSharedDbEntityCacheCapacity() {
+    return sharedDbEntityCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setSharedDbEntityCacheCapacity(int sharedDbEntityCacheCapacity) {
+    this.sharedDbEntityCacheCapacity = sharedDbEntityCacheCapacity;
+    return this;
+  }
+
+  public long getSharedDbEntityCacheTimeToLive() {
+    return sharedDbEntityCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setSharedDbEntityCacheTimeToLive(long sharedDbEntityCacheTimeToLive) {
+    this.sharedDbEntityCacheTimeToLive = sharedDbEntityCacheTimeToLive;
+    return this;
+  }
+
   public DbEntityCacheKeyMapping getDbEntityCacheKeyMapping() {
     return dbEntityCacheKeyMapping;
   }
@@ -3547,6 +4212,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   }
 
   public void close() {
+    if (idGenerator instanceof ConcurrentDbIdGenerator) {
+      ((ConcurrentDbIdGenerator) idGenerator).close();
+    }
+
     if (forceCloseMybatisConnectionPool
         && dataSource instanceof PooledDataSource) {
 
@@ -3599,6 +4268,62 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.metricsReporterIdProvider = metricsReporterIdProvider;
   }
 
+  public boolean isTimerMetricsEnabled() {
+    return isTimerMetricsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setTimerMetricsEnabled(boolean isTimerMetricsEnabled) {
+    this.isTimerMetricsEnabled = isTimerMetricsEnabled;
+    return this;
+  }
+
+  public boolean isMetricsRollupEnabled() {
+    return isMetricsRollupEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsRollupEnabled(boolean isMetricsRollupEnabled) {
+    this.isMetricsRollupEnabled = isMetricsRollupEnabled;
+    return this;
+  }
+
+  public int getMetricsRawRetentionDays() {
+    return metricsRawRetentionDays;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsRawRetentionDays(int metricsRawRetentionDays) {
+    this.metricsRawRetentionDays = metricsRawRetentionDays;
+    return this;
+  }
+
+  /**
+   * @return the timer with the given name, or null if metrics or timer metrics are
+   *   disabled; a single field check in the latter case
+   */
+  public Timer getMetricsTimer(String name) {
+    if (isTimerMetricsEnabled && isMetricsEnabled && metricsRegistry != null) {
+      return metricsRegistry.getTimerByName(name);
+    }
+    return null;
+  }
+
+  public List<MetricsExporter> getMetricsExporters() {
+    return metricsExporters;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsExporters(List<MetricsExporter> metricsExporters) {
+    this.metricsExporters = metricsExporters;
+    return this;
+  }
+
+  public SqlProfiler getSqlProfiler() {
+    return sqlProfiler;
+  }
+
+  public ProcessEngineConfigurationImpl setSqlProfiler(SqlProfiler sqlProfiler) {
+    this.sqlProfiler = sqlProfiler;
+    return this;
+  }
+
   public boolean isEnableScriptEngineCaching() {
     return enableScriptEngineCaching;
   }
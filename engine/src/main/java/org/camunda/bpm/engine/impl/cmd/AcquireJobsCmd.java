@@ -21,8 +21,11 @@ import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitioning;
+import org.camunda.bpm.engine.impl.metrics.TimerTransactionListener;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
 
 import java.util.*;
 
@@ -48,12 +51,21 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
   }
 
   public AcquiredJobs execute(CommandContext commandContext) {
+    TimerTransactionListener.startTimer(commandContext, Metrics.JOB_ACQUISITION_TIME);
 
     acquiredJobs = new AcquiredJobs(numJobsToAcquire);
 
-    List<JobEntity> jobs = commandContext
-      .getJobManager()
-      .findNextJobsToExecute(new Page(0, numJobsToAcquire));
+    Set<Integer> partitions = null;
+    JobPartitioning jobPartitioning = commandContext.getProcessEngineConfiguration().getJobPartitioning();
+    if (jobPartitioning != null) {
+      partitions = jobPartitioning.getOwnedPartitions(commandContext, jobExecutor.getLockOwner());
+      if (partitions.isEmpty()) {
+        // all partitions are leased by other job executors
+        return acquiredJobs;
+      }
+    }
+
+    List<JobEntity> jobs = findNextJobsToExecute(commandContext, partitions);
 
     Map<String, List<String>> exclusiveJobsByProcessInstance = new HashMap<String, List<String>>();
 
@@ -88,6 +100,12 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
     return acquiredJobs;
   }
 
+  protected List<JobEntity> findNextJobsToExecute(CommandContext commandContext, Set<Integer> partitions) {
+    return commandContext
+      .getJobManager()
+      .findNextJobsToExecute(new Page(0, numJobsToAcquire), partitions);
+  }
+
   protected void lockJob(JobEntity job) {
     String lockOwner = jobExecutor.getLockOwner();
     job.setLockOwner(lockOwner);
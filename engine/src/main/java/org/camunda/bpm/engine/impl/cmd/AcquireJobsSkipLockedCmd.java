@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * <p>Acquires jobs with <code>SELECT ... FOR UPDATE SKIP LOCKED</code> (or the database
+ * specific equivalent): the selected jobs are locked in the database until the acquisition
+ * transaction ends and jobs which are currently acquired by other job executors are skipped
+ * instead of failing with an optimistic locking exception on flush.</p>
+ *
+ * <p>Falls back to the optimistic acquisition of {@link AcquireJobsCmd} if the database
+ * does not support it.</p>
+ */
+public class AcquireJobsSkipLockedCmd extends AcquireJobsCmd {
+
+  public AcquireJobsSkipLockedCmd(JobExecutor jobExecutor) {
+    super(jobExecutor);
+  }
+
+  public AcquireJobsSkipLockedCmd(JobExecutor jobExecutor, int numJobsToAcquire) {
+    super(jobExecutor, numJobsToAcquire);
+  }
+
+  protected List<JobEntity> findNextJobsToExecute(CommandContext commandContext, Set<Integer> partitions) {
+    return commandContext
+      .getJobManager()
+      .findNextJobsToExecuteSkipLocked(new Page(0, numJobsToAcquire), partitions);
+  }
+
+}
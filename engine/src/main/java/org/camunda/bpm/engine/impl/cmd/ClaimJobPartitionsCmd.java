@@ -0,0 +1,209 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorLogger;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitioning;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Renews the job partition leases of an owner and rebalances the partitions:
+ * the owner keeps or claims up to its fair share of partitions (the partition count
+ * divided by the number of owners holding a valid lease) and releases the partitions
+ * exceeding it. An owner without enough free partitions takes partitions over from
+ * the owner with the largest share.</p>
+ *
+ * <p>Leases are changed with optimistic locking; partitions which are changed
+ * concurrently by another owner are not part of the result.</p>
+ */
+public class ClaimJobPartitionsCmd implements Command<Set<Integer>>, OptimisticLockingListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected JobPartitioning jobPartitioning;
+  protected String owner;
+
+  protected Set<Integer> ownedPartitions;
+
+  public ClaimJobPartitionsCmd(JobPartitioning jobPartitioning, String owner) {
+    this.jobPartitioning = jobPartitioning;
+    this.owner = owner;
+  }
+
+  public Set<Integer> execute(CommandContext commandContext) {
+    long now = ClockUtil.getCurrentTime().getTime();
+    String renewedLease = JobPartitionLease.toValue(owner, now + jobPartitioning.getLeaseTimeInMillis());
+
+    Map<Integer, PropertyEntity> leaseProperties = findLeaseProperties(commandContext);
+
+    List<Integer> partitionsOfOwner = new ArrayList<Integer>();
+    List<Integer> freePartitions = new ArrayList<Integer>();
+    Map<String, List<Integer>> partitionsOfOtherOwners = new HashMap<String, List<Integer>>();
+
+    for (Map.Entry<Integer, PropertyEntity> leaseProperty : leaseProperties.entrySet()) {
+      JobPartitionLease lease = JobPartitionLease.fromValue(leaseProperty.getValue().getValue());
+
+      if (lease != null && owner.equals(lease.owner)) {
+        partitionsOfOwner.add(leaseProperty.getKey());
+      }
+      else if (lease != null && lease.expirationTime > now) {
+        List<Integer> partitions = partitionsOfOtherOwners.get(lease.owner);
+        if (partitions == null) {
+          partitions = new ArrayList<Integer>();
+          partitionsOfOtherOwners.put(lease.owner, partitions);
+        }
+        partitions.add(leaseProperty.getKey());
+      }
+      else {
+        freePartitions.add(leaseProperty.getKey());
+      }
+    }
+
+    int numberOfOwners = partitionsOfOtherOwners.size() + 1;
+    int fairShare = (jobPartitioning.getPartitionCount() + numberOfOwners - 1) / numberOfOwners;
+    ownedPartitions = new TreeSet<Integer>();
+
+    for (Integer partition : partitionsOfOwner) {
+      if (ownedPartitions.size() < fairShare) {
+        leaseProperties.get(partition).setValue(renewedLease);
+        ownedPartitions.add(partition);
+      }
+      else {
+        // another owner joined
+        leaseProperties.get(partition).setValue("");
+      }
+    }
+
+    for (Integer partition : freePartitions) {
+      if (ownedPartitions.size() >= fairShare) {
+        break;
+      }
+      leaseProperties.get(partition).setValue(renewedLease);
+      ownedPartitions.add(partition);
+    }
+
+    // take over partitions from owners which have at least two partitions more;
+    // they notice it on their next heartbeat
+    List<Integer> largestShare = findLargestShare(partitionsOfOtherOwners);
+    while (ownedPartitions.size() < fairShare && largestShare.size() > ownedPartitions.size() + 1) {
+      Integer partition = largestShare.remove(largestShare.size() - 1);
+      leaseProperties.get(partition).setValue(renewedLease);
+      ownedPartitions.add(partition);
+      largestShare = findLargestShare(partitionsOfOtherOwners);
+    }
+
+    // partitions claimed by another owner in the meantime are removed from the result
+    commandContext
+      .getDbEntityManager()
+      .registerOptimisticLockingListener(this);
+
+    LOG.jobPartitionsClaimed(owner, numberOfOwners, ownedPartitions);
+
+    return ownedPartitions;
+  }
+
+  protected List<Integer> findLargestShare(Map<String, List<Integer>> partitionsOfOwners) {
+    List<Integer> largestShare = Collections.emptyList();
+    for (List<Integer> partitions : partitionsOfOwners.values()) {
+      if (partitions.size() > largestShare.size()) {
+        largestShare = partitions;
+      }
+    }
+    return largestShare;
+  }
+
+  protected Map<Integer, PropertyEntity> findLeaseProperties(CommandContext commandContext) {
+    List<PropertyEntity> properties = commandContext
+      .getPropertyManager()
+      .findPropertiesByNamePrefix(JobPartitioning.LEASE_PROPERTY_PREFIX);
+
+    Map<Integer, PropertyEntity> leaseProperties = new TreeMap<Integer, PropertyEntity>();
+    for (PropertyEntity property : properties) {
+      try {
+        int partition = Integer.parseInt(property.getName().substring(JobPartitioning.LEASE_PROPERTY_PREFIX.length()));
+        if (partition < jobPartitioning.getPartitionCount()) {
+          leaseProperties.put(partition, property);
+        }
+      }
+      catch (NumberFormatException e) {
+        // not a partition lease
+      }
+    }
+    return leaseProperties;
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return PropertyEntity.class;
+  }
+
+  public void failedOperation(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      String propertyName = ((DbEntityOperation) operation).getEntity().getId();
+      if (propertyName.startsWith(JobPartitioning.LEASE_PROPERTY_PREFIX)) {
+        ownedPartitions.remove(Integer.valueOf(propertyName.substring(JobPartitioning.LEASE_PROPERTY_PREFIX.length())));
+      }
+    }
+  }
+
+  /**
+   * The value of a lease property: <code>owner:expirationTime</code>.
+   */
+  protected static class JobPartitionLease {
+
+    protected String owner;
+    protected long expirationTime;
+
+    public static JobPartitionLease fromValue(String value) {
+      if (value == null) {
+        return null;
+      }
+
+      int separator = value.lastIndexOf(':');
+      if (separator <= 0) {
+        return null;
+      }
+
+      JobPartitionLease lease = new JobPartitionLease();
+      lease.owner = value.substring(0, separator);
+      try {
+        lease.expirationTime = Long.parseLong(value.substring(separator + 1));
+      }
+      catch (NumberFormatException e) {
+        return null;
+      }
+      return lease;
+    }
+
+    public static String toValue(String owner, long expirationTime) {
+      return owner + ":" + expirationTime;
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.EntityTypes;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+
+/**
+ * Completes several external tasks in one transaction. Each task is validated right before it
+ * is completed, since completing a task may delete a later task of the batch (e.g. by reaching a
+ * terminate end event); tasks which fail the validation are skipped and their exceptions are
+ * returned, since no state has been modified for them.
+ */
+public class CompleteExternalTasksCmd implements Command<Map<String, ProcessEngineException>> {
+
+  private final static EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected String workerId;
+  protected Collection<CompleteExternalTaskCmd> completions;
+
+  public CompleteExternalTasksCmd(String workerId, Collection<CompleteExternalTaskCmd> completions) {
+    this.workerId = workerId;
+    this.completions = completions;
+  }
+
+  public Map<String, ProcessEngineException> execute(CommandContext commandContext) {
+    ensureNotNull("workerId", workerId);
+    ensureNotNull("completions", completions);
+
+    Map<String, ProcessEngineException> failures = new LinkedHashMap<String, ProcessEngineException>();
+
+    for (CompleteExternalTaskCmd completion : completions) {
+      ExternalTaskEntity externalTask;
+      try {
+        externalTask = completion.findExternalTaskToHandle(commandContext);
+        if (commandContext.getDbEntityManager().isDeleted(externalTask)) {
+          // the task is still cached but was removed by a preceding completion
+          throw new NotFoundException("Cannot find external task with id " + externalTask.getId()
+              + ": it was deleted by the completion of another external task");
+        }
+        if (externalTask.isSuspended()) {
+          throw LOG.suspendedEntityException(EntityTypes.EXTERNAL_TASK, externalTask.getId());
+        }
+      }
+      catch (ProcessEngineException e) {
+        failures.put(completion.externalTaskId, e);
+        continue;
+      }
+
+      completion.execute(externalTask);
+    }
+
+    return failures;
+  }
+
+}
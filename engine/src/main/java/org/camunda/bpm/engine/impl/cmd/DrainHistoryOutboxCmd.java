@@ -0,0 +1,83 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxDrainer;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxSession;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.management.Metrics;
+
+/**
+ * Moves the first entries of the history outbox into the history tables.
+ * Drainers are serialized by the {@link HistoryOutboxDrainer#LOCK_PROPERTY_NAME history
+ * outbox lock}; in addition, the entries are deleted with a revision check, so concurrent
+ * drainers cannot write the same history events twice. Returns the number of drained
+ * outbox entries.
+ */
+public class DrainHistoryOutboxCmd implements Command<Integer> {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected HistoryEventHandler historyEventHandler;
+  protected int maxEntries;
+
+  public DrainHistoryOutboxCmd(HistoryEventHandler historyEventHandler, int maxEntries) {
+    this.historyEventHandler = historyEventHandler;
+    this.maxEntries = maxEntries;
+  }
+
+  public Integer execute(CommandContext commandContext) {
+    // serializes the drainers of all process engines using this database
+    commandContext.getPropertyManager().acquireExclusiveLockForHistoryOutbox();
+
+    List<ByteArrayEntity> entries = commandContext
+      .getByteArrayManager()
+      .findHistoryOutboxEntries(HistoryOutboxSession.ENTRY_NAME_PREFIX, maxEntries);
+
+    if (entries.isEmpty()) {
+      return 0;
+    }
+
+    DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+    List<HistoryEvent> historyEvents = new ArrayList<HistoryEvent>();
+
+    for (ByteArrayEntity entry : entries) {
+      historyEvents.addAll(HistoryOutboxSession.deserializeHistoryEvents(entry));
+      dbEntityManager.delete(entry);
+    }
+
+    historyEventHandler.handleEvents(historyEvents);
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    if (processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration.getMetricsRegistry()
+        .markOccurrence(Metrics.HISTORY_OUTBOX_EVENTS_DRAINED, historyEvents.size());
+    }
+
+    LOG.historyOutboxDrained(entries.size(), historyEvents.size());
+
+    return entries.size();
+  }
+
+}
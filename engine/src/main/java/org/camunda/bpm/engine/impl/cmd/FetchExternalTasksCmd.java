@@ -25,8 +25,17 @@ import org.camunda.bpm.engine.impl.externaltask.LockedExternalTaskImpl;
 import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.metrics.TimerTransactionListener;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskManager;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.variable.impl.VariableMapImpl;
 
 /**
  * @author Thorben Lindhauer
@@ -66,14 +75,21 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
   @Override
   public List<LockedExternalTask> execute(CommandContext commandContext) {
     validateInput();
+    TimerTransactionListener.startTimer(commandContext, Metrics.EXTERNAL_TASK_FETCH_TIME);
 
     for (TopicFetchInstruction instruction : fetchInstructions.values()) {
       instruction.ensureVariablesInitialized();
     }
 
+    boolean skipLocked = commandContext.getProcessEngineConfiguration().isExternalTaskFetchWithSkipLocked();
+
     List<ExternalTaskEntity> externalTasks = commandContext
       .getExternalTaskManager()
-      .selectExternalTasksForTopics(fetchInstructions.values(), filterByBusinessKey, maxResults, usePriority);
+      .selectExternalTasksForTopics(fetchInstructions.values(), filterByBusinessKey, maxResults, usePriority, skipLocked);
+
+    if (commandContext.getProcessEngineConfiguration().isExternalTaskBulkFetchAndLockEnabled()) {
+      return lockInBulk(commandContext, externalTasks);
+    }
 
     final List<LockedExternalTask> result = new ArrayList<LockedExternalTask>();
 
@@ -93,6 +109,136 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
     return result;
   }
 
+  /**
+   * Locks the external tasks with one update statement per lock duration and collects
+   * the variables of all locked tasks with one query.
+   */
+  protected List<LockedExternalTask> lockInBulk(CommandContext commandContext, List<ExternalTaskEntity> externalTasks) {
+    Map<Long, List<ExternalTaskEntity>> externalTasksByLockDuration = new HashMap<Long, List<ExternalTaskEntity>>();
+    for (ExternalTaskEntity entity : externalTasks) {
+      Long lockDuration = fetchInstructions.get(entity.getTopicName()).getLockDuration();
+      CollectionUtil.addToMapOfLists(externalTasksByLockDuration, lockDuration, entity);
+    }
+
+    ExternalTaskManager externalTaskManager = commandContext.getExternalTaskManager();
+    long now = ClockUtil.getCurrentTime().getTime();
+
+    Set<String> lockedIds = new HashSet<String>();
+    for (Map.Entry<Long, List<ExternalTaskEntity>> externalTasksToLock : externalTasksByLockDuration.entrySet()) {
+      Date lockExpirationTime = new Date(now + externalTasksToLock.getKey());
+      for (ExternalTaskEntity entity : externalTaskManager.lockExternalTasks(externalTasksToLock.getValue(), workerId, lockExpirationTime)) {
+        lockedIds.add(entity.getId());
+      }
+    }
+
+    // keep the order of the selection
+    List<ExternalTaskEntity> lockedExternalTasks = new ArrayList<ExternalTaskEntity>();
+    for (ExternalTaskEntity entity : externalTasks) {
+      if (lockedIds.contains(entity.getId())) {
+        lockedExternalTasks.add(entity);
+      }
+    }
+
+    Map<String, VariableMapImpl> variablesByExternalTaskId = collectVariables(commandContext, lockedExternalTasks);
+
+    List<LockedExternalTask> result = new ArrayList<LockedExternalTask>();
+    for (ExternalTaskEntity entity : lockedExternalTasks) {
+      result.add(LockedExternalTaskImpl.fromEntity(entity, variablesByExternalTaskId.get(entity.getId())));
+    }
+
+    return result;
+  }
+
+  /**
+   * Collects the variables to fetch like {@link ExecutionEntity#collectVariables}, but selects the
+   * execution hierarchies and variables of all external tasks at once.
+   */
+  protected Map<String, VariableMapImpl> collectVariables(CommandContext commandContext, List<ExternalTaskEntity> externalTasks) {
+    Map<String, VariableMapImpl> variablesByExternalTaskId = new HashMap<String, VariableMapImpl>();
+
+    Set<String> executionIds = new HashSet<String>();
+    Set<String> variableNames = new HashSet<String>();
+    boolean fetchAllVariables = false;
+
+    for (ExternalTaskEntity entity : externalTasks) {
+      List<String> variablesToFetch = fetchInstructions.get(entity.getTopicName()).getVariablesToFetch();
+      if (variablesToFetch == null) {
+        fetchAllVariables = true;
+      }
+      else if (!variablesToFetch.isEmpty()) {
+        variableNames.addAll(variablesToFetch);
+      }
+      else {
+        continue;
+      }
+
+      executionIds.add(entity.getExecutionId());
+    }
+
+    Map<String, ExecutionEntity> executionsById = findExecutionHierarchies(commandContext, executionIds);
+
+    Map<String, List<VariableInstanceEntity>> variablesByExecutionId = new HashMap<String, List<VariableInstanceEntity>>();
+    if (!executionsById.isEmpty()) {
+      List<VariableInstanceEntity> variables = commandContext
+        .getVariableInstanceManager()
+        .findVariableInstancesByExecutionIdsAndVariableNames(executionsById.keySet(), fetchAllVariables ? null : variableNames);
+
+      for (VariableInstanceEntity variable : variables) {
+        CollectionUtil.addToMapOfLists(variablesByExecutionId, variable.getExecutionId(), variable);
+      }
+    }
+
+    for (ExternalTaskEntity entity : externalTasks) {
+      TopicFetchInstruction fetchInstruction = fetchInstructions.get(entity.getTopicName());
+      List<String> variablesToFetch = fetchInstruction.getVariablesToFetch();
+
+      VariableMapImpl variables = new VariableMapImpl();
+      // local variables hide variables of the same name in parent scopes
+      for (ExecutionEntity execution = executionsById.get(entity.getExecutionId()); execution != null; execution = executionsById.get(execution.getParentId())) {
+        List<VariableInstanceEntity> executionVariables = variablesByExecutionId.get(execution.getId());
+        if (executionVariables == null) {
+          continue;
+        }
+
+        for (VariableInstanceEntity variable : executionVariables) {
+          String name = variable.getName();
+          if (!variables.containsKey(name) && (variablesToFetch == null || variablesToFetch.contains(name))) {
+            variables.put(name, variable.getTypedValue(fetchInstruction.isDeserializeVariables()));
+          }
+        }
+      }
+
+      variablesByExternalTaskId.put(entity.getId(), variables);
+    }
+
+    return variablesByExternalTaskId;
+  }
+
+  /**
+   * Selects the given executions and their ancestors with one query per level of the
+   * execution trees. Other executions of the process instances are not loaded.
+   */
+  protected Map<String, ExecutionEntity> findExecutionHierarchies(CommandContext commandContext, Set<String> executionIds) {
+    ExecutionManager executionManager = commandContext.getExecutionManager();
+    Map<String, ExecutionEntity> executionsById = new HashMap<String, ExecutionEntity>();
+
+    Set<String> executionIdsToFind = executionIds;
+    while (!executionIdsToFind.isEmpty()) {
+      Set<String> parentIds = new HashSet<String>();
+      for (ExecutionEntity execution : executionManager.findExecutionsByIds(new ArrayList<String>(executionIdsToFind))) {
+        executionsById.put(execution.getId(), execution);
+        if (execution.getParentId() != null) {
+          parentIds.add(execution.getParentId());
+        }
+      }
+
+      parentIds.removeAll(executionsById.keySet());
+      executionIdsToFind = parentIds;
+    }
+
+    return executionsById;
+  }
+
   protected void filterOnOptimisticLockingFailure(CommandContext commandContext, final List<LockedExternalTask> tasks) {
     commandContext.getDbEntityManager().registerOptimisticLockingListener(new OptimisticLockingListener() {
 
@@ -125,7 +271,7 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
     });
   }
 
-  protected void validateInput() {
+  public void validateInput() {
     EnsureUtil.ensureNotNull("workerId", workerId);
     EnsureUtil.ensureGreaterThanOrEqual("maxResults", maxResults, 0);
 
@@ -0,0 +1,159 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.externaltask.LockedExternalTaskImpl;
+import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.metrics.TimerTransactionListener;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+import org.camunda.bpm.engine.management.Metrics;
+
+/**
+ * <p>Executes the fetches of several workers with a single selection of external tasks for the
+ * union of their topics. The selected tasks are distributed round robin among the workers
+ * subscribed to their topic, in the order of the given fetches, and locked for the receiving
+ * worker with its lock duration.</p>
+ *
+ * <p>Fetches which filter by business key or process variables cannot share the selection
+ * and are not accepted.</p>
+ */
+public class FetchExternalTasksForWorkersCmd implements Command<List<List<LockedExternalTask>>> {
+
+  protected List<FetchExternalTasksCmd> fetches;
+
+  public FetchExternalTasksForWorkersCmd(List<FetchExternalTasksCmd> fetches) {
+    this.fetches = fetches;
+  }
+
+  public List<List<LockedExternalTask>> execute(CommandContext commandContext) {
+    TimerTransactionListener.startTimer(commandContext, Metrics.EXTERNAL_TASK_FETCH_TIME);
+    List<List<LockedExternalTask>> results = new ArrayList<List<LockedExternalTask>>();
+
+    for (FetchExternalTasksCmd fetch : fetches) {
+      fetch.validateInput();
+      if (!isSelectionShareable(fetch)) {
+        throw new BadUserRequestException("Fetch of worker '" + fetch.workerId
+            + "' filters by business key or process variables and cannot share the selection of external tasks");
+      }
+      results.add(new ArrayList<LockedExternalTask>());
+    }
+
+    if (!fetches.isEmpty()) {
+      fetchShared(commandContext, results);
+    }
+
+    return results;
+  }
+
+  /**
+   * @return true if the fetch does not filter by business key or process variables
+   */
+  public static boolean isSelectionShareable(FetchExternalTasksCmd fetch) {
+    if (fetch.filterByBusinessKey) {
+      return false;
+    }
+    for (TopicFetchInstruction instruction : fetch.fetchInstructions.values()) {
+      if (!instruction.getFilterVariables().isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected void fetchShared(CommandContext commandContext, List<List<LockedExternalTask>> results) {
+    Map<String, TopicFetchInstruction> topics = new LinkedHashMap<String, TopicFetchInstruction>();
+    int maxResults = 0;
+    boolean usePriority = false;
+    int[] remainingTasks = new int[fetches.size()];
+
+    for (int i = 0; i < fetches.size(); i++) {
+      FetchExternalTasksCmd fetch = fetches.get(i);
+      for (TopicFetchInstruction instruction : fetch.fetchInstructions.values()) {
+        if (!topics.containsKey(instruction.getTopicName())) {
+          topics.put(instruction.getTopicName(), instruction);
+        }
+      }
+      maxResults += fetch.maxResults;
+      usePriority |= fetch.usePriority;
+      remainingTasks[i] = fetch.maxResults;
+    }
+
+    boolean skipLocked = commandContext.getProcessEngineConfiguration().isExternalTaskFetchWithSkipLocked();
+
+    List<ExternalTaskEntity> externalTasks = commandContext
+      .getExternalTaskManager()
+      .selectExternalTasksForTopics(topics.values(), false, maxResults, usePriority, skipLocked);
+
+    int nextFetch = 0;
+    for (ExternalTaskEntity entity : externalTasks) {
+      for (int j = 0; j < fetches.size(); j++) {
+        int i = (nextFetch + j) % fetches.size();
+        TopicFetchInstruction instruction = fetches.get(i).fetchInstructions.get(entity.getTopicName());
+
+        if (instruction != null && remainingTasks[i] > 0) {
+          entity.lock(fetches.get(i).workerId, instruction.getLockDuration());
+          results.get(i).add(LockedExternalTaskImpl.fromEntity(entity,
+              instruction.getVariablesToFetch(), instruction.isDeserializeVariables()));
+
+          remainingTasks[i]--;
+          nextFetch = i + 1;
+          break;
+        }
+      }
+    }
+
+    filterOnOptimisticLockingFailure(commandContext, results);
+  }
+
+  protected void filterOnOptimisticLockingFailure(CommandContext commandContext, final List<List<LockedExternalTask>> results) {
+    commandContext.getDbEntityManager().registerOptimisticLockingListener(new OptimisticLockingListener() {
+
+      public Class<? extends DbEntity> getEntityType() {
+        return ExternalTaskEntity.class;
+      }
+
+      public void failedOperation(DbOperation operation) {
+        if (operation instanceof DbEntityOperation) {
+          DbEntity dbEntity = ((DbEntityOperation) operation).getEntity();
+
+          for (List<LockedExternalTask> result : results) {
+            Iterator<LockedExternalTask> it = result.iterator();
+            while (it.hasNext()) {
+              if (it.next().getId().equals(dbEntity.getId())) {
+                it.remove();
+                return;
+              }
+            }
+          }
+
+          throw FetchExternalTasksCmd.LOG.concurrentUpdateDbEntityException(operation);
+        }
+      }
+    });
+  }
+
+}
@@ -41,6 +41,22 @@ public abstract class HandleExternalTaskCmd extends ExternalTaskCmd {
 
   @Override
   public Void execute(CommandContext commandContext) {
+    ExternalTaskEntity externalTask = findExternalTaskToHandle(commandContext);
+
+    execute(externalTask);
+
+    return null;
+  }
+
+  /**
+   * Validates the input and returns the external task if the worker may handle it.
+   * Does not modify any state, so that failures can be reported without rolling
+   * back the surrounding command.
+   *
+   * @throws NotFoundException if the external task does not exist
+   * @throws BadUserRequestException if the external task is locked by another worker
+   */
+  public ExternalTaskEntity findExternalTaskToHandle(CommandContext commandContext) {
     validateInput();    
 
     ExternalTaskEntity externalTask = commandContext.getExternalTaskManager().findExternalTaskById(externalTaskId);
@@ -54,10 +70,8 @@ public abstract class HandleExternalTaskCmd extends ExternalTaskCmd {
     for(CommandChecker checker : commandContext.getProcessEngineConfiguration().getCommandCheckers()) {
       checker.checkUpdateProcessInstanceById(externalTask.getProcessInstanceId());
     }
-    
-    execute(externalTask);
-    
-    return null;
+
+    return externalTask;
   }
   
   /**
@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LatestDefinitionIndex;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
+
+/**
+ * Increments the deployment version checked by the {@link LatestDefinitionIndex} of each
+ * process engine and returns the new version. Executed within the transaction changing the
+ * definitions, so that no process engine can see the changed definitions with the previous
+ * version. A concurrent change of the version fails the transaction with an
+ * {@link org.camunda.bpm.engine.OptimisticLockingException}.
+ */
+public class PublishDeploymentVersionCmd implements Command<String> {
+
+  public String execute(CommandContext commandContext) {
+    PropertyManager propertyManager = commandContext.getPropertyManager();
+
+    PropertyEntity property = propertyManager.findPropertyById(LatestDefinitionIndex.DEPLOYMENT_VERSION_PROPERTY_NAME);
+    if (property == null) {
+      // prevent other process engines from creating the same property
+      propertyManager.acquireExclusiveLockForStartup();
+
+      property = propertyManager.findPropertyById(LatestDefinitionIndex.DEPLOYMENT_VERSION_PROPERTY_NAME);
+      if (property == null) {
+        String deploymentVersion = "1";
+        commandContext.getDbEntityManager().insert(new PropertyEntity(LatestDefinitionIndex.DEPLOYMENT_VERSION_PROPERTY_NAME, deploymentVersion));
+        return deploymentVersion;
+      }
+    }
+
+    String deploymentVersion = String.valueOf(parseVersion(property.getValue()) + 1);
+    property.setValue(deploymentVersion);
+
+    return deploymentVersion;
+  }
+
+  protected long parseVersion(String value) {
+    try {
+      return Long.parseLong(value);
+    }
+    catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.notification.DbPropertyNotificationChannel;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
+
+/**
+ * Writes a notification of a {@link DbPropertyNotificationChannel} and returns the
+ * notification it replaces. If another node writes a notification concurrently,
+ * the notification is not published.
+ */
+public class PublishNotificationCmd implements Command<String>, OptimisticLockingListener {
+
+  protected DbPropertyNotificationChannel notificationChannel;
+  protected Set<String> subjects;
+
+  protected String notification;
+  protected boolean published = true;
+
+  public PublishNotificationCmd(DbPropertyNotificationChannel notificationChannel, Set<String> subjects) {
+    this.notificationChannel = notificationChannel;
+    this.subjects = subjects;
+  }
+
+  public String execute(CommandContext commandContext) {
+    PropertyManager propertyManager = commandContext.getPropertyManager();
+    String propertyName = notificationChannel.getPropertyName();
+
+    PropertyEntity property = propertyManager.findPropertyById(propertyName);
+    if (property == null) {
+      // prevent other process engines from creating the same property
+      propertyManager.acquireExclusiveLockForStartup();
+
+      property = propertyManager.findPropertyById(propertyName);
+      if (property == null) {
+        notification = notificationChannel.createNotification(null, subjects);
+        commandContext.getDbEntityManager().insert(new PropertyEntity(propertyName, notification));
+        return null;
+      }
+    }
+
+    String previousNotification = property.getValue();
+    notification = notificationChannel.createNotification(previousNotification, subjects);
+    property.setValue(notification);
+
+    commandContext
+      .getDbEntityManager()
+      .registerOptimisticLockingListener(this);
+
+    return previousNotification;
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return PropertyEntity.class;
+  }
+
+  public void failedOperation(DbOperation operation) {
+    published = false;
+  }
+
+  /**
+   * @return the written notification
+   */
+  public String getNotification() {
+    return notification;
+  }
+
+  /**
+   * @return false if another node wrote a notification concurrently
+   */
+  public boolean isPublished() {
+    return published;
+  }
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitioning;
+
+/**
+ * Renews the job partition leases of an owner if the heartbeat interval has passed,
+ * for a job executor which does not acquire jobs since it has no capacity left.
+ */
+public class RenewJobPartitionLeasesCmd implements Command<Set<Integer>> {
+
+  protected JobPartitioning jobPartitioning;
+  protected String owner;
+
+  public RenewJobPartitionLeasesCmd(JobPartitioning jobPartitioning, String owner) {
+    this.jobPartitioning = jobPartitioning;
+    this.owner = owner;
+  }
+
+  public Set<Integer> execute(CommandContext commandContext) {
+    return jobPartitioning.getOwnedPartitions(commandContext, owner);
+  }
+
+}
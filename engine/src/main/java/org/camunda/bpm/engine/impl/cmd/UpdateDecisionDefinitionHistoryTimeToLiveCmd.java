@@ -46,6 +46,7 @@ public class UpdateDecisionDefinitionHistoryTimeToLiveCmd implements Command<Voi
 
     DecisionDefinitionEntity decisionDefinitionEntity = commandContext.getDecisionDefinitionManager().findDecisionDefinitionById(decisionDefinitionId);
     decisionDefinitionEntity.setHistoryTimeToLive(historyTimeToLive);
+    commandContext.getDeploymentManager().invalidateLatestDefinitionIndex();
 
     return null;
   }
@@ -49,6 +49,7 @@ public class UpdateProcessDefinitionHistoryTimeToLiveCmd implements Command<Void
     ProcessDefinitionEntity processDefinitionEntity = commandContext.getProcessDefinitionManager().findLatestProcessDefinitionById(processDefinitionId);
     logUserOperation(commandContext, processDefinitionEntity);
     processDefinitionEntity.setHistoryTimeToLive(historyTimeToLive);
+    commandContext.getDeploymentManager().invalidateLatestDefinitionIndex();
 
     return null;
   }
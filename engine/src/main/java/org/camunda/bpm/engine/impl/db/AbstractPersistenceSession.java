@@ -21,6 +21,7 @@ import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkInsertOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
@@ -40,6 +41,9 @@ public abstract class AbstractPersistenceSession implements PersistenceSession {
       case INSERT:
         insertEntity((DbEntityOperation) operation);
         break;
+      case INSERT_BULK:
+        insertEntities((DbBulkInsertOperation) operation);
+        break;
 
       case DELETE:
         deleteEntity((DbEntityOperation) operation);
@@ -60,6 +64,8 @@ public abstract class AbstractPersistenceSession implements PersistenceSession {
 
   protected abstract void insertEntity(DbEntityOperation operation);
 
+  protected abstract void insertEntities(DbBulkInsertOperation operation);
+
   protected abstract void deleteEntity(DbEntityOperation operation);
 
   protected abstract void deleteBulk(DbBulkOperation operation);
@@ -0,0 +1,266 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+
+/**
+ * <p>{@link DbIdGenerator} which avoids a process engine wide monitor on the
+ * hot path of id generation:</p>
+ *
+ * <ul>
+ *   <li>Each thread takes a small sub block of ids ({@link #subBlockSize}) from
+ *   the shared id block and hands out ids from it without any synchronization.</li>
+ *   <li>Once the shared id block is consumed to the prefetch threshold, the next block
+ *   is fetched from the database by a background thread so that callers usually do
+ *   not wait for the <code>ACT_GE_PROPERTY</code> row lock.</li>
+ *   <li>The size of the fetched blocks adapts to the observed consumption rate
+ *   within the bounds of the configured {@link #idBlockSize} and {@link #maxIdBlockSize}.</li>
+ * </ul>
+ *
+ * <p>Ids are unique but not necessarily handed out in ascending order across threads.</p>
+ */
+public class ConcurrentDbIdGenerator extends DbIdGenerator {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected int subBlockSize = 10;
+  protected int maxIdBlockSize = 10000;
+
+  /**
+   * the time one id block should last; blocks consumed faster are
+   * doubled in size, blocks consumed slower are halved
+   */
+  protected long targetBlockDurationMillis = 10000;
+
+  /**
+   * the fraction of the current block which must be consumed
+   * before the next block is prefetched
+   */
+  protected float prefetchThreshold = 0.5f;
+
+  protected final ReentrantLock blockLock = new ReentrantLock();
+  protected final ThreadLocal<IdSubBlock> subBlocks = new ThreadLocal<IdSubBlock>();
+
+  protected volatile int generation;
+  protected int currentBlockSize;
+  protected long currentBlockFetchTime;
+  protected Future<IdBlock> prefetchedBlock;
+  protected ExecutorService prefetchExecutor;
+
+  public String getNextId() {
+    IdSubBlock subBlock = subBlocks.get();
+
+    if (subBlock == null || subBlock.isExhausted() || subBlock.generation != generation) {
+      subBlock = allocateSubBlock();
+      subBlocks.set(subBlock);
+    }
+
+    return Long.toString(subBlock.nextId++);
+  }
+
+  protected IdSubBlock allocateSubBlock() {
+    blockLock.lock();
+    try {
+      if (lastId < nextId) {
+        getNewBlock();
+      }
+
+      long subBlockStart = nextId;
+      long subBlockEnd = Math.min(lastId, subBlockStart + subBlockSize - 1);
+      nextId = subBlockEnd + 1;
+
+      long remaining = lastId - nextId + 1;
+      if (prefetchedBlock == null && remaining <= currentBlockSize * (1 - prefetchThreshold)) {
+        prefetchBlock();
+      }
+
+      return new IdSubBlock(subBlockStart, subBlockEnd, generation);
+
+    } finally {
+      blockLock.unlock();
+    }
+  }
+
+  /**
+   * Must be called while holding the {@link #blockLock}.
+   */
+  protected void getNewBlock() {
+    IdBlock idBlock = null;
+
+    if (prefetchedBlock != null) {
+      try {
+        idBlock = prefetchedBlock.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        LOG.idBlockPrefetchFailed(e.getCause());
+      } finally {
+        prefetchedBlock = null;
+      }
+    }
+
+    if (idBlock == null) {
+      idBlock = fetchBlock(nextBlockSize());
+    }
+
+    this.nextId = idBlock.getNextId();
+    this.lastId = idBlock.getLastId();
+    this.currentBlockSize = (int) (lastId - nextId + 1);
+    this.currentBlockFetchTime = System.currentTimeMillis();
+  }
+
+  protected void prefetchBlock() {
+    final int blockSize = nextBlockSize();
+    prefetchedBlock = getPrefetchExecutor().submit(new Callable<IdBlock>() {
+      public IdBlock call() throws Exception {
+        return fetchBlock(blockSize);
+      }
+    });
+  }
+
+  protected IdBlock fetchBlock(int blockSize) {
+    return commandExecutor.execute(new GetNextIdBlockCmd(blockSize));
+  }
+
+  /**
+   * Determines the size of the next id block from the time it took
+   * to consume the current one.
+   */
+  protected int nextBlockSize() {
+    if (currentBlockSize == 0) {
+      return idBlockSize;
+    }
+
+    long blockDuration = System.currentTimeMillis() - currentBlockFetchTime;
+    int blockSize = currentBlockSize;
+
+    if (blockDuration < targetBlockDurationMillis / 2) {
+      blockSize = Math.min(maxIdBlockSize, blockSize * 2);
+    }
+    else if (blockDuration > targetBlockDurationMillis * 2) {
+      blockSize = Math.max(idBlockSize, blockSize / 2);
+    }
+
+    if (blockSize != currentBlockSize) {
+      LOG.idBlockSizeAdjusted(currentBlockSize, blockSize);
+    }
+
+    return blockSize;
+  }
+
+  protected synchronized ExecutorService getPrefetchExecutor() {
+    if (prefetchExecutor == null) {
+      prefetchExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable, "camunda-id-block-prefetch");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return prefetchExecutor;
+  }
+
+  /**
+   * Stops the background prefetching of id blocks. Ids of a block which has
+   * been prefetched but not used yet are skipped.
+   */
+  public synchronized void close() {
+    if (prefetchExecutor != null) {
+      prefetchExecutor.shutdownNow();
+      prefetchExecutor = null;
+    }
+  }
+
+  @Override
+  public void reset() {
+    if (blockLock == null) {
+      // called by the constructor of the super class before the fields of this class are initialized
+      super.reset();
+      return;
+    }
+
+    blockLock.lock();
+    try {
+      super.reset();
+      // invalidates the sub blocks held by all threads
+      generation++;
+      currentBlockSize = 0;
+      prefetchedBlock = null;
+
+    } finally {
+      blockLock.unlock();
+    }
+  }
+
+  public int getSubBlockSize() {
+    return subBlockSize;
+  }
+
+  public void setSubBlockSize(int subBlockSize) {
+    this.subBlockSize = subBlockSize;
+  }
+
+  public int getMaxIdBlockSize() {
+    return maxIdBlockSize;
+  }
+
+  public void setMaxIdBlockSize(int maxIdBlockSize) {
+    this.maxIdBlockSize = maxIdBlockSize;
+  }
+
+  public long getTargetBlockDurationMillis() {
+    return targetBlockDurationMillis;
+  }
+
+  public void setTargetBlockDurationMillis(long targetBlockDurationMillis) {
+    this.targetBlockDurationMillis = targetBlockDurationMillis;
+  }
+
+  public float getPrefetchThreshold() {
+    return prefetchThreshold;
+  }
+
+  public void setPrefetchThreshold(float prefetchThreshold) {
+    this.prefetchThreshold = prefetchThreshold;
+  }
+
+  protected static class IdSubBlock {
+
+    protected long nextId;
+    protected final long lastId;
+    protected final int generation;
+
+    public IdSubBlock(long nextId, long lastId, int generation) {
+      this.nextId = nextId;
+      this.lastId = lastId;
+      this.generation = generation;
+    }
+
+    public boolean isExhausted() {
+      return nextId > lastId;
+    }
+  }
+
+}
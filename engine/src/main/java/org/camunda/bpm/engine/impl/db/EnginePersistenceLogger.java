@@ -714,4 +714,118 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
         ));
   }
 
+  public void idBlockPrefetchFailed(Throwable cause) {
+    logWarn(
+        "086",
+        "Exception while prefetching the next id block in the background, falling back to fetching it synchronously: {}",
+        cause.getMessage(),
+        cause);
+  }
+
+  public void idBlockSizeAdjusted(int oldBlockSize, int newBlockSize) {
+    logDebug(
+        "087",
+        "Adjusted id block size from {} to {} based on observed id consumption rate",
+        oldBlockSize,
+        newBlockSize);
+  }
+
+  public void sharedCacheSerializationFailed(DbEntity entity, Throwable cause) {
+    logDebug(
+        "088",
+        "Could not put entity '{}' into the shared entity cache: {}",
+        entity,
+        cause.getMessage(),
+        cause);
+  }
+
+  public void sharedCacheDeserializationFailed(Throwable cause) {
+    logDebug(
+        "089",
+        "Could not read entity from the shared entity cache: {}",
+        cause.getMessage(),
+        cause);
+  }
+
+  public ProcessEngineException historyOutboxSerializationException(Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "090",
+        "Could not serialize history events into the history outbox: {}",
+        cause.getMessage()),
+        cause);
+  }
+
+  public ProcessEngineException historyOutboxDeserializationException(String entryId, Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "091",
+        "Could not deserialize history events of history outbox entry '{}': {}",
+        entryId,
+        cause.getMessage()),
+        cause);
+  }
+
+  public void historyOutboxDrained(int entryCount, int eventCount) {
+    logDebug(
+        "092",
+        "Drained {} history outbox entries containing {} history events",
+        entryCount,
+        eventCount);
+  }
+
+  public void historyOutboxDrainFailed(Throwable cause) {
+    logWarn(
+        "093",
+        "Could not drain the history outbox, will retry: {}",
+        cause.getMessage(),
+        cause);
+  }
+
+  public ProcessEngineException interruptedWhileLoadingDefinition(String definitionId, InterruptedException cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "094",
+        "Interrupted while waiting for definition '{}' to be loaded into the deployment cache",
+        definitionId),
+        cause);
+  }
+
+  public void debugLatestDefinitionIndexInvalidated(String deploymentVersion) {
+    logDebug(
+        "095",
+        "Clearing the latest definition index since the deployment version changed to '{}'",
+        deploymentVersion);
+  }
+
+  public void deploymentCacheWarmUpStarted(int definitionCount, int threads) {
+    logInfo(
+        "097",
+        "Loading {} definitions into the deployment cache using {} threads",
+        definitionCount,
+        threads);
+  }
+
+  public void deploymentCacheWarmUpProgress(int loadedDefinitions, int definitionCount) {
+    logInfo(
+        "098",
+        "Loaded {} of {} definitions into the deployment cache",
+        loadedDefinitions,
+        definitionCount);
+  }
+
+  public void deploymentCacheWarmUpCompleted(int definitionCount, long durationInMillis) {
+    logInfo(
+        "099",
+        "Loaded {} definitions into the deployment cache in {} ms",
+        definitionCount,
+        durationInMillis);
+  }
+
+  public void deploymentCacheWarmUpFailed(String definitionId, Throwable cause) {
+    logWarn(
+        "100",
+        "Could not load definition '{}' into the deployment cache, it is loaded on first use: {}",
+        definitionId,
+        cause.getMessage(),
+        cause);
+  }
+
 }
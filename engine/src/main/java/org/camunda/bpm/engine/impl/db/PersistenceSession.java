@@ -31,6 +31,12 @@ public interface PersistenceSession extends Session {
 
   List<?> selectList(String statement, Object parameter);
 
+  /**
+   * Like {@link #selectList(String, Object)}, but reads only the given rows of the result,
+   * for statements which cannot limit their result in SQL.
+   */
+  List<?> selectList(String statement, Object parameter, int firstResult, int maxResults);
+
   <T extends DbEntity> T selectById(Class<T> type, String id);
 
   Object selectOne(String statement, Object parameter);
@@ -26,9 +26,11 @@ import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.ibatis.executor.BatchExecutorException;
 import org.apache.ibatis.executor.BatchResult;
@@ -63,6 +65,8 @@ import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.SharedDbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkInsertOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
@@ -72,9 +76,11 @@ import org.camunda.bpm.engine.impl.identity.db.DbGroupQueryImpl;
 import org.camunda.bpm.engine.impl.identity.db.DbUserQueryImpl;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.metrics.Timer;
 import org.camunda.bpm.engine.impl.util.CollectionUtil;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 import org.camunda.bpm.engine.impl.util.ExceptionUtil;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  *
@@ -94,6 +100,18 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   protected DbEntityCache dbEntityCache;
 
+  protected SharedDbEntityCache sharedDbEntityCache;
+
+  /**
+   * Entities of shared cacheable types written by this session. They are invalidated
+   * in the shared cache on flush and again on close, once the transaction is completed.
+   */
+  protected List<DbEntity> sharedCacheInvalidations;
+  protected Set<Class<?>> sharedCacheTypeInvalidations;
+
+  /** the load stamp of the shared cache taken before the current select */
+  protected long sharedCacheLoadStamp;
+
   protected DbOperationManager dbOperationManager;
 
   protected PersistenceSession persistenceSession;
@@ -106,11 +124,18 @@ public class DbEntityManager implements Session, EntityLoadListener {
       this.persistenceSession.addEntityLoadListener(this);
     }
     initializeEntityCache();
+    initializeSharedEntityCache();
     initializeOperationManager();
   }
 
   protected void initializeOperationManager() {
     dbOperationManager = new DbOperationManager();
+
+    final ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null && processEngineConfiguration.isJdbcBulkInsertEnabled()) {
+      dbOperationManager.setBulkInsertEntityTypes(processEngineConfiguration.getDbSqlSessionFactory().getBulkInsertEntityTypes());
+      dbOperationManager.setBulkInsertMaxRows(processEngineConfiguration.getJdbcBulkInsertMaxRows());
+    }
   }
 
   protected void initializeEntityCache() {
@@ -139,6 +164,13 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   }
 
+  protected void initializeSharedEntityCache() {
+    final ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null) {
+      sharedDbEntityCache = processEngineConfiguration.getSharedDbEntityCache();
+    }
+  }
+
   // selects /////////////////////////////////////////////////
 
   public List selectList(String statement) {
@@ -174,11 +206,28 @@ public class DbEntityManager implements Session, EntityLoadListener {
     if(firstResult == -1 ||  maxResults==-1) {
       return Collections.EMPTY_LIST;
     }
+    takeSharedCacheLoadStamp();
     List loadedObjects = persistenceSession.selectList(statement, parameter);
     return filterLoadedObjects(loadedObjects);
   }
 
+  /**
+   * Like {@link #selectList(String, ListQueryParameterObject)}, but stops reading the result
+   * after the max results of the parameter, for statements which cannot limit their result
+   * in SQL (e.g. <code>FOR UPDATE SKIP LOCKED</code> on Oracle).
+   */
+  @SuppressWarnings("unchecked")
+  public List selectListWithRowBounds(String statement, ListQueryParameterObject parameter) {
+    if(parameter.getFirstResult() == -1 || parameter.getMaxResults() == -1) {
+      return Collections.EMPTY_LIST;
+    }
+    takeSharedCacheLoadStamp();
+    List loadedObjects = persistenceSession.selectList(statement, parameter, parameter.getFirstResult(), parameter.getMaxResults());
+    return filterLoadedObjects(loadedObjects);
+  }
+
   public Object selectOne(String statement, Object parameter) {
+    takeSharedCacheLoadStamp();
     Object result = persistenceSession.selectOne(statement, parameter);
     if (result instanceof DbEntity) {
       DbEntity loadedObject = (DbEntity) result;
@@ -203,6 +252,15 @@ public class DbEntityManager implements Session, EntityLoadListener {
       return persistentObject;
     }
 
+    if (isSharedCacheable(entityClass)) {
+      persistentObject = sharedDbEntityCache.get(entityClass, id);
+      if (persistentObject != null) {
+        registerLoadedEntity(persistentObject);
+        return persistentObject;
+      }
+    }
+
+    takeSharedCacheLoadStamp();
     persistentObject = persistenceSession.selectById(entityClass, id);
 
     if (persistentObject==null) {
@@ -250,6 +308,14 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   public void onEntityLoaded(DbEntity entity) {
     // we get a callback when the persistence session loads an object from the database
+    if (isSharedCacheable(entity.getClass()) && dbEntityCache.get(entity.getClass(), entity.getId()) == null) {
+      sharedDbEntityCache.put(entity, sharedCacheLoadStamp);
+    }
+
+    registerLoadedEntity(entity);
+  }
+
+  protected void registerLoadedEntity(DbEntity entity) {
     DbEntity cachedPersistentObject = dbEntityCache.get(entity.getClass(), entity.getId());
     if(cachedPersistentObject == null) {
       // only put into the cache if not already present
@@ -304,6 +370,19 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     LOG.databaseFlushSummary(operationsToFlush);
 
+    Timer timer = Context.getProcessEngineConfiguration().getMetricsTimer(Metrics.DB_FLUSH_TIME);
+    long start = timer != null ? timer.start() : 0;
+    try {
+      flushDbOperationsInBatches(operationsToFlush);
+    }
+    finally {
+      if (timer != null) {
+        timer.stop(start);
+      }
+    }
+  }
+
+  protected void flushDbOperationsInBatches(List<DbOperation> operationsToFlush) {
     // If we want to delete all table data as bulk operation, on tables which have self references,
     // We need to turn the foreign key check off on MySQL and MariaDB.
     // On other databases we have to do nothing, the mapped statement will be empty.
@@ -416,6 +495,14 @@ public class DbEntityManager implements Session, EntityLoadListener {
         DbEntity referencedEntity = this.persistenceSession.selectById(reference.getValue(), reference.getKey());
         if (referencedEntity == null) {
 
+          return true;
+        }
+      }
+    } else if (isConstraintViolation && failedOperation instanceof DbBulkInsertOperation) {
+
+      // a multi row insert fails if any of the inserted entities references a non-existing entity
+      for (DbEntityOperation insertOperation : ((DbBulkInsertOperation) failedOperation).getOperations()) {
+        if (isOptimisticLockingException(insertOperation, cause)) {
           return true;
         }
       }
@@ -435,7 +522,12 @@ public class DbEntityManager implements Session, EntityLoadListener {
         for (int statementResult : batchResult.getUpdateCounts()) {
           flushResultSize++;
           DbOperation thisOperation = operationIt.next();
-          if (thisOperation instanceof DbEntityOperation && ((DbEntityOperation) thisOperation).getEntity() instanceof HasDbRevision
+          if (thisOperation instanceof DbBulkOperation && ((DbBulkOperation) thisOperation).isFailIfNoRowsAffected()
+            && statementResult == 0) {
+            ((DbBulkOperation) thisOperation).setFailed(true);
+            handleOptimisticLockingException(thisOperation);
+          }
+          else if (thisOperation instanceof DbEntityOperation && ((DbEntityOperation) thisOperation).getEntity() instanceof HasDbRevision
             && !thisOperation.getOperationType().equals(DbOperationType.INSERT)) {
             final DbEntity dbEntity = ((DbEntityOperation) thisOperation).getEntity();
             if (statementResult != 1) {
@@ -468,6 +560,9 @@ public class DbEntityManager implements Session, EntityLoadListener {
   }
 
   protected void handleOptimisticLockingException(DbOperation dbOperation) {
+    // the shared cache may have provided a stale entity
+    invalidateSharedCache(dbOperation);
+
     boolean isHandled = false;
 
     if(optimisticLockingListeners != null) {
@@ -585,6 +680,14 @@ public class DbEntityManager implements Session, EntityLoadListener {
     performBulkOperation(entityType, statement, parameter, UPDATE_BULK);
   }
 
+  /**
+   * Like {@link #update(Class, String, Object)}, but the flush is handled like an optimistic locking
+   * failure if the statement does not change any row, e.g. because the row has not been inserted yet.
+   */
+  public void updateExisting(Class<? extends DbEntity> entityType, String statement, Object parameter) {
+    performBulkOperation(entityType, statement, parameter, UPDATE_BULK).setFailIfNoRowsAffected(true);
+  }
+
   /**
    * Several update operations added by this method will be executed preserving the order of method calls, no matter what entity type they refer to.
    * They will though be executed after all "not-bulk" operations (e.g. {@link DbEntityManager#insert(DbEntity)} or {@link DbEntityManager#merge(DbEntity)})
@@ -619,6 +722,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     // schedule operation
     dbOperationManager.addOperation(bulkOperation);
+    invalidateSharedCache(bulkOperation);
     return bulkOperation;
   }
 
@@ -627,6 +731,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     // schedule operation
     dbOperationManager.addOperationPreserveOrder(bulkOperation);
+    invalidateSharedCache(bulkOperation);
     return bulkOperation;
   }
 
@@ -648,10 +753,61 @@ public class DbEntityManager implements Session, EntityLoadListener {
     dbOperation.setFlushRelevantEntityReferences(cachedDbEntity.getFlushRelevantEntityReferences());
     dbOperation.setOperationType(type);
     dbOperationManager.addOperation(dbOperation);
+
+    if (type != INSERT) {
+      invalidateSharedCache(dbOperation);
+    }
   }
 
   public void close() {
+    // entries may have been re-populated with the previous state before the transaction committed
+    if (sharedCacheInvalidations != null) {
+      for (DbEntity entity : sharedCacheInvalidations) {
+        sharedDbEntityCache.invalidate(entity.getClass(), entity.getId());
+      }
+    }
 
+    if (sharedCacheTypeInvalidations != null) {
+      for (Class<?> entityType : sharedCacheTypeInvalidations) {
+        sharedDbEntityCache.invalidateAll(entityType);
+      }
+    }
+  }
+
+  protected void takeSharedCacheLoadStamp() {
+    if (sharedDbEntityCache != null) {
+      sharedCacheLoadStamp = sharedDbEntityCache.getLoadStamp();
+    }
+  }
+
+  protected boolean isSharedCacheable(Class<?> entityType) {
+    return sharedDbEntityCache != null && sharedDbEntityCache.isCacheable(entityType);
+  }
+
+  protected void invalidateSharedCache(DbOperation dbOperation) {
+    Class<? extends DbEntity> entityType = dbOperation.getEntityType();
+    if (!isSharedCacheable(entityType)) {
+      return;
+    }
+
+    if (dbOperation instanceof DbEntityOperation) {
+      DbEntity entity = ((DbEntityOperation) dbOperation).getEntity();
+      sharedDbEntityCache.invalidate(entityType, entity.getId());
+
+      if (sharedCacheInvalidations == null) {
+        sharedCacheInvalidations = new ArrayList<DbEntity>();
+      }
+      sharedCacheInvalidations.add(entity);
+    }
+    else {
+      // bulk operations may affect any entity of the type
+      sharedDbEntityCache.invalidateAll(entityType);
+
+      if (sharedCacheTypeInvalidations == null) {
+        sharedCacheTypeInvalidations = new HashSet<Class<?>>();
+      }
+      sharedCacheTypeInvalidations.add(entityType);
+    }
   }
 
   public boolean isDeleted(DbEntity object) {
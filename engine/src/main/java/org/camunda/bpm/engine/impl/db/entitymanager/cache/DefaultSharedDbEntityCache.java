@@ -0,0 +1,357 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TenantEntity;
+
+/**
+ * <p>Default {@link SharedDbEntityCache} implementation which keeps the serialized
+ * state of the cached entities, so that every cache hit returns a new instance.</p>
+ *
+ * <p>The cache is bounded by {@link #capacity} and entries expire after {@link #timeToLive}
+ * milliseconds. An entity is never replaced by an older revision of itself.</p>
+ *
+ * <p>Each invalidation is recorded with a stamp of the {@link #clock}, so that an entity which
+ * was loaded before it was invalidated is not put back into the cache afterwards. Recorded
+ * invalidations are discarded once they are older than the time to live; loads which started
+ * before a discarded invalidation are rejected as well.</p>
+ */
+public class DefaultSharedDbEntityCache implements SharedDbEntityCache {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected Set<Class<?>> cacheableTypes;
+  protected int capacity;
+  protected long timeToLive;
+
+  protected ConcurrentMap<Class<?>, ConcurrentMap<String, CacheEntry>> entries = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, CacheEntry>>();
+  protected AtomicInteger size = new AtomicInteger();
+
+  protected AtomicLong clock = new AtomicLong();
+  protected ConcurrentMap<Class<?>, ConcurrentMap<String, Invalidation>> invalidations = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, Invalidation>>();
+  protected ConcurrentMap<Class<?>, Long> typeInvalidations = new ConcurrentHashMap<Class<?>, Long>();
+  protected AtomicInteger invalidationCount = new AtomicInteger();
+  /** the latest stamp of the discarded invalidations */
+  protected AtomicLong discardedInvalidationStamp = new AtomicLong(-1);
+
+  public DefaultSharedDbEntityCache(Set<Class<?>> cacheableTypes, int capacity, long timeToLive) {
+    this.cacheableTypes = cacheableTypes;
+    this.capacity = capacity;
+    this.timeToLive = timeToLive;
+  }
+
+  public static Set<Class<?>> defaultCacheableTypes() {
+    Set<Class<?>> cacheableTypes = new HashSet<Class<?>>();
+    cacheableTypes.add(JobDefinitionEntity.class);
+    cacheableTypes.add(DeploymentEntity.class);
+    cacheableTypes.add(TenantEntity.class);
+    return cacheableTypes;
+  }
+
+  public boolean isCacheable(Class<?> entityType) {
+    return cacheableTypes.contains(entityType);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends DbEntity> T get(Class<T> entityType, String id) {
+    ConcurrentMap<String, CacheEntry> entriesOfType = entries.get(entityType);
+    if (entriesOfType == null) {
+      return null;
+    }
+
+    CacheEntry entry = entriesOfType.get(id);
+    if (entry == null) {
+      return null;
+    }
+
+    if (entry.isExpired(System.currentTimeMillis())) {
+      remove(entriesOfType, id, entry);
+      return null;
+    }
+
+    return (T) deserialize(entry.state);
+  }
+
+  public long getLoadStamp() {
+    return clock.get();
+  }
+
+  public void put(DbEntity entity, long loadStamp) {
+    Class<?> entityType = entity.getClass();
+    if (!isCacheable(entityType) || !(entity instanceof Serializable)) {
+      return;
+    }
+
+    if (isInvalidatedSince(entityType, entity.getId(), loadStamp)) {
+      return;
+    }
+
+    byte[] state = serialize(entity);
+    if (state == null) {
+      return;
+    }
+
+    Integer revision = null;
+    if (entity instanceof HasDbRevision) {
+      revision = ((HasDbRevision) entity).getRevision();
+    }
+
+    CacheEntry newEntry = new CacheEntry(state, revision, System.currentTimeMillis() + timeToLive);
+    ConcurrentMap<String, CacheEntry> entriesOfType = getEntriesOfType(entityType);
+
+    CacheEntry existingEntry = entriesOfType.putIfAbsent(entity.getId(), newEntry);
+    if (existingEntry == null) {
+      if (size.incrementAndGet() > capacity) {
+        evict();
+      }
+    }
+    else if (!existingEntry.isNewerThan(revision)) {
+      entriesOfType.replace(entity.getId(), existingEntry, newEntry);
+    }
+
+    // the entity may have been invalidated while the entry was put
+    if (isInvalidatedSince(entityType, entity.getId(), loadStamp)) {
+      remove(entriesOfType, entity.getId(), newEntry);
+    }
+  }
+
+  public void invalidate(Class<?> entityType, String id) {
+    recordInvalidation(entityType, id);
+
+    ConcurrentMap<String, CacheEntry> entriesOfType = entries.get(entityType);
+    if (entriesOfType != null) {
+      CacheEntry entry = entriesOfType.get(id);
+      if (entry != null) {
+        remove(entriesOfType, id, entry);
+      }
+    }
+  }
+
+  public void invalidateAll(Class<?> entityType) {
+    typeInvalidations.put(entityType, clock.incrementAndGet());
+
+    ConcurrentMap<String, CacheEntry> entriesOfType = entries.remove(entityType);
+    if (entriesOfType != null) {
+      size.addAndGet(-entriesOfType.size());
+    }
+  }
+
+  public void clear() {
+    // rejects all loads which started before
+    discardedInvalidationStamp.set(clock.incrementAndGet());
+    invalidations.clear();
+    invalidationCount.set(0);
+
+    entries.clear();
+    size.set(0);
+  }
+
+  protected void recordInvalidation(Class<?> entityType, String id) {
+    ConcurrentMap<String, Invalidation> invalidationsOfType = invalidations.get(entityType);
+    if (invalidationsOfType == null) {
+      invalidationsOfType = new ConcurrentHashMap<String, Invalidation>();
+      ConcurrentMap<String, Invalidation> existing = invalidations.putIfAbsent(entityType, invalidationsOfType);
+      if (existing != null) {
+        invalidationsOfType = existing;
+      }
+    }
+
+    Invalidation invalidation = new Invalidation(clock.incrementAndGet(), System.currentTimeMillis());
+    if (invalidationsOfType.put(id, invalidation) == null && invalidationCount.incrementAndGet() > capacity) {
+      discardInvalidations();
+    }
+  }
+
+  protected boolean isInvalidatedSince(Class<?> entityType, String id, long loadStamp) {
+    if (loadStamp < discardedInvalidationStamp.get()) {
+      return true;
+    }
+
+    Long typeInvalidationStamp = typeInvalidations.get(entityType);
+    if (typeInvalidationStamp != null && typeInvalidationStamp > loadStamp) {
+      return true;
+    }
+
+    ConcurrentMap<String, Invalidation> invalidationsOfType = invalidations.get(entityType);
+    if (invalidationsOfType != null) {
+      Invalidation invalidation = invalidationsOfType.get(id);
+      return invalidation != null && invalidation.stamp > loadStamp;
+    }
+
+    return false;
+  }
+
+  /**
+   * Discards the recorded invalidations which are older than the time to live.
+   */
+  protected void discardInvalidations() {
+    long discardBefore = System.currentTimeMillis() - timeToLive;
+
+    for (ConcurrentMap<String, Invalidation> invalidationsOfType : invalidations.values()) {
+      for (Map.Entry<String, Invalidation> entry : invalidationsOfType.entrySet()) {
+        Invalidation invalidation = entry.getValue();
+        if (invalidation.time < discardBefore && invalidationsOfType.remove(entry.getKey(), invalidation)) {
+          invalidationCount.decrementAndGet();
+          raiseDiscardedInvalidationStamp(invalidation.stamp);
+        }
+      }
+    }
+  }
+
+  protected void raiseDiscardedInvalidationStamp(long stamp) {
+    long discardedStamp = discardedInvalidationStamp.get();
+    while (stamp > discardedStamp && !discardedInvalidationStamp.compareAndSet(discardedStamp, stamp)) {
+      discardedStamp = discardedInvalidationStamp.get();
+    }
+  }
+
+  public int size() {
+    return size.get();
+  }
+
+  protected ConcurrentMap<String, CacheEntry> getEntriesOfType(Class<?> entityType) {
+    ConcurrentMap<String, CacheEntry> entriesOfType = entries.get(entityType);
+    if (entriesOfType == null) {
+      entriesOfType = new ConcurrentHashMap<String, CacheEntry>();
+      ConcurrentMap<String, CacheEntry> existing = entries.putIfAbsent(entityType, entriesOfType);
+      if (existing != null) {
+        entriesOfType = existing;
+      }
+    }
+    return entriesOfType;
+  }
+
+  protected void remove(ConcurrentMap<String, CacheEntry> entriesOfType, String id, CacheEntry entry) {
+    if (entriesOfType.remove(id, entry)) {
+      size.decrementAndGet();
+    }
+  }
+
+  /**
+   * Removes expired entries and, if the cache is still too large,
+   * arbitrary entries until the capacity is satisfied.
+   */
+  protected void evict() {
+    long now = System.currentTimeMillis();
+
+    for (ConcurrentMap<String, CacheEntry> entriesOfType : entries.values()) {
+      for (Map.Entry<String, CacheEntry> entry : entriesOfType.entrySet()) {
+        if (entry.getValue().isExpired(now)) {
+          remove(entriesOfType, entry.getKey(), entry.getValue());
+        }
+      }
+    }
+
+    for (ConcurrentMap<String, CacheEntry> entriesOfType : entries.values()) {
+      Iterator<Map.Entry<String, CacheEntry>> iterator = entriesOfType.entrySet().iterator();
+      while (size.get() > capacity && iterator.hasNext()) {
+        Map.Entry<String, CacheEntry> entry = iterator.next();
+        remove(entriesOfType, entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  protected byte[] serialize(DbEntity entity) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream out = new ObjectOutputStream(bytes);
+      out.writeObject(entity);
+      out.close();
+      return bytes.toByteArray();
+
+    } catch (Exception e) {
+      LOG.sharedCacheSerializationFailed(entity, e);
+      return null;
+    }
+  }
+
+  protected Object deserialize(byte[] state) {
+    try {
+      ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state));
+      try {
+        return in.readObject();
+      } finally {
+        in.close();
+      }
+
+    } catch (Exception e) {
+      LOG.sharedCacheDeserializationFailed(e);
+      return null;
+    }
+  }
+
+  public Set<Class<?>> getCacheableTypes() {
+    return cacheableTypes;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  protected static class CacheEntry {
+
+    protected final byte[] state;
+    protected final Integer revision;
+    protected final long expirationTime;
+
+    public CacheEntry(byte[] state, Integer revision, long expirationTime) {
+      this.state = state;
+      this.revision = revision;
+      this.expirationTime = expirationTime;
+    }
+
+    public boolean isExpired(long now) {
+      return now >= expirationTime;
+    }
+
+    public boolean isNewerThan(Integer otherRevision) {
+      return revision != null && otherRevision != null && revision > otherRevision;
+    }
+  }
+
+  protected static class Invalidation {
+
+    protected final long stamp;
+    protected final long time;
+
+    public Invalidation(long stamp, long time) {
+      this.stamp = stamp;
+      this.time = time;
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * A second level cache for {@link DbEntity Entities} which is shared by all
+ * commands of a process engine. In contrast to the {@link DbEntityCache}, it only
+ * contains entities of {@link #isCacheable(Class) cacheable} types, which are
+ * rarely changed.
+ *
+ * <p>Implementations must never hand out the same entity instance twice, since
+ * entities are modified by the command which loaded them.</p>
+ *
+ * <p>Entries are invalidated on local writes by the {@link org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager}.
+ * Changes made by other process engines in a cluster are not propagated, so
+ * implementations should expire entries after a bounded time.</p>
+ */
+public interface SharedDbEntityCache {
+
+  /**
+   * @return true if entities of the given type may be kept in this cache
+   */
+  boolean isCacheable(Class<?> entityType);
+
+  /**
+   * @return a copy of the cached entity or null if no valid entry exists
+   */
+  <T extends DbEntity> T get(Class<T> entityType, String id);
+
+  /**
+   * @return the stamp to pass to {@link #put(DbEntity, long)} for entities
+   *   which are loaded from the database after this call
+   */
+  long getLoadStamp();
+
+  /**
+   * Puts a copy of the state of the given entity into the cache, unless the entity
+   * was invalidated after the given load stamp was taken or a newer revision of
+   * the entity is cached already.
+   */
+  void put(DbEntity entity, long loadStamp);
+
+  /**
+   * Removes the entity of the given type and id from the cache.
+   */
+  void invalidate(Class<?> entityType, String id);
+
+  /**
+   * Removes all entities of the given type from the cache.
+   */
+  void invalidateAll(Class<?> entityType);
+
+  /**
+   * Removes all entities from the cache.
+   */
+  void clear();
+
+}
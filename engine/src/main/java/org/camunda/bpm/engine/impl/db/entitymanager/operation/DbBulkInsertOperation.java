@@ -0,0 +1,69 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.util.ClassNameUtil;
+
+/**
+ * Inserts several entities of the same type with a single
+ * multi row INSERT statement.
+ */
+public class DbBulkInsertOperation extends DbOperation {
+
+  /**
+   * The INSERT operations which are combined by this operation.
+   */
+  protected List<DbEntityOperation> operations;
+
+  public DbBulkInsertOperation(Class<? extends DbEntity> entityType, List<DbEntityOperation> operations) {
+    this.operationType = DbOperationType.INSERT_BULK;
+    this.entityType = entityType;
+    this.operations = operations;
+  }
+
+  @Override
+  public void recycle() {
+    operations = null;
+    super.recycle();
+  }
+
+  public boolean isFailed() {
+    for (DbEntityOperation operation : operations) {
+      if (operation.isFailed()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public List<DbEntityOperation> getOperations() {
+    return operations;
+  }
+
+  public List<DbEntity> getEntities() {
+    List<DbEntity> entities = new ArrayList<DbEntity>(operations.size());
+    for (DbEntityOperation operation : operations) {
+      entities.add(operation.getEntity());
+    }
+    return entities;
+  }
+
+  public String toString() {
+    return operationType + " " + ClassNameUtil.getClassNameWithoutPackage(entityType) + operations;
+  }
+
+}
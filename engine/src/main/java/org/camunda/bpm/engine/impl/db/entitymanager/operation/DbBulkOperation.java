@@ -35,15 +35,33 @@ public class DbBulkOperation extends DbOperation {
   protected String statement;
   protected Object parameter;
 
+  /** if true, the operation fails if the statement does not affect any row */
+  protected boolean failIfNoRowsAffected;
+  protected boolean failed;
+
   @Override
   public void recycle() {
     statement = null;
     parameter = null;
+    failIfNoRowsAffected = false;
+    failed = false;
     super.recycle();
   }
 
   public boolean isFailed() {
-    return false;
+    return failed;
+  }
+
+  public void setFailed(boolean failed) {
+    this.failed = failed;
+  }
+
+  public boolean isFailIfNoRowsAffected() {
+    return failIfNoRowsAffected;
+  }
+
+  public void setFailIfNoRowsAffected(boolean failIfNoRowsAffected) {
+    this.failIfNoRowsAffected = failIfNoRowsAffected;
   }
 
   public Object getParameter() {
@@ -16,6 +16,7 @@ import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.DbBulkO
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.DbEntityOperationComparator;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.EntityTypeComparatorForInserts;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.EntityTypeComparatorForModifications;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 
 /**
  * Manages a set of {@link DbOperation database operations}.
@@ -66,6 +68,14 @@ public class DbOperationManager {
   /** bulk modifications (DELETE, UPDATE) for which order of execution is important */
   public LinkedHashSet<DbBulkOperation> bulkOperationsInsertionOrder = new LinkedHashSet<DbBulkOperation>();
 
+  // multi row inserts //////////////
+
+  /** entity types whose INSERTs may be combined into multi row INSERT statements */
+  protected Set<Class<?>> bulkInsertEntityTypes = Collections.emptySet();
+
+  /** the maximum number of rows inserted by a single multi row INSERT statement */
+  protected int bulkInsertMaxRows = 1;
+
   public boolean addOperation(DbEntityOperation newOperation) {
     if(newOperation.getOperationType() == INSERT) {
       return getInsertsForType(newOperation.getEntityType(), true)
@@ -138,11 +148,37 @@ public class DbOperationManager {
     for (Entry<Class<?>, SortedSet<DbEntityOperation>> operationsForType : inserts.entrySet()) {
 
       // add inserts to flush
+      List<DbEntityOperation> insertsForType;
       if(HasDbReferences.class.isAssignableFrom(operationsForType.getKey())) {
         // if this type has self references, we need to resolve the reference order
-        flush.addAll(sortByReferences(operationsForType.getValue()));
+        insertsForType = sortByReferences(operationsForType.getValue());
+      } else {
+        insertsForType = new ArrayList<DbEntityOperation>(operationsForType.getValue());
+      }
+
+      if (isBulkInsertApplicable(operationsForType.getKey(), insertsForType)) {
+        addBulkInserts(operationsForType.getKey(), insertsForType, flush);
       } else {
-        flush.addAll(operationsForType.getValue());
+        flush.addAll(insertsForType);
+      }
+    }
+  }
+
+  protected boolean isBulkInsertApplicable(Class<?> entityType, List<DbEntityOperation> insertsForType) {
+    return bulkInsertMaxRows > 1
+        && insertsForType.size() > 1
+        && bulkInsertEntityTypes.contains(entityType);
+  }
+
+  /** Combines the (ordered) inserts of one entity type into multi row inserts
+   * of at most {@link #bulkInsertMaxRows} rows. */
+  @SuppressWarnings("unchecked")
+  protected void addBulkInserts(Class<?> entityType, List<DbEntityOperation> insertsForType, List<DbOperation> flush) {
+    for (List<DbEntityOperation> chunk : CollectionUtil.partition(insertsForType, bulkInsertMaxRows)) {
+      if (chunk.size() == 1) {
+        flush.add(chunk.get(0));
+      } else {
+        flush.add(new DbBulkInsertOperation((Class<? extends DbEntity>) entityType, chunk));
       }
     }
   }
@@ -239,4 +275,20 @@ public class DbOperationManager {
 
     return opList;
   }
+
+  public Set<Class<?>> getBulkInsertEntityTypes() {
+    return bulkInsertEntityTypes;
+  }
+
+  public void setBulkInsertEntityTypes(Set<Class<?>> bulkInsertEntityTypes) {
+    this.bulkInsertEntityTypes = bulkInsertEntityTypes;
+  }
+
+  public int getBulkInsertMaxRows() {
+    return bulkInsertMaxRows;
+  }
+
+  public void setBulkInsertMaxRows(int bulkInsertMaxRows) {
+    this.bulkInsertMaxRows = bulkInsertMaxRows;
+  }
 }
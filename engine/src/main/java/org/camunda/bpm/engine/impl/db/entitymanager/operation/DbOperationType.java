@@ -19,6 +19,7 @@ package org.camunda.bpm.engine.impl.db.entitymanager.operation;
 public enum DbOperationType {
 
   INSERT,
+  INSERT_BULK,
 
   UPDATE,
   UPDATE_BULK,
@@ -0,0 +1,59 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+
+/**
+ * Sums of the {@link CommandSample}s of one command class. Times are kept in nanoseconds.
+ */
+public class CommandProfile {
+
+  protected static final long NANOS_PER_MILLI = 1000000L;
+
+  protected final String commandName;
+
+  protected final AtomicLong executionCount = new AtomicLong();
+  protected final AtomicLong statementCount = new AtomicLong();
+  protected final AtomicLong rowCount = new AtomicLong();
+  protected final AtomicLong totalTime = new AtomicLong();
+  protected final AtomicLong sqlTime = new AtomicLong();
+
+  public CommandProfile(String commandName) {
+    this.commandName = commandName;
+  }
+
+  public void add(CommandSample sample, long totalNanos) {
+    executionCount.incrementAndGet();
+    statementCount.addAndGet(sample.getStatementCount());
+    rowCount.addAndGet(sample.getRowCount());
+    totalTime.addAndGet(totalNanos);
+    sqlTime.addAndGet(sample.getSqlTime());
+  }
+
+  public CommandSqlStatistics getStatistics() {
+    return new CommandSqlStatisticsImpl(commandName,
+        executionCount.get(),
+        statementCount.get(),
+        rowCount.get(),
+        totalTime.get() / NANOS_PER_MILLI,
+        sqlTime.get() / NANOS_PER_MILLI);
+  }
+
+  public String getCommandName() {
+    return commandName;
+  }
+
+}
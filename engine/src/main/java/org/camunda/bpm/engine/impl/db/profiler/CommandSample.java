@@ -0,0 +1,62 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+/**
+ * Statements executed by a single sampled command. Only accessed by the thread executing
+ * the command.
+ */
+public class CommandSample {
+
+  protected final String commandName;
+  protected final long start;
+
+  protected long statementCount;
+  protected long rowCount;
+  protected long sqlTime;
+
+  public CommandSample(String commandName) {
+    this.commandName = commandName;
+    this.start = System.nanoTime();
+  }
+
+  public void addStatements(long statements, long rows) {
+    statementCount += statements;
+    rowCount += rows;
+  }
+
+  public void addSqlTime(long nanos) {
+    sqlTime += nanos;
+  }
+
+  public String getCommandName() {
+    return commandName;
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  public long getStatementCount() {
+    return statementCount;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public long getSqlTime() {
+    return sqlTime;
+  }
+
+}
@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+
+/**
+ * Snapshot of a {@link CommandProfile}.
+ */
+public class CommandSqlStatisticsImpl implements CommandSqlStatistics, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String commandName;
+  protected long executionCount;
+  protected long statementCount;
+  protected long rowCount;
+  protected long totalTimeInMillis;
+  protected long sqlTimeInMillis;
+
+  public CommandSqlStatisticsImpl(String commandName, long executionCount, long statementCount, long rowCount, long totalTimeInMillis, long sqlTimeInMillis) {
+    this.commandName = commandName;
+    this.executionCount = executionCount;
+    this.statementCount = statementCount;
+    this.rowCount = rowCount;
+    this.totalTimeInMillis = totalTimeInMillis;
+    this.sqlTimeInMillis = sqlTimeInMillis;
+  }
+
+  public String getCommandName() {
+    return commandName;
+  }
+
+  public long getExecutionCount() {
+    return executionCount;
+  }
+
+  public long getStatementCount() {
+    return statementCount;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public long getTotalTimeInMillis() {
+    return totalTimeInMillis;
+  }
+
+  public long getSqlTimeInMillis() {
+    return sqlTimeInMillis;
+  }
+
+  public long getEngineTimeInMillis() {
+    return Math.max(0, totalTimeInMillis - sqlTimeInMillis);
+  }
+
+  public String toString() {
+    return "CommandSqlStatisticsImpl [commandName=" + commandName
+        + ", executionCount=" + executionCount
+        + ", statementCount=" + statementCount
+        + ", rowCount=" + rowCount
+        + ", totalTimeInMillis=" + totalTimeInMillis
+        + ", sqlTimeInMillis=" + sqlTimeInMillis + "]";
+  }
+
+}
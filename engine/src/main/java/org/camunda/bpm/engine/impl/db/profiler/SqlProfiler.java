@@ -0,0 +1,117 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+
+/**
+ * <p>Samples every n-th command executed by the process engine and records the number of SQL
+ * statements, the affected rows and the time spent in MyBatis per command class.</p>
+ *
+ * <p>The command being sampled is held in a thread local by the {@link SqlProfilerCommandInterceptor};
+ * the {@link SqlProfilerStatementInterceptor} adds the statements executed by MyBatis to it.
+ * Commands which are not sampled only cost a counter increment and a thread local lookup
+ * per statement.</p>
+ */
+public class SqlProfiler implements SqlProfilerMXBean {
+
+  protected static final ThreadLocal<CommandSample> CURRENT_SAMPLE = new ThreadLocal<CommandSample>();
+
+  protected static final Comparator<CommandSqlStatistics> SQL_TIME_DESCENDING = new Comparator<CommandSqlStatistics>() {
+    public int compare(CommandSqlStatistics o1, CommandSqlStatistics o2) {
+      long difference = o2.getSqlTimeInMillis() - o1.getSqlTimeInMillis();
+      return difference > 0 ? 1 : (difference < 0 ? -1 : 0);
+    }
+  };
+
+  protected volatile int samplingInterval;
+
+  protected final AtomicLong commandCounter = new AtomicLong();
+
+  protected final ConcurrentMap<String, CommandProfile> profiles = new ConcurrentHashMap<String, CommandProfile>();
+
+  public SqlProfiler(int samplingInterval) {
+    setSamplingInterval(samplingInterval);
+  }
+
+  /**
+   * @return the sample of the command executed by the current thread or null if the command is not sampled
+   */
+  public static CommandSample getCurrentSample() {
+    return CURRENT_SAMPLE.get();
+  }
+
+  /**
+   * Starts sampling the given command if it is the n-th command.
+   *
+   * @return the started sample or null if the command is not sampled
+   */
+  public CommandSample startSample(String commandName) {
+    if (commandCounter.incrementAndGet() % samplingInterval != 0) {
+      return null;
+    }
+
+    CommandSample sample = new CommandSample(commandName);
+    CURRENT_SAMPLE.set(sample);
+    return sample;
+  }
+
+  public void endSample(CommandSample sample) {
+    CURRENT_SAMPLE.remove();
+
+    long totalTime = System.nanoTime() - sample.getStart();
+    getProfile(sample.getCommandName()).add(sample, totalTime);
+  }
+
+  protected CommandProfile getProfile(String commandName) {
+    CommandProfile profile = profiles.get(commandName);
+    if (profile == null) {
+      profile = new CommandProfile(commandName);
+      CommandProfile existingProfile = profiles.putIfAbsent(commandName, profile);
+      if (existingProfile != null) {
+        profile = existingProfile;
+      }
+    }
+    return profile;
+  }
+
+  public List<CommandSqlStatistics> getCommandStatistics() {
+    List<CommandSqlStatistics> statistics = new ArrayList<CommandSqlStatistics>();
+    for (CommandProfile profile : profiles.values()) {
+      statistics.add(profile.getStatistics());
+    }
+    Collections.sort(statistics, SQL_TIME_DESCENDING);
+    return statistics;
+  }
+
+  public int getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  public void setSamplingInterval(int samplingInterval) {
+    this.samplingInterval = Math.max(1, samplingInterval);
+  }
+
+  public void reset() {
+    profiles.clear();
+  }
+
+}
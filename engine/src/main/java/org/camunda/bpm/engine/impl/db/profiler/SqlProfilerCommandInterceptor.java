@@ -0,0 +1,49 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * Samples commands for the {@link SqlProfiler}. Placed before the command context is created,
+ * so that the sample includes the flush and the commit. Commands executed within a sampled
+ * command are added to the outer command.
+ */
+public class SqlProfilerCommandInterceptor extends CommandInterceptor {
+
+  protected SqlProfiler sqlProfiler;
+
+  public SqlProfilerCommandInterceptor(SqlProfiler sqlProfiler) {
+    this.sqlProfiler = sqlProfiler;
+  }
+
+  public <T> T execute(Command<T> command) {
+    if (SqlProfiler.getCurrentSample() != null) {
+      return next.execute(command);
+    }
+
+    CommandSample sample = sqlProfiler.startSample(command.getClass().getName());
+    if (sample == null) {
+      return next.execute(command);
+    }
+
+    try {
+      return next.execute(command);
+    }
+    finally {
+      sqlProfiler.endSample(sample);
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
+import org.camunda.bpm.engine.impl.metrics.export.JmxMetricsExporter;
+import org.camunda.bpm.engine.impl.metrics.export.MetricsExporter;
+
+/**
+ * Registers the {@link SqlProfiler} of the process engine as an MXBean named
+ * <code>org.camunda.bpm.engine:type=SqlProfiler,engine="&lt;name&gt;"</code>.
+ */
+public class SqlProfilerMBeanExporter implements MetricsExporter {
+
+  private final static MetricsLogger LOG = ProcessEngineLogger.METRICS_LOGGER;
+
+  protected SqlProfiler sqlProfiler;
+
+  protected MBeanServer mBeanServer;
+  protected ObjectName objectName;
+
+  public SqlProfilerMBeanExporter(SqlProfiler sqlProfiler) {
+    this.sqlProfiler = sqlProfiler;
+  }
+
+  public synchronized void start(ProcessEngineImpl processEngine) {
+    if (objectName != null) {
+      return;
+    }
+
+    String name = JmxMetricsExporter.DOMAIN + ":type=SqlProfiler,engine=" + ObjectName.quote(processEngine.getName());
+    try {
+      ObjectName objectName = new ObjectName(name);
+      getMBeanServer().registerMBean(sqlProfiler, objectName);
+      this.objectName = objectName;
+    }
+    catch (JMException e) {
+      LOG.couldNotRegisterMetricsMBean(name, e);
+    }
+  }
+
+  public synchronized void stop() {
+    if (objectName == null) {
+      return;
+    }
+
+    try {
+      getMBeanServer().unregisterMBean(objectName);
+    }
+    catch (JMException e) {
+      LOG.couldNotUnregisterMetricsMBean(objectName.toString(), e);
+    }
+    objectName = null;
+  }
+
+  public MBeanServer getMBeanServer() {
+    if (mBeanServer == null) {
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    }
+    return mBeanServer;
+  }
+
+  public void setMBeanServer(MBeanServer mBeanServer) {
+    this.mBeanServer = mBeanServer;
+  }
+
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+}
@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+
+/**
+ * Management interface of the {@link SqlProfiler}, registered by the {@link SqlProfilerMBeanExporter}.
+ */
+public interface SqlProfilerMXBean {
+
+  /**
+   * @return the statistics per command class, ordered by SQL time descending
+   */
+  List<CommandSqlStatistics> getCommandStatistics();
+
+  int getSamplingInterval();
+
+  void setSamplingInterval(int samplingInterval);
+
+  /**
+   * Discards the statistics collected so far.
+   */
+  void reset();
+
+}
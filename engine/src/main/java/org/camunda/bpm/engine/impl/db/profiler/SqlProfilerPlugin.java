@@ -0,0 +1,102 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.camunda.bpm.engine.impl.metrics.export.MetricsExporter;
+
+/**
+ * <p>ProcessEnginePlugin activating the {@link SqlProfiler}.</p>
+ *
+ * <p>Samples every {@link #setSamplingInterval(int) n-th} command and records the SQL statements
+ * it executes per command class. The statistics are available via
+ * {@link org.camunda.bpm.engine.ManagementService#getCommandSqlStatistics()} and, if
+ * {@link #setJmxEnabled(boolean) enabled} and metrics are enabled, via JMX.</p>
+ */
+public class SqlProfilerPlugin extends AbstractProcessEnginePlugin {
+
+  /**
+   * every n-th command is sampled; 1 samples all commands
+   */
+  protected int samplingInterval = 100;
+
+  protected boolean jmxEnabled = true;
+
+  public void preInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    SqlProfiler sqlProfiler = new SqlProfiler(samplingInterval);
+    processEngineConfiguration.setSqlProfiler(sqlProfiler);
+
+    // sample outside of the command context to include flush and commit; every
+    // interceptor chain needs its own instance
+    processEngineConfiguration.setCustomPreCommandInterceptorsTxRequired(
+        prepend(new SqlProfilerCommandInterceptor(sqlProfiler), processEngineConfiguration.getCustomPreCommandInterceptorsTxRequired()));
+    processEngineConfiguration.setCustomPreCommandInterceptorsTxRequiresNew(
+        prepend(new SqlProfilerCommandInterceptor(sqlProfiler), processEngineConfiguration.getCustomPreCommandInterceptorsTxRequiresNew()));
+
+    if (jmxEnabled) {
+      List<MetricsExporter> metricsExporters = new ArrayList<MetricsExporter>();
+      if (processEngineConfiguration.getMetricsExporters() != null) {
+        metricsExporters.addAll(processEngineConfiguration.getMetricsExporters());
+      }
+      metricsExporters.add(new SqlProfilerMBeanExporter(sqlProfiler));
+      processEngineConfiguration.setMetricsExporters(metricsExporters);
+    }
+  }
+
+  public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    Configuration configuration = processEngineConfiguration.getSqlSessionFactory().getConfiguration();
+
+    // the configuration may be shared by several process engines
+    synchronized (configuration) {
+      for (Interceptor interceptor : configuration.getInterceptors()) {
+        if (interceptor instanceof SqlProfilerStatementInterceptor) {
+          return;
+        }
+      }
+      configuration.addInterceptor(new SqlProfilerStatementInterceptor());
+    }
+  }
+
+  protected List<CommandInterceptor> prepend(CommandInterceptor interceptor, List<CommandInterceptor> interceptors) {
+    List<CommandInterceptor> result = new ArrayList<CommandInterceptor>();
+    result.add(interceptor);
+    if (interceptors != null) {
+      result.addAll(interceptors);
+    }
+    return result;
+  }
+
+  public int getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  public void setSamplingInterval(int samplingInterval) {
+    this.samplingInterval = samplingInterval;
+  }
+
+  public boolean isJmxEnabled() {
+    return jmxEnabled;
+  }
+
+  public void setJmxEnabled(boolean jmxEnabled) {
+    this.jmxEnabled = jmxEnabled;
+  }
+
+}
@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.profiler;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * <p>MyBatis plugin which adds the statements executed by the MyBatis {@link Executor} to the
+ * {@link CommandSample} of the current thread, if any.</p>
+ *
+ * <p>Selects count the returned rows, updates the affected rows. With JDBC batch processing,
+ * statements are executed and their affected rows are counted when the batch is flushed.
+ * Committing and rolling back count as SQL time, too.</p>
+ */
+@Intercepts({
+  @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+  @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),
+  @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+  @Signature(type = Executor.class, method = "flushStatements", args = {}),
+  @Signature(type = Executor.class, method = "commit", args = { boolean.class }),
+  @Signature(type = Executor.class, method = "rollback", args = { boolean.class })
+})
+public class SqlProfilerStatementInterceptor implements Interceptor {
+
+  public Object intercept(Invocation invocation) throws Throwable {
+    CommandSample sample = SqlProfiler.getCurrentSample();
+    if (sample == null) {
+      return invocation.proceed();
+    }
+
+    long start = System.nanoTime();
+    Object result = null;
+    try {
+      result = invocation.proceed();
+      return result;
+    }
+    finally {
+      sample.addSqlTime(System.nanoTime() - start);
+
+      String method = invocation.getMethod().getName();
+      if ("query".equals(method)) {
+        sample.addStatements(1, result instanceof List ? ((List<?>) result).size() : 0);
+      }
+      else if ("update".equals(method)) {
+        // batched updates return a negative placeholder
+        int rows = result instanceof Integer ? (Integer) result : 0;
+        sample.addStatements(1, Math.max(0, rows));
+      }
+      else if ("flushStatements".equals(method) && result instanceof List) {
+        sample.addStatements(0, countBatchedRows((List<?>) result));
+      }
+    }
+  }
+
+  protected long countBatchedRows(List<?> batchResults) {
+    long rows = 0;
+    for (Object batchResult : batchResults) {
+      for (int updateCount : ((BatchResult) batchResult).getUpdateCounts()) {
+        // the driver may report success without a count
+        if (updateCount > 0) {
+          rows += updateCount;
+        }
+      }
+    }
+    return rows;
+  }
+
+  public Object plugin(Object target) {
+    if (target instanceof Executor) {
+      return Plugin.wrap(target, this);
+    }
+    return target;
+  }
+
+  public void setProperties(Properties properties) {
+    // nothing to configure
+  }
+
+}
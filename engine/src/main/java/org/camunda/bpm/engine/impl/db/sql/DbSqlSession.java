@@ -34,6 +34,7 @@ import java.util.List;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
@@ -42,6 +43,7 @@ import org.camunda.bpm.engine.impl.db.AbstractPersistenceSession;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkInsertOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.util.IoUtil;
@@ -99,6 +101,15 @@ public class DbSqlSession extends AbstractPersistenceSession {
     return resultList;
   }
 
+  public List<?> selectList(String statement, Object parameter, int firstResult, int maxResults) {
+    statement = dbSqlSessionFactory.mapStatement(statement);
+    List<Object> resultList = sqlSession.selectList(statement, parameter, new RowBounds(firstResult, maxResults));
+    for (Object object : resultList) {
+      fireEntityLoaded(object);
+    }
+    return resultList;
+  }
+
   @SuppressWarnings("unchecked")
   public <T extends DbEntity> T selectById(Class<T> type, String id) {
     String selectStatement = dbSqlSessionFactory.getSelectStatement(type);
@@ -163,6 +174,32 @@ public class DbSqlSession extends AbstractPersistenceSession {
     }
   }
 
+  @Override
+  protected void insertEntities(DbBulkInsertOperation operation) {
+
+    final List<DbEntity> dbEntities = operation.getEntities();
+
+    // get statement
+    String insertStatement = dbSqlSessionFactory.getBulkInsertStatement(operation.getEntityType());
+    insertStatement = dbSqlSessionFactory.mapStatement(insertStatement);
+    ensureNotNull("no bulk insert statement for " + operation.getEntityType() + " in the ibatis mapping files", "insertStatement", insertStatement);
+
+    LOG.executeDatabaseBulkOperation("INSERT", insertStatement, dbEntities);
+
+    // execute the insert
+    sqlSession.insert(insertStatement, dbEntities);
+
+    for (DbEntity dbEntity : dbEntities) {
+      // set revision of our copy to 1
+      if (dbEntity instanceof HasDbRevision) {
+        ((HasDbRevision) dbEntity).setRevision(1);
+      }
+
+      // perform post insert actions on entity
+      entityInserted(dbEntity);
+    }
+  }
+
   protected void entityInserted(final DbEntity entity) {
     // nothing to do
   }
@@ -255,6 +292,32 @@ public class DbSqlSession extends AbstractPersistenceSession {
     return sqlSession.update(updateStatement, parameter);
   }
 
+  /**
+   * Executes the update statement immediately, also if JDBC batch processing is enabled.
+   *
+   * @return the number of affected rows or -1 if the JDBC driver does not report it for batched statements
+   */
+  public int executeImmediateUpdate(String updateStatement, Object parameter) {
+    int rowsAffected = executeUpdate(updateStatement, parameter);
+    if (!Context.getProcessEngineConfiguration().isJdbcBatchProcessing()) {
+      return rowsAffected;
+    }
+
+    // with batch processing, the statement is only executed on flush; it is the last one of the batch
+    List<BatchResult> batchResults = flushOperations();
+    BatchResult batchResult = batchResults.get(batchResults.size() - 1);
+
+    rowsAffected = 0;
+    for (int updateCount : batchResult.getUpdateCounts()) {
+      if (updateCount < 0) {
+        // e.g. Statement.SUCCESS_NO_INFO
+        return -1;
+      }
+      rowsAffected += updateCount;
+    }
+    return rowsAffected;
+  }
+
   @Override
   public int executeNonEmptyUpdateStmt(String updateStmt, Object parameter) {
     updateStmt = dbSqlSessionFactory.mapStatement(updateStmt);
@@ -278,7 +341,12 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
     LOG.executeDatabaseBulkOperation("UPDATE", statement, parameter);
 
-    executeUpdate(statement, parameter);
+    int rowsAffected = executeUpdate(statement, parameter);
+
+    // with batch processing, the affected rows are checked when the batch is flushed
+    if (operation.isFailIfNoRowsAffected() && !Context.getProcessEngineConfiguration().isJdbcBatchProcessing() && rowsAffected == 0) {
+      operation.setFailed(true);
+    }
   }
 
   // flush ////////////////////////////////////////////////////////////////////
@@ -15,14 +15,21 @@ package org.camunda.bpm.engine.impl.db.sql;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 
 
@@ -77,6 +84,9 @@ public class DbSqlSessionFactory implements SessionFactory {
 
   public static final Map<String, String> databaseSpecificDaysComparator = new HashMap<String, String>();
 
+  /** the minimum major and minor version of the databases which support SKIP LOCKED only in recent versions */
+  public static final Map<String, int[]> databaseSpecificSkipLockedMinimumVersion = new HashMap<String, int[]>();
+
   static {
 
     String defaultOrderBy = "order by ${internalOrderBy}";
@@ -188,6 +198,11 @@ public class DbSqlSessionFactory implements SessionFactory {
       dbSpecificConstants.put(mysqlLikeDatabase, constants);
     }
 
+    // SKIP LOCKED requires MySQL 8
+    databaseSpecificSkipLockedMinimumVersion.put(MYSQL, new int[] {8, 0});
+    addDatabaseSpecificStatement(MYSQL, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_mysql");
+    addDatabaseSpecificStatement(MYSQL, "selectExternalTasksForTopicsSkipLocked", "selectExternalTasksForTopicsSkipLocked_mysql");
+
     // postgres specific
     databaseSpecificLimitBeforeStatements.put(POSTGRES, "");
     databaseSpecificLimitAfterStatements.put(POSTGRES, "LIMIT #{maxResults} OFFSET #{firstResult}");
@@ -217,8 +232,10 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificDaysComparator.put(POSTGRES, "EXTRACT (DAY FROM #{currentTimestamp} - ${date}) >= ${days}");
 
     addDatabaseSpecificStatement(POSTGRES, "insertByteArray", "insertByteArray_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "bulkInsertByteArray", "bulkInsertByteArray_postgres");
     addDatabaseSpecificStatement(POSTGRES, "updateByteArray", "updateByteArray_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectByteArray", "selectByteArray_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectHistoryOutboxEntries", "selectHistoryOutboxEntries_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceName", "selectResourceByDeploymentIdAndResourceName_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceNames", "selectResourceByDeploymentIdAndResourceNames_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceId", "selectResourceByDeploymentIdAndResourceId_postgres");
@@ -238,6 +255,10 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(POSTGRES, "selectEventsByTaskId", "selectEventsByTaskId_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectFilterByQueryCriteria", "selectFilterByQueryCriteria_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectFilter", "selectFilter_postgres");
+    // SKIP LOCKED requires PostgreSQL 9.5
+    databaseSpecificSkipLockedMinimumVersion.put(POSTGRES, new int[] {9, 5});
+    addDatabaseSpecificStatement(POSTGRES, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectExternalTasksForTopicsSkipLocked", "selectExternalTasksForTopicsSkipLocked_postgres");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "'event'");
@@ -286,6 +307,13 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(ORACLE, "selectHistoricDecisionInstanceIdsForCleanup", "selectHistoricDecisionInstanceIdsForCleanup_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectHistoricCaseInstanceIdsForCleanup", "selectHistoricCaseInstanceIdsForCleanup_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectHistoricBatchIdsForCleanup", "selectHistoricBatchIdsForCleanup_oracle");
+    addDatabaseSpecificStatement(ORACLE, "bulkInsertVariableInstance", "bulkInsertVariableInstance_oracle");
+    addDatabaseSpecificStatement(ORACLE, "bulkInsertByteArray", "bulkInsertByteArray_oracle");
+    addDatabaseSpecificStatement(ORACLE, "bulkInsertHistoricActivityInstanceEvent", "bulkInsertHistoricActivityInstanceEvent_oracle");
+    addDatabaseSpecificStatement(ORACLE, "bulkInsertHistoricVariableInstance", "bulkInsertHistoricVariableInstance_oracle");
+    addDatabaseSpecificStatement(ORACLE, "bulkInsertHistoricVariableUpdateEvent", "bulkInsertHistoricVariableUpdateEvent_oracle");
+    addDatabaseSpecificStatement(ORACLE, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_oracle");
+    addDatabaseSpecificStatement(ORACLE, "selectExternalTasksForTopicsSkipLocked", "selectExternalTasksForTopicsSkipLocked_oracle");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "cast('event' as nvarchar2(255))");
@@ -391,9 +419,13 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(MSSQL, "lockDeploymentLockProperty", "lockDeploymentLockProperty_mssql");
     addDatabaseSpecificStatement(MSSQL, "lockHistoryCleanupJobLockProperty", "lockHistoryCleanupJobLockProperty_mssql");
     addDatabaseSpecificStatement(MSSQL, "lockStartupLockProperty", "lockStartupLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockHistoryOutboxLockProperty", "lockHistoryOutboxLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockHistoryOutboxProcessInstance", "lockHistoryOutboxProcessInstance_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByNameAndExecution", "selectEventSubscriptionsByNameAndExecution_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByExecutionAndType", "selectEventSubscriptionsByExecutionAndType_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectHistoricDecisionInstancesByNativeQuery", "selectHistoricDecisionInstancesByNativeQuery_mssql_or_db2");
+    addDatabaseSpecificStatement(MSSQL, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_mssql");
+    addDatabaseSpecificStatement(MSSQL, "selectExternalTasksForTopicsSkipLocked", "selectExternalTasksForTopicsSkipLocked_mssql");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "'event'");
@@ -407,6 +439,8 @@ public class DbSqlSessionFactory implements SessionFactory {
   }
 
   protected String databaseType;
+  protected int databaseMajorVersion = -1;
+  protected int databaseMinorVersion = -1;
   protected String databaseTablePrefix = "";
   /**
    * In some situations you want to set the schema to use for table checks /
@@ -419,6 +453,9 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected IdGenerator idGenerator;
   protected Map<String, String> statementMappings;
   protected Map<Class<?>,String>  insertStatements = new ConcurrentHashMap<Class<?>, String>();
+  protected Map<Class<?>,String>  bulkInsertStatements = new ConcurrentHashMap<Class<?>, String>();
+  /** the entity types for which a multi row insert statement (<code>bulkInsert...</code>) is mapped */
+  protected Set<Class<?>> bulkInsertEntityTypes = defaultBulkInsertEntityTypes();
   protected Map<Class<?>,String>  updateStatements = new ConcurrentHashMap<Class<?>, String>();
   protected Map<Class<?>,String>  deleteStatements = new ConcurrentHashMap<Class<?>, String>();
   protected Map<Class<?>,String>  selectStatements = new ConcurrentHashMap<Class<?>, String>();
@@ -441,6 +478,14 @@ public class DbSqlSessionFactory implements SessionFactory {
     return getStatement(object.getClass(), insertStatements, "insert");
   }
 
+  /**
+   * @return the statement which inserts a list of entities of the given
+   * type with a single multi row INSERT statement
+   */
+  public String getBulkInsertStatement(Class<?> persistentObjectClass) {
+    return getStatement(persistentObjectClass, bulkInsertStatements, "bulkInsert");
+  }
+
   public String getUpdateStatement(DbEntity object) {
     return getStatement(object.getClass(), updateStatements, "update");
   }
@@ -464,6 +509,16 @@ public class DbSqlSessionFactory implements SessionFactory {
     return statement;
   }
 
+  protected static Set<Class<?>> defaultBulkInsertEntityTypes() {
+    Set<Class<?>> entityTypes = new HashSet<Class<?>>();
+    entityTypes.add(VariableInstanceEntity.class);
+    entityTypes.add(ByteArrayEntity.class);
+    entityTypes.add(HistoricActivityInstanceEventEntity.class);
+    entityTypes.add(HistoricVariableInstanceEntity.class);
+    entityTypes.add(HistoricVariableUpdateEventEntity.class);
+    return entityTypes;
+  }
+
   // db specific mappings /////////////////////////////////////////////////////
 
   protected static void addDatabaseSpecificStatement(String databaseType, String activitiStatement, String ibatisStatement) {
@@ -483,6 +538,21 @@ public class DbSqlSessionFactory implements SessionFactory {
     return (mappedStatement!=null ? mappedStatement : statement);
   }
 
+  /**
+   * @return true if rows can be selected and locked while skipping the rows locked by
+   * other transactions (<code>SELECT ... FOR UPDATE SKIP LOCKED</code> or an equivalent)
+   */
+  public boolean isSkipLockedSupported() {
+    if (statementMappings == null || !statementMappings.containsKey("selectNextJobsToExecuteSkipLocked")) {
+      return false;
+    }
+
+    int[] minimumVersion = databaseSpecificSkipLockedMinimumVersion.get(databaseType);
+    return minimumVersion == null
+        || databaseMajorVersion > minimumVersion[0]
+        || (databaseMajorVersion == minimumVersion[0] && databaseMinorVersion >= minimumVersion[1]);
+  }
+
   // customized getters and setters ///////////////////////////////////////////
 
   public void setDatabaseType(String databaseType) {
@@ -534,6 +604,26 @@ public class DbSqlSessionFactory implements SessionFactory {
   }
 
 
+  public Map<Class< ? >, String> getBulkInsertStatements() {
+    return bulkInsertStatements;
+  }
+
+
+  public void setBulkInsertStatements(Map<Class< ? >, String> bulkInsertStatements) {
+    this.bulkInsertStatements = bulkInsertStatements;
+  }
+
+
+  public Set<Class<?>> getBulkInsertEntityTypes() {
+    return bulkInsertEntityTypes;
+  }
+
+
+  public void setBulkInsertEntityTypes(Set<Class<?>> bulkInsertEntityTypes) {
+    this.bulkInsertEntityTypes = bulkInsertEntityTypes;
+  }
+
+
   public Map<Class< ? >, String> getUpdateStatements() {
     return updateStatements;
   }
@@ -595,6 +685,22 @@ public class DbSqlSessionFactory implements SessionFactory {
     this.dmnEnabled = dmnEnabled;
   }
 
+  public int getDatabaseMajorVersion() {
+    return databaseMajorVersion;
+  }
+
+  public void setDatabaseMajorVersion(int databaseMajorVersion) {
+    this.databaseMajorVersion = databaseMajorVersion;
+  }
+
+  public int getDatabaseMinorVersion() {
+    return databaseMinorVersion;
+  }
+
+  public void setDatabaseMinorVersion(int databaseMinorVersion) {
+    this.databaseMinorVersion = databaseMinorVersion;
+  }
+
   public void setDatabaseTablePrefix(String databaseTablePrefix) {
     this.databaseTablePrefix = databaseTablePrefix;
   }
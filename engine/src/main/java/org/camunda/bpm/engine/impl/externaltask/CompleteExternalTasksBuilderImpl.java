@@ -0,0 +1,58 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.externaltask.CompleteExternalTasksBuilder;
+import org.camunda.bpm.engine.impl.cmd.CompleteExternalTaskCmd;
+import org.camunda.bpm.engine.impl.cmd.CompleteExternalTasksCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+public class CompleteExternalTasksBuilderImpl implements CompleteExternalTasksBuilder {
+
+  protected CommandExecutor commandExecutor;
+
+  protected String workerId;
+  protected Map<String, CompleteExternalTaskCmd> completions = new LinkedHashMap<String, CompleteExternalTaskCmd>();
+
+  public CompleteExternalTasksBuilderImpl(CommandExecutor commandExecutor, String workerId) {
+    this.commandExecutor = commandExecutor;
+    this.workerId = workerId;
+  }
+
+  public CompleteExternalTasksBuilder task(String externalTaskId) {
+    return task(externalTaskId, null, null);
+  }
+
+  public CompleteExternalTasksBuilder task(String externalTaskId, Map<String, Object> variables) {
+    return task(externalTaskId, variables, null);
+  }
+
+  public CompleteExternalTasksBuilder task(String externalTaskId, Map<String, Object> variables, Map<String, Object> localVariables) {
+    ensureNotNull("externalTaskId", externalTaskId);
+
+    // replaces a previous completion of the task, which could not be completed twice
+    completions.put(externalTaskId, new CompleteExternalTaskCmd(externalTaskId, workerId, variables, localVariables));
+    return this;
+  }
+
+  public Map<String, ProcessEngineException> execute() {
+    return commandExecutor.execute(new CompleteExternalTasksCmd(workerId, completions.values()));
+  }
+
+}
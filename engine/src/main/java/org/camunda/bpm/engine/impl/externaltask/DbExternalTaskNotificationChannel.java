@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.notification.DbPropertyNotificationChannel;
+
+/**
+ * <p>{@link ExternalTaskNotificationChannel} which exchanges notifications through the database
+ * shared by the nodes, using the property {@link #NOTIFICATION_PROPERTY_NAME}. A notification carries
+ * the topics of the created external tasks, which are passed to the external task created listeners.</p>
+ *
+ * <p>Only if the topics of a notification are unknown, because they did not fit into the property or
+ * notifications were overwritten before this node could read them, the topics of the external tasks
+ * which can currently be fetched are selected instead.</p>
+ */
+public class DbExternalTaskNotificationChannel extends DbPropertyNotificationChannel implements ExternalTaskNotificationChannel {
+
+  private final static ExternalTaskLogger LOG = ProcessEngineLogger.EXTERNAL_TASK_LOGGER;
+
+  public static final String NOTIFICATION_PROPERTY_NAME = "externalTask.notification";
+
+  public DbExternalTaskNotificationChannel(long pollIntervalInMillis) {
+    super(NOTIFICATION_PROPERTY_NAME, pollIntervalInMillis);
+  }
+
+  public void externalTasksCreated(Set<String> topicNames) {
+    publish(topicNames);
+  }
+
+  protected boolean isReceiving() {
+    Set<?> listeners = processEngine.getProcessEngineConfiguration().getExternalTaskCreatedListeners();
+    return listeners != null && !listeners.isEmpty();
+  }
+
+  protected void notificationReceived(String notification, Set<String> topicNames) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = processEngine.getProcessEngineConfiguration();
+
+    if (topicNames == null) {
+      topicNames = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Set<String>>() {
+        public Set<String> execute(CommandContext commandContext) {
+          return new HashSet<String>(commandContext.getExternalTaskManager().selectTopicNamesOfFetchableExternalTasks());
+        }
+      });
+    }
+
+    LOG.debugNotifiedByOtherNode(notification, topicNames);
+    if (!topicNames.isEmpty()) {
+      processEngineConfiguration.notifyExternalTaskCreatedListeners(topicNames);
+    }
+  }
+
+  protected void exceptionWhileExchangingNotifications(Exception e) {
+    LOG.exceptionWhileExchangingNotifications(e);
+  }
+
+  protected String getThreadName() {
+    return "Camunda External Task Notification Channel";
+  }
+
+}
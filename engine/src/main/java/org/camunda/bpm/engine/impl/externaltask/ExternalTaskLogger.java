@@ -15,6 +15,8 @@
  */
 package org.camunda.bpm.engine.impl.externaltask;
 
+import java.util.Set;
+
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
@@ -39,4 +41,16 @@ public class ExternalTaskLogger extends ProcessEngineLogger {
         "Could not determine priority for external task created in context of execution {}. Using default priority {}",
         execution, value, e);
   }
+
+  public void debugNotifiedByOtherNode(String notification, Set<String> topicNames) {
+    logDebug(
+        "002",
+        "Received notification of new external tasks from another node: {}, topics {}", notification, topicNames);
+  }
+
+  public void exceptionWhileExchangingNotifications(Exception e) {
+    logWarn(
+        "003",
+        "Exception while exchanging external task notifications with other nodes: {}", e.getMessage(), e);
+  }
 }
@@ -0,0 +1,49 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskCreatedListener;
+
+/**
+ * <p>Notifies the other nodes in a cluster that external tasks were created, so that workers
+ * long polling on another node than the one creating the tasks do not wait until their
+ * request is repeated.</p>
+ *
+ * <p>{@link #externalTasksCreated(Set)} is invoked after a transaction which created external tasks
+ * has been committed. A notification received from another node is passed to the local
+ * {@link ExternalTaskCreatedListener}s via
+ * {@link ProcessEngineConfigurationImpl#notifyExternalTaskCreatedListeners(Set)}.</p>
+ *
+ * @see DbExternalTaskNotificationChannel
+ * @see MulticastExternalTaskNotificationChannel
+ */
+public interface ExternalTaskNotificationChannel {
+
+  /**
+   * Starts sending and receiving notifications for the given process engine.
+   */
+  void start(ProcessEngineImpl processEngine);
+
+  void stop();
+
+  /**
+   * Notifies the other nodes that external tasks of the given topics were created. Invoked
+   * after the transaction creating the external tasks has been committed.
+   */
+  void externalTasksCreated(Set<String> topicNames);
+
+}
@@ -55,8 +55,15 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
   }
 
   public List<LockedExternalTask> execute() {
+    return commandExecutor.execute(createFetchCommand());
+  }
+
+  /**
+   * @return the command which fetches and locks the external tasks on {@link #execute()}
+   */
+  public FetchExternalTasksCmd createFetchCommand() {
     submitCurrentInstruction();
-    return commandExecutor.execute(new FetchExternalTasksCmd(workerId, maxTasks, instructions, filterByBusinessKey, usePriority));
+    return new FetchExternalTasksCmd(workerId, maxTasks, instructions, filterByBusinessKey, usePriority);
   }
 
   public ExternalTaskQueryTopicBuilder topic(String topicName, long lockDuration) {
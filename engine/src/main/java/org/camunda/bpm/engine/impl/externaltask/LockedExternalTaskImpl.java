@@ -130,6 +130,17 @@ public class LockedExternalTaskImpl implements LockedExternalTask {
    * database and variables attached
    */
   public static LockedExternalTaskImpl fromEntity(ExternalTaskEntity externalTaskEntity, List<String> variablesToFetch, boolean deserializeVariables) {
+    ExecutionEntity execution = externalTaskEntity.getExecution();
+    VariableMapImpl variables = new VariableMapImpl();
+    execution.collectVariables(variables, variablesToFetch, false, deserializeVariables);
+
+    return fromEntity(externalTaskEntity, variables);
+  }
+
+  /**
+   * @param variables the variables of the task which were collected already
+   */
+  public static LockedExternalTaskImpl fromEntity(ExternalTaskEntity externalTaskEntity, VariableMapImpl variables) {
     LockedExternalTaskImpl result = new LockedExternalTaskImpl();
     result.id = externalTaskEntity.getId();
     result.topicName = externalTaskEntity.getTopicName();
@@ -149,9 +160,7 @@ public class LockedExternalTaskImpl implements LockedExternalTask {
     result.priority = externalTaskEntity.getPriority();
     result.businessKey = externalTaskEntity.getBusinessKey();
 
-    ExecutionEntity execution = externalTaskEntity.getExecution();
-    result.variables = new VariableMapImpl();
-    execution.collectVariables(result.variables, variablesToFetch, false, deserializeVariables);
+    result.variables = variables;
 
     return result;
   }
@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.notification.MulticastNotificationChannel;
+
+/**
+ * <p>{@link ExternalTaskNotificationChannel} which sends the topics of created external tasks as
+ * UDP multicast datagrams. Notifications are delivered immediately but may get lost; long polling
+ * workers then wait until their request times out.</p>
+ */
+public class MulticastExternalTaskNotificationChannel extends MulticastNotificationChannel implements ExternalTaskNotificationChannel {
+
+  private final static ExternalTaskLogger LOG = ProcessEngineLogger.EXTERNAL_TASK_LOGGER;
+
+  public MulticastExternalTaskNotificationChannel() {
+    super("239.255.27.2", 27028);
+  }
+
+  public void externalTasksCreated(Set<String> topicNames) {
+    send(topicNames);
+  }
+
+  protected void notificationReceived(String sender, Set<String> topicNames) {
+    if (!topicNames.isEmpty()) {
+      LOG.debugNotifiedByOtherNode(sender, topicNames);
+      processEngine.getProcessEngineConfiguration().notifyExternalTaskCreatedListeners(topicNames);
+    }
+  }
+
+  protected void exceptionWhileExchangingNotifications(Exception e) {
+    LOG.exceptionWhileExchangingNotifications(e);
+  }
+
+  protected String getThreadName() {
+    return "Camunda External Task Notification Receiver";
+  }
+
+}
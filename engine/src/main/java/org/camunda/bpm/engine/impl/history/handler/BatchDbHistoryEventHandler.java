@@ -0,0 +1,127 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
+
+/**
+ * <p>{@link DbHistoryEventHandler} which writes a batch of history events that were
+ * produced by different commands in a single transaction.</p>
+ *
+ * <p>In contrast to the synchronous case, the events of one history entity (e.g. the
+ * start and the end of an activity instance) are separate objects. Instead of merging
+ * them through the entity cache, every non-initial event is written as an UPDATE
+ * statement which is flushed after the INSERTs and in the order of the events. An UPDATE
+ * which does not change any row fails the flush like an optimistic locking failure.</p>
+ *
+ * <p>The start times of the scope instances which are ended or updated in the batch are
+ * taken from their initial events in the batch or selected once per entity type for the
+ * whole batch.</p>
+ */
+public class BatchDbHistoryEventHandler extends DbHistoryEventHandler {
+
+  /** the maximum number of ids in a single IN clause, see Oracle's limit of 1000 expressions */
+  protected static final int SELECT_START_TIMES_BATCH_SIZE = 1000;
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    Map<String, Date> startTimes = selectStartTimes(historyEvents);
+
+    for (HistoryEvent historyEvent : historyEvents) {
+      if (isBatchable(historyEvent)) {
+        insertOrUpdateInBatch(historyEvent, startTimes);
+      }
+      else {
+        handleEvent(historyEvent);
+      }
+    }
+  }
+
+  protected void insertOrUpdateInBatch(HistoryEvent historyEvent, Map<String, Date> startTimes) {
+    DbEntityManager dbEntityManager = getDbEntityManager();
+
+    if (isInitialEvent(historyEvent)) {
+      dbEntityManager.insert(historyEvent);
+    }
+    else {
+      if (historyEvent instanceof HistoricScopeInstanceEvent && startTimes.containsKey(historyEvent.getId())) {
+        // the start time is only known to the initial event, which is either
+        // part of this batch or has been written before
+        ((HistoricScopeInstanceEvent) historyEvent).setStartTime(startTimes.get(historyEvent.getId()));
+      }
+
+      String updateStatement = Context.getProcessEngineConfiguration()
+        .getDbSqlSessionFactory()
+        .getUpdateStatement(historyEvent);
+      // the initial event may be part of a batch which has not been written yet;
+      // failing the flush makes the caller write the events again later
+      dbEntityManager.updateExisting(historyEvent.getClass(), updateStatement, historyEvent);
+    }
+  }
+
+  /**
+   * @return the start times of the scope instances which are ended or updated by the
+   *   given events, by scope instance id
+   */
+  protected Map<String, Date> selectStartTimes(List<HistoryEvent> historyEvents) {
+    Map<String, Date> startTimes = new HashMap<String, Date>();
+    Map<Class<?>, Set<String>> idsToSelect = new HashMap<Class<?>, Set<String>>();
+
+    for (HistoryEvent historyEvent : historyEvents) {
+      if (isBatchable(historyEvent) && historyEvent instanceof HistoricScopeInstanceEvent) {
+        if (isInitialEvent(historyEvent)) {
+          startTimes.put(historyEvent.getId(), ((HistoricScopeInstanceEvent) historyEvent).getStartTime());
+        }
+        else if (!startTimes.containsKey(historyEvent.getId())) {
+          CollectionUtil.addToMapOfSets(idsToSelect, historyEvent.getClass(), historyEvent.getId());
+        }
+      }
+    }
+
+    DbSqlSessionFactory dbSqlSessionFactory = Context.getProcessEngineConfiguration().getDbSqlSessionFactory();
+    for (Map.Entry<Class<?>, Set<String>> ids : idsToSelect.entrySet()) {
+      String selectStatement = dbSqlSessionFactory.getSelectStatement(ids.getKey()) + "sByIds";
+
+      for (List<String> idBatch : CollectionUtil.partition(new ArrayList<String>(ids.getValue()), SELECT_START_TIMES_BATCH_SIZE)) {
+        // bypasses the entity cache, the selected entities are not updated themselves
+        List<?> existingEvents = Context.getCommandContext().getDbSqlSession().selectList(selectStatement, idBatch);
+        for (Object existingEvent : existingEvents) {
+          HistoricScopeInstanceEvent scopeInstanceEvent = (HistoricScopeInstanceEvent) existingEvent;
+          startTimes.put(scopeInstanceEvent.getId(), scopeInstanceEvent.getStartTime());
+        }
+      }
+    }
+
+    return startTimes;
+  }
+
+  protected boolean isBatchable(HistoryEvent historyEvent) {
+    return historyEvent.getId() != null
+        && !(historyEvent instanceof HistoricVariableUpdateEventEntity)
+        && !(historyEvent instanceof HistoricDecisionEvaluationEvent);
+  }
+
+}
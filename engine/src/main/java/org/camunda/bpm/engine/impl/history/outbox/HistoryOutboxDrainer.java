@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.outbox;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.DrainHistoryOutboxCmd;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * <p>Background thread which periodically moves the history events enqueued by the
+ * {@link HistoryOutboxEventHandler} into the history tables. Each transaction drains
+ * up to {@link #batchSize} outbox entries; the drainer keeps on draining as long as
+ * full batches are found.</p>
+ *
+ * <p>An update which does not change any row (e.g. because the entity has not been
+ * inserted yet) fails the drain; the entries stay in the outbox and are drained again.</p>
+ *
+ * <p>Stopping the drainer drains the remaining entries. Entries which are left behind
+ * (e.g. because the drain failed) stay in the database and are drained by any
+ * process engine using the same database.</p>
+ */
+public class HistoryOutboxDrainer {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  /**
+   * The property which is locked while draining, so the process engines
+   * using the same database do not drain the same entries concurrently.
+   */
+  public static final String LOCK_PROPERTY_NAME = "history.outbox.lock";
+
+  protected CommandExecutor commandExecutor;
+  protected HistoryEventHandler historyEventHandler;
+
+  protected long drainIntervalInMillis = 1000;
+  protected int batchSize = 100;
+
+  protected Timer timer;
+
+  public HistoryOutboxDrainer(CommandExecutor commandExecutor, HistoryEventHandler historyEventHandler) {
+    this.commandExecutor = commandExecutor;
+    this.historyEventHandler = historyEventHandler;
+  }
+
+  public synchronized void start() {
+    if (timer == null) {
+      timer = new Timer("Camunda History Outbox Drainer", true);
+      timer.schedule(new TimerTask() {
+        public void run() {
+          drainSilently();
+        }
+      }, drainIntervalInMillis, drainIntervalInMillis);
+    }
+  }
+
+  public synchronized void stop() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+      // drain manually for the last time
+      drainSilently();
+    }
+  }
+
+  /**
+   * Drains the history outbox until it is empty or a batch is not full.
+   *
+   * @return the number of drained outbox entries
+   */
+  public int drain() {
+    int drainedEntries = 0;
+    int drainedBatch;
+    do {
+      drainedBatch = commandExecutor.execute(new DrainHistoryOutboxCmd(historyEventHandler, batchSize));
+      drainedEntries += drainedBatch;
+    }
+    while (drainedBatch == batchSize);
+
+    return drainedEntries;
+  }
+
+  protected void drainSilently() {
+    try {
+      drain();
+    }
+    catch (Exception e) {
+      try {
+        LOG.historyOutboxDrainFailed(e);
+      }
+      catch (Exception ex) {
+        // ignore if log can't be written
+      }
+    }
+  }
+
+  /**
+   * @return the number of outbox entries which wait to be drained
+   */
+  public long getBacklog() {
+    return commandExecutor.execute(new Command<Long>() {
+      public Long execute(CommandContext commandContext) {
+        return commandContext
+          .getByteArrayManager()
+          .findHistoryOutboxEntryCount(HistoryOutboxSession.ENTRY_NAME_PREFIX);
+      }
+    });
+  }
+
+  public HistoryEventHandler getHistoryEventHandler() {
+    return historyEventHandler;
+  }
+
+  public long getDrainIntervalInMillis() {
+    return drainIntervalInMillis;
+  }
+
+  public void setDrainIntervalInMillis(long drainIntervalInMillis) {
+    this.drainIntervalInMillis = drainIntervalInMillis;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+}
@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.outbox;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * <p>History event handler which does not write history events to the
+ * ACT_HI_* tables but enqueues them in the {@link HistoryOutboxSession history outbox}.
+ * The {@link HistoryOutboxDrainer} passes them to the delegate handler later on.</p>
+ *
+ * <p>Events which cannot be deferred, e.g. events which do not belong to a process
+ * instance, are passed to the delegate handler immediately.</p>
+ */
+public class HistoryOutboxEventHandler implements HistoryEventHandler {
+
+  protected HistoryEventHandler delegate;
+
+  public HistoryOutboxEventHandler(HistoryEventHandler delegate) {
+    this.delegate = delegate;
+  }
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    HistoryOutboxSession outbox = getHistoryOutbox();
+
+    if (outbox != null && isDeferrable(historyEvent)) {
+      outbox.addHistoryEvent(historyEvent);
+    }
+    else {
+      delegate.handleEvent(historyEvent);
+    }
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    for (HistoryEvent historyEvent : historyEvents) {
+      handleEvent(historyEvent);
+    }
+  }
+
+  protected boolean isDeferrable(HistoryEvent historyEvent) {
+    // the outbox keeps the events in order per process instance only;
+    // decision evaluation events carry the complete decision instance graph
+    return historyEvent.getProcessInstanceId() != null
+        && !(historyEvent instanceof HistoricDecisionEvaluationEvent);
+  }
+
+  protected HistoryOutboxSession getHistoryOutbox() {
+    CommandContext commandContext = Context.getCommandContext();
+    if (commandContext == null) {
+      return null;
+    }
+
+    HistoryOutboxSession outbox = commandContext.getSession(HistoryOutboxSession.class);
+    return outbox.isFlushed() ? null : outbox;
+  }
+
+  public HistoryEventHandler getDelegate() {
+    return delegate;
+  }
+
+}
@@ -0,0 +1,197 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.outbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.management.Metrics;
+
+/**
+ * <p>Collects the history events of a command and writes them into the history
+ * outbox when the command is flushed. The events of each process instance are
+ * written as a separate {@link ByteArrayEntity}.</p>
+ *
+ * <p>The outbox entries are inserted in the transaction of the command, so the history
+ * events are persisted if and only if the command commits. The name of an entry consists
+ * of {@link #ENTRY_NAME_PREFIX}, the process instance id and a sequence number which is
+ * determined while holding a lock on the process instance execution. The entries of a
+ * process instance are therefore named in the order in which their transactions commit,
+ * independent of the clocks of the process engines, and the drainer writes them in
+ * this order.</p>
+ *
+ * <p>The process instances are locked in the order of their ids, so that commands
+ * which touch the same process instances cannot deadlock. A process instance which is
+ * started by the command is neither locked nor looked up, since its first entry is
+ * written by this command. Otherwise, an entry costs a lock and a lookup of the last
+ * sequence number of the process instance in addition to its insert; both are single
+ * row statements on indexed columns, and locking the process instance execution is what
+ * orders the entries across process engines.</p>
+ */
+public class HistoryOutboxSession implements Session {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  public static final String ENTRY_NAME_PREFIX = "camunda-history-outbox-";
+
+  protected static final String SEQUENCE_SEPARATOR = ":";
+  protected static final String SEQUENCE_FORMAT = "%012d";
+
+  /** sorted by process instance id, which is the order in which the process instances are locked */
+  protected Map<String, List<HistoryEvent>> historyEvents = new TreeMap<String, List<HistoryEvent>>();
+  protected boolean flushed = false;
+
+  public HistoryOutboxSession() {
+    // sessions are flushed in the reverse order of their creation; opening the
+    // entity manager first makes sure that it is flushed after the outbox entries are inserted
+    Context.getCommandContext().getDbEntityManager();
+  }
+
+  public void addHistoryEvent(HistoryEvent historyEvent) {
+    String processInstanceId = historyEvent.getProcessInstanceId();
+
+    List<HistoryEvent> processInstanceEvents = historyEvents.get(processInstanceId);
+    if (processInstanceEvents == null) {
+      processInstanceEvents = new ArrayList<HistoryEvent>();
+      historyEvents.put(processInstanceId, processInstanceEvents);
+    }
+    processInstanceEvents.add(historyEvent);
+  }
+
+  /**
+   * Discards the history events of the given process instances which have
+   * been collected by this command, e.g. because their history is deleted.
+   */
+  public void discardHistoryEvents(Collection<String> processInstanceIds) {
+    historyEvents.keySet().removeAll(processInstanceIds);
+  }
+
+  public boolean isFlushed() {
+    return flushed;
+  }
+
+  public void flush() {
+    if (!flushed && !historyEvents.isEmpty()) {
+      CommandContext commandContext = Context.getCommandContext();
+      int historyEventCount = 0;
+
+      for (Map.Entry<String, List<HistoryEvent>> processInstanceEvents : historyEvents.entrySet()) {
+        insertEntry(commandContext, processInstanceEvents.getKey(), processInstanceEvents.getValue());
+        historyEventCount += processInstanceEvents.getValue().size();
+      }
+
+      ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+      if (processEngineConfiguration.isMetricsEnabled()) {
+        processEngineConfiguration.getMetricsRegistry()
+          .markOccurrence(Metrics.HISTORY_OUTBOX_EVENTS_ENQUEUED, historyEventCount);
+      }
+    }
+
+    // events fired after the flush are not part of the outbox entries anymore
+    flushed = true;
+  }
+
+  protected void insertEntry(CommandContext commandContext, String processInstanceId, List<HistoryEvent> processInstanceEvents) {
+    DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+    String namePrefix = getEntryNamePrefix(processInstanceId);
+
+    long sequence = 1;
+    if (!isStartedByCommand(dbEntityManager, processInstanceId)) {
+      // the lock is held until the transaction ends, so concurrent commands see the entry
+      // inserted here before they determine their sequence number
+      dbEntityManager.lock("lockHistoryOutboxProcessInstance", processInstanceId);
+
+      String lastEntryName = commandContext.getByteArrayManager().findLastHistoryOutboxEntryName(namePrefix);
+      if (lastEntryName != null) {
+        sequence = Long.parseLong(lastEntryName.substring(namePrefix.length())) + 1;
+      }
+    }
+
+    String entryName = namePrefix + String.format(SEQUENCE_FORMAT, sequence);
+    dbEntityManager.insert(new ByteArrayEntity(entryName, serializeHistoryEvents(processInstanceEvents)));
+  }
+
+  /**
+   * A process instance which is started by this command is not visible to other
+   * transactions yet, so it has no outbox entries and does not need to be locked.
+   */
+  protected boolean isStartedByCommand(DbEntityManager dbEntityManager, String processInstanceId) {
+    ExecutionEntity processInstance = dbEntityManager.getCachedEntity(ExecutionEntity.class, processInstanceId);
+    return processInstance != null && dbEntityManager.getDbEntityCache().isTransient(processInstance);
+  }
+
+  public void close() {
+    historyEvents.clear();
+  }
+
+  /**
+   * @return the prefix of the names of all outbox entries of the given process instance
+   */
+  public static String getEntryNamePrefix(String processInstanceId) {
+    return ENTRY_NAME_PREFIX + processInstanceId + SEQUENCE_SEPARATOR;
+  }
+
+  public static byte[] serializeHistoryEvents(List<HistoryEvent> historyEvents) {
+    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    ObjectOutputStream objectStream = null;
+    try {
+      objectStream = new ObjectOutputStream(new GZIPOutputStream(byteStream));
+      objectStream.writeObject(new ArrayList<HistoryEvent>(historyEvents));
+      objectStream.close();
+      return byteStream.toByteArray();
+
+    } catch (IOException e) {
+      throw LOG.historyOutboxSerializationException(e);
+
+    } finally {
+      IoUtil.closeSilently(objectStream);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public static List<HistoryEvent> deserializeHistoryEvents(ByteArrayEntity entry) {
+    ObjectInputStream objectStream = null;
+    try {
+      objectStream = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(entry.getBytes())));
+      return (List<HistoryEvent>) objectStream.readObject();
+
+    } catch (Exception e) {
+      throw LOG.historyOutboxDeserializationException(entry.getId(), e);
+
+    } finally {
+      IoUtil.closeSilently(objectStream);
+    }
+  }
+
+}
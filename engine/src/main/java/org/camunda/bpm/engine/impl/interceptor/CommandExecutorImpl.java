@@ -13,6 +13,8 @@
 package org.camunda.bpm.engine.impl.interceptor;
 
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+import org.camunda.bpm.engine.management.Metrics;
 
 
 /**
@@ -21,6 +23,19 @@ import org.camunda.bpm.engine.impl.context.Context;
 public class CommandExecutorImpl extends CommandInterceptor {
 
   public <T> T execute(Command<T> command) {
-    return command.execute(Context.getCommandContext());
+    CommandContext commandContext = Context.getCommandContext();
+
+    Timer timer = commandContext.getProcessEngineConfiguration().getMetricsTimer(Metrics.COMMAND_EXECUTION_TIME);
+    if (timer == null) {
+      return command.execute(commandContext);
+    }
+
+    long start = timer.start();
+    try {
+      return command.execute(commandContext);
+    }
+    finally {
+      timer.stop(start);
+    }
   }
 }
@@ -87,6 +87,12 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
   protected boolean executionSaturated = false;
   protected long executionSaturationWaitTime = DEFAULT_EXECUTION_SATURATION_WAIT_TIME;
 
+  /*
+   * the job executor is asked for its free execution capacity, so that
+   * not more jobs are acquired than can be executed
+   */
+  protected JobExecutor jobExecutor;
+
   public BackoffJobAcquisitionStrategy(
       long baseIdleWaitTime,
       float idleIncreaseFactor,
@@ -122,6 +128,8 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
         jobExecutor.getMaxBackoff(),
         jobExecutor.getBackoffDecreaseThreshold(),
         jobExecutor.getMaxJobsPerAcquisition());
+
+    this.jobExecutor = jobExecutor;
   }
 
   protected void initializeMaxLevels() {
@@ -160,7 +168,24 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
     reconfigureIdleLevel(context);
     reconfigureBackoffLevel(context);
     reconfigureNumberOfJobsToAcquire(context);
-    executionSaturated = allSubmittedJobsRejected(context);
+    executionSaturated = allSubmittedJobsRejected(context) || noExecutionCapacityLeft(context);
+  }
+
+  /**
+   * @return true, if the job executor reports no free execution capacity for all engines
+   */
+  protected boolean noExecutionCapacityLeft(JobAcquisitionContext context) {
+    if (jobExecutor == null || context.getAcquiredJobsByEngine().isEmpty()) {
+      return false;
+    }
+
+    for (String engineName : context.getAcquiredJobsByEngine().keySet()) {
+      if (jobExecutor.getAvailableExecutionCapacity(engineName) != 0) {
+        return false;
+      }
+    }
+
+    return true;
   }
 
   /**
@@ -240,6 +265,17 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
       if (rejectedJobBatchesForEngine != null) {
         numJobsToAcquire -= rejectedJobBatchesForEngine.size();
       }
+
+      if (jobExecutor != null) {
+        int availableCapacity = jobExecutor.getAvailableExecutionCapacity(engineName);
+        if (availableCapacity >= 0) {
+          // rejected batches are resubmitted in the next cycle and take their share of the capacity
+          if (rejectedJobBatchesForEngine != null) {
+            availableCapacity -= rejectedJobBatchesForEngine.size();
+          }
+          numJobsToAcquire = Math.min(numJobsToAcquire, availableCapacity);
+        }
+      }
       numJobsToAcquire = Math.max(0, numJobsToAcquire);
 
       jobsToAcquire.put(engineName, numJobsToAcquire);
@@ -0,0 +1,37 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Notifies the job executors of the other nodes via the {@link JobNotificationChannel}.
+ */
+public class ClusterJobAddedNotification implements TransactionListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected JobNotificationChannel jobNotificationChannel;
+
+  public ClusterJobAddedNotification(JobNotificationChannel jobNotificationChannel) {
+    this.jobNotificationChannel = jobNotificationChannel;
+  }
+
+  public void execute(CommandContext commandContext) {
+    LOG.debugNotifyingOtherJobExecutors();
+    jobNotificationChannel.jobsAdded(commandContext);
+  }
+
+}
@@ -0,0 +1,67 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.notification.DbPropertyNotificationChannel;
+
+/**
+ * <p>{@link JobNotificationChannel} which exchanges notifications through the database shared
+ * by the nodes, using the property {@link #NOTIFICATION_PROPERTY_NAME}. A notification of another
+ * node wakes up the job acquisition. Reading a single row is considerably cheaper than the job
+ * acquisition query, so the poll interval can be much shorter than the wait time of the job acquisition.</p>
+ *
+ * <p>The id of the node is the lock owner of the job executor.</p>
+ */
+public class DbJobNotificationChannel extends DbPropertyNotificationChannel implements JobNotificationChannel {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  public static final String NOTIFICATION_PROPERTY_NAME = "job.notification";
+
+  public DbJobNotificationChannel(long pollIntervalInMillis) {
+    super(NOTIFICATION_PROPERTY_NAME, pollIntervalInMillis);
+  }
+
+  public synchronized void start(ProcessEngineImpl processEngine) {
+    this.nodeId = processEngine.getProcessEngineConfiguration().getJobExecutor().getLockOwner();
+    super.start(processEngine);
+  }
+
+  public void jobsAdded(CommandContext commandContext) {
+    publish(Collections.<String>emptySet());
+  }
+
+  protected boolean isReceiving() {
+    return processEngine.getProcessEngineConfiguration().getJobExecutor().isActive();
+  }
+
+  protected void notificationReceived(String notification, Set<String> subjects) {
+    LOG.debugNotifiedByOtherJobExecutor(notification);
+    processEngine.getProcessEngineConfiguration().getJobExecutor().jobWasAdded();
+  }
+
+  protected void exceptionWhileExchangingNotifications(Exception e) {
+    LOG.exceptionWhileNotifyingJobExecutors(e);
+  }
+
+  protected String getThreadName() {
+    return "Camunda Job Notification Channel";
+  }
+
+}
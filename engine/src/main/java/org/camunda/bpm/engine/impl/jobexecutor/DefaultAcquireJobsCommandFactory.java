@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsSkipLockedCmd;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 
 /**
@@ -28,6 +29,11 @@ public class DefaultAcquireJobsCommandFactory implements AcquireJobsCommandFacto
   }
 
   public Command<AcquiredJobs> getCommand(int numJobsToAcquire) {
-    return new AcquireJobsCmd(jobExecutor, numJobsToAcquire);
+    if (jobExecutor.isAcquireWithSkipLocked()) {
+      return new AcquireJobsSkipLockedCmd(jobExecutor, numJobsToAcquire);
+    }
+    else {
+      return new AcquireJobsCmd(jobExecutor, numJobsToAcquire);
+    }
   }
 }
@@ -17,6 +17,8 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cmd.UnlockJobCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+import org.camunda.bpm.engine.management.Metrics;
 
 import java.util.List;
 
@@ -44,6 +46,7 @@ public class ExecuteJobsRunnable implements Runnable {
 
     final List<String> currentProcessorJobQueue = jobExecutorContext.getCurrentProcessorJobQueue();
     CommandExecutor commandExecutor = processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+    Timer timer = processEngine.getProcessEngineConfiguration().getMetricsTimer(Metrics.JOB_EXECUTION_TIME);
 
     currentProcessorJobQueue.addAll(jobIds);
 
@@ -53,12 +56,18 @@ public class ExecuteJobsRunnable implements Runnable {
 
         String nextJobId = currentProcessorJobQueue.remove(0);
         if(jobExecutor.isActive()) {
+          long start = timer != null ? timer.start() : 0;
           try {
              executeJob(nextJobId, commandExecutor);
           }
           catch(Throwable t) {
             LOG.exceptionWhileExecutingJob(nextJobId, t);
           }
+          finally {
+            if (timer != null) {
+              timer.stop(start);
+            }
+          }
         } else {
             try {
               unlockJob(nextJobId, commandExecutor);
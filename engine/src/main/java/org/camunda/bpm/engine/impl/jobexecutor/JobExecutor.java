@@ -71,11 +71,19 @@ public abstract class JobExecutor {
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
 
+  /**
+   * If true, jobs are acquired with <code>SELECT ... FOR UPDATE SKIP LOCKED</code> on
+   * databases supporting it, instead of optimistic locking.
+   */
+  protected boolean acquireWithSkipLocked = false;
+
   public void start() {
     if (isActive) {
       return;
     }
     LOG.startingUpJobExecutor(getClass().getName());
+    // partitions leased before the job executor was stopped may have been taken over meanwhile
+    requestJobPartitionHeartbeats();
     ensureInitialization();
     startExecutingJobs();
     isActive = true;
@@ -92,6 +100,15 @@ public abstract class JobExecutor {
     isActive = false;
   }
 
+  protected void requestJobPartitionHeartbeats() {
+    for (ProcessEngineImpl processEngine : processEngines) {
+      JobPartitioning jobPartitioning = processEngine.getProcessEngineConfiguration().getJobPartitioning();
+      if (jobPartitioning != null) {
+        jobPartitioning.requestHeartbeat();
+      }
+    }
+  }
+
   protected void ensureInitialization() {
     acquireJobsCmdFactory = new DefaultAcquireJobsCommandFactory(this);
     acquireJobsRunnable = new SequentialJobAcquisitionRunnable(this);
@@ -130,6 +147,25 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs();
   public abstract void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine);
 
+  /**
+   * Submits the jobs for execution like {@link #executeJobs(List, ProcessEngineImpl)}, but does not
+   * invoke the {@link RejectedJobsHandler} if they are rejected.
+   *
+   * @return true if the jobs were submitted, false if they were rejected or the
+   * job executor does not support it
+   */
+  public boolean tryExecuteJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    return false;
+  }
+
+  /**
+   * @return the number of job batches of the given process engine that can currently be
+   * executed without being rejected or a negative value if the capacity is unknown
+   */
+  public int getAvailableExecutionCapacity(String processEngineName) {
+    return -1;
+  }
+
   /**
    * Deprecated: use {@link #executeJobs(List, ProcessEngineImpl)} instead
    * @param jobIds
@@ -239,6 +275,14 @@ public abstract class JobExecutor {
     this.lockTimeInMillis = lockTimeInMillis;
   }
 
+  public boolean isAcquireWithSkipLocked() {
+    return acquireWithSkipLocked;
+  }
+
+  public void setAcquireWithSkipLocked(boolean acquireWithSkipLocked) {
+    this.acquireWithSkipLocked = acquireWithSkipLocked;
+  }
+
   public String getLockOwner() {
     return lockOwner;
   }
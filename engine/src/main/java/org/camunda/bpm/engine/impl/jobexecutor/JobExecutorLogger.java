@@ -174,4 +174,35 @@ public class JobExecutorLogger extends ProcessEngineLogger {
         "027", "Falling back to default retry strategy. Exception while executing job {}: {}", jobId, exceptionMessage);
   }
 
+  public void jobPartitionsClaimed(String owner, int numberOfOwners, Collection<Integer> partitions) {
+    logDebug(
+        "028", "Job executor '{}' shares the job partitions with {} owner(s) and owns partitions {}", owner, numberOfOwners, partitions);
+  }
+
+  public void concurrentJobExecutionLimited(String jobExecutorName, String processEngine, int maxConcurrentJobs, int connectionLimit) {
+    logInfo(
+        "029", "{} executes at most {} job batches concurrently, at most {} of them for process engine '{}'",
+        jobExecutorName, maxConcurrentJobs, connectionLimit, processEngine);
+  }
+
+  public void debugNotifyingOtherJobExecutors() {
+    logDebug(
+        "030", "Notifying job executors of other nodes of new jobs");
+  }
+
+  public void debugNotifiedByOtherJobExecutor(String notification) {
+    logDebug(
+        "031", "Received notification of new jobs from another node: {}", notification);
+  }
+
+  public void exceptionWhileNotifyingJobExecutors(Exception e) {
+    logWarn(
+        "032", "Exception while exchanging job notifications with other nodes: {}", e.getMessage(), e);
+  }
+
+  public void debugJobsNotHandedOff(Collection<String> jobIds) {
+    logDebug(
+        "033", "Jobs {} could not be handed off for execution and are left to the job acquisition", jobIds);
+  }
+
 }
@@ -0,0 +1,44 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * <p>Notifies the job executors of other nodes in a cluster that due jobs were created,
+ * so that their job acquisition does not sleep until its wait time expires.</p>
+ *
+ * <p>{@link #jobsAdded(CommandContext)} is invoked after a transaction which created due jobs
+ * has been committed. A notification received from another node wakes up the job acquisition
+ * of the local {@link JobExecutor} via {@link JobExecutor#jobWasAdded()}.</p>
+ *
+ * @see DbJobNotificationChannel
+ * @see MulticastJobNotificationChannel
+ */
+public interface JobNotificationChannel {
+
+  /**
+   * Starts sending and receiving notifications for the given process engine.
+   */
+  void start(ProcessEngineImpl processEngine);
+
+  void stop();
+
+  /**
+   * Notifies the other nodes that due jobs were added. Invoked after the transaction
+   * creating the jobs has been committed.
+   */
+  void jobsAdded(CommandContext commandContext);
+
+}
@@ -0,0 +1,136 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.cmd.ClaimJobPartitionsCmd;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Hash partitioning of job acquisition. Every job is assigned to one of
+ * {@link #partitionCount} partitions based on the hash of its id. Each job executor
+ * (identified by its lock owner) leases a fair share of the partitions and only
+ * acquires jobs of its own partitions, so that competing job executors do not
+ * try to lock the same jobs.</p>
+ *
+ * <p>The leases are stored as properties named {@link #LEASE_PROPERTY_PREFIX}
+ * followed by the partition number. They are renewed by the job acquisition
+ * every {@link #getHeartbeatIntervalInMillis()} and rebalanced whenever job
+ * executors join or leave. The job acquisition does not wait longer than the heartbeat
+ * interval between two acquisitions, even if it backs off.</p>
+ *
+ * <p>The partition count must be the same on all process engines using the same database.
+ * Jobs created before partitioning was enabled (or with a larger partition count)
+ * are acquired by the owner of partition 0.</p>
+ */
+public class JobPartitioning {
+
+  public static final String LEASE_PROPERTY_PREFIX = "job.partition.";
+
+  protected int partitionCount;
+  protected long leaseTimeInMillis;
+
+  protected Map<String, LeaseState> leaseStates = new HashMap<String, LeaseState>();
+
+  public JobPartitioning(int partitionCount, long leaseTimeInMillis) {
+    this.partitionCount = partitionCount;
+    this.leaseTimeInMillis = leaseTimeInMillis;
+  }
+
+  public static int getPartition(String jobId, int partitionCount) {
+    return (jobId.hashCode() & Integer.MAX_VALUE) % partitionCount;
+  }
+
+  public int getPartition(String jobId) {
+    return getPartition(jobId, partitionCount);
+  }
+
+  /**
+   * Returns the partitions leased by the given owner. If the last heartbeat is older
+   * than the heartbeat interval, the leases are renewed and rebalanced in the
+   * given command context first. The renewed leases are returned for the given
+   * command context but only registered for later calls once its transaction
+   * is committed.
+   */
+  public synchronized Set<Integer> getOwnedPartitions(CommandContext commandContext, final String owner) {
+    LeaseState leaseState = getLeaseState(owner);
+
+    final long now = ClockUtil.getCurrentTime().getTime();
+    if (leaseState.lastHeartbeat < 0 || now - leaseState.lastHeartbeat >= getHeartbeatIntervalInMillis()) {
+      // a view, since leases lost on flush are removed from the result of the command
+      final Set<Integer> ownedPartitions = Collections.unmodifiableSet(new ClaimJobPartitionsCmd(this, owner).execute(commandContext));
+
+      commandContext.getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            leasesRenewed(owner, ownedPartitions, now);
+          }
+        });
+
+      return ownedPartitions;
+    }
+
+    return leaseState.ownedPartitions;
+  }
+
+  protected synchronized void leasesRenewed(String owner, Set<Integer> ownedPartitions, long heartbeat) {
+    LeaseState leaseState = getLeaseState(owner);
+    leaseState.ownedPartitions = ownedPartitions;
+    leaseState.lastHeartbeat = heartbeat;
+  }
+
+  protected LeaseState getLeaseState(String owner) {
+    LeaseState leaseState = leaseStates.get(owner);
+    if (leaseState == null) {
+      leaseState = new LeaseState();
+      leaseStates.put(owner, leaseState);
+    }
+    return leaseState;
+  }
+
+  /**
+   * Forces the next call of {@link #getOwnedPartitions(CommandContext, String)}
+   * to renew the leases, e.g. when a job executor is started again.
+   */
+  public synchronized void requestHeartbeat() {
+    for (LeaseState leaseState : leaseStates.values()) {
+      leaseState.lastHeartbeat = -1;
+    }
+  }
+
+  public long getHeartbeatIntervalInMillis() {
+    // renew well before the lease expires
+    return leaseTimeInMillis / 3;
+  }
+
+  public int getPartitionCount() {
+    return partitionCount;
+  }
+
+  public long getLeaseTimeInMillis() {
+    return leaseTimeInMillis;
+  }
+
+  protected static class LeaseState {
+    protected long lastHeartbeat = -1;
+    protected Set<Integer> ownedPartitions = Collections.emptySet();
+  }
+
+}
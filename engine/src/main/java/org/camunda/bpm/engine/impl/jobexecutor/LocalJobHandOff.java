@@ -0,0 +1,99 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cmd.UnlockJobCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.management.Metrics;
+
+/**
+ * <p>Submits non-exclusive jobs which were created by a job executor thread and inserted
+ * already locked by the local job executor directly for execution, skipping their
+ * acquisition.</p>
+ *
+ * <p>Jobs which are rejected because the job executor is saturated are unlocked and
+ * left to the regular job acquisition.</p>
+ */
+public class LocalJobHandOff implements TransactionListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected final JobExecutor jobExecutor;
+  protected final List<String> jobIds = new ArrayList<String>();
+
+  public LocalJobHandOff(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+
+  public void addJob(String jobId) {
+    jobIds.add(jobId);
+  }
+
+  public void execute(CommandContext commandContext) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    ProcessEngineImpl processEngine = processEngineConfiguration.getProcessEngine();
+
+    List<String> rejectedJobIds = new ArrayList<String>();
+    for (String jobId : jobIds) {
+      if (!jobExecutor.isActive() || !jobExecutor.tryExecuteJobs(Collections.singletonList(jobId), processEngine)) {
+        rejectedJobIds.add(jobId);
+      }
+    }
+
+    logHandedOffJobs(processEngineConfiguration, jobIds.size() - rejectedJobIds.size());
+
+    if (!rejectedJobIds.isEmpty()) {
+      LOG.debugJobsNotHandedOff(rejectedJobIds);
+      unlockJobs(processEngineConfiguration, rejectedJobIds);
+      jobExecutor.jobWasAdded();
+
+      JobNotificationChannel jobNotificationChannel = processEngineConfiguration.getJobNotificationChannel();
+      if (jobNotificationChannel != null) {
+        // a job executor of another node may have free capacity
+        jobNotificationChannel.jobsAdded(commandContext);
+      }
+    }
+  }
+
+  protected void unlockJobs(ProcessEngineConfigurationImpl processEngineConfiguration, List<String> rejectedJobIds) {
+    // the command context of the committed transaction cannot be reused
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequiresNew();
+    for (String jobId : rejectedJobIds) {
+      try {
+        commandExecutor.execute(new UnlockJobCmd(jobId));
+      }
+      catch (Throwable t) {
+        // the lock expires eventually
+        LOG.exceptionWhileUnlockingJob(jobId, t);
+      }
+    }
+  }
+
+  protected void logHandedOffJobs(ProcessEngineConfigurationImpl processEngineConfiguration, int numJobs) {
+    if (numJobs > 0 && processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration
+        .getMetricsRegistry()
+        .markOccurrence(Metrics.JOB_HANDED_OFF, numJobs);
+    }
+  }
+
+}
@@ -0,0 +1,60 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.notification.MulticastNotificationChannel;
+
+/**
+ * <p>{@link JobNotificationChannel} which sends notifications as UDP multicast datagrams.
+ * Notifications are delivered immediately but may get lost; the job acquisition then falls
+ * back to its regular wait time.</p>
+ *
+ * <p>The id of the node is the lock owner of the job executor.</p>
+ */
+public class MulticastJobNotificationChannel extends MulticastNotificationChannel implements JobNotificationChannel {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  public MulticastJobNotificationChannel() {
+    super("239.255.27.1", 27027);
+  }
+
+  public synchronized void start(ProcessEngineImpl processEngine) {
+    this.nodeId = processEngine.getProcessEngineConfiguration().getJobExecutor().getLockOwner();
+    super.start(processEngine);
+  }
+
+  public void jobsAdded(CommandContext commandContext) {
+    send(Collections.<String>emptySet());
+  }
+
+  protected void notificationReceived(String sender, Set<String> subjects) {
+    LOG.debugNotifiedByOtherJobExecutor(sender);
+    processEngine.getProcessEngineConfiguration().getJobExecutor().jobWasAdded();
+  }
+
+  protected void exceptionWhileExchangingNotifications(Exception e) {
+    LOG.exceptionWhileNotifyingJobExecutors(e);
+  }
+
+  protected String getThreadName() {
+    return "Camunda Job Notification Receiver";
+  }
+
+}
@@ -45,17 +45,22 @@ public class RuntimeContainerJobExecutor extends JobExecutor {
 
   public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
 
+    if(!tryExecuteJobs(jobIds, processEngine)) {
+
+      logRejectedExecution(processEngine, jobIds.size());
+      rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
+    }
+  }
+
+  public boolean tryExecuteJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+
     final RuntimeContainerDelegate runtimeContainerDelegate = getRuntimeContainerDelegate();
     final ExecutorService executorService = runtimeContainerDelegate.getExecutorService();
 
     Runnable executeJobsRunnable = getExecuteJobsRunnable(jobIds, processEngine);
 
     // delegate job execution to runtime container
-    if(!executorService.schedule(executeJobsRunnable, false)) {
-
-      logRejectedExecution(processEngine, jobIds.size());
-      rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
-    }
+    return executorService.schedule(executeJobsRunnable, false);
   }
 
   protected RuntimeContainerDelegate getRuntimeContainerDelegate() {
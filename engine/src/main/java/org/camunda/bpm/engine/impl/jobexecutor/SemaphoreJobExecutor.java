@@ -0,0 +1,254 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * <p>{@link JobExecutor} for I/O-bound jobs which is not limited by the size of a thread pool
+ * but by the number of job batches executing concurrently. Every job batch runs on its own
+ * thread, which is created on demand and discarded when it is idle for
+ * {@link #keepAliveTimeInMillis}.</p>
+ *
+ * <p>Two limits apply, both enforced by semaphores:
+ *   <ul>
+ *     <li>at most {@link #maxConcurrentJobs} job batches are executed at the same time</li>
+ *     <li>for every process engine, at most the maximum number of pooled database connections
+ *       minus {@link #reservedConnections} are executed at the same time, since every job batch
+ *       holds one connection while it executes. If the pool size is unknown, only the first
+ *       limit applies.</li>
+ *   </ul>
+ * Job batches exceeding the limits are rejected immediately. The remaining capacity is reported by
+ * {@link #getAvailableExecutionCapacity(String)}, so that {@link BackoffJobAcquisitionStrategy}
+ * acquires no more jobs than can be executed.</p>
+ *
+ * <p>Threads are created by the configurable {@link #threadFactory}. On runtimes providing lightweight
+ * threads, a factory creating such threads can be set.</p>
+ */
+public class SemaphoreJobExecutor extends ThreadPoolJobExecutor {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected int maxConcurrentJobs = 100;
+  protected int reservedConnections = 2;
+  protected long keepAliveTimeInMillis = 60 * 1000;
+  protected ThreadFactory threadFactory;
+
+  protected Semaphore executionPermits;
+  protected Map<String, Semaphore> connectionPermitsByEngine = new ConcurrentHashMap<String, Semaphore>();
+
+  protected void startExecutingJobs() {
+
+    if (threadPoolExecutor == null || threadPoolExecutor.isShutdown()) {
+      if (threadFactory == null) {
+        threadFactory = new JobExecutionThreadFactory();
+      }
+
+      // no queue: every job batch that passed the semaphores gets a thread
+      threadPoolExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, keepAliveTimeInMillis, TimeUnit.MILLISECONDS,
+          new SynchronousQueue<Runnable>(), threadFactory);
+      threadPoolExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+      executionPermits = new Semaphore(maxConcurrentJobs);
+    }
+
+    super.startExecutingJobs();
+  }
+
+  protected void stopExecutingJobs() {
+
+    super.stopExecutingJobs();
+
+    threadPoolExecutor.shutdown();
+
+    // Waits for 1 minute to finish all currently executing jobs
+    try {
+      if(!threadPoolExecutor.awaitTermination(60L, TimeUnit.SECONDS)) {
+        LOG.timeoutDuringShutdown();
+      }
+    } catch (InterruptedException e) {
+      LOG.interruptedWhileShuttingDownjobExecutor(e);
+    }
+  }
+
+  public synchronized void registerProcessEngine(ProcessEngineImpl processEngine) {
+    int connectionLimit = getConnectionLimit(processEngine.getProcessEngineConfiguration());
+    connectionPermitsByEngine.put(processEngine.getName(), new Semaphore(connectionLimit));
+
+    LOG.concurrentJobExecutionLimited(getName(), processEngine.getName(), maxConcurrentJobs, connectionLimit);
+
+    super.registerProcessEngine(processEngine);
+  }
+
+  public synchronized void unregisterProcessEngine(ProcessEngineImpl processEngine) {
+    super.unregisterProcessEngine(processEngine);
+
+    connectionPermitsByEngine.remove(processEngine.getName());
+  }
+
+  public boolean tryExecuteJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    Semaphore connectionPermits = connectionPermitsByEngine.get(processEngine.getName());
+
+    if (!acquirePermits(connectionPermits)) {
+      return false;
+    }
+
+    try {
+      threadPoolExecutor.execute(new PermitReleasingRunnable(getExecuteJobsRunnable(jobIds, processEngine), connectionPermits));
+      return true;
+
+    } catch (RejectedExecutionException e) {
+      // the executor is shut down
+      releasePermits(connectionPermits);
+      return false;
+    }
+  }
+
+  public int getAvailableExecutionCapacity(String processEngineName) {
+    Semaphore executionPermits = this.executionPermits;
+    if (executionPermits == null) {
+      return -1;
+    }
+
+    int availableCapacity = executionPermits.availablePermits();
+
+    Semaphore connectionPermits = connectionPermitsByEngine.get(processEngineName);
+    if (connectionPermits != null) {
+      availableCapacity = Math.min(availableCapacity, connectionPermits.availablePermits());
+    }
+
+    return availableCapacity;
+  }
+
+  protected boolean acquirePermits(Semaphore connectionPermits) {
+    if (!executionPermits.tryAcquire()) {
+      return false;
+    }
+
+    if (connectionPermits != null && !connectionPermits.tryAcquire()) {
+      executionPermits.release();
+      return false;
+    }
+
+    return true;
+  }
+
+  protected void releasePermits(Semaphore connectionPermits) {
+    if (connectionPermits != null) {
+      connectionPermits.release();
+    }
+    executionPermits.release();
+  }
+
+  /**
+   * @return the number of job batches the process engine can execute concurrently
+   * without running out of database connections
+   */
+  protected int getConnectionLimit(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    int maxActiveConnections = processEngineConfiguration.getJdbcMaxActiveConnections();
+
+    DataSource dataSource = processEngineConfiguration.getDataSource();
+    if (dataSource instanceof PooledDataSource) {
+      maxActiveConnections = ((PooledDataSource) dataSource).getPoolMaximumActiveConnections();
+    }
+
+    if (maxActiveConnections <= 0) {
+      // pool size unknown
+      return maxConcurrentJobs;
+    }
+
+    return Math.max(1, Math.min(maxConcurrentJobs, maxActiveConnections - reservedConnections));
+  }
+
+  protected class PermitReleasingRunnable implements Runnable {
+
+    protected Runnable delegate;
+    protected Semaphore connectionPermits;
+
+    public PermitReleasingRunnable(Runnable delegate, Semaphore connectionPermits) {
+      this.delegate = delegate;
+      this.connectionPermits = connectionPermits;
+    }
+
+    public void run() {
+      try {
+        delegate.run();
+      }
+      finally {
+        releasePermits(connectionPermits);
+      }
+    }
+  }
+
+  protected static class JobExecutionThreadFactory implements ThreadFactory {
+
+    protected final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "camunda-job-execution-" + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public int getMaxConcurrentJobs() {
+    return maxConcurrentJobs;
+  }
+
+  public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+    this.maxConcurrentJobs = maxConcurrentJobs;
+  }
+
+  public int getReservedConnections() {
+    return reservedConnections;
+  }
+
+  public void setReservedConnections(int reservedConnections) {
+    this.reservedConnections = reservedConnections;
+  }
+
+  public long getKeepAliveTimeInMillis() {
+    return keepAliveTimeInMillis;
+  }
+
+  public void setKeepAliveTimeInMillis(long keepAliveTimeInMillis) {
+    this.keepAliveTimeInMillis = keepAliveTimeInMillis;
+  }
+
+  public ThreadFactory getThreadFactory() {
+    return threadFactory;
+  }
+
+  public void setThreadFactory(ThreadFactory threadFactory) {
+    this.threadFactory = threadFactory;
+  }
+
+}
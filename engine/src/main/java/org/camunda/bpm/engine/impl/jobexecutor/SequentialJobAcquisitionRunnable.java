@@ -5,6 +5,8 @@ import java.util.List;
 
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.RenewJobPartitionLeasesCmd;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 
 
@@ -74,7 +76,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
       //reconfigure with this flag
       clearJobAddedNotification();
 
-      long waitTime = acquisitionStrategy.getWaitTime();
+      long waitTime = capWaitTime(acquisitionStrategy.getWaitTime());
       // wait the requested wait time minus the time that acquisition itself took
       // this makes the intervals of job acquisition more constant and therefore predictable
       waitTime = Math.max(0, (acquisitionContext.getAcquisitionTime() + waitTime) - System.currentTimeMillis());
@@ -85,6 +87,22 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     LOG.stoppedJobAcquisition(jobExecutor.getName());
   }
 
+  /**
+   * With job partitioning, the leases of the partitions are renewed by the acquisition.
+   * An idle job executor therefore does not wait longer than the heartbeat interval,
+   * so that it keeps its partitions.
+   */
+  protected long capWaitTime(long waitTime) {
+    Iterator<ProcessEngineImpl> engineIterator = jobExecutor.engineIterator();
+    while (engineIterator.hasNext()) {
+      JobPartitioning jobPartitioning = engineIterator.next().getProcessEngineConfiguration().getJobPartitioning();
+      if (jobPartitioning != null) {
+        waitTime = Math.min(waitTime, jobPartitioning.getHeartbeatIntervalInMillis());
+      }
+    }
+    return waitTime;
+  }
+
   protected JobAcquisitionContext initializeAcquisitionContext() {
     return new JobAcquisitionContext();
   }
@@ -143,6 +161,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     }
     else {
       acquiredJobs = new AcquiredJobs(numJobsToAcquire);
+      renewJobPartitionLeases(currentProcessEngine);
     }
 
     context.submitAcquiredJobs(currentProcessEngine.getName(), acquiredJobs);
@@ -155,4 +174,17 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     return acquiredJobs;
   }
 
+  /**
+   * Keeps the partitions of a saturated job executor which does not acquire jobs.
+   */
+  protected void renewJobPartitionLeases(ProcessEngineImpl currentProcessEngine) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = currentProcessEngine.getProcessEngineConfiguration();
+    JobPartitioning jobPartitioning = processEngineConfiguration.getJobPartitioning();
+    if (jobPartitioning != null) {
+      processEngineConfiguration
+        .getCommandExecutorTxRequired()
+        .execute(new RenewJobPartitionLeasesCmd(jobPartitioning, jobExecutor.getLockOwner()));
+    }
+  }
+
 }
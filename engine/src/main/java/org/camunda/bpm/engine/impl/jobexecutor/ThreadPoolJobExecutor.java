@@ -35,10 +35,7 @@ public class ThreadPoolJobExecutor extends JobExecutor {
   }
 
   public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
-    try {
-      threadPoolExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
-
-    } catch (RejectedExecutionException e) {
+    if (!tryExecuteJobs(jobIds, processEngine)) {
 
       logRejectedExecution(processEngine, jobIds.size());
       rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
@@ -46,6 +43,16 @@ public class ThreadPoolJobExecutor extends JobExecutor {
     }
   }
 
+  public boolean tryExecuteJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    try {
+      threadPoolExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
+      return true;
+
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
   // getters / setters
 
   public ThreadPoolExecutor getThreadPoolExecutor() {
@@ -0,0 +1,105 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Lock-free histogram of non-negative long values with a fixed memory footprint.</p>
+ *
+ * <p>Like an HDR histogram, values are counted in buckets whose width grows with the
+ * magnitude of the value: values below {@link #SUB_BUCKET_COUNT} are counted exactly, larger
+ * values in {@link #SUB_BUCKET_COUNT}/2 buckets per power of two. Percentiles are therefore
+ * accurate to about 6% of the value over the whole range of long.</p>
+ *
+ * <p>Recording a value takes a few atomic increments and never allocates. The recorded values
+ * are cumulative; {@link #getSnapshot()} reads them without resetting.</p>
+ */
+public class Histogram {
+
+  protected static final int SUB_BUCKET_BITS = 5;
+  protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  protected static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+  /**
+   * exact buckets for values below {@link #SUB_BUCKET_COUNT}, half a sub bucket range
+   * for every power of two from 2^{@link #SUB_BUCKET_BITS} to 2^62
+   */
+  protected static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+  protected String name;
+
+  protected AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  protected AtomicLong sum = new AtomicLong(0);
+  protected AtomicLong max = new AtomicLong(0);
+
+  public Histogram(String name) {
+    this.name = name;
+  }
+
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+
+    counts.incrementAndGet(bucketIndex(value));
+    sum.addAndGet(value);
+
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  public HistogramSnapshot getSnapshot() {
+    long[] bucketCounts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      bucketCounts[i] = counts.get(i);
+    }
+    return new HistogramSnapshot(bucketCounts, sum.get(), max.get());
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  protected static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS + 1;
+    // the highest SUB_BUCKET_BITS bits of the value, between SUB_BUCKET_HALF_COUNT and SUB_BUCKET_COUNT - 1
+    int subBucket = (int) (value >>> shift);
+
+    return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+  }
+
+  /**
+   * @return the largest value counted in the bucket
+   */
+  protected static long highestValueInBucket(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + SUB_BUCKET_BITS;
+    long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    int shift = exponent - SUB_BUCKET_BITS + 1;
+
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+}
@@ -0,0 +1,76 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+/**
+ * Values of a {@link Histogram} at a point in time.
+ */
+public class HistogramSnapshot {
+
+  protected long[] bucketCounts;
+  protected long count;
+  protected long sum;
+  protected long max;
+
+  public HistogramSnapshot(long[] bucketCounts, long sum, long max) {
+    this.bucketCounts = bucketCounts;
+    this.sum = sum;
+    this.max = max;
+
+    for (long bucketCount : bucketCounts) {
+      count += bucketCount;
+    }
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public double getMean() {
+    return count > 0 ? (double) sum / count : 0;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the smallest recorded value (with the precision of the histogram) which is
+   *   greater than or equal to the given percentage of the recorded values, 0 if no
+   *   values were recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+    rank = Math.max(rank, 1);
+
+    long cumulativeCount = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      cumulativeCount += bucketCounts[i];
+      if (cumulativeCount >= rank) {
+        return Math.min(Histogram.highestValueInBucket(i), max);
+      }
+    }
+
+    return max;
+  }
+
+}
@@ -15,14 +15,19 @@ package org.camunda.bpm.engine.impl.metrics;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * A Meter implementation based on AtomicLong
+ * A Meter implementation based on a {@link StripedCounter}
  *
  * @author Daniel Meyer
  *
  */
 public class Meter {
 
-  protected AtomicLong counter = new AtomicLong(0);
+  protected StripedCounter counter = new StripedCounter();
+
+  /**
+   * the occurrences already collected by {@link #getAndClear()}
+   */
+  protected AtomicLong collected = new AtomicLong(0);
 
   protected String name;
 
@@ -31,11 +36,11 @@ public class Meter {
   }
 
   public void mark() {
-    counter.incrementAndGet();
+    counter.add(1);
   }
 
   public void markTimes(long times) {
-    counter.addAndGet(times);
+    counter.add(times);
   }
 
   public String getName() {
@@ -47,11 +52,21 @@ public class Meter {
   }
 
   public long getAndClear() {
-    return counter.getAndSet(0);
+    long value = counter.sumAndReset();
+    collected.addAndGet(value);
+    return value;
   }
 
   public long get() {
-    return counter.get();
+    return counter.sum();
+  }
+
+  /**
+   * @return the occurrences since the meter was created, regardless of whether they were
+   *   collected already. May miss the occurrences being collected concurrently.
+   */
+  public long getTotal() {
+    return collected.get() + counter.sum();
   }
 
 }
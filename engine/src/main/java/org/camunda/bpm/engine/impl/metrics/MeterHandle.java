@@ -0,0 +1,73 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+/**
+ * <p>Reference to the {@link Meter} with a given name which is resolved once per
+ * {@link MetricsRegistry} instead of on every occurrence.</p>
+ *
+ * <p>Listeners added by parse listeners are shared by all process engines of the JVM
+ * and can therefore not hold a meter directly. They hold a handle which keeps the meter of
+ * the registry it was resolved for last; with a single process engine, marking the meter
+ * neither looks it up by name nor allocates.</p>
+ */
+public class MeterHandle {
+
+  protected final String name;
+
+  protected volatile ResolvedMeter resolvedMeter;
+
+  public MeterHandle(String name) {
+    this.name = name;
+  }
+
+  public void mark(MetricsRegistry metricsRegistry) {
+    Meter meter = resolve(metricsRegistry);
+    if (meter != null) {
+      meter.mark();
+    }
+  }
+
+  /**
+   * @return the meter of the given registry or null if the registry has no meter with the name
+   */
+  public Meter resolve(MetricsRegistry metricsRegistry) {
+    ResolvedMeter resolved = resolvedMeter;
+    if (resolved != null && resolved.metricsRegistry == metricsRegistry) {
+      return resolved.meter;
+    }
+
+    Meter meter = metricsRegistry.getMeterByName(name);
+    if (meter != null) {
+      // meters which are not created yet are looked up again next time
+      resolvedMeter = new ResolvedMeter(metricsRegistry, meter);
+    }
+    return meter;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  protected static class ResolvedMeter {
+
+    protected final MetricsRegistry metricsRegistry;
+    protected final Meter meter;
+
+    public ResolvedMeter(MetricsRegistry metricsRegistry, Meter meter) {
+      this.metricsRegistry = metricsRegistry;
+      this.meter = meter;
+    }
+  }
+
+}
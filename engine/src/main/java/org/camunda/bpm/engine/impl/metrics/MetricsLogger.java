@@ -33,4 +33,19 @@ public class MetricsLogger extends ProcessEngineLogger {
         "002", "Could not collect and log metrics", e);
   }
 
+  public void couldNotRegisterMetricsMBean(String objectName, Exception e) {
+    logWarn(
+        "003", "Could not register metrics MBean '{}'", objectName, e);
+  }
+
+  public void couldNotUnregisterMetricsMBean(String objectName, Exception e) {
+    logWarn(
+        "004", "Could not unregister metrics MBean '{}'", objectName, e);
+  }
+
+  public void rolledUpMetrics(int hourlyRollups, int dailyRollups) {
+    logDebug(
+        "005", "Created {} hourly and {} daily metrics rollups", hourlyRollups, dailyRollups);
+  }
+
 }
@@ -42,6 +42,25 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
   protected Long endDateMilliseconds;
   protected Long interval;
 
+  /**
+   * rollups of this period replace the meter logs within the range
+   * [rollupFromMilliseconds, rollupToMilliseconds), if set
+   */
+  protected Integer rollupPeriod;
+  protected Long rollupFromMilliseconds;
+  protected Long rollupToMilliseconds;
+
+  /**
+   * if true, only the rollups which lie within a single interval replace the meter logs,
+   * except for the rollups before {@link #rawLogsFromMilliseconds}
+   */
+  protected boolean rollupWithinIntervalsOnly;
+
+  /**
+   * the start of the retained meter logs, rollups before replace deleted meter logs
+   */
+  protected Long rawLogsFromMilliseconds;
+
   protected transient CommandExecutor commandExecutor;
 
   public MetricsQueryImpl(CommandExecutor commandExecutor) {
@@ -170,6 +189,37 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
     return interval;
   }
 
+  public Integer getRollupPeriod() {
+    return rollupPeriod;
+  }
+
+  public Long getRollupFromMilliseconds() {
+    return rollupFromMilliseconds;
+  }
+
+  public Long getRollupToMilliseconds() {
+    return rollupToMilliseconds;
+  }
+
+  public void setRollup(Integer rollupPeriod, Long rollupFromMilliseconds, Long rollupToMilliseconds) {
+    this.rollupPeriod = rollupPeriod;
+    this.rollupFromMilliseconds = rollupFromMilliseconds;
+    this.rollupToMilliseconds = rollupToMilliseconds;
+  }
+
+  public boolean isRollupWithinIntervalsOnly() {
+    return rollupWithinIntervalsOnly;
+  }
+
+  public Long getRawLogsFromMilliseconds() {
+    return rawLogsFromMilliseconds;
+  }
+
+  public void setRollupWithinIntervalsOnly(boolean rollupWithinIntervalsOnly, Long rawLogsFromMilliseconds) {
+    this.rollupWithinIntervalsOnly = rollupWithinIntervalsOnly;
+    this.rawLogsFromMilliseconds = rawLogsFromMilliseconds;
+  }
+
   @Override
   public int getMaxResults() {
     if (maxResults > DEFAULT_LIMIT_SELECT_INTERVAL) {
@@ -22,6 +22,7 @@ import java.util.Map;
 public class MetricsRegistry {
 
   protected Map<String, Meter> meters = new HashMap<String, Meter>();
+  protected Map<String, Timer> timers = new HashMap<String, Timer>();
 
   public Meter getMeterByName(String name) {
     return meters.get(name);
@@ -49,4 +50,21 @@ public class MetricsRegistry {
     return meter;
   }
 
+  /**
+   * @return the timer or null if no timer with the given name was created
+   */
+  public Timer getTimerByName(String name) {
+    return timers.get(name);
+  }
+
+  public Map<String, Timer> getTimers() {
+    return timers;
+  }
+
+  public Timer createTimer(String name) {
+    Timer timer = new Timer(name);
+    timers.put(name, timer);
+    return timer;
+  }
+
 }
@@ -0,0 +1,86 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Counter which spreads concurrent increments over several stripes, each on its own
+ * cache line, so that threads marking the same meter do not contend on a single
+ * memory location. Reading the counter sums up all stripes.</p>
+ *
+ * <p>Serves the same purpose as <code>java.util.concurrent.atomic.LongAdder</code>, which is
+ * not available on all Java versions supported by the engine.</p>
+ */
+public class StripedCounter {
+
+  /**
+   * number of longs per stripe: a stripe takes a cache line of 64 bytes
+   */
+  protected static final int STRIPE_SIZE = 8;
+
+  protected static final int MAX_STRIPES = 64;
+
+  protected final int stripeMask;
+
+  /**
+   * the stripes at every {@link #STRIPE_SIZE}th index, starting after a cache line of
+   * padding which separates them from the array header
+   */
+  protected final AtomicLongArray stripes;
+
+  public StripedCounter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public StripedCounter(int concurrencyLevel) {
+    int stripeCount = 1;
+    while (stripeCount < concurrencyLevel && stripeCount < MAX_STRIPES) {
+      stripeCount <<= 1;
+    }
+
+    stripeMask = stripeCount - 1;
+    stripes = new AtomicLongArray((stripeCount + 1) * STRIPE_SIZE);
+  }
+
+  public void add(long value) {
+    stripes.addAndGet(stripeIndex(), value);
+  }
+
+  public long sum() {
+    long sum = 0;
+    for (int i = STRIPE_SIZE; i < stripes.length(); i += STRIPE_SIZE) {
+      sum += stripes.get(i);
+    }
+    return sum;
+  }
+
+  /**
+   * Resets the counter. Increments which happen concurrently are either
+   * contained in the returned sum or remain in the counter.
+   */
+  public long sumAndReset() {
+    long sum = 0;
+    for (int i = STRIPE_SIZE; i < stripes.length(); i += STRIPE_SIZE) {
+      sum += stripes.getAndSet(i, 0);
+    }
+    return sum;
+  }
+
+  protected int stripeIndex() {
+    // thread ids are assigned sequentially, so that the threads of a pool use different stripes
+    int stripe = (int) Thread.currentThread().getId() & stripeMask;
+    return (stripe + 1) * STRIPE_SIZE;
+  }
+
+}
@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+/**
+ * {@link Histogram} of durations in nanoseconds. Usage:
+ *
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *   ...
+ * }
+ * finally {
+ *   timer.stop(start);
+ * }
+ * </pre>
+ */
+public class Timer extends Histogram {
+
+  public Timer(String name) {
+    super(name);
+  }
+
+  public long start() {
+    return System.nanoTime();
+  }
+
+  public void stop(long start) {
+    record(System.nanoTime() - start);
+  }
+
+}
@@ -0,0 +1,53 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionContext;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Stops a {@link Timer} when the transaction of the current command is committed or
+ * rolled back, so that the measured time includes the flush of the command, e.g. the
+ * update statements which lock jobs or external tasks.
+ */
+public class TimerTransactionListener implements TransactionListener {
+
+  protected Timer timer;
+  protected long start;
+
+  public TimerTransactionListener(Timer timer, long start) {
+    this.timer = timer;
+    this.start = start;
+  }
+
+  public void execute(CommandContext commandContext) {
+    timer.stop(start);
+  }
+
+  /**
+   * Starts the timer with the given name if timer metrics are enabled. Does nothing otherwise.
+   */
+  public static void startTimer(CommandContext commandContext, String timerName) {
+    Timer timer = commandContext.getProcessEngineConfiguration().getMetricsTimer(timerName);
+    if (timer != null) {
+      TimerTransactionListener listener = new TimerTransactionListener(timer, timer.start());
+
+      TransactionContext transactionContext = commandContext.getTransactionContext();
+      transactionContext.addTransactionListener(TransactionState.COMMITTED, listener);
+      transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, listener);
+    }
+  }
+
+}
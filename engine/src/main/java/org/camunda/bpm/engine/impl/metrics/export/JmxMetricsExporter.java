@@ -0,0 +1,83 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.export;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
+
+/**
+ * Registers an MBean named <code>org.camunda.bpm.engine:type=Metrics,engine="&lt;name&gt;"</code>
+ * which exposes the metrics of the process engine as attributes, see {@link MetricsDynamicMBean}.
+ */
+public class JmxMetricsExporter implements MetricsExporter {
+
+  private final static MetricsLogger LOG = ProcessEngineLogger.METRICS_LOGGER;
+
+  public static final String DOMAIN = "org.camunda.bpm.engine";
+
+  protected MBeanServer mBeanServer;
+  protected ObjectName objectName;
+
+  public synchronized void start(ProcessEngineImpl processEngine) {
+    if (objectName != null) {
+      return;
+    }
+
+    String name = DOMAIN + ":type=Metrics,engine=" + ObjectName.quote(processEngine.getName());
+    try {
+      ObjectName objectName = new ObjectName(name);
+      getMBeanServer().registerMBean(new MetricsDynamicMBean(processEngine.getProcessEngineConfiguration().getMetricsRegistry()), objectName);
+      this.objectName = objectName;
+    }
+    catch (JMException e) {
+      LOG.couldNotRegisterMetricsMBean(name, e);
+    }
+  }
+
+  public synchronized void stop() {
+    if (objectName == null) {
+      return;
+    }
+
+    try {
+      getMBeanServer().unregisterMBean(objectName);
+    }
+    catch (JMException e) {
+      LOG.couldNotUnregisterMetricsMBean(objectName.toString(), e);
+    }
+    objectName = null;
+  }
+
+  public MBeanServer getMBeanServer() {
+    if (mBeanServer == null) {
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    }
+    return mBeanServer;
+  }
+
+  public void setMBeanServer(MBeanServer mBeanServer) {
+    this.mBeanServer = mBeanServer;
+  }
+
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+}
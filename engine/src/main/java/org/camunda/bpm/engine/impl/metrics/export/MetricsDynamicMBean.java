@@ -0,0 +1,136 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+
+/**
+ * Read-only MBean with an attribute per meter holding its total and attributes per timer
+ * holding the count and the mean, maximum and percentiles of the durations in milliseconds,
+ * e.g. <code>command-execution-time.p99</code>.
+ */
+public class MetricsDynamicMBean implements DynamicMBean {
+
+  protected static final String[] TIMER_ATTRIBUTES = { "count", "mean", "max", "p50", "p95", "p99", "p999" };
+  protected static final double NANOS_PER_MILLI = 1000000d;
+
+  protected MetricsRegistry metricsRegistry;
+
+  public MetricsDynamicMBean(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  public Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException, ReflectionException {
+    Meter meter = metricsRegistry.getMeterByName(attribute);
+    if (meter != null) {
+      return meter.getTotal();
+    }
+
+    int separator = attribute.lastIndexOf('.');
+    Timer timer = separator > 0 ? metricsRegistry.getTimerByName(attribute.substring(0, separator)) : null;
+    if (timer != null) {
+      HistogramSnapshot snapshot = timer.getSnapshot();
+      String value = attribute.substring(separator + 1);
+
+      if ("count".equals(value)) {
+        return snapshot.getCount();
+      }
+      else if ("mean".equals(value)) {
+        return snapshot.getMean() / NANOS_PER_MILLI;
+      }
+      else if ("max".equals(value)) {
+        return snapshot.getMax() / NANOS_PER_MILLI;
+      }
+      else if ("p50".equals(value)) {
+        return snapshot.getValueAtPercentile(50) / NANOS_PER_MILLI;
+      }
+      else if ("p95".equals(value)) {
+        return snapshot.getValueAtPercentile(95) / NANOS_PER_MILLI;
+      }
+      else if ("p99".equals(value)) {
+        return snapshot.getValueAtPercentile(99) / NANOS_PER_MILLI;
+      }
+      else if ("p999".equals(value)) {
+        return snapshot.getValueAtPercentile(99.9) / NANOS_PER_MILLI;
+      }
+    }
+
+    throw new AttributeNotFoundException(attribute);
+  }
+
+  public AttributeList getAttributes(String[] attributes) {
+    AttributeList attributeList = new AttributeList();
+    for (String attribute : attributes) {
+      try {
+        attributeList.add(new Attribute(attribute, getAttribute(attribute)));
+      }
+      catch (JMException e) {
+        // unknown attributes are omitted
+      }
+    }
+    return attributeList;
+  }
+
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException("Metrics are read-only");
+  }
+
+  public AttributeList setAttributes(AttributeList attributes) {
+    return new AttributeList();
+  }
+
+  public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException, ReflectionException {
+    throw new ReflectionException(new NoSuchMethodException(actionName));
+  }
+
+  public MBeanInfo getMBeanInfo() {
+    List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+
+    for (String meterName : metricsRegistry.getMeters().keySet()) {
+      attributes.add(new MBeanAttributeInfo(meterName, Long.class.getName(), "Total of the meter", true, false, false));
+    }
+
+    for (String timerName : metricsRegistry.getTimers().keySet()) {
+      for (String timerAttribute : TIMER_ATTRIBUTES) {
+        String type = "count".equals(timerAttribute) ? Long.class.getName() : Double.class.getName();
+        String description = "count".equals(timerAttribute) ? "Number of measurements" : "Duration in milliseconds";
+        attributes.add(new MBeanAttributeInfo(timerName + "." + timerAttribute, type, description, true, false, false));
+      }
+    }
+
+    return new MBeanInfo(getClass().getName(),
+        "Metrics of a process engine",
+        attributes.toArray(new MBeanAttributeInfo[attributes.size()]),
+        null,
+        new MBeanOperationInfo[0],
+        null);
+  }
+
+}
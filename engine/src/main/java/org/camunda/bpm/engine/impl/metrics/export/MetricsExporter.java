@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.export;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+
+/**
+ * <p>Publishes the metrics of a process engine to a monitoring system. Exporters are
+ * configured with {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#setMetricsExporters(java.util.List)}
+ * and started with the process engine if metrics are enabled.</p>
+ *
+ * <p>Exporters should read {@link Meter#getTotal()}, since the current value of a meter is
+ * reset whenever the metrics are reported to the database, and {@link Timer#getSnapshot()}.</p>
+ */
+public interface MetricsExporter {
+
+  void start(ProcessEngineImpl processEngine);
+
+  void stop();
+
+}
@@ -0,0 +1,95 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+
+/**
+ * <p>Writes the metrics of a process engine in the Prometheus text exposition format, to be
+ * scraped from an HTTP endpoint (e.g. <code>/metrics/prometheus</code> of the REST API).</p>
+ *
+ * <p>Meters become counters named <code>camunda_&lt;name&gt;_total</code>, timers become
+ * summaries in seconds named <code>camunda_&lt;name&gt;_seconds</code>. All samples are
+ * labeled with the name of the process engine.</p>
+ */
+public class PrometheusTextFormat {
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  protected static final String PREFIX = "camunda_";
+  protected static final double[] QUANTILES = { 0.5, 0.95, 0.99, 0.999 };
+  protected static final double NANOS_PER_SECOND = 1000000000d;
+
+  public void write(Writer writer, String processEngineName, MetricsRegistry metricsRegistry) throws IOException {
+    String engineLabel = "engine=\"" + escapeLabelValue(processEngineName) + "\"";
+
+    for (Meter meter : new TreeMap<String, Meter>(metricsRegistry.getMeters()).values()) {
+      String name = PREFIX + sanitizeName(meter.getName()) + "_total";
+
+      writer.write("# TYPE " + name + " counter\n");
+      writeSample(writer, name, engineLabel, String.valueOf(meter.getTotal()));
+    }
+
+    for (Map.Entry<String, Timer> timer : new TreeMap<String, Timer>(metricsRegistry.getTimers()).entrySet()) {
+      String name = PREFIX + sanitizeName(timer.getKey()) + "_seconds";
+      HistogramSnapshot snapshot = timer.getValue().getSnapshot();
+
+      writer.write("# TYPE " + name + " summary\n");
+      for (double quantile : QUANTILES) {
+        double value = snapshot.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND;
+        writeSample(writer, name, engineLabel + ",quantile=\"" + quantile + "\"", String.valueOf(value));
+      }
+      writeSample(writer, name + "_sum", engineLabel, String.valueOf(snapshot.getSum() / NANOS_PER_SECOND));
+      writeSample(writer, name + "_count", engineLabel, String.valueOf(snapshot.getCount()));
+    }
+  }
+
+  protected void writeSample(Writer writer, String name, String labels, String value) throws IOException {
+    writer.write(name);
+    writer.write('{');
+    writer.write(labels);
+    writer.write("} ");
+    writer.write(value);
+    writer.write('\n');
+  }
+
+  protected String sanitizeName(String name) {
+    StringBuilder sanitized = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+        sanitized.append(c);
+      }
+      else {
+        sanitized.append('_');
+      }
+    }
+    return sanitized.toString();
+  }
+
+  protected String escapeLabelValue(String value) {
+    return value
+      .replace("\\", "\\\\")
+      .replace("\"", "\\\"")
+      .replace("\n", "\\n");
+  }
+
+}
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.metrics.parser;
 import org.camunda.bpm.engine.delegate.CaseExecutionListener;
 import org.camunda.bpm.engine.delegate.DelegateCaseExecution;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.metrics.MeterHandle;
 import org.camunda.bpm.engine.management.Metrics;
 
 /**
@@ -23,10 +24,10 @@ import org.camunda.bpm.engine.management.Metrics;
  */
 public class MetricsCaseExecutionListener implements CaseExecutionListener {
 
+  protected MeterHandle meter = new MeterHandle(Metrics.ACTIVTY_INSTANCE_START);
+
   public void notify(DelegateCaseExecution caseExecution) throws Exception {
-    Context.getProcessEngineConfiguration()
-      .getMetricsRegistry()
-      .markOccurrence(Metrics.ACTIVTY_INSTANCE_START);
+    meter.mark(Context.getProcessEngineConfiguration().getMetricsRegistry());
   }
 
 }
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.metrics.parser;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.metrics.MeterHandle;
 
 /**
  * @author Daniel Meyer
@@ -24,14 +25,15 @@ public class MetricsExecutionListener implements ExecutionListener {
 
   protected String metricsName;
 
+  protected MeterHandle meter;
+
   public MetricsExecutionListener(String metricsName) {
     this.metricsName = metricsName;
+    this.meter = new MeterHandle(metricsName);
   }
 
   public void notify(DelegateExecution execution) throws Exception {
-    Context.getProcessEngineConfiguration()
-      .getMetricsRegistry()
-      .markOccurrence(metricsName);
+    meter.mark(Context.getProcessEngineConfiguration().getMetricsRegistry());
   }
 
 }
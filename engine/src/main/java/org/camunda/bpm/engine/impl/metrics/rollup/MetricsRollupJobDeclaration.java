@@ -0,0 +1,56 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.rollup;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.metrics.rollup.MetricsRollupJobHandler.MetricsRollupJobConfiguration;
+import org.camunda.bpm.engine.impl.persistence.entity.EverLivingJobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Job declaration for the metrics rollup job. There is a single rollup
+ * job per database which reschedules itself after every execution.
+ */
+public class MetricsRollupJobDeclaration extends JobDeclaration<Void, EverLivingJobEntity> {
+
+  private static final long serialVersionUID = 1L;
+
+  public MetricsRollupJobDeclaration() {
+    super(MetricsRollupJobHandler.TYPE);
+  }
+
+  @Override
+  protected ExecutionEntity resolveExecution(Void context) {
+    return null;
+  }
+
+  @Override
+  protected EverLivingJobEntity newJobInstance(Void context) {
+    return new EverLivingJobEntity();
+  }
+
+  @Override
+  protected JobHandlerConfiguration resolveJobHandlerConfiguration(Void context) {
+    return new MetricsRollupJobConfiguration();
+  }
+
+  @Override
+  public Date resolveDueDate(Void context) {
+    return ClockUtil.getCurrentTime();
+  }
+
+}
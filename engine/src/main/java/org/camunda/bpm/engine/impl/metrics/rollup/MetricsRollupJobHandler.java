@@ -0,0 +1,194 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.rollup;
+
+import static org.camunda.bpm.engine.impl.persistence.entity.MeterRollupEntity.PERIOD_DAY;
+import static org.camunda.bpm.engine.impl.persistence.entity.MeterRollupEntity.PERIOD_HOUR;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
+import org.camunda.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.metrics.rollup.MetricsRollupJobHandler.MetricsRollupJobConfiguration;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.SuspensionState;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+
+/**
+ * <p>Sums up the meter logs of every completed hour into hourly rollups and the
+ * hourly rollups of every completed day into daily rollups. Afterwards, deletes the
+ * meter logs which are older than the configured retention and contained in the
+ * rollups, at most {@link #MAX_PERIODS_PER_EXECUTION} hours of meter logs per execution.</p>
+ *
+ * <p>An hour is complete once the reporting interval of the metrics reporter and the
+ * {@link #GRACE_PERIOD_MILLIS} have passed since its end. Meter logs of an hour which are
+ * written after its rollup are not contained in any rollup and are not counted by queries
+ * which read the rollup.</p>
+ *
+ * <p>The rollups of a period end where the last rollup of the period ends, so that
+ * no further state has to be kept. The job runs again right away as long as there
+ * is a backlog and once per hour otherwise.</p>
+ */
+public class MetricsRollupJobHandler implements JobHandler<MetricsRollupJobConfiguration> {
+
+  protected static final MetricsLogger LOG = ProcessEngineLogger.METRICS_LOGGER;
+
+  public static final String TYPE = "metrics-rollup";
+
+  /**
+   * time after the end of an hour and the following reporting interval until its meter logs
+   * are rolled up; gives the metrics reporters of all nodes the chance to write the hour
+   */
+  public static final long GRACE_PERIOD_MILLIS = 5 * 60 * 1000L;
+
+  /**
+   * maximum number of hours or days rolled up by one execution
+   */
+  public static final int MAX_PERIODS_PER_EXECUTION = 24;
+
+  public String getType() {
+    return TYPE;
+  }
+
+  public void execute(MetricsRollupJobConfiguration configuration, ExecutionEntity execution, CommandContext commandContext, String tenantId) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+
+    List<Job> jobs = commandContext.getJobManager().findJobsByHandlerType(TYPE);
+    if (jobs.isEmpty()) {
+      return;
+    }
+    JobEntity jobEntity = (JobEntity) jobs.get(0);
+
+    if (!processEngineConfiguration.isMetricsRollupEnabled()) {
+      // the job is activated again by the next engine bootstrap with rollups enabled
+      jobEntity.setSuspensionState(SuspensionState.SUSPENDED.getStateCode());
+      return;
+    }
+
+    MeterLogManager meterLogManager = commandContext.getMeterLogManager();
+    long now = ClockUtil.getCurrentTime().getTime();
+
+    Long hourlyRollupEnd = meterLogManager.findRollupEnd(PERIOD_HOUR);
+    Long dailyRollupEnd = meterLogManager.findRollupEnd(PERIOD_DAY);
+
+    // daily rollups are created from the hourly rollups of previous executions only: the hourly
+    // rollups created below are not flushed yet and cannot be read
+    int dailyRollups = 0;
+    boolean dailyBacklog = false;
+    if (hourlyRollupEnd != null) {
+      Long firstHour = meterLogManager.findFirstRollupMilliseconds(PERIOD_HOUR, dailyRollupEnd);
+      if (firstHour != null) {
+        long from = floor(firstHour, PERIOD_DAY);
+        long completedDaysEnd = floor(hourlyRollupEnd, PERIOD_DAY);
+        long to = Math.min(from + MAX_PERIODS_PER_EXECUTION * toMillis(PERIOD_DAY), completedDaysEnd);
+
+        if (from < to) {
+          dailyRollups = meterLogManager.rollupRollups(PERIOD_HOUR, PERIOD_DAY, from, to);
+          dailyBacklog = to < completedDaysEnd;
+        }
+      }
+    }
+
+    int hourlyRollups = 0;
+    boolean hourlyBacklog = false;
+    long rollupDelay = getRollupDelay(processEngineConfiguration);
+    long completedHoursEnd = floor(now - rollupDelay, PERIOD_HOUR);
+    Long firstMeterLog = meterLogManager.findFirstMeterLogMilliseconds(hourlyRollupEnd);
+    if (firstMeterLog != null) {
+      long from = floor(firstMeterLog, PERIOD_HOUR);
+      long to = Math.min(from + MAX_PERIODS_PER_EXECUTION * toMillis(PERIOD_HOUR), completedHoursEnd);
+
+      if (from < to) {
+        hourlyRollups = meterLogManager.rollupMeterLogs(PERIOD_HOUR, from, to);
+        hourlyBacklog = to < completedHoursEnd;
+      }
+    }
+
+    boolean deletionBacklog = false;
+    int retentionDays = processEngineConfiguration.getMetricsRawRetentionDays();
+    if (retentionDays > 0 && hourlyRollupEnd != null && dailyRollupEnd != null) {
+      // queries read the meter logs after the end of the rollups they use, so
+      // only meter logs contained in both hourly and daily rollups are deleted
+      long retentionStart = now - retentionDays * toMillis(PERIOD_DAY);
+      long deletionEnd = Math.min(retentionStart, Math.min(hourlyRollupEnd, dailyRollupEnd));
+
+      // bounds the number of meter logs deleted by a single statement
+      Long firstMeterLogToDelete = meterLogManager.findFirstMeterLogMilliseconds(null);
+      if (firstMeterLogToDelete != null && firstMeterLogToDelete < deletionEnd) {
+        long to = Math.min(floor(firstMeterLogToDelete, PERIOD_HOUR) + MAX_PERIODS_PER_EXECUTION * toMillis(PERIOD_HOUR), deletionEnd);
+        meterLogManager.deleteMeterLogsBefore(to);
+        deletionBacklog = to < deletionEnd;
+      }
+    }
+
+    LOG.rolledUpMetrics(hourlyRollups, dailyRollups);
+
+    Date nextRun;
+    if (hourlyBacklog || dailyBacklog || deletionBacklog) {
+      nextRun = new Date(now);
+    }
+    else {
+      // when the next hour is complete
+      nextRun = new Date(completedHoursEnd + toMillis(PERIOD_HOUR) + rollupDelay);
+    }
+    commandContext.getJobManager().reschedule(jobEntity, nextRun);
+  }
+
+  /**
+   * @return the time after the end of an hour until its meter logs are rolled up
+   */
+  protected long getRollupDelay(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    long rollupDelay = GRACE_PERIOD_MILLIS;
+
+    DbMetricsReporter dbMetricsReporter = processEngineConfiguration.getDbMetricsReporter();
+    if (dbMetricsReporter != null) {
+      // gives every metrics reporter a full reporting interval to write the meter logs of the hour
+      rollupDelay += dbMetricsReporter.getReportingIntervalInSeconds() * 1000;
+    }
+
+    return rollupDelay;
+  }
+
+  protected static long toMillis(int period) {
+    return period * 1000L;
+  }
+
+  protected static long floor(long milliseconds, int period) {
+    return milliseconds / toMillis(period) * toMillis(period);
+  }
+
+  public MetricsRollupJobConfiguration newConfiguration(String canonicalString) {
+    return new MetricsRollupJobConfiguration();
+  }
+
+  public void onDelete(MetricsRollupJobConfiguration configuration, JobEntity jobEntity) {
+    // do nothing
+  }
+
+  public static class MetricsRollupJobConfiguration implements JobHandlerConfiguration {
+
+    public String toCanonicalString() {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,264 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.notification;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.UUID;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cmd.PublishNotificationCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+
+/**
+ * <p>Base class of the notification channels which exchange notifications between the nodes
+ * of a cluster through a property in the shared database.</p>
+ *
+ * <p>The value of the property consists of a change counter, the node which wrote it and the
+ * subjects of the notification (e.g. topics), separated by line breaks:
+ * <code>counter:nodeId\nsubject\nsubject</code>. If the subjects do not fit into the column,
+ * they are left out.</p>
+ *
+ * <p>Every {@link #pollIntervalInMillis}, a background thread writes the pending notification of
+ * this node (at most one per interval, regardless of the number of committed transactions) and
+ * reads the property. A notification of another node is passed to {@link #notificationReceived(String, Set)}.
+ * If the counter advanced by more than one since the last poll, notifications were overwritten
+ * before this node could read them; their subjects are unknown then.</p>
+ */
+public abstract class DbPropertyNotificationChannel {
+
+  /**
+   * The length of the column <code>ACT_GE_PROPERTY.VALUE_</code>.
+   */
+  protected static final int MAX_NOTIFICATION_LENGTH = 300;
+  protected static final String SUBJECT_SEPARATOR = "\n";
+
+  protected final String propertyName;
+  protected long pollIntervalInMillis;
+
+  protected ProcessEngineImpl processEngine;
+  protected String nodeId = UUID.randomUUID().toString();
+
+  // the subjects of the notification to write on the next poll or null if none is pending
+  protected Set<String> pendingSubjects;
+  protected final Object pendingSubjectsMonitor = new Object();
+
+  protected boolean initialized = false;
+  protected String lastNotification;
+  protected long lastCounter = 0;
+
+  protected Timer timer;
+
+  protected DbPropertyNotificationChannel(String propertyName, long pollIntervalInMillis) {
+    this.propertyName = propertyName;
+    this.pollIntervalInMillis = pollIntervalInMillis;
+  }
+
+  public synchronized void start(ProcessEngineImpl processEngine) {
+    this.processEngine = processEngine;
+
+    if (timer == null) {
+      timer = new Timer(getThreadName(), true);
+      timer.schedule(new TimerTask() {
+        public void run() {
+          pollSilently();
+        }
+      }, pollIntervalInMillis, pollIntervalInMillis);
+    }
+  }
+
+  public synchronized void stop() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  /**
+   * Schedules a notification with the given subjects to be written on the next poll.
+   * The subjects of several notifications are merged.
+   */
+  protected void publish(Collection<String> subjects) {
+    synchronized (pendingSubjectsMonitor) {
+      if (pendingSubjects == null) {
+        pendingSubjects = new HashSet<String>();
+      }
+      pendingSubjects.addAll(subjects);
+    }
+  }
+
+  protected Set<String> takePendingSubjects() {
+    synchronized (pendingSubjectsMonitor) {
+      Set<String> subjects = pendingSubjects;
+      pendingSubjects = null;
+      return subjects;
+    }
+  }
+
+  /**
+   * Writes the pending notification of this node and passes the notifications
+   * written by other nodes since the last poll to {@link #notificationReceived(String, Set)}.
+   */
+  public synchronized void poll() {
+    CommandExecutor commandExecutor = processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+
+    Set<String> subjects = takePendingSubjects();
+    if (subjects != null) {
+      PublishNotificationCmd publishCmd = new PublishNotificationCmd(this, subjects);
+      String previousNotification = commandExecutor.execute(publishCmd);
+
+      if (publishCmd.isPublished()) {
+        // the notification may have been written by another node since the last poll
+        notificationRead(previousNotification);
+        notificationRead(publishCmd.getNotification());
+      }
+      else {
+        // another node wrote a notification concurrently
+        publish(subjects);
+      }
+    }
+
+    if (isReceiving()) {
+      String notification = commandExecutor.execute(new Command<String>() {
+        public String execute(CommandContext commandContext) {
+          PropertyEntity property = commandContext.getPropertyManager().findPropertyById(propertyName);
+          return property != null ? property.getValue() : null;
+        }
+      });
+      notificationRead(notification);
+    }
+  }
+
+  protected void notificationRead(String notification) {
+    if (notification != null && !notification.equals(lastNotification)) {
+      long counter = getCounter(notification);
+
+      if (initialized && isReceiving()) {
+        if (counter != lastCounter + 1) {
+          notificationReceived(notification, null);
+        }
+        else if (!nodeId.equals(getSender(notification))) {
+          notificationReceived(notification, getSubjects(notification));
+        }
+      }
+
+      lastCounter = counter;
+    }
+
+    lastNotification = notification;
+    initialized = true;
+  }
+
+  /**
+   * @param previousNotification the notification to replace or null if none was written yet
+   * @return the notification of this node with the given subjects
+   */
+  public String createNotification(String previousNotification, Set<String> subjects) {
+    long counter = previousNotification != null ? Math.max(0, getCounter(previousNotification)) + 1 : 1;
+    String header = counter + ":" + nodeId;
+
+    StringBuilder notification = new StringBuilder(header);
+    for (String subject : subjects) {
+      notification.append(SUBJECT_SEPARATOR).append(subject);
+    }
+
+    if (notification.length() > MAX_NOTIFICATION_LENGTH) {
+      // the receivers treat the subjects as unknown
+      return header;
+    }
+    else {
+      return notification.toString();
+    }
+  }
+
+  /**
+   * @return the change counter of the notification or -1 if it is malformed
+   */
+  protected long getCounter(String notification) {
+    int end = notification.indexOf(':');
+    try {
+      return Long.parseLong(end >= 0 ? notification.substring(0, end) : notification);
+    }
+    catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  protected String getSender(String notification) {
+    int start = notification.indexOf(':') + 1;
+    int end = notification.indexOf(SUBJECT_SEPARATOR);
+    return notification.substring(start, end >= 0 ? end : notification.length());
+  }
+
+  /**
+   * @return the subjects of the notification or null if it has none
+   */
+  protected Set<String> getSubjects(String notification) {
+    String[] lines = notification.split(SUBJECT_SEPARATOR);
+    if (lines.length > 1) {
+      return new HashSet<String>(Arrays.asList(lines).subList(1, lines.length));
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected void pollSilently() {
+    try {
+      poll();
+    }
+    catch (Exception e) {
+      try {
+        exceptionWhileExchangingNotifications(e);
+      }
+      catch (Exception ex) {
+        // ignore if log can't be written
+      }
+    }
+  }
+
+  /**
+   * @return true if notifications of other nodes are of interest; the property is not read otherwise
+   */
+  protected abstract boolean isReceiving();
+
+  /**
+   * @param notification the notification of another node
+   * @param subjects the subjects of the notification or null if they are unknown
+   */
+  protected abstract void notificationReceived(String notification, Set<String> subjects);
+
+  protected abstract void exceptionWhileExchangingNotifications(Exception e);
+
+  protected abstract String getThreadName();
+
+  public String getPropertyName() {
+    return propertyName;
+  }
+
+  public long getPollIntervalInMillis() {
+    return pollIntervalInMillis;
+  }
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+}
@@ -0,0 +1,205 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.notification;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+
+/**
+ * <p>Base class of the notification channels which send notifications as UDP multicast datagrams.
+ * Notifications are delivered immediately but may get lost.</p>
+ *
+ * <p>A datagram consists of lines: the id of the sending node, followed by the subjects of the
+ * notification (e.g. topics). Subjects which do not fit into {@link #MAX_DATAGRAM_LENGTH} are sent
+ * with further datagrams. A node ignores its own datagrams. With the default time to live of 0,
+ * datagrams do not leave the host, which allows running several nodes on one machine (e.g. for testing).</p>
+ */
+public abstract class MulticastNotificationChannel {
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+  protected static final int MAX_DATAGRAM_LENGTH = 1024;
+  protected static final String SEPARATOR = "\n";
+
+  protected String groupAddress;
+  protected int port;
+  protected int timeToLive = 0;
+
+  protected ProcessEngineImpl processEngine;
+  protected String nodeId = UUID.randomUUID().toString();
+
+  protected MulticastSocket socket;
+  protected InetAddress group;
+  protected Thread receiverThread;
+
+  protected MulticastNotificationChannel(String groupAddress, int port) {
+    this.groupAddress = groupAddress;
+    this.port = port;
+  }
+
+  public synchronized void start(ProcessEngineImpl processEngine) {
+    this.processEngine = processEngine;
+
+    if (socket != null) {
+      return;
+    }
+
+    try {
+      group = InetAddress.getByName(groupAddress);
+      socket = new MulticastSocket(port);
+      socket.setTimeToLive(timeToLive);
+      socket.joinGroup(group);
+    }
+    catch (IOException e) {
+      exceptionWhileExchangingNotifications(e);
+      closeSocket();
+      return;
+    }
+
+    final MulticastSocket receivingSocket = socket;
+    receiverThread = new Thread(getThreadName()) {
+      public void run() {
+        receive(receivingSocket);
+      }
+    };
+    receiverThread.setDaemon(true);
+    receiverThread.start();
+  }
+
+  public synchronized void stop() {
+    // unblocks the receiver thread
+    closeSocket();
+    receiverThread = null;
+  }
+
+  /**
+   * Sends a notification with the given subjects to the other nodes.
+   */
+  protected void send(Collection<String> subjects) {
+    MulticastSocket socket = this.socket;
+    if (socket == null) {
+      return;
+    }
+
+    StringBuilder message = new StringBuilder(nodeId);
+    for (String subject : subjects) {
+      if (message.length() > nodeId.length()
+          && message.length() + subject.length() + 1 > MAX_DATAGRAM_LENGTH) {
+        send(socket, message.toString());
+        message = new StringBuilder(nodeId);
+      }
+      message.append(SEPARATOR).append(subject);
+    }
+    send(socket, message.toString());
+  }
+
+  protected void send(MulticastSocket socket, String message) {
+    byte[] data = message.getBytes(CHARSET);
+    try {
+      socket.send(new DatagramPacket(data, data.length, group, port));
+    }
+    catch (IOException e) {
+      exceptionWhileExchangingNotifications(e);
+    }
+  }
+
+  protected void receive(MulticastSocket socket) {
+    // subjects exceeding the maximum length on their own are sent in a datagram of their own
+    byte[] buffer = new byte[64 * 1024];
+
+    while (!socket.isClosed()) {
+      DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+      try {
+        socket.receive(packet);
+      }
+      catch (IOException e) {
+        if (!socket.isClosed()) {
+          exceptionWhileExchangingNotifications(e);
+        }
+        continue;
+      }
+
+      String message = new String(packet.getData(), packet.getOffset(), packet.getLength(), CHARSET);
+      String[] lines = message.split(SEPARATOR);
+      if (!nodeId.equals(lines[0])) {
+        Set<String> subjects = new HashSet<String>();
+        for (int i = 1; i < lines.length; i++) {
+          subjects.add(lines[i]);
+        }
+
+        notificationReceived(lines[0], subjects);
+      }
+    }
+  }
+
+  protected void closeSocket() {
+    if (socket != null) {
+      try {
+        socket.leaveGroup(group);
+      }
+      catch (IOException e) {
+        // the socket is closed anyway
+      }
+      socket.close();
+      socket = null;
+    }
+  }
+
+  /**
+   * Invoked by the receiver thread for each datagram of another node.
+   */
+  protected abstract void notificationReceived(String sender, Set<String> subjects);
+
+  protected abstract void exceptionWhileExchangingNotifications(Exception e);
+
+  protected abstract String getThreadName();
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  public String getGroupAddress() {
+    return groupAddress;
+  }
+
+  public void setGroupAddress(String groupAddress) {
+    this.groupAddress = groupAddress;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public void setPort(int port) {
+    this.port = port;
+  }
+
+  public int getTimeToLive() {
+    return timeToLive;
+  }
+
+  public void setTimeToLive(int timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+}
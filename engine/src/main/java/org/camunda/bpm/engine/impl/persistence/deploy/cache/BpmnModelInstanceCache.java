@@ -33,6 +33,11 @@ public class BpmnModelInstanceCache extends ModelInstanceCache<BpmnModelInstance
     super(factory, cacheCapacity, definitionCache);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.BPMN_MODEL_INST_CACHE;
+  }
+
   @Override
   protected void throwLoadModelException(String definitionId, Exception e) {
     throw LOG.loadModelException("BPMN", "process", definitionId, e);
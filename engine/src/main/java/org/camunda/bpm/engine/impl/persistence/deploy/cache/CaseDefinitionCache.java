@@ -28,6 +28,11 @@ public class CaseDefinitionCache extends ResourceDefinitionCache<CaseDefinitionE
     super(factory, cacheCapacity, cacheDeployer);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.CASE_DEF_CACHE;
+  }
+
   public CaseDefinitionEntity getCaseDefinitionById(String caseDefinitionId) {
     checkInvalidDefinitionId(caseDefinitionId);
     CaseDefinitionEntity caseDefinition = getDefinition(caseDefinitionId);
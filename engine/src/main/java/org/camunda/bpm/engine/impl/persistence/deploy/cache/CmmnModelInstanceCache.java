@@ -30,6 +30,11 @@ public class CmmnModelInstanceCache extends ModelInstanceCache<CmmnModelInstance
     super(factory, cacheCapacity, definitionCache);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.CASE_MODEL_INST_CACHE;
+  }
+
   @Override
   protected void throwLoadModelException(String definitionId, Exception e) {
     throw LOG.loadModelException("CMMN", "case", definitionId, e);
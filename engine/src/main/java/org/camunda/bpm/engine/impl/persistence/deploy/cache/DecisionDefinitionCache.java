@@ -30,6 +30,11 @@ public class DecisionDefinitionCache extends ResourceDefinitionCache<DecisionDef
     super(factory, cacheCapacity, cacheDeployer);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.DMN_DEF_CACHE;
+  }
+
   public DecisionDefinitionEntity findDeployedDefinitionByKeyAndVersion(String definitionKey, Integer definitionVersion) {
     DecisionDefinitionEntity definition = ((DecisionDefinitionManager) getManager())
         .findDecisionDefinitionByKeyAndVersion(definitionKey, definitionVersion);
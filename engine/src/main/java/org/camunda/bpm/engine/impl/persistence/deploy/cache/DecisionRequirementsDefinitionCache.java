@@ -27,6 +27,11 @@ public class DecisionRequirementsDefinitionCache extends ResourceDefinitionCache
     super(factory, cacheCapacity, cacheDeployer);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.DMN_REQ_DEF_CACHE;
+  }
+
   @Override
   protected AbstractResourceDefinitionManager<DecisionRequirementsDefinitionEntity> getManager() {
     return Context.getCommandContext().getDecisionRequirementsDefinitionManager();
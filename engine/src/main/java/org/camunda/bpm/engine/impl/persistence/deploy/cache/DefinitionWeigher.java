@@ -0,0 +1,85 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.lang.ref.Reference;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cmmn.model.CmmnActivity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.model.xml.ModelInstance;
+import org.camunda.bpm.model.xml.instance.DomElement;
+
+/**
+ * <p>Estimates the size of the values of the {@link DeploymentCache} by the number of
+ * activities of process and case definitions and the number of XML elements of model
+ * instances. The estimates are rough but proportional to the retained size, which ranges
+ * from kilobytes to megabytes per definition.</p>
+ */
+public class DefinitionWeigher implements CacheEntryWeigher<Object> {
+
+  public static final long BASE_WEIGHT = 8 * 1024;
+  public static final long ACTIVITY_WEIGHT = 4 * 1024;
+  public static final long ELEMENT_WEIGHT = 1024;
+
+  public long weigh(Object value) {
+    if (value instanceof Reference) {
+      // e.g. the model instances of a SoftValueCache
+      value = ((Reference<?>) value).get();
+    }
+
+    if (value instanceof ScopeImpl) {
+      return BASE_WEIGHT + ACTIVITY_WEIGHT * countActivities((ScopeImpl) value);
+    }
+    else if (value instanceof CmmnActivity) {
+      return BASE_WEIGHT + ACTIVITY_WEIGHT * countActivities((CmmnActivity) value);
+    }
+    else if (value instanceof ModelInstance) {
+      return BASE_WEIGHT + ELEMENT_WEIGHT * countElements(((ModelInstance) value).getDocument().getRootElement());
+    }
+    else {
+      return BASE_WEIGHT;
+    }
+  }
+
+  protected long countActivities(ScopeImpl scope) {
+    List<ActivityImpl> activities = scope.getActivities();
+    long count = activities.size();
+    for (ActivityImpl activity : activities) {
+      count += countActivities(activity);
+    }
+    return count;
+  }
+
+  protected long countActivities(CmmnActivity scope) {
+    List<CmmnActivity> activities = scope.getActivities();
+    long count = activities.size();
+    for (CmmnActivity activity : activities) {
+      count += countActivities(activity);
+    }
+    return count;
+  }
+
+  protected long countElements(DomElement element) {
+    if (element == null) {
+      return 0;
+    }
+    long count = 1;
+    for (DomElement childElement : element.getChildElements()) {
+      count += countElements(childElement);
+    }
+    return count;
+  }
+
+}
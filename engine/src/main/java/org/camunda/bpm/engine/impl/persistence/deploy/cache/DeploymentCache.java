@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionRequirementsDef
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.management.DeploymentCacheStatistics;
 import org.camunda.bpm.engine.repository.DecisionDefinition;
 import org.camunda.bpm.engine.repository.DecisionRequirementsDefinition;
 import org.camunda.bpm.model.bpmn.BpmnModelInstance;
@@ -29,6 +30,7 @@ import org.camunda.bpm.model.cmmn.CmmnModelInstance;
 import org.camunda.bpm.model.dmn.DmnModelInstance;
 import org.camunda.commons.utils.cache.Cache;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -48,15 +50,25 @@ public class DeploymentCache {
   protected DmnModelInstanceCache dmnModelInstanceCache;
   protected CacheDeployer cacheDeployer = new CacheDeployer();
 
+  protected LatestDefinitionIndex latestDefinitionIndex;
+
   public DeploymentCache(CacheFactory factory, int cacheCapacity) {
+    this(factory, cacheCapacity, factory, cacheCapacity);
+  }
+
+  /**
+   * @param modelInstanceCacheFactory creates the caches of the BPMN, CMMN and DMN model instances
+   * @param modelInstanceCacheCapacity the capacity of the model instance caches
+   */
+  public DeploymentCache(CacheFactory factory, int cacheCapacity, CacheFactory modelInstanceCacheFactory, int modelInstanceCacheCapacity) {
     processDefinitionEntityCache = new ProcessDefinitionCache(factory, cacheCapacity, cacheDeployer);
     caseDefinitionCache = new CaseDefinitionCache(factory, cacheCapacity, cacheDeployer);
     decisionDefinitionCache = new DecisionDefinitionCache(factory, cacheCapacity, cacheDeployer);
     decisionRequirementsDefinitionCache = new DecisionRequirementsDefinitionCache(factory, cacheCapacity, cacheDeployer);
 
-    bpmnModelInstanceCache = new BpmnModelInstanceCache(factory, cacheCapacity, processDefinitionEntityCache);
-    cmmnModelInstanceCache = new CmmnModelInstanceCache(factory, cacheCapacity, caseDefinitionCache);
-    dmnModelInstanceCache = new DmnModelInstanceCache(factory, cacheCapacity, decisionDefinitionCache);
+    bpmnModelInstanceCache = new BpmnModelInstanceCache(modelInstanceCacheFactory, modelInstanceCacheCapacity, processDefinitionEntityCache);
+    cmmnModelInstanceCache = new CmmnModelInstanceCache(modelInstanceCacheFactory, modelInstanceCacheCapacity, caseDefinitionCache);
+    dmnModelInstanceCache = new DmnModelInstanceCache(modelInstanceCacheFactory, modelInstanceCacheCapacity, decisionDefinitionCache);
   }
 
   public void deploy(final DeploymentEntity deployment) {
@@ -299,6 +311,50 @@ public class DeploymentCache {
     return caseDefinitionCache.getCache();
   }
 
+  public List<DeploymentCacheStatistics> getStatistics() {
+    List<DeploymentCacheStatistics> statistics = new ArrayList<DeploymentCacheStatistics>();
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.PROCESS_DEF_CACHE, getProcessDefinitionCache(), getProcessDefinitionCacheMetrics()));
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.BPMN_MODEL_INST_CACHE, getBpmnModelInstanceCache()));
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.CASE_DEF_CACHE, getCaseDefinitionCache(), getCaseDefinitionCacheMetrics()));
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.CASE_MODEL_INST_CACHE, getCmmnModelInstanceCache()));
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.DMN_DEF_CACHE, getDecisionDefinitionCache(), getDecisionDefinitionCacheMetrics()));
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.DMN_REQ_DEF_CACHE, getDecisionRequirementsDefinitionCache(), getDecisionRequirementsDefinitionCacheMetrics()));
+    statistics.add(new DeploymentCacheStatisticsImpl(CachePurgeReport.DMN_MODEL_INST_CACHE, getDmnDefinitionCache()));
+    return statistics;
+  }
+
+  public ResourceDefinitionCacheMetrics getProcessDefinitionCacheMetrics() {
+    return processDefinitionEntityCache.getMetrics();
+  }
+
+  public ResourceDefinitionCacheMetrics getCaseDefinitionCacheMetrics() {
+    return caseDefinitionCache.getMetrics();
+  }
+
+  public ResourceDefinitionCacheMetrics getDecisionDefinitionCacheMetrics() {
+    return decisionDefinitionCache.getMetrics();
+  }
+
+  public ResourceDefinitionCacheMetrics getDecisionRequirementsDefinitionCacheMetrics() {
+    return decisionRequirementsDefinitionCache.getMetrics();
+  }
+
+  public LatestDefinitionIndex getLatestDefinitionIndex() {
+    return latestDefinitionIndex;
+  }
+
+  /**
+   * Resolves the latest definitions by key via the given index, or always queries
+   * for the latest definitions if the index is <code>null</code>.
+   */
+  public void setLatestDefinitionIndex(LatestDefinitionIndex latestDefinitionIndex) {
+    this.latestDefinitionIndex = latestDefinitionIndex;
+    processDefinitionEntityCache.setLatestDefinitionIndex(latestDefinitionIndex);
+    caseDefinitionCache.setLatestDefinitionIndex(latestDefinitionIndex);
+    decisionDefinitionCache.setLatestDefinitionIndex(latestDefinitionIndex);
+    decisionRequirementsDefinitionCache.setLatestDefinitionIndex(latestDefinitionIndex);
+  }
+
   public void setDeployers(List<Deployer> deployers) {
     this.cacheDeployer.setDeployers(deployers);
   }
@@ -330,6 +386,10 @@ public class DeploymentCache {
   public CachePurgeReport purgeCache() {
 
     CachePurgeReport result = new CachePurgeReport();
+    if (latestDefinitionIndex != null) {
+      latestDefinitionIndex.clear();
+    }
+
     Cache<String, ProcessDefinitionEntity> processDefinitionCache = getProcessDefinitionCache();
     if (!processDefinitionCache.isEmpty()) {
       result.addPurgeInformation(CachePurgeReport.PROCESS_DEF_CACHE, processDefinitionCache.keySet());
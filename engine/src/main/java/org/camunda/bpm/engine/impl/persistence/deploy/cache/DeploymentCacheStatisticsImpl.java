@@ -0,0 +1,99 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import org.camunda.bpm.engine.management.DeploymentCacheStatistics;
+import org.camunda.commons.utils.cache.Cache;
+
+public class DeploymentCacheStatisticsImpl implements DeploymentCacheStatistics {
+
+  protected String cacheName;
+  protected int size;
+  protected long weight = -1;
+  protected long maxWeight = -1;
+  protected long hitCount = -1;
+  protected long missCount = -1;
+
+  public DeploymentCacheStatisticsImpl(String cacheName, Cache<String, ?> cache) {
+    this(cacheName, cache, null);
+  }
+
+  /**
+   * @param metrics the metrics of the {@link ResourceDefinitionCache} which reads the cache,
+   *   counting the reads of definitions regardless of the cache implementation; may be null
+   */
+  public DeploymentCacheStatisticsImpl(String cacheName, Cache<String, ?> cache, ResourceDefinitionCacheMetrics metrics) {
+    this.cacheName = cacheName;
+    this.size = cache.size();
+
+    if (cache instanceof SoftValueCache) {
+      // the weight of the values is tracked by the cache which holds the soft references
+      cache = ((SoftValueCache<String, ?>) cache).getDelegate();
+    }
+
+    if (cache instanceof WeightedLfuCache) {
+      WeightedLfuCache<String, ?> weightedCache = (WeightedLfuCache<String, ?>) cache;
+      this.weight = weightedCache.getWeight();
+      this.maxWeight = weightedCache.getMaxWeight();
+      this.hitCount = weightedCache.getHitCount();
+      this.missCount = weightedCache.getMissCount();
+    }
+
+    if (metrics != null) {
+      this.hitCount = metrics.getHitCount();
+      this.missCount = metrics.getMissCount();
+    }
+  }
+
+  public String getCacheName() {
+    return cacheName;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public long getWeight() {
+    return weight;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public double getHitRatio() {
+    long reads = hitCount + missCount;
+    if (hitCount < 0 || reads == 0) {
+      return -1;
+    }
+    return (double) hitCount / reads;
+  }
+
+  public String toString() {
+    return "DeploymentCacheStatisticsImpl [cacheName=" + cacheName
+        + ", size=" + size
+        + ", weight=" + weight
+        + ", maxWeight=" + maxWeight
+        + ", hitCount=" + hitCount
+        + ", missCount=" + missCount + "]";
+  }
+
+}
@@ -0,0 +1,263 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.impl.ProcessDefinitionQueryImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionQueryImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.repository.CaseDefinition;
+import org.camunda.bpm.engine.repository.DecisionDefinition;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.repository.ResourceDefinition;
+
+/**
+ * <p>Loads the latest {@link #versions} versions of the deployed definitions into the
+ * {@link DeploymentCache} when the process engine is built, so that the first use of a
+ * definition does not have to parse its resource. The definitions are loaded by
+ * {@link #threads} threads, each definition in a separate transaction.</p>
+ *
+ * <p>If {@link #blocking} is true, the process engine is not built before all definitions
+ * are loaded. Otherwise, the definitions are loaded in the background and the process engine
+ * loads the definitions which are used in the meantime on demand.</p>
+ */
+public class DeploymentCacheWarmUp {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected CommandExecutor commandExecutor;
+
+  protected int versions = 1;
+  /** the keys of the definitions to load, <code>null</code> to load all definitions */
+  protected Set<String> definitionKeys;
+  protected int threads = Runtime.getRuntime().availableProcessors();
+  protected boolean blocking = false;
+  protected boolean cmmnEnabled = true;
+  protected boolean dmnEnabled = true;
+
+  protected ExecutorService executorService;
+
+  public DeploymentCacheWarmUp(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public synchronized void start() {
+    if (executorService != null) {
+      return;
+    }
+
+    final List<ResourceDefinition> definitions = commandExecutor.execute(new Command<List<ResourceDefinition>>() {
+      public List<ResourceDefinition> execute(CommandContext commandContext) {
+        return findDefinitionsToLoad();
+      }
+    });
+
+    if (definitions.isEmpty()) {
+      return;
+    }
+
+    final int definitionCount = definitions.size();
+    final int progressInterval = Math.max(1, definitionCount / 10);
+    final AtomicInteger loadedDefinitions = new AtomicInteger();
+    final long startTime = System.currentTimeMillis();
+
+    int threadCount = Math.max(1, Math.min(threads, definitionCount));
+    LOG.deploymentCacheWarmUpStarted(definitionCount, threadCount);
+
+    executorService = Executors.newFixedThreadPool(threadCount, new WarmUpThreadFactory());
+    for (final ResourceDefinition definition : definitions) {
+      executorService.execute(new Runnable() {
+        public void run() {
+          loadDefinition(definition);
+
+          int loaded = loadedDefinitions.incrementAndGet();
+          if (loaded == definitionCount) {
+            LOG.deploymentCacheWarmUpCompleted(definitionCount, System.currentTimeMillis() - startTime);
+          }
+          else if (loaded % progressInterval == 0) {
+            LOG.deploymentCacheWarmUpProgress(loaded, definitionCount);
+          }
+        }
+      });
+    }
+    // the threads terminate when all definitions are loaded
+    executorService.shutdown();
+
+    if (blocking) {
+      awaitTermination();
+    }
+  }
+
+  public synchronized void stop() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+      executorService = null;
+    }
+  }
+
+  /**
+   * @return true if the warm-up is not started or all definitions are loaded
+   */
+  public synchronized boolean isCompleted() {
+    return executorService == null || executorService.isTerminated();
+  }
+
+  protected void awaitTermination() {
+    try {
+      executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  protected List<ResourceDefinition> findDefinitionsToLoad() {
+    List<ResourceDefinition> definitions = new ArrayList<ResourceDefinition>();
+
+    List<ProcessDefinition> processDefinitions = new ProcessDefinitionQueryImpl()
+        .orderByProcessDefinitionVersion()
+        .desc()
+        .list();
+    addLatestVersions(processDefinitions, definitions);
+
+    if (cmmnEnabled) {
+      List<CaseDefinition> caseDefinitions = new CaseDefinitionQueryImpl()
+          .orderByCaseDefinitionVersion()
+          .desc()
+          .list();
+      addLatestVersions(caseDefinitions, definitions);
+    }
+
+    if (dmnEnabled) {
+      List<DecisionDefinition> decisionDefinitions = new DecisionDefinitionQueryImpl()
+          .orderByDecisionDefinitionVersion()
+          .desc()
+          .list();
+      addLatestVersions(decisionDefinitions, definitions);
+    }
+
+    return definitions;
+  }
+
+  /**
+   * Adds the first {@link #versions} definitions per key and tenant id of the given
+   * definitions which are ordered by version descending.
+   */
+  protected void addLatestVersions(List<? extends ResourceDefinition> orderedDefinitions, List<ResourceDefinition> definitions) {
+    Map<String, Integer> addedVersions = new HashMap<String, Integer>();
+
+    for (ResourceDefinition definition : orderedDefinitions) {
+      if (definitionKeys != null && !definitionKeys.contains(definition.getKey())) {
+        continue;
+      }
+
+      String versionKey = definition.getKey() + ":" + definition.getTenantId();
+      Integer addedVersionCount = addedVersions.get(versionKey);
+      int count = addedVersionCount != null ? addedVersionCount : 0;
+      if (count < versions) {
+        definitions.add(definition);
+        addedVersions.put(versionKey, count + 1);
+      }
+    }
+  }
+
+  protected void loadDefinition(final ResourceDefinition definition) {
+    try {
+      commandExecutor.execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          DeploymentCache deploymentCache = commandContext.getProcessEngineConfiguration().getDeploymentCache();
+          if (definition instanceof ProcessDefinition) {
+            deploymentCache.findDeployedProcessDefinitionById(definition.getId());
+          }
+          else if (definition instanceof CaseDefinition) {
+            deploymentCache.findDeployedCaseDefinitionById(definition.getId());
+          }
+          else if (definition instanceof DecisionDefinition) {
+            deploymentCache.findDeployedDecisionDefinitionById(definition.getId());
+          }
+          return null;
+        }
+      });
+    }
+    catch (Exception e) {
+      LOG.deploymentCacheWarmUpFailed(definition.getId(), e);
+    }
+  }
+
+  public int getVersions() {
+    return versions;
+  }
+
+  public void setVersions(int versions) {
+    this.versions = versions;
+  }
+
+  public Set<String> getDefinitionKeys() {
+    return definitionKeys;
+  }
+
+  public void setDefinitionKeys(Set<String> definitionKeys) {
+    this.definitionKeys = definitionKeys;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public boolean isBlocking() {
+    return blocking;
+  }
+
+  public void setBlocking(boolean blocking) {
+    this.blocking = blocking;
+  }
+
+  public void setCmmnEnabled(boolean cmmnEnabled) {
+    this.cmmnEnabled = cmmnEnabled;
+  }
+
+  public void setDmnEnabled(boolean dmnEnabled) {
+    this.dmnEnabled = dmnEnabled;
+  }
+
+  protected static class WarmUpThreadFactory implements ThreadFactory {
+
+    protected AtomicInteger threadNumber = new AtomicInteger();
+
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "Camunda Deployment Cache Warm-Up " + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
@@ -30,6 +30,11 @@ public class DmnModelInstanceCache extends ModelInstanceCache<DmnModelInstance,
     super(factory, cacheCapacity, definitionCache);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.DMN_MODEL_INST_CACHE;
+  }
+
   @Override
   protected void throwLoadModelException(String definitionId, Exception e) {
     throw LOG.loadModelException("DMN", "decision", definitionId, e);
@@ -0,0 +1,92 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+/**
+ * <p>Approximates how often keys were accessed recently, using a count-min sketch with
+ * four rows of counters saturating at 15. All counters are halved after a number of
+ * increments proportional to the width, so that the frequencies of keys which are no
+ * longer accessed decay.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public class FrequencySketch {
+
+  protected static final int DEPTH = 4;
+  protected static final int MAX_COUNT = 15;
+  protected static final int[] SEEDS = { 0x97cb3127, 0xb3d5a7d1, 0xc2b2ae35, 0x85ebca6b };
+
+  protected byte[][] counters;
+  protected int mask;
+  protected int sampleSize;
+  protected int additions;
+
+  /**
+   * @param expectedSize the expected number of distinct keys with a notable frequency
+   */
+  public FrequencySketch(int expectedSize) {
+    int width = 16;
+    while (width < expectedSize && width < (1 << 24)) {
+      width <<= 1;
+    }
+    counters = new byte[DEPTH][width];
+    mask = width - 1;
+    sampleSize = 10 * width;
+  }
+
+  public void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean isIncremented = false;
+    for (int i = 0; i < DEPTH; i++) {
+      int index = indexOf(hash, i);
+      if (counters[i][index] < MAX_COUNT) {
+        counters[i][index]++;
+        isIncremented = true;
+      }
+    }
+
+    if (isIncremented && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  public int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < DEPTH; i++) {
+      frequency = Math.min(frequency, counters[i][indexOf(hash, i)]);
+    }
+    return frequency;
+  }
+
+  protected void reset() {
+    for (byte[] row : counters) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] = (byte) (row[i] >>> 1);
+      }
+    }
+    additions /= 2;
+  }
+
+  protected int indexOf(int hash, int row) {
+    int h = hash * SEEDS[row];
+    h ^= h >>> 16;
+    return h & mask;
+  }
+
+  protected static int spread(int hash) {
+    int h = hash * 0x9e3779b9;
+    return h ^ (h >>> 15);
+  }
+
+}
@@ -0,0 +1,180 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+
+/**
+ * <p>Maps the key (and tenant id) of a definition to the id of its latest version, so that
+ * the latest definition can be taken from the deployment cache instead of querying for the
+ * latest version.</p>
+ *
+ * <p>The index is cleared when a transaction of this process engine deploys or deletes
+ * definitions, changes their suspension state or their history time to live. Afterwards, the deployment version property is changed to inform the other
+ * process engines sharing the database. The property is checked at most every
+ * {@link #checkIntervalInMillis} when the index is used.</p>
+ */
+public class LatestDefinitionIndex {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  public static final String DEPLOYMENT_VERSION_PROPERTY_NAME = "deployment.version";
+
+  protected long checkIntervalInMillis;
+
+  protected ConcurrentMap<IndexKey, String> latestDefinitionIds = new ConcurrentHashMap<IndexKey, String>();
+
+  /** incremented on each clear, rejects ids which were queried before the index was cleared */
+  protected AtomicLong version = new AtomicLong();
+
+  protected AtomicLong nextCheckTime = new AtomicLong();
+  protected boolean initialized = false;
+  protected String deploymentVersion;
+
+  public LatestDefinitionIndex(long checkIntervalInMillis) {
+    this.checkIntervalInMillis = checkIntervalInMillis;
+  }
+
+  /**
+   * @return the version to pass to {@link #putLatestDefinitionId(IndexKey, String, long)}
+   *   for an id which is queried after this call
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  public String getLatestDefinitionId(CommandContext commandContext, IndexKey key) {
+    checkDeploymentVersion(commandContext);
+    return latestDefinitionIds.get(key);
+  }
+
+  public void putLatestDefinitionId(IndexKey key, String definitionId, long indexVersion) {
+    latestDefinitionIds.put(key, definitionId);
+    if (version.get() != indexVersion) {
+      // the index was cleared while the id was queried
+      latestDefinitionIds.remove(key, definitionId);
+    }
+  }
+
+  public void removeLatestDefinitionId(IndexKey key, String definitionId) {
+    latestDefinitionIds.remove(key, definitionId);
+  }
+
+  public void clear() {
+    version.incrementAndGet();
+    latestDefinitionIds.clear();
+  }
+
+  public int size() {
+    return latestDefinitionIds.size();
+  }
+
+  protected void checkDeploymentVersion(CommandContext commandContext) {
+    long now = System.currentTimeMillis();
+    long checkTime = nextCheckTime.get();
+    if (now < checkTime || !nextCheckTime.compareAndSet(checkTime, now + checkIntervalInMillis)) {
+      return;
+    }
+
+    PropertyEntity property = commandContext.getPropertyManager().findPropertyById(DEPLOYMENT_VERSION_PROPERTY_NAME);
+    deploymentVersionRead(property != null ? property.getValue() : null);
+  }
+
+  protected synchronized void deploymentVersionRead(String currentDeploymentVersion) {
+    if (initialized && equals(deploymentVersion, currentDeploymentVersion)) {
+      return;
+    }
+
+    // also cleared on the first check, since ids may have been added concurrently
+    if (initialized) {
+      LOG.debugLatestDefinitionIndexInvalidated(currentDeploymentVersion);
+    }
+    clear();
+
+    deploymentVersion = currentDeploymentVersion;
+    initialized = true;
+  }
+
+  protected static boolean equals(String a, String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+
+  public long getCheckIntervalInMillis() {
+    return checkIntervalInMillis;
+  }
+
+  /**
+   * @return the key of the latest definition with the given key from any tenant
+   */
+  public static IndexKey keyForAnyTenant(Class<?> definitionType, String definitionKey) {
+    return new IndexKey(definitionType, definitionKey, null, true);
+  }
+
+  /**
+   * @return the key of the latest definition with the given key and tenant id,
+   *   a tenant id of <code>null</code> refers to definitions without tenant
+   */
+  public static IndexKey key(Class<?> definitionType, String definitionKey, String tenantId) {
+    return new IndexKey(definitionType, definitionKey, tenantId, false);
+  }
+
+  public static class IndexKey {
+
+    protected final Class<?> definitionType;
+    protected final String definitionKey;
+    protected final String tenantId;
+    protected final boolean isAnyTenant;
+
+    protected IndexKey(Class<?> definitionType, String definitionKey, String tenantId, boolean isAnyTenant) {
+      this.definitionType = definitionType;
+      this.definitionKey = definitionKey;
+      this.tenantId = tenantId;
+      this.isAnyTenant = isAnyTenant;
+    }
+
+    public int hashCode() {
+      int result = definitionType.hashCode();
+      result = 31 * result + (definitionKey != null ? definitionKey.hashCode() : 0);
+      result = 31 * result + (tenantId != null ? tenantId.hashCode() : 0);
+      result = 31 * result + (isAnyTenant ? 1 : 0);
+      return result;
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof IndexKey)) {
+        return false;
+      }
+      IndexKey other = (IndexKey) obj;
+      return definitionType.equals(other.definitionType)
+          && LatestDefinitionIndex.equals(definitionKey, other.definitionKey)
+          && LatestDefinitionIndex.equals(tenantId, other.tenantId)
+          && isAnyTenant == other.isAnyTenant;
+    }
+
+    public String toString() {
+      return definitionType.getSimpleName() + "[key=" + definitionKey
+          + (isAnyTenant ? ", anyTenant" : ", tenantId=" + tenantId) + "]";
+    }
+  }
+
+}
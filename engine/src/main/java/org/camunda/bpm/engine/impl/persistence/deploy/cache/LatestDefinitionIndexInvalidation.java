@@ -0,0 +1,35 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Clears the {@link LatestDefinitionIndex} of this process engine after definitions were
+ * deployed or deleted. The other process engines notice the change by the deployment
+ * version, which is changed in the same transaction as the definitions.
+ */
+public class LatestDefinitionIndexInvalidation implements TransactionListener {
+
+  protected LatestDefinitionIndex latestDefinitionIndex;
+
+  public LatestDefinitionIndexInvalidation(LatestDefinitionIndex latestDefinitionIndex) {
+    this.latestDefinitionIndex = latestDefinitionIndex;
+  }
+
+  public void execute(CommandContext commandContext) {
+    latestDefinitionIndex.clear();
+  }
+
+}
@@ -37,10 +37,18 @@ public abstract class ModelInstanceCache<InstanceType extends ModelInstance, Def
   protected ResourceDefinitionCache<DefinitionType> definitionCache;
 
   public ModelInstanceCache(CacheFactory factory, int cacheCapacity, ResourceDefinitionCache<DefinitionType> definitionCache) {
-    this.instanceCache = factory.createCache(cacheCapacity);
+    this.instanceCache = createCache(factory, cacheCapacity);
     this.definitionCache = definitionCache;
   }
 
+  protected Cache<String, InstanceType> createCache(CacheFactory factory, int cacheCapacity) {
+    String cacheName = getCacheName();
+    if (factory instanceof NamedCacheFactory && cacheName != null) {
+      return ((NamedCacheFactory) factory).createCache(cacheName, cacheCapacity);
+    }
+    return factory.createCache(cacheCapacity);
+  }
+
   public InstanceType findBpmnModelInstanceForDefinition(DefinitionType definitionEntity) {
     InstanceType bpmnModelInstance = instanceCache.get(definitionEntity.getId());
     if (bpmnModelInstance == null) {
@@ -102,6 +110,14 @@ public abstract class ModelInstanceCache<InstanceType extends ModelInstance, Def
     return instanceCache;
   }
 
+  /**
+   * @return the name passed to a {@link NamedCacheFactory}, or <code>null</code>
+   *   if the cache is created without name
+   */
+  protected String getCacheName() {
+    return null;
+  }
+
   protected abstract void throwLoadModelException(String definitionId, Exception e);
 
   protected abstract void logRemoveEntryFromDeploymentCacheFailure(String definitionId, Exception e);
@@ -0,0 +1,35 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>A {@link CacheFactory} which is told which of the caches of the {@link DeploymentCache}
+ * it creates, e.g. to give each cache a different size.</p>
+ */
+public interface NamedCacheFactory extends CacheFactory {
+
+  /**
+   * Creates the cache with the given name.
+   *
+   * @param cacheName
+   *        The name of the cache, one of the cache names of the {@link CachePurgeReport}.
+   * @param maxNumberOfElementsInCache
+   *        The configured maximum number of elements of the cache.
+   * @return
+   *        The cache to be created.
+   */
+  public <T> Cache<String, T> createCache(String cacheName, int maxNumberOfElementsInCache);
+
+}
@@ -28,6 +28,11 @@ public class ProcessDefinitionCache extends ResourceDefinitionCache<ProcessDefin
     super(factory, cacheCapacity, cacheDeployer);
   }
 
+  @Override
+  protected String getCacheName() {
+    return CachePurgeReport.PROCESS_DEF_CACHE;
+  }
+
   @Override
   protected AbstractResourceDefinitionManager<ProcessDefinitionEntity> getManager() {
     return Context.getCommandContext().getProcessDefinitionManager();
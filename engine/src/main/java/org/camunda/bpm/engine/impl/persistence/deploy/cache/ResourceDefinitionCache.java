@@ -13,14 +13,22 @@
 package org.camunda.bpm.engine.impl.persistence.deploy.cache;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractResourceDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.repository.ResourceDefinitionEntity;
 import org.camunda.commons.utils.cache.Cache;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 
 /**
@@ -28,14 +36,32 @@ import java.util.concurrent.Callable;
  */
 public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity> {
 
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
   protected Cache<String, T> cache;
   protected CacheDeployer cacheDeployer;
 
+  /** the resources which are currently loaded into the cache, by deployment id and resource name */
+  protected ConcurrentMap<String, ResourceLoadingTask> loadingResources = new ConcurrentHashMap<String, ResourceLoadingTask>();
+
+  protected ResourceDefinitionCacheMetrics metrics = new ResourceDefinitionCacheMetrics();
+
+  /** the ids of the latest definitions by key, <code>null</code> if not enabled */
+  protected LatestDefinitionIndex latestDefinitionIndex;
+
   public ResourceDefinitionCache(CacheFactory factory, int cacheCapacity, CacheDeployer cacheDeployer) {
-    this.cache = factory.createCache(cacheCapacity);
+    this.cache = createCache(factory, cacheCapacity);
     this.cacheDeployer = cacheDeployer;
   }
 
+  protected Cache<String, T> createCache(CacheFactory factory, int cacheCapacity) {
+    String cacheName = getCacheName();
+    if (factory instanceof NamedCacheFactory && cacheName != null) {
+      return ((NamedCacheFactory) factory).createCache(cacheName, cacheCapacity);
+    }
+    return factory.createCache(cacheCapacity);
+  }
+
   public T findDefinitionFromCache(String definitionId) {
     return cache.get(definitionId);
   }
@@ -58,21 +84,84 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
    * @throws ProcessEngineException if more than one tenant has a definition with the given key
    */
   public T findDeployedLatestDefinitionByKey(String definitionKey) {
-    T definition = getManager()
-        .findLatestDefinitionByKey(definitionKey);
+    CommandContext commandContext = Context.getCommandContext();
+    // the query only returns the definitions of the authenticated tenants if the tenant check is enabled
+    boolean isIndexed = latestDefinitionIndex != null && !commandContext.getTenantManager().isTenantCheckEnabled();
+
+    LatestDefinitionIndex.IndexKey indexKey = null;
+    T definition = null;
+    if (isIndexed) {
+      indexKey = LatestDefinitionIndex.keyForAnyTenant(getClass(), definitionKey);
+      definition = findIndexedLatestDefinition(commandContext, indexKey);
+    }
+
+    if (definition == null) {
+      long indexVersion = isIndexed ? latestDefinitionIndex.getVersion() : 0;
+      definition = getManager()
+          .findLatestDefinitionByKey(definitionKey);
+      if (isIndexed && definition != null) {
+        latestDefinitionIndex.putLatestDefinitionId(indexKey, definition.getId(), indexVersion);
+      }
+    }
+
     checkInvalidDefinitionByKey(definitionKey, definition);
     definition = resolveDefinition(definition);
     return definition;
   }
 
   public T findDeployedLatestDefinitionByKeyAndTenantId(String definitionKey, String tenantId) {
-    T definition = getManager()
-        .findLatestDefinitionByKeyAndTenantId(definitionKey, tenantId);
+    boolean isIndexed = latestDefinitionIndex != null;
+
+    LatestDefinitionIndex.IndexKey indexKey = null;
+    T definition = null;
+    if (isIndexed) {
+      indexKey = LatestDefinitionIndex.key(getClass(), definitionKey, tenantId);
+      definition = findIndexedLatestDefinition(Context.getCommandContext(), indexKey);
+    }
+
+    if (definition == null) {
+      long indexVersion = isIndexed ? latestDefinitionIndex.getVersion() : 0;
+      definition = getManager()
+          .findLatestDefinitionByKeyAndTenantId(definitionKey, tenantId);
+      if (isIndexed && definition != null) {
+        latestDefinitionIndex.putLatestDefinitionId(indexKey, definition.getId(), indexVersion);
+      }
+    }
+
     checkInvalidDefinitionByKeyAndTenantId(definitionKey, tenantId, definition);
     definition = resolveDefinition(definition);
     return definition;
   }
 
+  /**
+   * <p>The definition is taken from the cache without querying the database. Changes of its
+   * suspension state or history time to live invalidate the {@link LatestDefinitionIndex}, so
+   * the cached definition has the state of the query which has put its id into the index.</p>
+   *
+   * @return the definition with the id found in the {@link LatestDefinitionIndex}
+   *   or <code>null</code> if the key is not indexed
+   */
+  protected T findIndexedLatestDefinition(CommandContext commandContext, LatestDefinitionIndex.IndexKey indexKey) {
+    String definitionId = latestDefinitionIndex.getLatestDefinitionId(commandContext, indexKey);
+    if (definitionId == null) {
+      return null;
+    }
+
+    // prefer the entity of the current command which may have been changed by it
+    T definition = getManager().getCachedResourceDefinitionEntity(definitionId);
+    if (definition == null) {
+      definition = cache.get(definitionId);
+    }
+    if (definition == null) {
+      definition = getManager().findLatestDefinitionById(definitionId);
+    }
+    if (definition == null) {
+      // deleted by another process engine which has not changed the deployment version yet
+      latestDefinitionIndex.removeLatestDefinitionId(indexKey, definitionId);
+    }
+    return definition;
+  }
+
   public T findDeployedDefinitionByKeyVersionAndTenantId(final String definitionKey, final Integer definitionVersion, final String tenantId) {
     final CommandContext commandContext = Context.getCommandContext();
     T definition = commandContext.runWithoutAuthorization(new Callable<T>() {
@@ -109,26 +198,129 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
     String deploymentId = definition.getDeploymentId();
     T cachedDefinition = cache.get(definitionId);
     if (cachedDefinition == null) {
-      synchronized (this) {
-        cachedDefinition = cache.get(definitionId);
-        if (cachedDefinition == null) {
-          DeploymentEntity deployment = Context
-              .getCommandContext()
-              .getDeploymentManager()
-              .findDeploymentById(deploymentId);
-          deployment.setNew(false);
-          cacheDeployer.deployOnlyGivenResourcesOfDeployment(deployment, definition.getResourceName(), definition.getDiagramResourceName());
-          cachedDefinition = cache.get(definitionId);
-        }
-      }
+      metrics.markMiss();
+      cachedDefinition = loadDefinition(definition);
       checkInvalidDefinitionWasCached(deploymentId, definitionId, cachedDefinition);
     }
+    else {
+      metrics.markHit();
+    }
     if (cachedDefinition != null) {
       cachedDefinition.updateModifiableFieldsFromEntity(definition);
     }
     return cachedDefinition;
   }
 
+  /**
+   * Deploys the resource of the given definition into the cache. Concurrent calls for
+   * definitions of the same resource wait for the first one instead of parsing the resource
+   * again, calls for other resources do not block each other. A call made by the thread
+   * which loads the resource (e.g. from a parse listener) deploys the resource itself,
+   * since waiting for its own loading would block forever.
+   */
+  protected T loadDefinition(final T definition) {
+    final String definitionId = definition.getId();
+    String resourceKey = definition.getDeploymentId() + "/" + definition.getResourceName();
+
+    ResourceLoadingTask loadingTask = new ResourceLoadingTask(new Callable<DeploymentEntity>() {
+      public DeploymentEntity call() throws Exception {
+        // the definition may have been loaded by a call which completed in the meantime
+        if (cache.get(definitionId) != null) {
+          return null;
+        }
+
+        long start = metrics.startLoad();
+        try {
+          return deployResource(definition);
+        }
+        finally {
+          metrics.stopLoad(start);
+        }
+      }
+    });
+
+    DeploymentEntity deployment;
+    ResourceLoadingTask runningTask = loadingResources.putIfAbsent(resourceKey, loadingTask);
+    if (runningTask == null) {
+      // runs in the current thread and command context
+      try {
+        loadingTask.run();
+      }
+      finally {
+        loadingResources.remove(resourceKey, loadingTask);
+      }
+      deployment = awaitLoading(loadingTask, definitionId);
+    }
+    else if (runningTask.isLoadedBy(Thread.currentThread())) {
+      // re-entrant call while the resource is loaded
+      deployment = deployResource(definition);
+    }
+    else {
+      deployment = awaitLoading(runningTask, definitionId);
+    }
+
+    T cachedDefinition = cache.get(definitionId);
+    if (cachedDefinition == null) {
+      if (deployment == null) {
+        // the resource was loaded for another definition which was cached already
+        deployment = deployResource(definition);
+      }
+      // the cache may not have admitted the definition
+      cachedDefinition = findDeployedArtifact(deployment, definitionId);
+    }
+    return cachedDefinition;
+  }
+
+  protected DeploymentEntity awaitLoading(FutureTask<DeploymentEntity> loadingTask, String definitionId) {
+    try {
+      return loadingTask.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw LOG.interruptedWhileLoadingDefinition(definitionId, e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      else {
+        throw new ProcessEngineException(cause);
+      }
+    }
+  }
+
+  /**
+   * @return the deployment of the definition, holding the definitions of the resource as deployed artifacts
+   */
+  protected DeploymentEntity deployResource(T definition) {
+    DeploymentEntity deployment = Context
+        .getCommandContext()
+        .getDeploymentManager()
+        .findDeploymentById(definition.getDeploymentId());
+    deployment.setNew(false);
+    cacheDeployer.deployOnlyGivenResourcesOfDeployment(deployment, definition.getResourceName(), definition.getDiagramResourceName());
+    return deployment;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected T findDeployedArtifact(DeploymentEntity deployment, String definitionId) {
+    Map<Class<?>, List> deployedArtifacts = deployment.getDeployedArtifacts();
+    if (deployedArtifacts != null) {
+      for (List artifacts : deployedArtifacts.values()) {
+        for (Object artifact : artifacts) {
+          if (artifact instanceof ResourceDefinitionEntity && definitionId.equals(((ResourceDefinitionEntity) artifact).getId())) {
+            return (T) artifact;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
   public void addDefinition(T definition) {
     cache.put(definition.getId(), definition);
   }
@@ -149,6 +341,26 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
     return cache;
   }
 
+  public ResourceDefinitionCacheMetrics getMetrics() {
+    return metrics;
+  }
+
+  public LatestDefinitionIndex getLatestDefinitionIndex() {
+    return latestDefinitionIndex;
+  }
+
+  public void setLatestDefinitionIndex(LatestDefinitionIndex latestDefinitionIndex) {
+    this.latestDefinitionIndex = latestDefinitionIndex;
+  }
+
+  /**
+   * @return the name passed to a {@link NamedCacheFactory}, or <code>null</code>
+   *   if the cache is created without name
+   */
+  protected String getCacheName() {
+    return null;
+  }
+
   protected abstract AbstractResourceDefinitionManager<T> getManager();
 
   protected abstract void checkInvalidDefinitionId(String definitionId);
@@ -167,4 +379,20 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
 
   protected abstract void checkInvalidDefinitionWasCached(String deploymentId, String definitionId, T definition);
 
+  /**
+   * Loads a resource and remembers the thread which loads it.
+   */
+  protected static class ResourceLoadingTask extends FutureTask<DeploymentEntity> {
+
+    protected final Thread loadingThread = Thread.currentThread();
+
+    public ResourceLoadingTask(Callable<DeploymentEntity> callable) {
+      super(callable);
+    }
+
+    public boolean isLoadedBy(Thread thread) {
+      return loadingThread == thread;
+    }
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
+import org.camunda.bpm.engine.impl.metrics.StripedCounter;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+
+/**
+ * Counts the hits and misses of a {@link ResourceDefinitionCache} and measures how long
+ * it takes to load a missing definition into the cache. The values are cumulative
+ * since the process engine was built.
+ */
+public class ResourceDefinitionCacheMetrics {
+
+  protected StripedCounter hits = new StripedCounter();
+  protected StripedCounter misses = new StripedCounter();
+  protected Timer loadTime = new Timer("definition-load-time");
+
+  public void markHit() {
+    hits.add(1);
+  }
+
+  public void markMiss() {
+    misses.add(1);
+  }
+
+  public long startLoad() {
+    return loadTime.start();
+  }
+
+  public void stopLoad(long start) {
+    loadTime.stop(start);
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the durations of loading definitions in nanoseconds
+   */
+  public HistogramSnapshot getLoadTimes() {
+    return loadTime.getSnapshot();
+  }
+
+}
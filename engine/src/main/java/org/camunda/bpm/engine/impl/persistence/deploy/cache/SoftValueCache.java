@@ -0,0 +1,110 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Set;
+
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>Holds its values by soft references in a delegate cache, so that the garbage collector
+ * can reclaim them before the heap runs out. A value which was reclaimed is read as missing,
+ * i.e. it is loaded again by the {@link ModelInstanceCache}.</p>
+ *
+ * <p>Reclaimed values are removed from the delegate on the next access of this cache. Until
+ * then, they count against the size of the delegate and, for a {@link WeightedLfuCache},
+ * against its maximum weight with the weight they had when they were put.</p>
+ */
+public class SoftValueCache<K, V> implements Cache<K, V> {
+
+  protected Cache<K, SoftReference<V>> delegate;
+  protected ReferenceQueue<V> reclaimedValues = new ReferenceQueue<V>();
+
+  public SoftValueCache(Cache<K, SoftReference<V>> delegate) {
+    this.delegate = delegate;
+  }
+
+  public V get(K key) {
+    purgeReclaimedValues();
+
+    SoftReference<V> reference = delegate.get(key);
+    if (reference == null) {
+      return null;
+    }
+
+    V value = reference.get();
+    if (value == null) {
+      delegate.remove(key);
+    }
+    return value;
+  }
+
+  public void put(K key, V value) {
+    purgeReclaimedValues();
+    delegate.put(key, new KeyedSoftReference<K, V>(key, value, reclaimedValues));
+  }
+
+  public void remove(K key) {
+    delegate.remove(key);
+  }
+
+  public void clear() {
+    delegate.clear();
+  }
+
+  public boolean isEmpty() {
+    purgeReclaimedValues();
+    return delegate.isEmpty();
+  }
+
+  public Set<K> keySet() {
+    purgeReclaimedValues();
+    return delegate.keySet();
+  }
+
+  public int size() {
+    purgeReclaimedValues();
+    return delegate.size();
+  }
+
+  /**
+   * Removes the values which were reclaimed by the garbage collector, so that they do not
+   * take up the space of the delegate until they are read.
+   */
+  @SuppressWarnings("unchecked")
+  protected void purgeReclaimedValues() {
+    Reference<? extends V> reference;
+    while ((reference = reclaimedValues.poll()) != null) {
+      // a value which was put again for the key in the meantime is removed as well and loaded again
+      delegate.remove(((KeyedSoftReference<K, V>) reference).key);
+    }
+  }
+
+  public Cache<K, SoftReference<V>> getDelegate() {
+    return delegate;
+  }
+
+  protected static class KeyedSoftReference<K, V> extends SoftReference<V> {
+
+    protected final K key;
+
+    public KeyedSoftReference(K key, V value, ReferenceQueue<? super V> queue) {
+      super(value, queue);
+      this.key = key;
+    }
+  }
+
+}
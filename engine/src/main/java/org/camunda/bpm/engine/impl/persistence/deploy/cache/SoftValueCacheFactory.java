@@ -0,0 +1,53 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.lang.ref.SoftReference;
+
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>Creates {@link SoftValueCache}s on top of the caches of another factory. Used for
+ * the model instance caches of the {@link DeploymentCache} if the model instances should
+ * not be kept when the heap becomes scarce, since the process engine only needs them
+ * on demand and can parse them again.</p>
+ */
+public class SoftValueCacheFactory implements NamedCacheFactory {
+
+  protected CacheFactory delegate;
+
+  public SoftValueCacheFactory(CacheFactory delegate) {
+    this.delegate = delegate;
+  }
+
+  public <T> Cache<String, T> createCache(int maxNumberOfElementsInCache) {
+    Cache<String, SoftReference<T>> cache = delegate.createCache(maxNumberOfElementsInCache);
+    return new SoftValueCache<String, T>(cache);
+  }
+
+  public <T> Cache<String, T> createCache(String cacheName, int maxNumberOfElementsInCache) {
+    Cache<String, SoftReference<T>> cache;
+    if (delegate instanceof NamedCacheFactory) {
+      cache = ((NamedCacheFactory) delegate).createCache(cacheName, maxNumberOfElementsInCache);
+    }
+    else {
+      cache = delegate.createCache(maxNumberOfElementsInCache);
+    }
+    return new SoftValueCache<String, T>(cache);
+  }
+
+  public CacheFactory getDelegate() {
+    return delegate;
+  }
+
+}
@@ -0,0 +1,82 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>Creates {@link WeightedLfuCache}s which bound the caches of the {@link DeploymentCache}
+ * by the estimated memory retained by their values instead of the number of values. Each
+ * cache gets the budget configured for its name (see {@link CachePurgeReport} for the names)
+ * or the {@link #defaultMaxWeight}. The weights are estimated by the {@link #weigher}.</p>
+ *
+ * <p>The configured cache capacity only sizes the frequency sketches of the caches.</p>
+ */
+public class WeightedCacheFactory implements NamedCacheFactory {
+
+  /**
+   * 64 MB per cache. The budget is not shared: the deployment cache creates seven caches
+   * with this factory (the definition and model instance caches of BPMN, CMMN and DMN
+   * and the decision requirements definition cache), so they may retain up to 448 MB in
+   * total. Configure {@link #setMaxWeights(Map)} to budget the caches individually.
+   */
+  public static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+
+  protected long defaultMaxWeight = DEFAULT_MAX_WEIGHT;
+  protected Map<String, Long> maxWeights = new HashMap<String, Long>();
+  protected CacheEntryWeigher<Object> weigher = new DefinitionWeigher();
+
+  public <T> Cache<String, T> createCache(int maxNumberOfElementsInCache) {
+    return new WeightedLfuCache<String, T>(defaultMaxWeight, maxNumberOfElementsInCache, weigher);
+  }
+
+  public <T> Cache<String, T> createCache(String cacheName, int maxNumberOfElementsInCache) {
+    return new WeightedLfuCache<String, T>(getMaxWeight(cacheName), maxNumberOfElementsInCache, weigher);
+  }
+
+  public long getMaxWeight(String cacheName) {
+    Long maxWeight = maxWeights.get(cacheName);
+    return maxWeight != null ? maxWeight : defaultMaxWeight;
+  }
+
+  public long getDefaultMaxWeight() {
+    return defaultMaxWeight;
+  }
+
+  public void setDefaultMaxWeight(long defaultMaxWeight) {
+    this.defaultMaxWeight = defaultMaxWeight;
+  }
+
+  public Map<String, Long> getMaxWeights() {
+    return maxWeights;
+  }
+
+  /**
+   * @param maxWeights the maximum weight in bytes by cache name
+   */
+  public void setMaxWeights(Map<String, Long> maxWeights) {
+    this.maxWeights = maxWeights;
+  }
+
+  public CacheEntryWeigher<Object> getWeigher() {
+    return weigher;
+  }
+
+  public void setWeigher(CacheEntryWeigher<Object> weigher) {
+    this.weigher = weigher;
+  }
+
+}
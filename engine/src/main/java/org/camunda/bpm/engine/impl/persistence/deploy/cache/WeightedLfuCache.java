@@ -0,0 +1,272 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.camunda.bpm.engine.impl.metrics.StripedCounter;
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>A cache bounded by the estimated size of its values instead of their number. It
+ * follows the W-TinyLFU policy: new values enter a small window which holds 1% of the
+ * maximum weight. Values leaving the window are only admitted to the main space if they
+ * were accessed more often than the least recently used values they would evict, as
+ * approximated by a {@link FrequencySketch}. This keeps frequently used values from being
+ * evicted by a burst of values which are used only once.</p>
+ *
+ * <p>Reads do not block. Accesses are recorded only if no other thread holds the lock,
+ * so the recency and frequency of values under contention are approximate.</p>
+ */
+public class WeightedLfuCache<K, V> implements Cache<K, V> {
+
+  protected ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<K, Node<K, V>>();
+
+  // access ordered, guarded by the lock
+  protected LinkedHashMap<K, Node<K, V>> window = new LinkedHashMap<K, Node<K, V>>(16, 0.75f, true);
+  protected LinkedHashMap<K, Node<K, V>> main = new LinkedHashMap<K, Node<K, V>>(16, 0.75f, true);
+  protected long windowWeight;
+  protected long mainWeight;
+
+  protected ReentrantLock lock = new ReentrantLock();
+  protected FrequencySketch sketch;
+  protected CacheEntryWeigher<? super V> weigher;
+  protected long maxWeight;
+  protected long maxWindowWeight;
+
+  protected StripedCounter hits = new StripedCounter();
+  protected StripedCounter misses = new StripedCounter();
+
+  /**
+   * @param maxWeight the maximum total weight of the values
+   * @param expectedSize the expected number of values, sizes the frequency sketch
+   * @param weigher estimates the weight of a value
+   */
+  public WeightedLfuCache(long maxWeight, int expectedSize, CacheEntryWeigher<? super V> weigher) {
+    this.maxWeight = maxWeight;
+    this.maxWindowWeight = Math.max(1, maxWeight / 100);
+    this.sketch = new FrequencySketch(expectedSize);
+    this.weigher = weigher;
+  }
+
+  public V get(K key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      misses.add(1);
+    }
+    else {
+      hits.add(1);
+    }
+
+    if (lock.tryLock()) {
+      try {
+        sketch.increment(key);
+        if (node != null) {
+          // moves the node to the most recently used position
+          (node.isInWindow ? window : main).get(key);
+        }
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    return node != null ? node.value : null;
+  }
+
+  public void put(K key, V value) {
+    long weight = weigher.weigh(value);
+
+    lock.lock();
+    try {
+      sketch.increment(key);
+      removeNode(key);
+
+      if (weight > maxWeight) {
+        // would evict everything else
+        return;
+      }
+
+      Node<K, V> node = new Node<K, V>(key, value, weight);
+      data.put(key, node);
+      window.put(key, node);
+      windowWeight += weight;
+
+      evict();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public void remove(K key) {
+    lock.lock();
+    try {
+      removeNode(key);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public void clear() {
+    lock.lock();
+    try {
+      data.clear();
+      window.clear();
+      main.clear();
+      windowWeight = 0;
+      mainWeight = 0;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean isEmpty() {
+    return data.isEmpty();
+  }
+
+  public Set<K> keySet() {
+    return Collections.unmodifiableSet(new HashSet<K>(data.keySet()));
+  }
+
+  public int size() {
+    return data.size();
+  }
+
+  /**
+   * Moves the least recently used values out of the window, except the value which was
+   * put last, so that it can be read after it was put.
+   */
+  protected void evict() {
+    while (windowWeight > maxWindowWeight && window.size() > 1) {
+      Node<K, V> candidate = window.values().iterator().next();
+      window.remove(candidate.key);
+      windowWeight -= candidate.weight;
+      admit(candidate);
+    }
+
+    // the value put last may exceed the window on its own
+    while (mainWeight > maxWeight - windowWeight && !main.isEmpty()) {
+      removeFromMain(main.values().iterator().next());
+    }
+  }
+
+  /**
+   * Admits the candidate only if it was accessed more often than each of the values it
+   * would evict. The main space is left unchanged if the candidate is rejected.
+   */
+  protected void admit(Node<K, V> candidate) {
+    long excessWeight = mainWeight + candidate.weight - (maxWeight - windowWeight);
+    if (excessWeight > 0) {
+      int candidateFrequency = sketch.frequency(candidate.key);
+
+      List<Node<K, V>> victims = new ArrayList<Node<K, V>>();
+      Iterator<Node<K, V>> leastRecentlyUsed = main.values().iterator();
+      while (excessWeight > 0) {
+        if (!leastRecentlyUsed.hasNext()) {
+          // does not fit next to the window
+          data.remove(candidate.key, candidate);
+          return;
+        }
+
+        Node<K, V> victim = leastRecentlyUsed.next();
+        if (candidateFrequency <= sketch.frequency(victim.key)) {
+          data.remove(candidate.key, candidate);
+          return;
+        }
+        victims.add(victim);
+        excessWeight -= victim.weight;
+      }
+
+      for (Node<K, V> victim : victims) {
+        removeFromMain(victim);
+      }
+    }
+
+    candidate.isInWindow = false;
+    main.put(candidate.key, candidate);
+    mainWeight += candidate.weight;
+  }
+
+  protected void removeFromMain(Node<K, V> node) {
+    main.remove(node.key);
+    mainWeight -= node.weight;
+    data.remove(node.key, node);
+  }
+
+  protected void removeNode(K key) {
+    Node<K, V> node = data.remove(key);
+    if (node != null) {
+      if (node.isInWindow) {
+        window.remove(key);
+        windowWeight -= node.weight;
+      }
+      else {
+        main.remove(key);
+        mainWeight -= node.weight;
+      }
+    }
+  }
+
+  /**
+   * @return the estimated total weight of the cached values
+   */
+  public long getWeight() {
+    lock.lock();
+    try {
+      return windowWeight + mainWeight;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  protected static class Node<K, V> {
+
+    protected final K key;
+    protected final V value;
+    protected final long weight;
+    /** guarded by the lock of the cache */
+    protected boolean isInWindow = true;
+
+    public Node(K key, V value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+}
@@ -13,8 +13,12 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxSession;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,6 +26,8 @@ import java.util.List;
  */
 public class ByteArrayManager extends AbstractManager {
 
+  protected static final int HISTORY_OUTBOX_DELETE_BATCH_SIZE = 100;
+
   /**
    * Deletes the {@link ByteArrayEntity} with the given id from the database.
    * Important: this operation will NOT do any optimistic locking, to avoid loading the
@@ -36,4 +42,47 @@ public class ByteArrayManager extends AbstractManager {
     getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArraysByIds", byteArrayEntityIds);
   }
 
+  /**
+   * Selects the history outbox entries, i.e. the {@link ByteArrayEntity byte arrays}
+   * whose name starts with the given prefix, in the order of their names.
+   */
+  @SuppressWarnings("unchecked")
+  public List<ByteArrayEntity> findHistoryOutboxEntries(String namePrefix, int maxResults) {
+    ListQueryParameterObject parameter = new ListQueryParameterObject(namePrefix + "%", 0, maxResults);
+    return getDbEntityManager().selectList("selectHistoryOutboxEntries", parameter);
+  }
+
+  public long findHistoryOutboxEntryCount(String namePrefix) {
+    return (Long) getDbEntityManager().selectOne("selectHistoryOutboxEntryCount", namePrefix + "%");
+  }
+
+  /**
+   * @return the greatest name of the history outbox entries whose name starts
+   * with the given prefix or <code>null</code> if there is no such entry
+   */
+  public String findLastHistoryOutboxEntryName(String namePrefix) {
+    return (String) getDbEntityManager().selectOne("selectLastHistoryOutboxEntryName", escapeLikePattern(namePrefix) + "%");
+  }
+
+  /**
+   * Deletes the history outbox entries of the given process instances which have not been drained yet.
+   */
+  public void deleteHistoryOutboxEntriesByProcessInstanceIds(List<String> processInstanceIds) {
+    List<String> namePrefixes = new ArrayList<String>();
+    for (String processInstanceId : processInstanceIds) {
+      namePrefixes.add(escapeLikePattern(HistoryOutboxSession.getEntryNamePrefix(processInstanceId)) + "%");
+    }
+
+    for (List<String> namePrefixBatch : CollectionUtil.partition(namePrefixes, HISTORY_OUTBOX_DELETE_BATCH_SIZE)) {
+      getDbEntityManager().delete(ByteArrayEntity.class, "deleteHistoryOutboxEntriesByNamePrefixes", namePrefixBatch);
+    }
+  }
+
+  protected String escapeLikePattern(String value) {
+    return value
+      .replace("\\", "\\\\")
+      .replace("%", "\\%")
+      .replace("_", "\\_");
+  }
+
 }
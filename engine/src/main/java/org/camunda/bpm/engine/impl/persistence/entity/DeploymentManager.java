@@ -19,12 +19,17 @@ import org.camunda.bpm.engine.authorization.Resources;
 import org.camunda.bpm.engine.impl.DeploymentQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.cfg.auth.ResourceAuthorizationProvider;
+import org.camunda.bpm.engine.impl.cmd.PublishDeploymentVersionCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionManager;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionRequirementsDefinitionManager;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LatestDefinitionIndex;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LatestDefinitionIndexInvalidation;
 import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.DecisionDefinition;
 import org.camunda.bpm.engine.repository.DecisionRequirementsDefinition;
@@ -39,6 +44,8 @@ import org.camunda.bpm.engine.repository.ProcessDefinition;
  */
 public class DeploymentManager extends AbstractManager {
 
+  protected boolean isLatestDefinitionIndexInvalidated = false;
+
   public void insertDeployment(DeploymentEntity deployment) {
     getDbEntityManager().insert(deployment);
     createDefaultAuthorizations(deployment);
@@ -52,6 +59,35 @@ public class DeploymentManager extends AbstractManager {
       .getProcessEngineConfiguration()
       .getDeploymentCache()
       .deploy(deployment);
+
+    invalidateLatestDefinitionIndex();
+  }
+
+  /**
+   * Clears the index of the latest definitions of all process engines when the
+   * transaction is committed. Must be called when definitions are inserted or deleted
+   * and when their suspension state or history time to live is changed.
+   *
+   * <p>The deployment version is incremented within the transaction, so that it is
+   * committed (or rolled back) together with the changed definitions.</p>
+   */
+  public void invalidateLatestDefinitionIndex() {
+    LatestDefinitionIndex latestDefinitionIndex = Context
+      .getProcessEngineConfiguration()
+      .getDeploymentCache()
+      .getLatestDefinitionIndex();
+
+    if (latestDefinitionIndex != null && !isLatestDefinitionIndexInvalidated) {
+      // once per transaction
+      isLatestDefinitionIndexInvalidated = true;
+
+      CommandContext commandContext = Context.getCommandContext();
+      new PublishDeploymentVersionCmd().execute(commandContext);
+
+      commandContext
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new LatestDefinitionIndexInvalidation(latestDefinitionIndex));
+    }
   }
 
   public void deleteDeployment(String deploymentId, boolean cascade) {
@@ -112,6 +148,7 @@ public class DeploymentManager extends AbstractManager {
     deleteAuthorizations(Resources.DEPLOYMENT, deploymentId);
     getDbEntityManager().delete(DeploymentEntity.class, "deleteDeployment", deploymentId);
 
+    invalidateLatestDefinitionIndex();
   }
 
   protected void deleteCaseDeployment(String deploymentId, boolean cascade) {
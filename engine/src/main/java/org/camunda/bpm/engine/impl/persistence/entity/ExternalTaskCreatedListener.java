@@ -15,6 +15,8 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Set;
+
 /**
  * Implements an observer/listener for External Task creation
  *
@@ -23,7 +25,9 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 public interface ExternalTaskCreatedListener {
 
   /**
-   * Callback invoked after an ExternalTask is created
+   * Callback invoked after ExternalTasks are created
+   *
+   * @param topicNames the topics of the created ExternalTasks
    */
-  public void onExternalTaskCreated();
+  public void onExternalTaskCreated(Set<String> topicNames);
 }
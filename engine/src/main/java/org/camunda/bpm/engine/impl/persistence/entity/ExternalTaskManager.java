@@ -19,11 +19,14 @@ import org.camunda.bpm.engine.impl.Direction;
 import org.camunda.bpm.engine.impl.ExternalTaskQueryImpl;
 import org.camunda.bpm.engine.impl.ExternalTaskQueryProperty;
 import org.camunda.bpm.engine.impl.QueryOrderingProperty;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskNotificationChannel;
 import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
@@ -37,13 +40,18 @@ public class ExternalTaskManager extends AbstractManager {
 
   public static QueryOrderingProperty EXT_TASK_PRIORITY_ORDERING_PROPERTY = new QueryOrderingProperty(ExternalTaskQueryProperty.PRIORITY, Direction.DESCENDING);
 
+  /**
+   * The topics of the external tasks created by the current command or null if none were created.
+   */
+  protected Set<String> createdExternalTaskTopics;
+
   public ExternalTaskEntity findExternalTaskById(String id) {
     return getDbEntityManager().selectById(ExternalTaskEntity.class, id);
   }
 
   public void insert(ExternalTaskEntity externalTask) {
     getDbEntityManager().insert(externalTask);
-    fireExternalTaskCreatedEvent();
+    fireExternalTaskCreatedEvent(externalTask.getTopicName());
   }
 
   public void delete(ExternalTaskEntity externalTask) {
@@ -61,6 +69,15 @@ public class ExternalTaskManager extends AbstractManager {
   }
 
   public List<ExternalTaskEntity> selectExternalTasksForTopics(Collection<TopicFetchInstruction> queryFilters, boolean filterByBusinessKey, int maxResults, boolean usePriority) {
+    return selectExternalTasksForTopics(queryFilters, filterByBusinessKey, maxResults, usePriority, false);
+  }
+
+  /**
+   * @param skipLocked if true and supported by the database, the selected external tasks are
+   * locked in the database and external tasks locked by other transactions are skipped.
+   * Not applied if the authorization check is enabled.
+   */
+  public List<ExternalTaskEntity> selectExternalTasksForTopics(Collection<TopicFetchInstruction> queryFilters, boolean filterByBusinessKey, int maxResults, boolean usePriority, boolean skipLocked) {
     if (queryFilters.isEmpty()) {
       return new ArrayList<ExternalTaskEntity>();
     }
@@ -78,9 +95,75 @@ public class ExternalTaskManager extends AbstractManager {
     configureQuery(parameter);
 
     DbEntityManager manager = getDbEntityManager();
+    if (skipLocked
+        && Context.getProcessEngineConfiguration().getDbSqlSessionFactory().isSkipLockedSupported()
+        && !parameter.getAuthCheck().isAuthorizationCheckEnabled()) {
+      // the rows are locked while they are read, reading no more rows than needed locks no more tasks than needed
+      return manager.selectListWithRowBounds("selectExternalTasksForTopicsSkipLocked", parameter);
+    }
+
     return manager.selectList("selectExternalTasksForTopics", parameter);
   }
 
+  /**
+   * @return the topics of the external tasks which are neither locked nor suspended and have retries left
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> selectTopicNamesOfFetchableExternalTasks() {
+    return getDbEntityManager().selectList("selectTopicNamesOfFetchableExternalTasks", ClockUtil.getCurrentTime());
+  }
+
+  /**
+   * Locks the given external tasks with a single update statement which checks the revision
+   * of each task. In contrast to {@link ExternalTaskEntity#lock(String, long)}, the statement is
+   * executed immediately and external tasks which were updated concurrently are left out
+   * instead of causing an optimistic locking failure on flush.
+   *
+   * @return the external tasks which were locked
+   */
+  @SuppressWarnings("unchecked")
+  public List<ExternalTaskEntity> lockExternalTasks(List<ExternalTaskEntity> externalTasks, String workerId, Date lockExpirationTime) {
+    if (externalTasks.isEmpty()) {
+      return new ArrayList<ExternalTaskEntity>();
+    }
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("externalTasks", externalTasks);
+    parameters.put("workerId", workerId);
+    parameters.put("lockExpirationTime", lockExpirationTime);
+
+    ListQueryParameterObject parameter = new ListQueryParameterObject();
+    parameter.setParameter(parameters);
+
+    int updatedRows = getDbSqlSession().executeImmediateUpdate("updateExternalTaskLocks", parameter);
+
+    List<ExternalTaskEntity> lockedExternalTasks = new ArrayList<ExternalTaskEntity>(externalTasks);
+    if (updatedRows < externalTasks.size()) {
+      // some tasks were updated concurrently (or the driver did not report the number of updated rows);
+      // the locked ones have the next revision now
+      List<String> lockedIds = getDbEntityManager().selectList("selectExternalTaskIdsLockedByWorker", parameter);
+
+      Iterator<ExternalTaskEntity> it = lockedExternalTasks.iterator();
+      while (it.hasNext()) {
+        if (!lockedIds.contains(it.next().getId())) {
+          it.remove();
+        }
+      }
+    }
+
+    DbEntityCache entityCache = getDbEntityManager().getDbEntityCache();
+    for (ExternalTaskEntity externalTask : lockedExternalTasks) {
+      externalTask.setWorkerId(workerId);
+      externalTask.setLockExpirationTime(lockExpirationTime);
+      externalTask.setRevision(externalTask.getRevisionNext());
+
+      // the entity matches the database state again and must not be flushed
+      entityCache.putPersistent(externalTask);
+    }
+
+    return lockedExternalTasks;
+  }
+
   public List<ExternalTask> findExternalTasksByQueryCriteria(ExternalTaskQueryImpl externalTaskQuery) {
     configureQuery(externalTaskQuery);
     return getDbEntityManager().selectList("selectExternalTaskByQueryCriteria", externalTaskQuery);
@@ -142,17 +225,29 @@ public class ExternalTaskManager extends AbstractManager {
     return getTenantManager().configureQuery(parameter);
   }
 
-  public void fireExternalTaskCreatedEvent() {
+  public void fireExternalTaskCreatedEvent(String topicName) {
+    if (createdExternalTaskTopics == null) {
+      // the listeners are notified once per transaction
+      final Set<String> topicNames = new HashSet<String>();
+      createdExternalTaskTopics = topicNames;
+
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+          @Override
+          public void execute(CommandContext commandContext) {
+            ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+            processEngineConfiguration.notifyExternalTaskCreatedListeners(topicNames);
+
+            ExternalTaskNotificationChannel notificationChannel = processEngineConfiguration.getExternalTaskNotificationChannel();
+            if (notificationChannel != null) {
+              notificationChannel.externalTasksCreated(topicNames);
+            }
+          }
+        });
+    }
 
-    Context.getCommandContext()
-      .getTransactionContext()
-      .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
-        @Override
-        public void execute(CommandContext commandContext) {
-          commandContext.getProcessEngineConfiguration()
-            .notifyExternalTaskCreatedListeners();
-        }
-      });
+    createdExternalTaskTopics.add(topicName);
   }
 }
 
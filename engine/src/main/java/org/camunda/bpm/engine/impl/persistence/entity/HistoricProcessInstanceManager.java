@@ -27,6 +27,7 @@ import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxSession;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -65,6 +66,12 @@ public class HistoricProcessInstanceManager extends AbstractHistoricManager {
   public void deleteHistoricProcessInstanceByIds(List<String> processInstanceIds) {
     CommandContext commandContext = Context.getCommandContext();
 
+    if (commandContext.getProcessEngineConfiguration().isHistoryOutboxEnabled()) {
+      // history which has not been drained yet would otherwise be written after the deletion
+      commandContext.getSession(HistoryOutboxSession.class).discardHistoryEvents(processInstanceIds);
+      commandContext.getByteArrayManager().deleteHistoryOutboxEntriesByProcessInstanceIds(processInstanceIds);
+    }
+
     commandContext.getHistoricDetailManager().deleteHistoricDetailsByProcessInstanceIds(processInstanceIds);
     commandContext.getHistoricVariableInstanceManager().deleteHistoricVariableInstanceByProcessInstanceIds(processInstanceIds);
     commandContext.getCommentManager().deleteCommentsByProcessInstanceIds(processInstanceIds);
@@ -113,6 +113,9 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   // sequence counter //////////////////////////
   protected long sequenceCounter = 1;
 
+  // acquisition partition /////////////////////
+  protected Integer partition;
+
   public void execute(CommandContext commandContext) {
     if (executionId != null) {
       ExecutionEntity execution = getExecution();
@@ -251,6 +254,16 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     sequenceCounter++;
   }
 
+  // acquisition partition ////////////////////////////////////////////////////
+
+  public Integer getPartition() {
+    return partition;
+  }
+
+  public void setPartition(Integer partition) {
+    this.partition = partition;
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public String getExecutionId() {
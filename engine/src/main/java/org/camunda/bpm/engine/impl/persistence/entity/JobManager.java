@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import org.camunda.bpm.engine.impl.*;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
@@ -46,12 +47,18 @@ public class JobManager extends AbstractManager {
     JOB_DUEDATE_ORDERING_PROPERTY.setDirection(Direction.ASCENDING);
   }
 
+  protected boolean isJobNotificationChannelHinted = false;
+  protected LocalJobHandOff localJobHandOff;
+
   public void updateJob(JobEntity job) {
     getDbEntityManager().merge(job);
   }
 
   public void insertJob(JobEntity job) {
     getDbEntityManager().insert(job);
+    // the id is assigned on insert
+    int partitionCount = Context.getProcessEngineConfiguration().getJobExecutorPartitionCount();
+    job.setPartition(JobPartitioning.getPartition(job.getId(), partitionCount));
     getHistoricJobLogManager().fireJobCreatedEvent(job);
   }
 
@@ -110,6 +117,7 @@ public class JobManager extends AbstractManager {
   protected void hintJobExecutor(JobEntity job) {
     JobExecutor jobExecutor = Context.getProcessEngineConfiguration().getJobExecutor();
     if (!jobExecutor.isActive()) {
+      hintJobExecutorsOfOtherNodes(job);
       return;
     }
 
@@ -121,19 +129,89 @@ public class JobManager extends AbstractManager {
             && jobExecutorContext.isExecutingExclusiveJob()
             && areInSameProcessInstance(job, jobExecutorContext.getCurrentJob())) {
       // lock job & add to the queue of the current processor
-      Date currentTime = ClockUtil.getCurrentTime();
-      job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
-      job.setLockOwner(jobExecutor.getLockOwner());
+      lockJob(job, jobExecutor);
       transactionListener = new ExclusiveJobAddedNotification(job.getId(), jobExecutorContext);
+    } else if (isLocalHandOffPossible(job, jobExecutorContext, jobExecutor)) {
+      // lock job & submit it to the job executor after commit, without acquiring it
+      lockJob(job, jobExecutor);
+      handOffLocally(job, jobExecutor);
+      return;
     } else {
       // notify job executor:
       transactionListener = new MessageAddedNotification(jobExecutor);
+      hintJobExecutorsOfOtherNodes(job);
     }
     Context.getCommandContext()
       .getTransactionContext()
       .addTransactionListener(TransactionState.COMMITTED, transactionListener);
   }
 
+  protected void lockJob(JobEntity job, JobExecutor jobExecutor) {
+    Date currentTime = ClockUtil.getCurrentTime();
+    job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
+    job.setLockOwner(jobExecutor.getLockOwner());
+  }
+
+  /**
+   * Exclusive jobs are left to the acquisition, which does not execute exclusive jobs of
+   * a process instance concurrently.
+   */
+  protected boolean isLocalHandOffPossible(JobEntity job, JobExecutorContext jobExecutorContext, JobExecutor jobExecutor) {
+    if (!Context.getProcessEngineConfiguration().isJobExecutorLocalHandOffEnabled()
+        || jobExecutorContext == null
+        || job.isExclusive()
+        || job.isSuspended()
+        || !isDue(job)
+        || !isDeploymentRegistered(job)) {
+      return false;
+    }
+
+    // leave the job to the acquisition if the job executor is known to be saturated
+    String processEngineName = Context.getProcessEngineConfiguration().getProcessEngineName();
+    return jobExecutor.getAvailableExecutionCapacity(processEngineName) != 0;
+  }
+
+  /**
+   * A deployment aware job executor must only execute jobs which it would acquire as well,
+   * i.e. jobs without a deployment or of a deployment registered with the process engine.
+   */
+  protected boolean isDeploymentRegistered(JobEntity job) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return !processEngineConfiguration.isJobExecutorDeploymentAware()
+        || job.getDeploymentId() == null
+        || processEngineConfiguration.getRegisteredDeployments().contains(job.getDeploymentId());
+  }
+
+  protected void handOffLocally(JobEntity job, JobExecutor jobExecutor) {
+    if (localJobHandOff == null) {
+      localJobHandOff = new LocalJobHandOff(jobExecutor);
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, localJobHandOff);
+    }
+    localJobHandOff.addJob(job.getId());
+  }
+
+  protected void hintJobExecutorsOfOtherNodes(JobEntity job) {
+    JobNotificationChannel jobNotificationChannel = Context.getProcessEngineConfiguration().getJobNotificationChannel();
+    if (jobNotificationChannel == null || isJobNotificationChannelHinted || job.isSuspended()) {
+      return;
+    }
+
+    if (isDue(job)) {
+      // one notification per transaction
+      isJobNotificationChannelHinted = true;
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new ClusterJobAddedNotification(jobNotificationChannel));
+    }
+  }
+
+  protected boolean isDue(JobEntity job) {
+    Date duedate = job.getDuedate();
+    return duedate == null || !duedate.after(ClockUtil.getCurrentTime());
+  }
+
   protected boolean areInSameProcessInstance(JobEntity job1, JobEntity job2) {
     if (job1 == null || job2 == null) {
       return false;
@@ -160,8 +238,40 @@ public class JobManager extends AbstractManager {
     return (JobEntity) getDbEntityManager().selectOne("selectJob", jobId);
   }
 
-  @SuppressWarnings("unchecked")
   public List<JobEntity> findNextJobsToExecute(Page page) {
+    return findNextJobsToExecute(page, null);
+  }
+
+  /**
+   * @param partitions the job partitions to acquire jobs from, or <code>null</code> to acquire jobs from all partitions
+   */
+  public List<JobEntity> findNextJobsToExecute(Page page, Set<Integer> partitions) {
+    return selectNextJobsToExecute("selectNextJobsToExecute", page, partitions);
+  }
+
+  /**
+   * Like {@link #findNextJobsToExecute(Page, Set)}, but the selected jobs are locked in the
+   * database and jobs locked by other transactions are skipped. Falls back to
+   * {@link #findNextJobsToExecute(Page, Set)} if the database does not support it.
+   */
+  public List<JobEntity> findNextJobsToExecuteSkipLocked(Page page, Set<Integer> partitions) {
+    if (Context.getProcessEngineConfiguration().getDbSqlSessionFactory().isSkipLockedSupported()) {
+      ListQueryParameterObject parameter = new ListQueryParameterObject(
+          createNextJobsToExecuteParameters(partitions), page.getFirstResult(), page.getMaxResults());
+      // the rows are locked while they are read, reading no more rows than needed locks no more jobs than needed
+      return getDbEntityManager().selectListWithRowBounds("selectNextJobsToExecuteSkipLocked", parameter);
+    }
+    else {
+      return findNextJobsToExecute(page, partitions);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<JobEntity> selectNextJobsToExecute(String statement, Page page, Set<Integer> partitions) {
+    return getDbEntityManager().selectList(statement, createNextJobsToExecuteParameters(partitions), page);
+  }
+
+  protected Map<String, Object> createNextJobsToExecuteParameters(Set<Integer> partitions) {
     Map<String,Object> params = new HashMap<String, Object>();
     Date now = ClockUtil.getCurrentTime();
     params.put("now", now);
@@ -184,11 +294,16 @@ public class JobManager extends AbstractManager {
       orderingProperties.add(JOB_DUEDATE_ORDERING_PROPERTY);
     }
 
+    if (partitions != null) {
+      params.put("partitions", partitions);
+      params.put("partitionCount", Context.getProcessEngineConfiguration().getJobExecutorPartitionCount());
+    }
+
     params.put("orderingProperties", orderingProperties);
     // don't apply default sorting
     params.put("applyOrdering", !orderingProperties.isEmpty());
 
-    return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    return params;
   }
 
   @SuppressWarnings("unchecked")
@@ -36,6 +36,18 @@ public class MeterLogManager extends AbstractManager {
   public static final String SELECT_METER_SUM = "selectMeterLogSum";
   public static final String DELETE_ALL_METER = "deleteAllMeterLogEntries";
   public static final String DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER = "deleteMeterLogEntriesByTimestampAndReporter";
+  public static final String DELETE_ALL_ROLLUP = "deleteAllMeterRollups";
+  public static final String DELETE_ALL_ROLLUP_BY_TIMESTAMP_AND_REPORTER = "deleteMeterRollupsByTimestampAndReporter";
+  public static final String SELECT_METER_LOGS_FOR_ROLLUP = "selectMeterLogsAggregatedForRollup";
+  public static final String SELECT_ROLLUPS_FOR_ROLLUP = "selectMeterRollupsAggregatedForRollup";
+  public static final String SELECT_FIRST_METER_LOG_MILLISECONDS = "selectFirstMeterLogMilliseconds";
+  public static final String SELECT_FIRST_ROLLUP_MILLISECONDS = "selectFirstMeterRollupMilliseconds";
+  public static final String SELECT_LAST_ROLLUP_MILLISECONDS = "selectLastMeterRollupMilliseconds";
+
+  /**
+   * rollup periods which can replace the meter logs in queries, coarsest first
+   */
+  protected static final int[] ROLLUP_PERIODS = { MeterRollupEntity.PERIOD_DAY, MeterRollupEntity.PERIOD_HOUR };
 
   public void insert(MeterLogEntity meterLogEntity) {
     getDbEntityManager()
@@ -43,6 +55,12 @@ public class MeterLogManager extends AbstractManager {
   }
 
   public Long executeSelectSum(MetricsQueryImpl query) {
+    query.setRollup(null, null, null);
+    query.setRollupWithinIntervalsOnly(false, null);
+    if (isMetricsRollupEnabled()) {
+      applyRollup(query, MeterRollupEntity.PERIOD_HOUR);
+    }
+
     Long result = (Long) getDbEntityManager().selectOne(SELECT_METER_SUM, query);
     result = result != null ? result : 0;
 
@@ -60,6 +78,26 @@ public class MeterLogManager extends AbstractManager {
   }
 
   public List<MetricIntervalValue> executeSelectInterval(MetricsQueryImpl query) {
+    query.setRollup(null, null, null);
+    query.setRollupWithinIntervalsOnly(false, null);
+    if (isMetricsRollupEnabled()) {
+      // the coarsest rollup whose periods do not overlap the requested intervals
+      for (int period : ROLLUP_PERIODS) {
+        if (query.getInterval() % period == 0 && applyRollup(query, period)) {
+          break;
+        }
+      }
+
+      if (query.getRollupPeriod() == null && applyRollup(query, MeterRollupEntity.PERIOD_HOUR)) {
+        // the intervals are not made of whole hours: the hours within an interval are read
+        // from the rollups, the others from the meter logs. Hours whose meter logs are
+        // deleted already are read from the rollups and counted for the interval of their start.
+        Long firstMeterLog = findFirstMeterLogMilliseconds(null);
+        long rawLogsFrom = firstMeterLog != null ? floor(firstMeterLog, MeterRollupEntity.PERIOD_HOUR) : query.getRollupToMilliseconds();
+        query.setRollupWithinIntervalsOnly(true, rawLogsFrom);
+      }
+    }
+
     List<MetricIntervalValue> intervalResult = getDbEntityManager().selectList(SELECT_METER_INTERVAL, query);
     intervalResult = intervalResult != null ? intervalResult : new ArrayList<MetricIntervalValue>();
 
@@ -106,8 +144,140 @@ public class MeterLogManager extends AbstractManager {
 
   }
 
+  /**
+   * Lets the query read the rollups of the given period instead of the meter logs for the
+   * whole periods between the start date and the end of the rolled up data.
+   *
+   * @return true if the query reads rollups
+   */
+  protected boolean applyRollup(MetricsQueryImpl query, int period) {
+    Long rolledUpUntil = findRollupEnd(period);
+    if (rolledUpUntil == null) {
+      return false;
+    }
+
+    long periodMillis = period * 1000L;
+
+    long from = 0;
+    if (query.getStartDateMilliseconds() != null) {
+      from = (query.getStartDateMilliseconds() + periodMillis - 1) / periodMillis * periodMillis;
+    }
+
+    long to = rolledUpUntil;
+    if (query.getEndDateMilliseconds() != null) {
+      to = Math.min(to, query.getEndDateMilliseconds() / periodMillis * periodMillis);
+    }
+
+    if (from >= to) {
+      return false;
+    }
+
+    query.setRollup(period, from, to);
+    return true;
+  }
+
+  protected static long floor(long milliseconds, int period) {
+    long periodMillis = period * 1000L;
+    return milliseconds / periodMillis * periodMillis;
+  }
+
+  protected boolean isMetricsRollupEnabled() {
+    return Context.getProcessEngineConfiguration().isMetricsRollupEnabled();
+  }
+
+  // rollups //////////////////////////////////////////
+
+  public void insertRollup(MeterRollupEntity meterRollupEntity) {
+    getDbEntityManager()
+      .insert(meterRollupEntity);
+  }
+
+  /**
+   * @return the end of the last rollup of the given period, i.e. all meter logs before
+   *   are contained in rollups of that period; null if there are no such rollups
+   */
+  public Long findRollupEnd(int period) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("period", period);
+    Long lastRollup = (Long) getDbEntityManager().selectOne(SELECT_LAST_ROLLUP_MILLISECONDS, parameters);
+    if (lastRollup == null) {
+      return null;
+    }
+    return lastRollup + period * 1000L;
+  }
+
+  /**
+   * @return the milliseconds of the oldest meter log not before the given milliseconds
+   *   or null if there is no such meter log
+   */
+  public Long findFirstMeterLogMilliseconds(Long fromMilliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("fromMilliseconds", fromMilliseconds);
+    return (Long) getDbEntityManager().selectOne(SELECT_FIRST_METER_LOG_MILLISECONDS, parameters);
+  }
+
+  /**
+   * @return the milliseconds of the oldest rollup of the given period not before the
+   *   given milliseconds or null if there is no such rollup
+   */
+  public Long findFirstRollupMilliseconds(int period, Long fromMilliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("period", period);
+    parameters.put("fromMilliseconds", fromMilliseconds);
+    return (Long) getDbEntityManager().selectOne(SELECT_FIRST_ROLLUP_MILLISECONDS, parameters);
+  }
+
+  /**
+   * Sums up the meter logs within the given range into rollups of the given period.
+   *
+   * @return the number of created rollups
+   */
+  public int rollupMeterLogs(int period, long fromMilliseconds, long toMilliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("period", period);
+    parameters.put("fromMilliseconds", fromMilliseconds);
+    parameters.put("toMilliseconds", toMilliseconds);
+    return insertRollups(period, SELECT_METER_LOGS_FOR_ROLLUP, parameters);
+  }
+
+  /**
+   * Sums up the rollups of the source period within the given range into rollups of the
+   * given period.
+   *
+   * @return the number of created rollups
+   */
+  public int rollupRollups(int sourcePeriod, int period, long fromMilliseconds, long toMilliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("sourcePeriod", sourcePeriod);
+    parameters.put("period", period);
+    parameters.put("fromMilliseconds", fromMilliseconds);
+    parameters.put("toMilliseconds", toMilliseconds);
+    return insertRollups(period, SELECT_ROLLUPS_FOR_ROLLUP, parameters);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected int insertRollups(int period, String statement, Map<String, Object> parameters) {
+    List<MetricIntervalEntity> sums = getDbEntityManager()
+      .selectListWithRawParameter(statement, parameters, 0, Integer.MAX_VALUE);
+
+    for (MetricIntervalEntity sum : sums) {
+      insertRollup(new MeterRollupEntity(sum.getName(), sum.getReporter(), period, sum.getTimestamp().getTime(), sum.getValue()));
+    }
+    return sums.size();
+  }
+
+  /**
+   * Deletes the meter logs before the given milliseconds of all reporters.
+   */
+  public void deleteMeterLogsBefore(long milliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("milliseconds", milliseconds - 1);
+    getDbEntityManager().delete(MeterLogEntity.class, DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER, parameters);
+  }
+
   public void deleteAll() {
     getDbEntityManager().delete(MeterLogEntity.class, DELETE_ALL_METER, null);
+    getDbEntityManager().delete(MeterRollupEntity.class, DELETE_ALL_ROLLUP, null);
   }
 
   public void deleteByTimestampAndReporter(Date timestamp, String reporter) {
@@ -117,6 +287,7 @@ public class MeterLogManager extends AbstractManager {
     }
     parameters.put("reporter", reporter);
     getDbEntityManager().delete(MeterLogEntity.class, DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER, parameters);
+    getDbEntityManager().delete(MeterRollupEntity.class, DELETE_ALL_ROLLUP_BY_TIMESTAMP_AND_REPORTER, parameters);
   }
 
 }
@@ -0,0 +1,125 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbReferences;
+
+/**
+ * Sum of the meter log values of one metric and reporter within a period,
+ * e.g. an hour or a day, starting at the given milliseconds.
+ */
+public class MeterRollupEntity implements DbEntity, HasDbReferences, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final int PERIOD_HOUR = 60 * 60;
+  public static final int PERIOD_DAY = 24 * PERIOD_HOUR;
+
+  protected String id;
+
+  protected String name;
+
+  protected String reporter;
+
+  /**
+   * length of the period in seconds
+   */
+  protected int period;
+
+  protected long milliseconds;
+
+  protected long value;
+
+  public MeterRollupEntity(String name, String reporter, int period, long milliseconds, long value) {
+    this.name = name;
+    this.reporter = reporter;
+    this.period = period;
+    this.milliseconds = milliseconds;
+    this.value = value;
+  }
+
+  public MeterRollupEntity() {
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getReporter() {
+    return reporter;
+  }
+
+  public void setReporter(String reporter) {
+    this.reporter = reporter;
+  }
+
+  public int getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(int period) {
+    this.period = period;
+  }
+
+  public long getMilliseconds() {
+    return milliseconds;
+  }
+
+  public void setMilliseconds(long milliseconds) {
+    this.milliseconds = milliseconds;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  public void setValue(long value) {
+    this.value = value;
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return MeterRollupEntity.class;
+  }
+
+  @Override
+  public Set<String> getReferencedEntityIds() {
+    Set<String> referencedEntityIds = new HashSet<String>();
+    return referencedEntityIds;
+  }
+
+  @Override
+  public Map<String, Class> getReferencedEntitiesIdAndClass() {
+    Map<String, Class> referenceIdAndClass = new HashMap<String, Class>();
+    return referenceIdAndClass;
+  }
+}
@@ -202,6 +202,7 @@ public class ProcessDefinitionManager extends AbstractManager implements Abstrac
     parameters.put("processDefinitionId", processDefinitionId);
     parameters.put("suspensionState", suspensionState.getStateCode());
     getDbEntityManager().update(ProcessDefinitionEntity.class, "updateProcessDefinitionSuspensionStateByParameters", configureParameterizedQuery(parameters));
+    getDeploymentManager().invalidateLatestDefinitionIndex();
   }
 
   public void updateProcessDefinitionSuspensionStateByKey(String processDefinitionKey, SuspensionState suspensionState) {
@@ -210,6 +211,7 @@ public class ProcessDefinitionManager extends AbstractManager implements Abstrac
     parameters.put("isTenantIdSet", false);
     parameters.put("suspensionState", suspensionState.getStateCode());
     getDbEntityManager().update(ProcessDefinitionEntity.class, "updateProcessDefinitionSuspensionStateByParameters", configureParameterizedQuery(parameters));
+    getDeploymentManager().invalidateLatestDefinitionIndex();
   }
 
   public void updateProcessDefinitionSuspensionStateByKeyAndTenantId(String processDefinitionKey, String tenantId, SuspensionState suspensionState) {
@@ -219,6 +221,7 @@ public class ProcessDefinitionManager extends AbstractManager implements Abstrac
     parameters.put("tenantId", tenantId);
     parameters.put("suspensionState", suspensionState.getStateCode());
     getDbEntityManager().update(ProcessDefinitionEntity.class, "updateProcessDefinitionSuspensionStateByParameters", configureParameterizedQuery(parameters));
+    getDeploymentManager().invalidateLatestDefinitionIndex();
   }
 
   // delete  ///////////////////////////////////////////////////////////
@@ -356,6 +359,8 @@ public class ProcessDefinitionManager extends AbstractManager implements Abstrac
       .getDeploymentCache()
       .removeProcessDefinition(processDefinitionId);
 
+    getDeploymentManager().invalidateLatestDefinitionIndex();
+
     deleteSubscriptionsForProcessDefinition(processDefinitionId);
 
     // delete job definitions
@@ -13,6 +13,8 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.List;
+
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 
@@ -26,6 +28,11 @@ public class PropertyManager extends AbstractManager {
     return getDbEntityManager().selectById(PropertyEntity.class, propertyId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<PropertyEntity> findPropertiesByNamePrefix(String namePrefix) {
+    return getDbEntityManager().selectList("selectPropertiesByNamePrefix", namePrefix + "%");
+  }
+
   public void acquireExclusiveLock() {
     // We lock a special deployment lock property
     getDbEntityManager().lock("lockDeploymentLockProperty");
@@ -44,4 +51,10 @@ public class PropertyManager extends AbstractManager {
 
   }
 
+  public void acquireExclusiveLockForHistoryOutbox() {
+    // We lock a special history outbox lock property
+    getDbEntityManager().lock("lockHistoryOutboxLockProperty");
+
+  }
+
 }
@@ -13,6 +13,7 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -53,6 +54,19 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariablesByExecutionId", parameter);
   }
 
+  /**
+   * Selects the variables of several executions with one query.
+   *
+   * @param variableNames the names of the variables to select or null to select all variables
+   */
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByExecutionIdsAndVariableNames(Collection<String> executionIds, Collection<String> variableNames) {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("executionIds", new ArrayList<String>(executionIds));
+    parameter.put("variableNames", variableNames);
+    return getDbEntityManager().selectList("selectVariablesByExecutionIds", parameter);
+  }
+
   @SuppressWarnings("unchecked")
   public List<VariableInstanceEntity> findVariableInstancesByProcessInstanceId(String processInstanceId) {
     return getDbEntityManager().selectList("selectVariablesByProcessInstanceId", processInstanceId);
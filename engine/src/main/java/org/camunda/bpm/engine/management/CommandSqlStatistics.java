@@ -0,0 +1,59 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * Database load caused by the commands of one class, as sampled by the SQL profiler.
+ * The counts and times are sums over all sampled executions of the commands.
+ *
+ * @see org.camunda.bpm.engine.ManagementService#getCommandSqlStatistics()
+ */
+public interface CommandSqlStatistics {
+
+  /**
+   * @return the class name of the command
+   */
+  String getCommandName();
+
+  /**
+   * @return the number of sampled executions of the command
+   */
+  long getExecutionCount();
+
+  /**
+   * @return the number of SQL statements executed by the sampled executions
+   */
+  long getStatementCount();
+
+  /**
+   * @return the number of rows selected, inserted, updated or deleted by the statements
+   */
+  long getRowCount();
+
+  /**
+   * @return the time of the sampled executions in milliseconds
+   */
+  long getTotalTimeInMillis();
+
+  /**
+   * @return the part of the total time spent in MyBatis and the JDBC driver, i.e. executing
+   *   statements, reading results and committing, in milliseconds
+   */
+  long getSqlTimeInMillis();
+
+  /**
+   * @return the part of the total time spent in engine code in milliseconds
+   */
+  long getEngineTimeInMillis();
+
+}
@@ -0,0 +1,60 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * The state of one of the caches of the deployment cache, which holds the parsed
+ * definitions and model instances.
+ *
+ * @see org.camunda.bpm.engine.ManagementService#getDeploymentCacheStatistics()
+ */
+public interface DeploymentCacheStatistics {
+
+  /**
+   * @return the name of the cache, e.g. <code>PROC_DEF_CACHE</code>
+   */
+  String getCacheName();
+
+  /**
+   * @return the number of cached values
+   */
+  int getSize();
+
+  /**
+   * @return the estimated size of the cached values in bytes or -1 if the cache
+   *   is not bounded by the size of its values
+   */
+  long getWeight();
+
+  /**
+   * @return the maximum size of the cached values in bytes or -1 if the cache
+   *   is not bounded by the size of its values
+   */
+  long getMaxWeight();
+
+  /**
+   * @return the number of reads which found a value or -1 if the cache does not count them
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of reads which found no value or -1 if the cache does not count them
+   */
+  long getMissCount();
+
+  /**
+   * @return the ratio of hits to reads, -1 if the cache does not count them or was not read yet
+   */
+  double getHitRatio();
+
+}
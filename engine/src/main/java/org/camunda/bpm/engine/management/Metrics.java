@@ -51,6 +51,12 @@ public class Metrics {
    */
   public final static String JOB_LOCKED_EXCLUSIVE = "job-locked-exclusive";
 
+  /**
+   * Number of jobs that are inserted locked and submitted for execution without acquisition
+   * because they are created in the context of job execution
+   */
+  public final static String JOB_HANDED_OFF = "job-handed-off";
+
   /**
    * Number of executed decision elements in the DMN engine.
    */
@@ -63,4 +69,23 @@ public class Metrics {
   public final static String HISTORY_CLEANUP_REMOVED_CASE_INSTANCES = "history-cleanup-removed-case-instances";
   public final static String HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES = "history-cleanup-removed-decision-instances";
   public final static String HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS = "history-cleanup-removed-batch-operations";
+
+  /**
+   * Number of history events written into the history outbox and
+   * number of history events moved from the outbox into the history tables.
+   * The difference between both is the backlog of the history outbox.
+   */
+  public final static String HISTORY_OUTBOX_EVENTS_ENQUEUED = "history-outbox-events-enqueued";
+  public final static String HISTORY_OUTBOX_EVENTS_DRAINED = "history-outbox-events-drained";
+
+  /**
+   * Timers measuring the duration of commands (without flushing), database flushes, job
+   * executions, job acquisitions and external task fetches. They are only recorded if
+   * timer metrics are enabled and are exported instead of being reported to the database.
+   */
+  public final static String COMMAND_EXECUTION_TIME = "command-execution-time";
+  public final static String DB_FLUSH_TIME = "db-flush-time";
+  public final static String JOB_EXECUTION_TIME = "job-execution-time";
+  public final static String JOB_ACQUISITION_TIME = "job-acquisition-time";
+  public final static String EXTERNAL_TASK_FETCH_TIME = "external-task-fetch-time";
 }
@@ -21,6 +21,8 @@ DROP INDEX ACT_RU_METER_LOG.ACT_IDX_METER_LOG_REPORT;
 DROP INDEX ACT_RU_METER_LOG.ACT_IDX_METER_LOG_TIME;
 DROP INDEX ACT_RU_METER_LOG.ACT_IDX_METER_LOG;
 
+DROP INDEX ACT_RU_METER_ROLLUP.ACT_IDX_METER_ROLLUP;
+
 
 -- indexes for concurrency problems - https://app.camunda.com/jira/browse/CAM-1646 --
 drop index ACT_RU_EXECUTION.ACT_IDX_EXECUTION_PROC;
@@ -52,6 +54,7 @@ drop index ACT_GE_BYTEARRAY.ACT_IDX_BYTEARRAY_NAME;
 drop index ACT_RE_DEPLOYMENT.ACT_IDX_DEPLOYMENT_NAME;
 drop index ACT_RU_JOBDEF.ACT_IDX_JOBDEF_PROC_DEF_ID;
 drop index ACT_RU_JOB.ACT_IDX_JOB_HANDLER_TYPE;
+drop index ACT_RU_JOB.ACT_IDX_JOB_PARTITION;
 drop index ACT_RU_EVENT_SUBSCR.ACT_IDX_EVENT_SUBSCR_EVT_NAME;
 drop index ACT_RE_PROCDEF.ACT_IDX_PROCDEF_DEPLOYMENT_ID;
 
@@ -172,5 +175,6 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_AUTHORIZATION') drop table ACT_RU_AUTHORIZATION;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_FILTER') drop table ACT_RU_FILTER;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_LOG') drop table ACT_RU_METER_LOG;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_ROLLUP') drop table ACT_RU_METER_ROLLUP;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_EXT_TASK') drop table ACT_RU_EXT_TASK;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_BATCH') drop table ACT_RU_BATCH;
@@ -0,0 +1,83 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void shouldCountSmallValuesExactly() {
+    for (long value = 0; value < Histogram.SUB_BUCKET_COUNT; value++) {
+      assertEquals(value, Histogram.highestValueInBucket(Histogram.bucketIndex(value)));
+    }
+  }
+
+  @Test
+  public void shouldCoverWholeRangeOfLong() {
+    assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.bucketIndex(Long.MAX_VALUE));
+    assertEquals(Long.MAX_VALUE, Histogram.highestValueInBucket(Histogram.BUCKET_COUNT - 1));
+  }
+
+  @Test
+  public void shouldHaveContiguousBuckets() {
+    for (int i = 0; i < Histogram.BUCKET_COUNT - 1; i++) {
+      long highestValue = Histogram.highestValueInBucket(i);
+      assertEquals(i, Histogram.bucketIndex(highestValue));
+      assertEquals(i + 1, Histogram.bucketIndex(highestValue + 1));
+    }
+  }
+
+  @Test
+  public void shouldComputePercentilesWithinPrecision() {
+    Histogram histogram = new Histogram("test");
+    for (long value = 1; value <= 10000; value++) {
+      histogram.record(value * 1000);
+    }
+
+    HistogramSnapshot snapshot = histogram.getSnapshot();
+
+    assertEquals(10000, snapshot.getCount());
+    assertEquals(10000000, snapshot.getMax());
+    assertEquals(5000500.0, snapshot.getMean(), 0.1);
+    assertWithinPrecision(5000000, snapshot.getValueAtPercentile(50));
+    assertWithinPrecision(9900000, snapshot.getValueAtPercentile(99));
+    assertEquals(10000000, snapshot.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void shouldReturnZeroIfEmpty() {
+    HistogramSnapshot snapshot = new Histogram("test").getSnapshot();
+
+    assertEquals(0, snapshot.getCount());
+    assertEquals(0, snapshot.getValueAtPercentile(99));
+    assertEquals(0.0, snapshot.getMean(), 0.0);
+  }
+
+  @Test
+  public void shouldRecordNegativeValuesAsZero() {
+    Histogram histogram = new Histogram("test");
+    histogram.record(-5);
+
+    assertEquals(0, histogram.getSnapshot().getValueAtPercentile(50));
+  }
+
+  protected void assertWithinPrecision(long expected, long actual) {
+    assertTrue("expected " + actual + " to be at least " + expected, actual >= expected);
+    assertTrue("expected " + actual + " to be within 7% of " + expected, actual <= expected * 1.07);
+  }
+
+}
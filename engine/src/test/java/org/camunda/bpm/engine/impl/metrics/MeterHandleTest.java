@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class MeterHandleTest {
+
+  @Test
+  public void shouldMarkMeterOfGivenRegistry() {
+    MetricsRegistry registry = new MetricsRegistry();
+    MetricsRegistry otherRegistry = new MetricsRegistry();
+    Meter meter = registry.createMeter("meter");
+    Meter otherMeter = otherRegistry.createMeter("meter");
+
+    MeterHandle handle = new MeterHandle("meter");
+    handle.mark(registry);
+    handle.mark(otherRegistry);
+    handle.mark(registry);
+
+    assertEquals(2, meter.get());
+    assertEquals(1, otherMeter.get());
+  }
+
+  @Test
+  public void shouldResolveMeterCreatedLater() {
+    MetricsRegistry registry = new MetricsRegistry();
+    MeterHandle handle = new MeterHandle("meter");
+
+    assertNull(handle.resolve(registry));
+    handle.mark(registry);
+
+    Meter meter = registry.createMeter("meter");
+    handle.mark(registry);
+
+    assertEquals(1, meter.get());
+  }
+
+}
@@ -0,0 +1,65 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StripedCounterTest {
+
+  @Test
+  public void shouldSumIncrementsOfAllThreads() throws Exception {
+    final StripedCounter counter = new StripedCounter(4);
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread() {
+        public void run() {
+          for (int j = 0; j < 10000; j++) {
+            counter.add(1);
+          }
+        }
+      });
+    }
+
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(80000, counter.sum());
+  }
+
+  @Test
+  public void shouldReset() {
+    StripedCounter counter = new StripedCounter(2);
+    counter.add(5);
+
+    assertEquals(5, counter.sumAndReset());
+    assertEquals(0, counter.sum());
+  }
+
+  @Test
+  public void shouldRoundUpConcurrencyLevel() {
+    assertEquals(3, new StripedCounter(3).stripeMask);
+    assertEquals(0, new StripedCounter(0).stripeMask);
+    assertEquals(StripedCounter.MAX_STRIPES - 1, new StripedCounter(1000).stripeMask);
+  }
+
+}
@@ -0,0 +1,281 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.persistence.AbstractResourceDefinitionManager;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResourceDefinitionCacheTest {
+
+  protected ExecutorService executorService;
+  protected BlockingDefinitionCache definitionCache;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newFixedThreadPool(2);
+    definitionCache = new BlockingDefinitionCache();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void shouldLoadDefinitionOnceForConcurrentMisses() throws Exception {
+    definitionCache.blockLoading();
+
+    Future<ProcessDefinitionEntity> first = resolveAsync(createDefinition("a"));
+    assertTrue(definitionCache.loadingStarted.await(10, TimeUnit.SECONDS));
+    Future<ProcessDefinitionEntity> second = resolveAsync(createDefinition("a"));
+
+    // the second call finds the loading of the first one after it missed the cache
+    while (definitionCache.getMetrics().getMissCount() < 2) {
+      Thread.sleep(10);
+    }
+    definitionCache.unblockLoading();
+
+    assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+    assertEquals(1, definitionCache.loadCount.get());
+    assertEquals(2, definitionCache.getMetrics().getMissCount());
+    assertEquals(1, definitionCache.getMetrics().getLoadTimes().getCount());
+  }
+
+  @Test
+  public void shouldLoadResourceOnceForConcurrentMissesOfItsDefinitions() throws Exception {
+    definitionCache.resourceDefinitionIds.put("a.bpmn", new String[] {"a", "a2"});
+    definitionCache.blockLoading();
+
+    Future<ProcessDefinitionEntity> first = resolveAsync(createDefinition("a"));
+    assertTrue(definitionCache.loadingStarted.await(10, TimeUnit.SECONDS));
+    Future<ProcessDefinitionEntity> second = resolveAsync(createDefinition("a2", "a.bpmn"));
+
+    while (definitionCache.getMetrics().getMissCount() < 2) {
+      Thread.sleep(10);
+    }
+    definitionCache.unblockLoading();
+
+    // each call gets its own definition of the resource
+    assertEquals("a", first.get(10, TimeUnit.SECONDS).getId());
+    assertEquals("a2", second.get(10, TimeUnit.SECONDS).getId());
+    assertEquals(1, definitionCache.loadCount.get());
+  }
+
+  @Test
+  public void shouldNotBlockMissesOfOtherResources() throws Exception {
+    definitionCache.blockLoading();
+
+    Future<ProcessDefinitionEntity> blocked = resolveAsync(createDefinition("a"));
+    assertTrue(definitionCache.loadingStarted.await(10, TimeUnit.SECONDS));
+
+    // does not wait for the loading of the other definition
+    ProcessDefinitionEntity definition = resolveAsync(createDefinition("b")).get(10, TimeUnit.SECONDS);
+    assertEquals("b", definition.getId());
+
+    definitionCache.unblockLoading();
+    assertEquals("a", blocked.get(10, TimeUnit.SECONDS).getId());
+  }
+
+  @Test
+  public void shouldLoadResourceReentrantly() throws Exception {
+    definitionCache.resourceDefinitionIds.put("c.bpmn", new String[] {"c", "c2"});
+    // e.g. a parse listener which resolves another definition of the resource
+    definitionCache.resolveWhileLoading = createDefinition("c2", "c.bpmn");
+
+    // does not wait for its own loading
+    ProcessDefinitionEntity definition = resolveAsync(createDefinition("c")).get(10, TimeUnit.SECONDS);
+
+    assertEquals("c", definition.getId());
+    assertEquals("c2", definitionCache.resolveDefinition(createDefinition("c2", "c.bpmn")).getId());
+    assertEquals(2, definitionCache.loadCount.get());
+  }
+
+  @Test
+  public void shouldRetryFailedLoading() {
+    definitionCache.failLoading = true;
+    try {
+      definitionCache.resolveDefinition(createDefinition("a"));
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    definitionCache.failLoading = false;
+    assertEquals("a", definitionCache.resolveDefinition(createDefinition("a")).getId());
+    assertEquals(2, definitionCache.loadCount.get());
+  }
+
+  @Test
+  public void shouldCountHitsAndMisses() {
+    definitionCache.resolveDefinition(createDefinition("a"));
+    definitionCache.resolveDefinition(createDefinition("a"));
+    definitionCache.resolveDefinition(createDefinition("a"));
+
+    assertEquals(2, definitionCache.getMetrics().getHitCount());
+    assertEquals(1, definitionCache.getMetrics().getMissCount());
+  }
+
+  @Test
+  public void shouldReportHitsAndMissesInStatistics() {
+    definitionCache.resolveDefinition(createDefinition("a"));
+    definitionCache.resolveDefinition(createDefinition("a"));
+
+    // the default cache does not count hits and misses itself
+    DeploymentCacheStatisticsImpl statistics = new DeploymentCacheStatisticsImpl(definitionCache.getCacheName(),
+        definitionCache.getCache(), definitionCache.getMetrics());
+
+    assertEquals(1, statistics.getHitCount());
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(1, statistics.getSize());
+  }
+
+  protected Future<ProcessDefinitionEntity> resolveAsync(final ProcessDefinitionEntity definition) {
+    return executorService.submit(new Callable<ProcessDefinitionEntity>() {
+      public ProcessDefinitionEntity call() throws Exception {
+        return definitionCache.resolveDefinition(definition);
+      }
+    });
+  }
+
+  protected static ProcessDefinitionEntity createDefinition(String id) {
+    return createDefinition(id, id + ".bpmn");
+  }
+
+  protected static ProcessDefinitionEntity createDefinition(String id, String resourceName) {
+    ProcessDefinitionEntity definition = new ProcessDefinitionEntity();
+    definition.setId(id);
+    definition.setKey(id);
+    definition.setDeploymentId("deployment");
+    definition.setResourceName(resourceName);
+    return definition;
+  }
+
+  /**
+   * Puts new definitions into the cache instead of deploying the resource. Loading the
+   * resource "a.bpmn" blocks while {@link #blockLoading()} is in effect.
+   */
+  protected static class BlockingDefinitionCache extends ResourceDefinitionCache<ProcessDefinitionEntity> {
+
+    protected AtomicInteger loadCount = new AtomicInteger();
+    protected CountDownLatch loadingStarted = new CountDownLatch(1);
+    protected CountDownLatch loadingUnblocked = new CountDownLatch(0);
+    protected volatile boolean failLoading;
+    // a definition which is resolved while a resource is loaded
+    protected volatile ProcessDefinitionEntity resolveWhileLoading;
+    // the ids of the definitions of a resource if it contains other definitions than the loaded one
+    protected Map<String, String[]> resourceDefinitionIds = new ConcurrentHashMap<String, String[]>();
+
+    public BlockingDefinitionCache() {
+      super(new DefaultCacheFactory(), 10, null);
+    }
+
+    public void blockLoading() {
+      loadingUnblocked = new CountDownLatch(1);
+    }
+
+    public void unblockLoading() {
+      loadingUnblocked.countDown();
+    }
+
+    protected DeploymentEntity deployResource(ProcessDefinitionEntity definition) {
+      loadCount.incrementAndGet();
+
+      if ("a.bpmn".equals(definition.getResourceName())) {
+        loadingStarted.countDown();
+        try {
+          loadingUnblocked.await();
+        }
+        catch (InterruptedException e) {
+          throw new ProcessEngineException(e);
+        }
+      }
+
+      ProcessDefinitionEntity reentrantDefinition = resolveWhileLoading;
+      if (reentrantDefinition != null) {
+        resolveWhileLoading = null;
+        resolveDefinition(reentrantDefinition);
+      }
+
+      if (failLoading) {
+        throw new ProcessEngineException("cannot load definition");
+      }
+
+      String[] definitionIds = resourceDefinitionIds.get(definition.getResourceName());
+      if (definitionIds == null) {
+        definitionIds = new String[] {definition.getId()};
+      }
+      for (String definitionId : definitionIds) {
+        addDefinition(createDefinition(definitionId, definition.getResourceName()));
+      }
+
+      DeploymentEntity deployment = new DeploymentEntity();
+      deployment.setId(definition.getDeploymentId());
+      return deployment;
+    }
+
+    protected String getCacheName() {
+      return CachePurgeReport.PROCESS_DEF_CACHE;
+    }
+
+    protected AbstractResourceDefinitionManager<ProcessDefinitionEntity> getManager() {
+      return null;
+    }
+
+    protected void checkInvalidDefinitionId(String definitionId) {
+    }
+
+    protected void checkDefinitionFound(String definitionId, ProcessDefinitionEntity definition) {
+    }
+
+    protected void checkInvalidDefinitionByKey(String definitionKey, ProcessDefinitionEntity definition) {
+    }
+
+    protected void checkInvalidDefinitionByKeyAndTenantId(String definitionKey, String tenantId, ProcessDefinitionEntity definition) {
+    }
+
+    protected void checkInvalidDefinitionByKeyVersionAndTenantId(String definitionKey, Integer definitionVersion, String tenantId, ProcessDefinitionEntity definition) {
+    }
+
+    protected void checkInvalidDefinitionByKeyVersionTagAndTenantId(String definitionKey, String definitionVersionTag, String tenantId, ProcessDefinitionEntity definition) {
+    }
+
+    protected void checkInvalidDefinitionByDeploymentAndKey(String deploymentId, String definitionKey, ProcessDefinitionEntity definition) {
+    }
+
+    protected void checkInvalidDefinitionWasCached(String deploymentId, String definitionId, ProcessDefinitionEntity definition) {
+    }
+
+  }
+
+}
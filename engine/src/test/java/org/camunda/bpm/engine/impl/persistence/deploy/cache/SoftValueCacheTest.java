@@ -0,0 +1,93 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.SoftReference;
+
+import org.camunda.commons.utils.cache.Cache;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SoftValueCacheTest {
+
+  protected SoftValueCache<String, Object> cache;
+
+  @Before
+  public void setUp() {
+    cache = (SoftValueCache<String, Object>) new SoftValueCacheFactory(new DefaultCacheFactory()).<Object>createCache(10);
+  }
+
+  @Test
+  public void shouldReturnCachedValue() {
+    Object value = new Object();
+    cache.put("a", value);
+
+    assertSame(value, cache.get("a"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void shouldRemoveReclaimedValue() {
+    Cache<String, SoftReference<Object>> delegate = cache.getDelegate();
+    SoftReference<Object> reference = new SoftReference<Object>(new Object());
+    delegate.put("a", reference);
+
+    // as if the garbage collector has reclaimed the value
+    reference.clear();
+
+    assertNull(cache.get("a"));
+    assertTrue(cache.isEmpty());
+  }
+
+  @Test
+  public void shouldPurgeReclaimedValueWithoutReadingIt() {
+    cache.put("a", new Object());
+    cache.put("b", new Object());
+    SoftReference<Object> reference = cache.getDelegate().get("a");
+
+    // as if the garbage collector has reclaimed the value
+    reference.clear();
+    reference.enqueue();
+
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getDelegate().size());
+  }
+
+  @Test
+  public void shouldReportWeightOfDelegate() {
+    SoftValueCacheFactory factory = new SoftValueCacheFactory(new WeightedCacheFactory());
+    Cache<String, Object> namedCache = factory.<Object>createCache(CachePurgeReport.BPMN_MODEL_INST_CACHE, 10);
+    namedCache.put("a", new Object());
+
+    DeploymentCacheStatisticsImpl statistics = new DeploymentCacheStatisticsImpl(CachePurgeReport.BPMN_MODEL_INST_CACHE, namedCache);
+
+    assertEquals(1, statistics.getSize());
+    assertTrue(statistics.getWeight() > 0);
+    assertTrue(statistics.getMaxWeight() > 0);
+  }
+
+  @Test
+  public void shouldCreateNamedCacheOfDelegate() {
+    SoftValueCacheFactory factory = new SoftValueCacheFactory(new WeightedCacheFactory());
+
+    SoftValueCache<String, Object> namedCache = (SoftValueCache<String, Object>) factory.<Object>createCache(CachePurgeReport.BPMN_MODEL_INST_CACHE, 10);
+
+    assertTrue(namedCache.getDelegate() instanceof WeightedLfuCache);
+  }
+
+}
@@ -0,0 +1,143 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WeightedLfuCacheTest {
+
+  protected WeightedLfuCache<String, Long> cache;
+
+  @Before
+  public void setUp() {
+    // the values are their own weight
+    cache = new WeightedLfuCache<String, Long>(1000, 100, new CacheEntryWeigher<Long>() {
+      public long weigh(Long value) {
+        return value;
+      }
+    });
+  }
+
+  @Test
+  public void shouldNotExceedMaxWeight() {
+    for (int i = 0; i < 100; i++) {
+      cache.put("value" + i, 30L);
+    }
+
+    assertTrue(cache.getWeight() <= 1000);
+    assertEquals(cache.size() * 30L, cache.getWeight());
+  }
+
+  @Test
+  public void shouldRetainValuePutLast() {
+    for (int i = 0; i < 100; i++) {
+      cache.put("value" + i, 100L);
+      assertNotNull(cache.get("value" + i));
+    }
+  }
+
+  @Test
+  public void shouldNotCacheValueExceedingMaxWeight() {
+    cache.put("small", 10L);
+    cache.put("huge", 2000L);
+
+    assertNull(cache.get("huge"));
+    assertNotNull(cache.get("small"));
+  }
+
+  @Test
+  public void shouldKeepFrequentlyUsedValues() {
+    for (int i = 0; i < 9; i++) {
+      cache.put("hot" + i, 100L);
+    }
+    for (int access = 0; access < 5; access++) {
+      for (int i = 0; i < 9; i++) {
+        cache.get("hot" + i);
+      }
+    }
+
+    // values which are used once
+    for (int i = 0; i < 50; i++) {
+      cache.put("cold" + i, 100L);
+    }
+
+    for (int i = 0; i < 9; i++) {
+      assertNotNull(cache.get("hot" + i));
+    }
+  }
+
+  @Test
+  public void shouldNotEvictValuesForRejectedValue() {
+    cache.put("cold", 50L);
+    cache.put("hot", 50L);
+    for (int access = 0; access < 5; access++) {
+      cache.get("hot");
+    }
+    cache.get("large");
+    cache.get("large");
+    cache.put("large", 900L);
+
+    // moves the large value out of the window, which needs the space of both other values
+    cache.put("next", 60L);
+
+    // the large value is used less often than the hot value and is rejected
+    assertNull(cache.get("large"));
+    assertNotNull(cache.get("cold"));
+    assertNotNull(cache.get("hot"));
+    assertNotNull(cache.get("next"));
+    assertEquals(160, cache.getWeight());
+  }
+
+  @Test
+  public void shouldReplaceValue() {
+    cache.put("value", 100L);
+    cache.put("value", 200L);
+
+    assertEquals(Long.valueOf(200), cache.get("value"));
+    assertEquals(200, cache.getWeight());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void shouldCountHitsAndMisses() {
+    cache.put("value", 100L);
+
+    cache.get("value");
+    cache.get("value");
+    cache.get("other");
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void shouldRemoveAndClear() {
+    cache.put("a", 100L);
+    cache.put("b", 100L);
+
+    cache.remove("a");
+    assertNull(cache.get("a"));
+    assertEquals(100, cache.getWeight());
+
+    cache.clear();
+    assertTrue(cache.isEmpty());
+    assertEquals(0, cache.getWeight());
+  }
+
+}
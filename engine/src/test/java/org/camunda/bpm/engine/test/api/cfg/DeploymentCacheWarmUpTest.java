@@ -0,0 +1,112 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.cfg;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCacheWarmUp;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.api.runtime.migration.models.ProcessModels;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DeploymentCacheWarmUpTest {
+
+  protected static final BpmnModelInstance OTHER_PROCESS = Bpmn.createExecutableProcess("otherProcess")
+      .startEvent()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected DeploymentCache deploymentCache;
+  protected DeploymentCacheWarmUp warmUp;
+
+  @Before
+  public void initialize() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    deploymentCache = processEngineConfiguration.getDeploymentCache();
+
+    warmUp = new DeploymentCacheWarmUp(processEngineConfiguration.getCommandExecutorTxRequired());
+    warmUp.setThreads(2);
+    warmUp.setBlocking(true);
+  }
+
+  @Test
+  public void shouldLoadLatestVersions() {
+    // given
+    ProcessDefinition previousVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition latestVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition otherDefinition = testRule.deployAndGetDefinition(OTHER_PROCESS);
+    deploymentCache.purgeCache();
+
+    // when
+    warmUp.start();
+
+    // then
+    assertTrue(warmUp.isCompleted());
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(latestVersion.getId()));
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(otherDefinition.getId()));
+    assertNull(deploymentCache.findProcessDefinitionFromCache(previousVersion.getId()));
+  }
+
+  @Test
+  public void shouldLoadConfiguredNumberOfVersions() {
+    // given
+    ProcessDefinition previousVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition latestVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    deploymentCache.purgeCache();
+
+    // when
+    warmUp.setVersions(2);
+    warmUp.start();
+
+    // then
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(latestVersion.getId()));
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(previousVersion.getId()));
+  }
+
+  @Test
+  public void shouldLoadSelectedDefinitions() {
+    // given
+    ProcessDefinition selectedDefinition = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition otherDefinition = testRule.deployAndGetDefinition(OTHER_PROCESS);
+    deploymentCache.purgeCache();
+
+    // when
+    warmUp.setDefinitionKeys(Collections.singleton(ProcessModels.PROCESS_KEY));
+    warmUp.start();
+
+    // then
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(selectedDefinition.getId()));
+    assertNull(deploymentCache.findProcessDefinitionFromCache(otherDefinition.getId()));
+  }
+
+}
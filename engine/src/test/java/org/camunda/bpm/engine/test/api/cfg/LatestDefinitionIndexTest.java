@@ -0,0 +1,246 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.SuspendedEntityInteractionException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.PublishDeploymentVersionCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LatestDefinitionIndex;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ProcessDefinitionCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.api.runtime.migration.models.ProcessModels;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class LatestDefinitionIndexTest {
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setLatestDefinitionIndexEnabled(true);
+      // check the deployment version on each lookup
+      configuration.setDeploymentVersionCheckIntervalInMillis(0);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected LatestDefinitionIndex latestDefinitionIndex;
+
+  @Before
+  public void initialize() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+    latestDefinitionIndex = processEngineConfiguration.getDeploymentCache().getLatestDefinitionIndex();
+  }
+
+  @Test
+  public void shouldIndexLatestDefinition() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // then
+    assertEquals(processDefinition.getId(), processInstance.getProcessDefinitionId());
+    assertEquals(1, latestDefinitionIndex.size());
+  }
+
+  @Test
+  public void shouldTakeIndexedDefinitionFromDeploymentCache() {
+    // given
+    final ProcessDefinition processDefinition = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ProcessDefinitionEntity definition = commandContext
+            .getProcessEngineConfiguration()
+            .getDeploymentCache()
+            .findDeployedLatestProcessDefinitionByKey(ProcessModels.PROCESS_KEY);
+
+        // then
+        assertEquals(processDefinition.getId(), definition.getId());
+        // the definition was not selected from ACT_RE_PROCDEF
+        assertNull(commandContext.getProcessDefinitionManager().getCachedResourceDefinitionEntity(processDefinition.getId()));
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldResolveSuspensionStateOfIndexedDefinition() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // when
+    repositoryService.suspendProcessDefinitionById(processDefinition.getId());
+
+    // then
+    try {
+      runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+      fail("exception expected");
+    }
+    catch (SuspendedEntityInteractionException e) {
+      // expected
+    }
+
+    repositoryService.activateProcessDefinitionById(processDefinition.getId());
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+    assertEquals(processDefinition.getId(), processInstance.getProcessDefinitionId());
+  }
+
+  @Test
+  public void shouldResolveNewVersionAfterDeployment() {
+    // given
+    testRule.deploy(ProcessModels.ONE_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // when
+    ProcessDefinition newVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+
+    // then
+    assertEquals(0, latestDefinitionIndex.size());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+    assertEquals(newVersion.getId(), processInstance.getProcessDefinitionId());
+  }
+
+  @Test
+  public void shouldResolvePreviousVersionAfterDeletion() {
+    // given
+    ProcessDefinition previousVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    Deployment latestDeployment = repositoryService.createDeployment()
+        .addModelInstance("process.bpmn", ProcessModels.ONE_TASK_PROCESS)
+        .deploy();
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // when
+    repositoryService.deleteDeployment(latestDeployment.getId(), true);
+
+    // then
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+    assertEquals(previousVersion.getId(), processInstance.getProcessDefinitionId());
+  }
+
+  @Test
+  public void shouldClearIndexWhenDeploymentVersionChanges() {
+    // given
+    ProcessDefinition previousVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition latestVersion = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // an outdated id, as if another process engine has deployed a new version
+    LatestDefinitionIndex.IndexKey indexKey = LatestDefinitionIndex.keyForAnyTenant(ProcessDefinitionCache.class, ProcessModels.PROCESS_KEY);
+    latestDefinitionIndex.putLatestDefinitionId(indexKey, previousVersion.getId(), latestDefinitionIndex.getVersion());
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new PublishDeploymentVersionCmd());
+
+    // then
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+    assertEquals(latestVersion.getId(), processInstance.getProcessDefinitionId());
+  }
+
+  @Test
+  public void shouldChangeDeploymentVersionWithDeployment() {
+    // given
+    String deploymentVersion = getDeploymentVersion();
+
+    // when
+    testRule.deploy(ProcessModels.ONE_TASK_PROCESS);
+
+    // then
+    assertFalse(getDeploymentVersion().equals(deploymentVersion));
+  }
+
+  @Test
+  public void shouldNotChangeDeploymentVersionOnRollback() {
+    // given
+    String deploymentVersion = getDeploymentVersion();
+
+    // when
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getDeploymentManager().invalidateLatestDefinitionIndex();
+          throw new ProcessEngineException("rollback");
+        }
+      });
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    // then
+    assertEquals(deploymentVersion, getDeploymentVersion());
+  }
+
+  @Test
+  public void shouldIndexLatestDefinitionPerTenant() {
+    // given
+    ProcessDefinition tenantOneDefinition = testRule.deployForTenantAndGetDefinition("tenant1", ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition tenantTwoDefinition = testRule.deployForTenantAndGetDefinition("tenant2", ProcessModels.ONE_TASK_PROCESS);
+
+    // when
+    ProcessInstance tenantOneInstance = runtimeService.createProcessInstanceByKey(ProcessModels.PROCESS_KEY)
+        .processDefinitionTenantId("tenant1")
+        .execute();
+    ProcessInstance tenantTwoInstance = runtimeService.createProcessInstanceByKey(ProcessModels.PROCESS_KEY)
+        .processDefinitionTenantId("tenant2")
+        .execute();
+
+    // then
+    assertEquals(tenantOneDefinition.getId(), tenantOneInstance.getProcessDefinitionId());
+    assertEquals(tenantTwoDefinition.getId(), tenantTwoInstance.getProcessDefinitionId());
+    assertEquals(2, latestDefinitionIndex.size());
+  }
+
+  protected String getDeploymentVersion() {
+    return engineRule.getManagementService().getProperties().get(LatestDefinitionIndex.DEPLOYMENT_VERSION_PROPERTY_NAME);
+  }
+
+}
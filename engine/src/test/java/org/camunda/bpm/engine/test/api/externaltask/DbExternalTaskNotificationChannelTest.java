@@ -0,0 +1,198 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.externaltask.DbExternalTaskNotificationChannel;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskCreatedListener;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DbExternalTaskNotificationChannelTest {
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration
+        .setExternalTaskNotificationEnabled(true)
+        // the test polls manually
+        .setExternalTaskNotificationPollIntervalInMillis(60 * 60 * 1000);
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected DbExternalTaskNotificationChannel notificationChannel;
+  protected RecordingListener listener;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    notificationChannel = (DbExternalTaskNotificationChannel) processEngineConfiguration.getExternalTaskNotificationChannel();
+
+    testRule.deploy("org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml");
+
+    listener = new RecordingListener();
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.removeExternalTaskCreatedListener(listener);
+    engineRule.getManagementService().deleteProperty(DbExternalTaskNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+  }
+
+  @Test
+  public void testNotificationIsPublishedForCreatedExternalTasks() {
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    notificationChannel.poll();
+
+    assertEquals("1:" + notificationChannel.getNodeId() + "\nexternalTaskTopic", getNotification());
+  }
+
+  @Test
+  public void testNoNotificationIsPublishedWithoutExternalTasks() {
+    notificationChannel.poll();
+
+    assertNull(getNotification());
+  }
+
+  @Test
+  public void testTopicsAreLeftOutIfTheyDoNotFit() {
+    Set<String> topicNames = new HashSet<String>();
+    for (int i = 0; i < 100; i++) {
+      topicNames.add("topic" + i);
+    }
+
+    String notification = notificationChannel.createNotification("1:otherNode", topicNames);
+
+    assertEquals("2:" + notificationChannel.getNodeId(), notification);
+  }
+
+  @Test
+  public void testNotificationOfOtherNodeNotifiesListenersOfItsTopics() {
+    processEngineConfiguration.addExternalTaskCreatedListener(listener);
+    notificationChannel.poll();
+    assertTrue(listener.notifications.isEmpty());
+
+    // when another node publishes a notification
+    setNotification("1:otherNode\notherTopic");
+    notificationChannel.poll();
+
+    // then the listeners are notified once of its topics
+    assertEquals(1, listener.notifications.size());
+    assertEquals(Collections.singleton("otherTopic"), listener.notifications.get(0));
+    notificationChannel.poll();
+    assertEquals(1, listener.notifications.size());
+
+    // but not by its own notification
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    listener.notifications.clear();
+    notificationChannel.poll();
+    notificationChannel.poll();
+    assertTrue(listener.notifications.isEmpty());
+    assertEquals("2:" + notificationChannel.getNodeId() + "\nexternalTaskTopic", getNotification());
+  }
+
+  @Test
+  public void testMissedNotificationNotifiesListenersOfFetchableTopics() {
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    processEngineConfiguration.addExternalTaskCreatedListener(listener);
+    notificationChannel.poll();
+    assertTrue(listener.notifications.isEmpty());
+
+    // when the notification of another node is overwritten before it is read
+    setNotification("3:otherNode\notherTopic");
+    notificationChannel.poll();
+
+    // then the listeners are notified of the topics of the fetchable external tasks
+    assertEquals(1, listener.notifications.size());
+    assertEquals(Collections.singleton("externalTaskTopic"), listener.notifications.get(0));
+  }
+
+  @Test
+  public void testNotificationWithoutTopicsIgnoresLockedExternalTasks() {
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    engineRule.getExternalTaskService().fetchAndLock(1, "aWorkerId").topic("externalTaskTopic", 10000L).execute();
+    processEngineConfiguration.addExternalTaskCreatedListener(listener);
+    notificationChannel.poll();
+
+    // when
+    setNotification("2:otherNode");
+    notificationChannel.poll();
+
+    // then
+    assertTrue(listener.notifications.isEmpty());
+  }
+
+  protected String getNotification() {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<String>() {
+      public String execute(CommandContext commandContext) {
+        PropertyEntity property = commandContext.getPropertyManager().findPropertyById(DbExternalTaskNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+        return property != null ? property.getValue() : null;
+      }
+    });
+  }
+
+  protected void setNotification(final String notification) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        PropertyEntity property = commandContext.getPropertyManager().findPropertyById(DbExternalTaskNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+        if (property == null) {
+          commandContext.getDbEntityManager().insert(new PropertyEntity(DbExternalTaskNotificationChannel.NOTIFICATION_PROPERTY_NAME, notification));
+        }
+        else {
+          property.setValue(notification);
+        }
+        return null;
+      }
+    });
+  }
+
+  public static class RecordingListener implements ExternalTaskCreatedListener {
+
+    protected List<Set<String>> notifications = new ArrayList<Set<String>>();
+
+    public void onExternalTaskCreated(Set<String> topicNames) {
+      notifications.add(topicNames);
+    }
+  }
+
+}
@@ -0,0 +1,217 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.externaltask.ExternalTask;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class ExternalTaskBulkFetchAndLockTest {
+
+  protected static final String WORKER_ID = "aWorkerId";
+  protected static final long LOCK_TIME = 10000L;
+
+  @Parameters(name = "jdbcBatchProcessing: {0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+      { true },
+      { false }
+    });
+  }
+
+  protected ProcessEngineBootstrapRule bootstrapRule;
+  protected ProvidedProcessEngineRule engineRule;
+  protected ProcessEngineTestRule testRule;
+
+  @Rule
+  public RuleChain ruleChain;
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ExternalTaskService externalTaskService;
+
+  public ExternalTaskBulkFetchAndLockTest(final boolean jdbcBatchProcessing) {
+    // the rules are created here, since the engine is configured with the parameter
+    bootstrapRule = new ProcessEngineBootstrapRule() {
+      public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+        configuration.setExternalTaskBulkFetchAndLockEnabled(true);
+        return configuration.setJdbcBatchProcessing(jdbcBatchProcessing);
+      }
+    };
+    engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+    testRule = new ProcessEngineTestRule(engineRule);
+    ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+  }
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    externalTaskService = engineRule.getExternalTaskService();
+    ClockUtil.setCurrentTime(new Date());
+  }
+
+  @After
+  public void tearDown() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/parallelExternalTaskProcess.bpmn20.xml")
+  public void testFetchAndLockWithDifferentLockDurations() {
+    // given
+    runtimeService.startProcessInstanceByKey("parallelExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("parallelExternalTaskProcess");
+
+    // when
+    List<LockedExternalTask> lockedTasks = externalTaskService.fetchAndLock(10, WORKER_ID)
+      .topic("topic1", LOCK_TIME)
+      .topic("topic2", 2 * LOCK_TIME)
+      .execute();
+
+    // then
+    assertEquals(4, lockedTasks.size());
+
+    for (LockedExternalTask lockedTask : lockedTasks) {
+      long lockTime = "topic1".equals(lockedTask.getTopicName()) ? LOCK_TIME : 2 * LOCK_TIME;
+      Date expectedLockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + lockTime);
+      assertEquals(WORKER_ID, lockedTask.getWorkerId());
+      assertEquals(expectedLockExpirationTime, lockedTask.getLockExpirationTime());
+
+      ExternalTask externalTask = externalTaskService.createExternalTaskQuery().externalTaskId(lockedTask.getId()).singleResult();
+      assertEquals(WORKER_ID, externalTask.getWorkerId());
+      assertEquals(expectedLockExpirationTime, externalTask.getLockExpirationTime());
+    }
+
+    // and the locked tasks are not fetched again
+    assertEquals(0, externalTaskService.fetchAndLock(10, "anotherWorkerId").topic("topic1", LOCK_TIME).execute().size());
+
+    // and the revision of the locked tasks is up to date
+    for (LockedExternalTask lockedTask : lockedTasks) {
+      externalTaskService.complete(lockedTask.getId(), WORKER_ID);
+    }
+    assertEquals(2, externalTaskService.createExternalTaskQuery().count());
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/ExternalTaskServiceTest.testFetchVariables.bpmn20.xml")
+  public void testFetchVariables() {
+    // given
+    runtimeService.startProcessInstanceByKey("subProcessExternalTask",
+        Variables.createVariables().putValue("processVar1", 42).putValue("processVar2", 43));
+    runtimeService.startProcessInstanceByKey("subProcessExternalTask",
+        Variables.createVariables().putValue("processVar1", 52).putValue("processVar2", 53));
+
+    // when
+    List<LockedExternalTask> lockedTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic("externalTaskTopic", LOCK_TIME)
+      .variables("processVar1", "subProcessVar", "taskVar")
+      .execute();
+
+    // then
+    assertEquals(2, lockedTasks.size());
+
+    for (LockedExternalTask lockedTask : lockedTasks) {
+      Object processVar1 = runtimeService.getVariable(lockedTask.getProcessInstanceId(), "processVar1");
+
+      VariableMap variables = lockedTask.getVariables();
+      assertEquals(3, variables.size());
+      assertEquals(processVar1, variables.get("processVar1"));
+      assertEquals(44L, variables.get("subProcessVar"));
+      assertEquals(45L, variables.get("taskVar"));
+    }
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/ExternalTaskServiceTest.testFetchVariables.bpmn20.xml")
+  public void testFetchAllVariables() {
+    // given
+    runtimeService.startProcessInstanceByKey("subProcessExternalTask",
+        Variables.createVariables().putValue("processVar1", 42).putValue("processVar2", 43));
+
+    // when
+    List<LockedExternalTask> lockedTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic("externalTaskTopic", LOCK_TIME)
+      .execute();
+
+    // then
+    VariableMap variables = lockedTasks.get(0).getVariables();
+    assertEquals(4, variables.size());
+    assertEquals(42, variables.get("processVar1"));
+    assertEquals(43, variables.get("processVar2"));
+    assertEquals(44L, variables.get("subProcessVar"));
+    assertEquals(45L, variables.get("taskVar"));
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testConcurrentlyLockedTaskIsLeftOut() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    final String externalTaskId = externalTaskService.createExternalTaskQuery().singleResult().getId();
+
+    // when the task is locked by another worker after it was selected
+    List<ExternalTaskEntity> lockedTasks = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<ExternalTaskEntity>>() {
+      public List<ExternalTaskEntity> execute(CommandContext commandContext) {
+        ExternalTaskEntity externalTask = commandContext.getExternalTaskManager().findExternalTaskById(externalTaskId);
+
+        processEngineConfiguration.getCommandExecutorTxRequiresNew().execute(new Command<Void>() {
+          public Void execute(CommandContext commandContext) {
+            commandContext.getExternalTaskManager().findExternalTaskById(externalTaskId).lock("anotherWorkerId", LOCK_TIME);
+            return null;
+          }
+        });
+
+        Date lockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + LOCK_TIME);
+        return commandContext.getExternalTaskManager()
+          .lockExternalTasks(Collections.singletonList(externalTask), WORKER_ID, lockExpirationTime);
+      }
+    });
+
+    // then
+    assertTrue(lockedTasks.isEmpty());
+    assertEquals("anotherWorkerId", externalTaskService.createExternalTaskQuery().singleResult().getWorkerId());
+  }
+
+}
@@ -18,6 +18,9 @@ import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskCreatedListene
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.test.Deployment;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -29,17 +32,27 @@ public class ExternalTaskCreatedNotifierTest extends PluggableProcessEngineTestC
   public void testExternalTaskCreatedNotification() {
 
     final AtomicBoolean isExternalTaskCreated = new AtomicBoolean(false);
-
+    final Set<String> createdTopics = new HashSet<String>();
+
+    ExternalTaskCreatedListener listener = new ExternalTaskCreatedListener() {
+      @Override
+      public void onExternalTaskCreated(Set<String> topicNames) {
+        isExternalTaskCreated.set(true);
+        createdTopics.addAll(topicNames);
+      }
+    };
     ((ProcessEngineConfigurationImpl)processEngine.getProcessEngineConfiguration())
-      .addExternalTaskCreatedListener(new ExternalTaskCreatedListener() {
-        @Override
-        public void onExternalTaskCreated() {
-          isExternalTaskCreated.set(true);
-        }
-    });
-
-    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
-
-    assertEquals(true, isExternalTaskCreated.get());
+      .addExternalTaskCreatedListener(listener);
+
+    try {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+      assertEquals(true, isExternalTaskCreated.get());
+      assertEquals(Collections.singleton("externalTaskTopic"), createdTopics);
+    }
+    finally {
+      ((ProcessEngineConfigurationImpl)processEngine.getProcessEngineConfiguration())
+        .removeExternalTaskCreatedListener(listener);
+    }
   }
 }
@@ -46,6 +46,8 @@ import org.camunda.bpm.engine.variable.VariableMap;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.model.bpmn.Bpmn;
 import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.instance.EndEvent;
+import org.camunda.bpm.model.bpmn.instance.TerminateEventDefinition;
 import org.joda.time.DateTime;
 import org.junit.Assert;
 
@@ -127,6 +129,36 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertEquals(WORKER_ID, task.getWorkerId());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testFetchWithSkipLocked() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    processEngineConfiguration.setExternalTaskFetchWithSkipLocked(true);
+
+    try {
+      // when
+      List<LockedExternalTask> firstFetch = externalTaskService.fetchAndLock(1, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+      List<LockedExternalTask> secondFetch = externalTaskService.fetchAndLock(1, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+      List<LockedExternalTask> thirdFetch = externalTaskService.fetchAndLock(1, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+
+      // then
+      assertEquals(1, firstFetch.size());
+      assertEquals(1, secondFetch.size());
+      assertFalse(firstFetch.get(0).getId().equals(secondFetch.get(0).getId()));
+      assertEquals(0, thirdFetch.size());
+    }
+    finally {
+      processEngineConfiguration.setExternalTaskFetchWithSkipLocked(false);
+    }
+  }
+
 
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/twoExternalTaskWithPriorityProcess.bpmn20.xml")
   public void testFetchWithPriority() {
@@ -924,6 +956,160 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertProcessEnded(processInstance.getId());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testCompleteAll() {
+    // given
+    ProcessInstance processInstance1 = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    ProcessInstance processInstance2 = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    // when
+    Map<String, ProcessEngineException> failures = externalTaskService.completeAll(WORKER_ID)
+      .task(externalTasks.get(0).getId())
+      .task(externalTasks.get(1).getId())
+      .execute();
+
+    // then
+    assertTrue(failures.isEmpty());
+    assertEquals(0, externalTaskService.createExternalTaskQuery().count());
+    assertProcessEnded(processInstance1.getId());
+    assertProcessEnded(processInstance2.getId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/twoExternalTaskProcess.bpmn20.xml")
+  public void testCompleteAllWithVariables() {
+    // given
+    ProcessInstance processInstance1 = runtimeService.startProcessInstanceByKey("twoExternalTaskProcess");
+    ProcessInstance processInstance2 = runtimeService.startProcessInstanceByKey("twoExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+    Map<String, String> taskIds = new HashMap<String, String>();
+    for (LockedExternalTask externalTask : externalTasks) {
+      taskIds.put(externalTask.getProcessInstanceId(), externalTask.getId());
+    }
+
+    // when
+    externalTaskService.completeAll(WORKER_ID)
+      .task(taskIds.get(processInstance1.getId()), Variables.createVariables().putValue("var", 1))
+      .task(taskIds.get(processInstance2.getId()), Variables.createVariables().putValue("var", 2))
+      .execute();
+
+    // then each process instance received its own variables
+    assertEquals(1, runtimeService.getVariable(processInstance1.getId(), "var"));
+    assertEquals(2, runtimeService.getVariable(processInstance2.getId(), "var"));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testCompleteAllSkipsTasksWhichCannotBeCompleted() {
+    // given
+    ProcessInstance completedInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    ProcessInstance reclaimedInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    ProcessInstance suspendedInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(3, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+    Map<String, String> taskIds = new HashMap<String, String>();
+    for (LockedExternalTask externalTask : externalTasks) {
+      taskIds.put(externalTask.getProcessInstanceId(), externalTask.getId());
+    }
+    String completedTaskId = taskIds.get(completedInstance.getId());
+    String reclaimedTaskId = taskIds.get(reclaimedInstance.getId());
+    String suspendedTaskId = taskIds.get(suspendedInstance.getId());
+
+    // and a task is locked by another worker meanwhile
+    externalTaskService.unlock(reclaimedTaskId);
+    externalTaskService.fetchAndLock(1, "anotherWorkerId")
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    // and a process instance is suspended
+    runtimeService.suspendProcessInstanceById(suspendedInstance.getId());
+
+    // when
+    Map<String, ProcessEngineException> failures = externalTaskService.completeAll(WORKER_ID)
+      .task("nonExistingTaskId")
+      .task(reclaimedTaskId)
+      .task(suspendedTaskId)
+      .task(completedTaskId)
+      .execute();
+
+    // then the other tasks do not prevent the completion
+    assertProcessEnded(completedInstance.getId());
+    assertProcessNotEnded(reclaimedInstance.getId());
+    assertProcessNotEnded(suspendedInstance.getId());
+
+    assertEquals(3, failures.size());
+    assertTrue(failures.get("nonExistingTaskId") instanceof NotFoundException);
+    assertTrue(failures.get(reclaimedTaskId) instanceof BadUserRequestException);
+    assertTextPresent("It is locked by worker 'anotherWorkerId'.", failures.get(reclaimedTaskId).getMessage());
+    assertTextPresent("ExternalTask with id '" + suspendedTaskId + "' is suspended", failures.get(suspendedTaskId).getMessage());
+  }
+
+  public void testCompleteAllSkipsTasksDeletedByPrecedingCompletion() {
+    // given
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway()
+      .serviceTask("terminatingTask")
+        .camundaType("external")
+        .camundaTopic(TOPIC_NAME)
+      .endEvent("terminateEnd")
+      .moveToLastGateway()
+      .serviceTask("cancelledTask")
+        .camundaType("external")
+        .camundaTopic(TOPIC_NAME)
+      .endEvent()
+      .done();
+    EndEvent terminateEnd = process.getModelElementById("terminateEnd");
+    terminateEnd.addChildElement(process.newInstance(TerminateEventDefinition.class));
+
+    deployment(process);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+    String terminatingTaskId = externalTaskService.createExternalTaskQuery().activityId("terminatingTask").singleResult().getId();
+    String cancelledTaskId = externalTaskService.createExternalTaskQuery().activityId("cancelledTask").singleResult().getId();
+
+    // when the first completion terminates the process instance
+    Map<String, ProcessEngineException> failures = externalTaskService.completeAll(WORKER_ID)
+      .task(terminatingTaskId)
+      .task(cancelledTaskId)
+      .execute();
+
+    // then
+    assertProcessEnded(processInstance.getId());
+    assertEquals(1, failures.size());
+    assertTrue(failures.get(cancelledTaskId) instanceof NotFoundException);
+  }
+
+  public void testCompleteAllNullWorkerId() {
+    try {
+      externalTaskService.completeAll(null)
+        .task("aTaskId")
+        .execute();
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("workerId is null", e.getMessage());
+    }
+  }
+
+  public void testCompleteAllNullTaskId() {
+    try {
+      externalTaskService.completeAll(WORKER_ID).task(null);
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("externalTaskId is null", e.getMessage());
+    }
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
   public void testDeleteProcessInstance() {
     // given
@@ -0,0 +1,173 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.externaltask;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
+import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.impl.cmd.FetchExternalTasksCmd;
+import org.camunda.bpm.engine.impl.cmd.FetchExternalTasksForWorkersCmd;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskQueryTopicBuilderImpl;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class FetchExternalTasksForWorkersCmdTest extends PluggableProcessEngineTestCase {
+
+  protected static final String WORKER_A = "workerA";
+  protected static final String WORKER_B = "workerB";
+  protected static final long LOCK_TIME = 10000L;
+
+  protected void setUp() throws Exception {
+    ClockUtil.setCurrentTime(new Date());
+  }
+
+  protected void tearDown() throws Exception {
+    ClockUtil.reset();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testTasksAreDistributedRoundRobin() {
+    // given
+    startProcessInstances("oneExternalTaskProcess", 4);
+
+    // when
+    List<List<LockedExternalTask>> results = fetchForWorkers(
+        fetch(WORKER_A, 10).topic("externalTaskTopic", LOCK_TIME),
+        fetch(WORKER_B, 10).topic("externalTaskTopic", 2 * LOCK_TIME));
+
+    // then
+    assertEquals(2, results.size());
+    assertLockedFor(results.get(0), 2, WORKER_A, LOCK_TIME);
+    assertLockedFor(results.get(1), 2, WORKER_B, 2 * LOCK_TIME);
+
+    assertEquals(2, externalTaskService.createExternalTaskQuery().workerId(WORKER_A).locked().count());
+    assertEquals(2, externalTaskService.createExternalTaskQuery().workerId(WORKER_B).locked().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testMaxResultsOfEachWorkerAreRespected() {
+    // given
+    startProcessInstances("oneExternalTaskProcess", 4);
+
+    // when
+    List<List<LockedExternalTask>> results = fetchForWorkers(
+        fetch(WORKER_A, 1).topic("externalTaskTopic", LOCK_TIME),
+        fetch(WORKER_B, 2).topic("externalTaskTopic", LOCK_TIME));
+
+    // then the remaining task is neither locked for worker A nor for worker B
+    assertLockedFor(results.get(0), 1, WORKER_A, LOCK_TIME);
+    assertLockedFor(results.get(1), 2, WORKER_B, LOCK_TIME);
+    assertEquals(1, externalTaskService.createExternalTaskQuery().notLocked().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/parallelExternalTaskProcess.bpmn20.xml")
+  public void testTasksAreOnlyDistributedToWorkersOfTheirTopic() {
+    // given
+    startProcessInstances("parallelExternalTaskProcess", 2);
+
+    // when
+    List<List<LockedExternalTask>> results = fetchForWorkers(
+        fetch(WORKER_A, 10).topic("topic1", LOCK_TIME),
+        fetch(WORKER_B, 10).topic("topic2", LOCK_TIME).topic("topic3", LOCK_TIME));
+
+    // then
+    assertLockedFor(results.get(0), 2, WORKER_A, LOCK_TIME);
+    for (LockedExternalTask lockedTask : results.get(0)) {
+      assertEquals("topic1", lockedTask.getTopicName());
+    }
+
+    assertLockedFor(results.get(1), 4, WORKER_B, LOCK_TIME);
+    for (LockedExternalTask lockedTask : results.get(1)) {
+      assertFalse("topic1".equals(lockedTask.getTopicName()));
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testFetchFilteringByBusinessKeyIsRejected() {
+    // given
+    startProcessInstances("oneExternalTaskProcess", 1);
+
+    try {
+      // when
+      fetchForWorkers(
+          fetch(WORKER_A, 10).topic("externalTaskTopic", LOCK_TIME),
+          fetch(WORKER_B, 10).topic("externalTaskTopic", LOCK_TIME).businessKey("aBusinessKey"));
+      fail("exception expected");
+    }
+    catch (BadUserRequestException e) {
+      // then
+      assertTextPresent(WORKER_B, e.getMessage());
+    }
+
+    // and no task is locked
+    assertEquals(1, externalTaskService.createExternalTaskQuery().notLocked().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testInvalidFetchIsRejected() {
+    // given
+    startProcessInstances("oneExternalTaskProcess", 1);
+
+    try {
+      // when
+      fetchForWorkers(
+          fetch(WORKER_A, 10).topic("externalTaskTopic", LOCK_TIME),
+          fetch(WORKER_B, 10).topic("externalTaskTopic", -1));
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then
+      assertTextPresent("lockTime", e.getMessage());
+    }
+
+    assertEquals(1, externalTaskService.createExternalTaskQuery().notLocked().count());
+  }
+
+  protected ExternalTaskQueryBuilder fetch(String workerId, int maxTasks) {
+    return externalTaskService.fetchAndLock(maxTasks, workerId);
+  }
+
+  protected List<List<LockedExternalTask>> fetchForWorkers(ExternalTaskQueryTopicBuilder... fetchBuilders) {
+    FetchExternalTasksCmd[] fetches = new FetchExternalTasksCmd[fetchBuilders.length];
+    for (int i = 0; i < fetchBuilders.length; i++) {
+      fetches[i] = ((ExternalTaskQueryTopicBuilderImpl) fetchBuilders[i]).createFetchCommand();
+    }
+
+    return processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new FetchExternalTasksForWorkersCmd(Arrays.asList(fetches)));
+  }
+
+  protected void startProcessInstances(String processDefinitionKey, int count) {
+    for (int i = 0; i < count; i++) {
+      runtimeService.startProcessInstanceByKey(processDefinitionKey);
+    }
+  }
+
+  protected void assertLockedFor(List<LockedExternalTask> lockedTasks, int expectedCount, String workerId, long lockTime) {
+    assertEquals(expectedCount, lockedTasks.size());
+
+    Date expectedLockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + lockTime);
+    for (LockedExternalTask lockedTask : lockedTasks) {
+      assertEquals(workerId, lockedTask.getWorkerId());
+      assertEquals(expectedLockExpirationTime, lockedTask.getLockExpirationTime());
+    }
+  }
+
+}
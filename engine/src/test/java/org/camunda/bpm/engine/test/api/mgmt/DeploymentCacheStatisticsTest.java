@@ -0,0 +1,161 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.DecisionService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CachePurgeReport;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.WeightedCacheFactory;
+import org.camunda.bpm.engine.management.DeploymentCacheStatistics;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.api.runtime.migration.models.ProcessModels;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DeploymentCacheStatisticsTest {
+
+  protected static final String DECISION = "org/camunda/bpm/engine/test/api/dmn/DecisionWithLiteralExpression.dmn";
+
+  protected static final long MAX_WEIGHT = 1024 * 1024;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      WeightedCacheFactory cacheFactory = new WeightedCacheFactory();
+      cacheFactory.setDefaultMaxWeight(MAX_WEIGHT);
+      // no decision definition fits into the cache
+      cacheFactory.setMaxWeights(Collections.singletonMap(CachePurgeReport.DMN_DEF_CACHE, 1L));
+      configuration.setCacheFactory(cacheFactory);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ManagementService managementService;
+  protected RuntimeService runtimeService;
+  protected DecisionService decisionService;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    managementService = engineRule.getManagementService();
+    runtimeService = engineRule.getRuntimeService();
+    decisionService = engineRule.getDecisionService();
+  }
+
+  @Test
+  public void shouldProvideStatisticsOfAllCaches() {
+    List<String> cacheNames = new ArrayList<String>();
+    for (DeploymentCacheStatistics statistics : managementService.getDeploymentCacheStatistics()) {
+      cacheNames.add(statistics.getCacheName());
+    }
+
+    assertEquals(Arrays.asList(
+        CachePurgeReport.PROCESS_DEF_CACHE,
+        CachePurgeReport.BPMN_MODEL_INST_CACHE,
+        CachePurgeReport.CASE_DEF_CACHE,
+        CachePurgeReport.CASE_MODEL_INST_CACHE,
+        CachePurgeReport.DMN_DEF_CACHE,
+        CachePurgeReport.DMN_REQ_DEF_CACHE,
+        CachePurgeReport.DMN_MODEL_INST_CACHE), cacheNames);
+  }
+
+  @Test
+  public void shouldCountHitsAndMisses() {
+    // given
+    String processDefinitionId = testRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS).getId();
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+    DeploymentCacheStatistics before = getStatistics(CachePurgeReport.PROCESS_DEF_CACHE);
+
+    // when
+    runtimeService.startProcessInstanceById(processDefinitionId);
+    runtimeService.startProcessInstanceById(processDefinitionId);
+
+    // then
+    DeploymentCacheStatistics after = getStatistics(CachePurgeReport.PROCESS_DEF_CACHE);
+    assertTrue(after.getMissCount() > before.getMissCount());
+    assertTrue(after.getHitCount() > before.getHitCount());
+
+    assertEquals(1, after.getSize());
+    assertEquals(MAX_WEIGHT, after.getMaxWeight());
+    assertTrue(after.getWeight() > 0);
+    assertTrue(after.getWeight() <= after.getMaxWeight());
+  }
+
+  @Test
+  public void shouldKeepWeightWithinBudget() {
+    // when
+    for (int i = 0; i < 3; i++) {
+      testRule.deploy(ProcessModels.ONE_TASK_PROCESS);
+    }
+    runtimeService.startProcessInstanceByKey(ProcessModels.PROCESS_KEY);
+
+    // then
+    for (DeploymentCacheStatistics statistics : managementService.getDeploymentCacheStatistics()) {
+      assertTrue(statistics.getCacheName(), statistics.getWeight() <= statistics.getMaxWeight());
+    }
+  }
+
+  @Test
+  public void shouldUseDeployedDefinitionIfNotAdmitted() {
+    // given
+    testRule.deploy(DECISION);
+
+    // when
+    String result = decisionService.evaluateDecisionByKey("decision")
+      .variables(Variables.createVariables().putValue("sum", 1000))
+      .evaluate()
+      .getSingleEntry();
+
+    // then
+    assertEquals("ok", result);
+
+    DeploymentCacheStatistics statistics = getStatistics(CachePurgeReport.DMN_DEF_CACHE);
+    assertEquals(0, statistics.getSize());
+    assertEquals(0, statistics.getWeight());
+    assertEquals(1, statistics.getMaxWeight());
+    assertTrue(statistics.getMissCount() > 0);
+  }
+
+  protected DeploymentCacheStatistics getStatistics(String cacheName) {
+    for (DeploymentCacheStatistics statistics : managementService.getDeploymentCacheStatistics()) {
+      if (cacheName.equals(statistics.getCacheName())) {
+        return statistics;
+      }
+    }
+    throw new AssertionError("no statistics of cache " + cacheName);
+  }
+
+}
@@ -0,0 +1,289 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.metrics.rollup.MetricsRollupJobHandler;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterRollupEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.MetricIntervalValue;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class MetricsRollupTest {
+
+  protected static final long MINUTE = 60 * 1000L;
+  protected static final long HOUR = 60 * MINUTE;
+  protected static final long DAY = 24 * HOUR;
+
+  /**
+   * 2026-01-01T00:00:00Z
+   */
+  protected static final long START = 1767225600000L;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration
+        .setMetricsRollupEnabled(true)
+        .setMetricsRawRetentionDays(1);
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ManagementService managementService;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    managementService = engineRule.getManagementService();
+
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY + HOUR));
+    // the job was created on bootstrap with the current time as due date
+    managementService.setJobDuedate(getRollupJob().getId(), ClockUtil.getCurrentTime());
+
+    insertMeterLog(START + 10 * MINUTE, 1);
+    insertMeterLog(START + HOUR + 10 * MINUTE, 1);
+    insertMeterLog(START + DAY + 10 * MINUTE, 2);
+  }
+
+  @After
+  public void tearDown() {
+    ClockUtil.reset();
+    managementService.deleteMetrics(null);
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        for (Job job : commandContext.getJobManager().findJobsByHandlerType(MetricsRollupJobHandler.TYPE)) {
+          commandContext.getJobManager().deleteJob((JobEntity) job);
+          commandContext.getHistoricJobLogManager().deleteHistoricJobLogByJobId(job.getId());
+        }
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void testRollupJobIsCreatedOnBootstrap() {
+    Job job = getRollupJob();
+
+    assertEquals(MetricsRollupJobHandler.TYPE, ((JobEntity) job).getJobHandlerType());
+  }
+
+  @Test
+  public void testIntervalQueryReadsRollups() {
+    rollUp();
+
+    // the meter logs of the first day are deleted
+    ClockUtil.setCurrentTime(new Date(START + 3 * DAY + HOUR));
+    rollUp();
+    assertEquals(1L, getMeterLogCount());
+
+    // daily rollup and meter log of the second day
+    List<MetricIntervalValue> days = managementService.createMetricsQuery().name("test").interval(24 * 60 * 60);
+    assertEquals(2, days.size());
+    assertInterval(START + DAY, 2, days.get(0));
+    assertInterval(START, 2, days.get(1));
+
+    // hourly rollups
+    List<MetricIntervalValue> hours = managementService.createMetricsQuery().name("test").interval(60 * 60);
+    assertEquals(3, hours.size());
+    assertInterval(START + DAY, 2, hours.get(0));
+    assertInterval(START + HOUR, 1, hours.get(1));
+    assertInterval(START, 1, hours.get(2));
+
+    // meter logs and hourly rollups whose meter logs are deleted, counted for the quarter of their start
+    List<MetricIntervalValue> quarters = managementService.createMetricsQuery().name("test").interval(15 * 60);
+    assertEquals(3, quarters.size());
+    assertInterval(START + DAY, 2, quarters.get(0));
+    assertInterval(START + HOUR, 1, quarters.get(1));
+    assertInterval(START, 1, quarters.get(2));
+
+    // hours within an interval from the rollups, the others from the meter logs
+    List<MetricIntervalValue> ninetyMinutes = managementService.createMetricsQuery().name("test").interval(90 * 60);
+    assertEquals(2, ninetyMinutes.size());
+    assertInterval(START + DAY, 2, ninetyMinutes.get(0));
+    assertInterval(START, 2, ninetyMinutes.get(1));
+  }
+
+  @Test
+  public void testIntervalQueryCombinesRollupsAndMeterLogs() {
+    // an hour which spans two intervals of 90 minutes
+    insertMeterLog(START + 2 * DAY - 2 * HOUR + 20 * MINUTE, 1);
+    insertMeterLog(START + 2 * DAY - 2 * HOUR + 40 * MINUTE, 4);
+    rollUp();
+
+    List<MetricIntervalValue> ninetyMinutes = managementService.createMetricsQuery().name("test")
+        .startDate(new Date(START + DAY))
+        .interval(90 * 60);
+
+    // the hour is split between the intervals by its meter logs
+    assertEquals(3, ninetyMinutes.size());
+    assertInterval(START + 2 * DAY - 90 * MINUTE, 4, ninetyMinutes.get(0));
+    assertInterval(START + 2 * DAY - 3 * HOUR, 1, ninetyMinutes.get(1));
+    assertInterval(START + DAY, 2, ninetyMinutes.get(2));
+  }
+
+  @Test
+  public void testSumQueryReadsRollups() {
+    rollUp();
+    ClockUtil.setCurrentTime(new Date(START + 3 * DAY + HOUR));
+    rollUp();
+
+    assertEquals(4L, managementService.createMetricsQuery().name("test").sum());
+    assertEquals(3L, managementService.createMetricsQuery()
+        .name("test")
+        .startDate(new Date(START + HOUR))
+        .sum());
+  }
+
+  @Test
+  public void testDeleteMetricsDeletesRollups() {
+    rollUp();
+
+    managementService.deleteMetrics(null);
+
+    assertEquals(0L, getMeterLogCount());
+    assertEquals(0L, getTableCount("ACT_RU_METER_ROLLUP"));
+  }
+
+  @Test
+  public void testDeleteMetricsByTimestampKeepsRollupsEndingAfterIt() {
+    rollUp();
+    long rollupCount = getTableCount("ACT_RU_METER_ROLLUP");
+
+    // within the second hour
+    managementService.deleteMetrics(new Date(START + HOUR + 30 * MINUTE));
+
+    // only the rollup of the first hour ends before
+    assertEquals(rollupCount - 1, getTableCount("ACT_RU_METER_ROLLUP"));
+  }
+
+  @Test
+  public void testHourIsRolledUpAfterReportingInterval() {
+    rollUp();
+    insertMeterLog(START + 2 * DAY + 10 * MINUTE, 3);
+
+    // when the reporting interval after the hour has not passed yet
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY + HOUR + 10 * MINUTE));
+    rollUp();
+
+    // then the hour is not rolled up yet
+    assertEquals(Long.valueOf(START + 2 * DAY), findRollupEnd(MeterRollupEntity.PERIOD_HOUR));
+
+    // and a meter log written late is contained in the rollup of its hour
+    insertMeterLog(START + 2 * DAY + 55 * MINUTE, 1);
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY + HOUR + 30 * MINUTE));
+    rollUp();
+
+    assertEquals(Long.valueOf(START + 2 * DAY + HOUR), findRollupEnd(MeterRollupEntity.PERIOD_HOUR));
+    assertEquals(4L, managementService.createMetricsQuery()
+        .name("test")
+        .startDate(new Date(START + 2 * DAY))
+        .sum());
+  }
+
+  @Test
+  public void testMeterLogsAreDeletedInBatches() {
+    for (int hour = 0; hour < 48; hour++) {
+      insertMeterLog(START + hour * HOUR, 1);
+    }
+    processEngineConfiguration.setMetricsRawRetentionDays(0);
+    rollUp();
+    // the daily rollup of the last day is created by the next execution
+    managementService.executeJob(getRollupJob().getId());
+    assertEquals(51L, getMeterLogCount());
+
+    // when
+    processEngineConfiguration.setMetricsRawRetentionDays(1);
+    managementService.executeJob(getRollupJob().getId());
+
+    // then the meter logs of the first day are deleted
+    assertEquals(25L, getMeterLogCount());
+
+    // and the remaining meter logs before the retention right away
+    assertFalse(getRollupJob().getDuedate().after(ClockUtil.getCurrentTime()));
+    managementService.executeJob(getRollupJob().getId());
+    assertEquals(23L, getMeterLogCount());
+  }
+
+  /**
+   * executes the rollup job until it is not due anymore
+   */
+  protected void rollUp() {
+    for (int i = 0; i < 20; i++) {
+      Job job = getRollupJob();
+      if (job.getDuedate().after(ClockUtil.getCurrentTime())) {
+        return;
+      }
+      managementService.executeJob(job.getId());
+    }
+  }
+
+  protected Job getRollupJob() {
+    return managementService.createJobQuery().singleResult();
+  }
+
+  protected Long findRollupEnd(final int period) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Long>() {
+      public Long execute(CommandContext commandContext) {
+        return commandContext.getMeterLogManager().findRollupEnd(period);
+      }
+    });
+  }
+
+  protected void insertMeterLog(final long milliseconds, final long value) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getMeterLogManager().insert(new MeterLogEntity("test", "aReporter", value, new Date(milliseconds)));
+        return null;
+      }
+    });
+  }
+
+  protected long getMeterLogCount() {
+    return getTableCount("ACT_RU_METER_LOG");
+  }
+
+  protected long getTableCount(String tableName) {
+    return managementService.getTableCount().get(processEngineConfiguration.getDatabaseTablePrefix() + tableName);
+  }
+
+  protected void assertInterval(long expectedTimestamp, long expectedValue, MetricIntervalValue actual) {
+    assertEquals(expectedTimestamp, actual.getTimestamp().getTime());
+    assertEquals(expectedValue, actual.getValue());
+  }
+
+}
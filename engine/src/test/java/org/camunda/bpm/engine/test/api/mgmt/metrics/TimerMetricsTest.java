@@ -0,0 +1,126 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.metrics.Timer;
+import org.camunda.bpm.engine.impl.metrics.export.PrometheusTextFormat;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class TimerMetricsTest {
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setTimerMetricsEnabled(true);
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+  }
+
+  @Test
+  public void testTimersAreDisabledByDefault() {
+    assertFalse(new StandaloneInMemProcessEngineConfiguration().isTimerMetricsEnabled());
+  }
+
+  @Test
+  public void testCommandExecutionTime() {
+    long countBefore = getCount(Metrics.COMMAND_EXECUTION_TIME);
+
+    // when
+    engineRule.getManagementService().getTableCount();
+
+    // then
+    assertEquals(countBefore + 1, getCount(Metrics.COMMAND_EXECUTION_TIME));
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testFlushAndExternalTaskFetchTime() {
+    engineRule.getRuntimeService().startProcessInstanceByKey("oneExternalTaskProcess");
+    long fetchCountBefore = getCount(Metrics.EXTERNAL_TASK_FETCH_TIME);
+    long flushCountBefore = getCount(Metrics.DB_FLUSH_TIME);
+
+    // when
+    engineRule.getExternalTaskService().fetchAndLock(1, "aWorker")
+      .topic("externalTaskTopic", 1000L)
+      .execute();
+
+    // then
+    assertEquals(fetchCountBefore + 1, getCount(Metrics.EXTERNAL_TASK_FETCH_TIME));
+    assertEquals(flushCountBefore + 1, getCount(Metrics.DB_FLUSH_TIME));
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/metrics/asyncServiceTaskProcess.bpmn20.xml")
+  public void testJobExecutionAndAcquisitionTime() {
+    engineRule.getRuntimeService().startProcessInstanceByKey("asyncServiceTaskProcess");
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(5000);
+
+    // then
+    assertTrue(getCount(Metrics.JOB_ACQUISITION_TIME) > 0);
+    assertTrue(getCount(Metrics.JOB_EXECUTION_TIME) > 0);
+  }
+
+  @Test
+  public void testPrometheusTextFormat() throws Exception {
+    engineRule.getManagementService().getTableCount();
+    String engineName = engineRule.getProcessEngine().getName();
+
+    // when
+    StringWriter writer = new StringWriter();
+    new PrometheusTextFormat().write(writer, engineName, processEngineConfiguration.getMetricsRegistry());
+
+    // then
+    String text = writer.toString();
+    testRule.assertTextPresent("# TYPE camunda_command_execution_time_seconds summary", text);
+    testRule.assertTextPresent("camunda_command_execution_time_seconds{engine=\"" + engineName + "\",quantile=\"0.99\"}", text);
+    testRule.assertTextPresent("# TYPE camunda_activity_instance_start_total counter", text);
+  }
+
+  protected long getCount(String timerName) {
+    Timer timer = processEngineConfiguration.getMetricsTimer(timerName);
+    assertNotNull(timer);
+    return timer.getSnapshot().getCount();
+  }
+
+}
@@ -0,0 +1,127 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsSkipLockedCmd;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultAcquireJobsCommandFactory;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class AcquireJobsSkipLockedCmdTest extends PluggableProcessEngineTestCase {
+
+  protected static final String ONE_JOB_PROCESS = "org/camunda/bpm/engine/test/standalone/jobexecutor/oneJobProcess.bpmn20.xml";
+
+  @Deployment(resources = ONE_JOB_PROCESS)
+  public void testAcquiredJobsAreNotAcquiredAgain() {
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+    makeJobsDue();
+
+    assertEquals(2, executeAcquireJobsCommand(2).size());
+    assertEquals(1, executeAcquireJobsCommand(2).size());
+    assertEquals(0, executeAcquireJobsCommand(2).size());
+  }
+
+  @Deployment(resources = ONE_JOB_PROCESS)
+  public void testJobsNotVisibleToAcquisitionIfInstanceSuspended() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+    makeJobsDue();
+
+    runtimeService.suspendProcessInstanceById(processInstanceId);
+
+    assertEquals(0, executeAcquireJobsCommand(2).size());
+  }
+
+  public void testCommandFactoryProvidesSkipLockedCommand() {
+    JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+    DefaultAcquireJobsCommandFactory commandFactory = new DefaultAcquireJobsCommandFactory(jobExecutor);
+
+    boolean acquireWithSkipLocked = jobExecutor.isAcquireWithSkipLocked();
+    try {
+      jobExecutor.setAcquireWithSkipLocked(true);
+      assertTrue(commandFactory.getCommand(1) instanceof AcquireJobsSkipLockedCmd);
+
+      jobExecutor.setAcquireWithSkipLocked(false);
+      assertFalse(commandFactory.getCommand(1) instanceof AcquireJobsSkipLockedCmd);
+    }
+    finally {
+      jobExecutor.setAcquireWithSkipLocked(acquireWithSkipLocked);
+    }
+  }
+
+  public void testSkipLockedRequiresMySql8() {
+    DbSqlSessionFactory dbSqlSessionFactory = new DbSqlSessionFactory();
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.MYSQL);
+
+    dbSqlSessionFactory.setDatabaseMajorVersion(5);
+    dbSqlSessionFactory.setDatabaseMinorVersion(7);
+    assertFalse(dbSqlSessionFactory.isSkipLockedSupported());
+
+    dbSqlSessionFactory.setDatabaseMajorVersion(8);
+    dbSqlSessionFactory.setDatabaseMinorVersion(0);
+    assertTrue(dbSqlSessionFactory.isSkipLockedSupported());
+
+    // the version is not relevant for other databases
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.ORACLE);
+    dbSqlSessionFactory.setDatabaseMajorVersion(-1);
+    dbSqlSessionFactory.setDatabaseMinorVersion(-1);
+    assertTrue(dbSqlSessionFactory.isSkipLockedSupported());
+  }
+
+  public void testSkipLockedRequiresPostgres95() {
+    DbSqlSessionFactory dbSqlSessionFactory = new DbSqlSessionFactory();
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.POSTGRES);
+
+    dbSqlSessionFactory.setDatabaseMajorVersion(9);
+    dbSqlSessionFactory.setDatabaseMinorVersion(4);
+    assertFalse(dbSqlSessionFactory.isSkipLockedSupported());
+
+    dbSqlSessionFactory.setDatabaseMinorVersion(5);
+    assertTrue(dbSqlSessionFactory.isSkipLockedSupported());
+
+    dbSqlSessionFactory.setDatabaseMajorVersion(10);
+    dbSqlSessionFactory.setDatabaseMinorVersion(0);
+    assertTrue(dbSqlSessionFactory.isSkipLockedSupported());
+  }
+
+  protected void makeJobsDue() {
+    processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          Date currentTime = ClockUtil.getCurrentTime();
+          for (Job job : managementService.createJobQuery().list()) {
+            commandContext.getJobManager()
+              .findJobById(job.getId())
+              .setDuedate(new Date(currentTime.getTime() - 10000));
+          }
+          return null;
+        }
+      });
+  }
+
+  protected AcquiredJobs executeAcquireJobsCommand(int numJobsToAcquire) {
+    return processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new AcquireJobsSkipLockedCmd(processEngineConfiguration.getJobExecutor(), numJobsToAcquire));
+  }
+
+}
@@ -0,0 +1,166 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.DbJobNotificationChannel;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DbJobNotificationChannelTest {
+
+  protected RecordingJobExecutor jobExecutor = new RecordingJobExecutor();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setJobExecutor(jobExecutor);
+      return configuration
+        .setJobNotificationEnabled(true)
+        // the test polls manually
+        .setJobNotificationPollIntervalInMillis(60 * 60 * 1000);
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected DbJobNotificationChannel jobNotificationChannel;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    jobNotificationChannel = (DbJobNotificationChannel) processEngineConfiguration.getJobNotificationChannel();
+  }
+
+  @After
+  public void deleteNotification() {
+    engineRule.getManagementService().deleteProperty(DbJobNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+  }
+
+  @Test
+  public void testNotificationIsPublishedForDueJobs() {
+    deployAndStart(Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    jobNotificationChannel.poll();
+
+    assertEquals("1:" + jobExecutor.getLockOwner(), getNotification());
+  }
+
+  @Test
+  public void testNoNotificationIsPublishedForFutureTimers() {
+    deployAndStart(Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent()
+        .timerWithDuration("PT1H")
+      .endEvent()
+      .done());
+
+    jobNotificationChannel.poll();
+
+    assertNull(getNotification());
+  }
+
+  @Test
+  public void testNotificationOfOtherNodeWakesUpAcquisition() {
+    jobNotificationChannel.poll();
+    assertEquals(0, jobExecutor.jobsAdded);
+
+    // when another node publishes a notification
+    setNotification("1:otherNode");
+    jobNotificationChannel.poll();
+
+    // then the job acquisition is woken up once
+    assertEquals(1, jobExecutor.jobsAdded);
+    jobNotificationChannel.poll();
+    assertEquals(1, jobExecutor.jobsAdded);
+
+    // but not by its own notification
+    jobNotificationChannel.jobsAdded(null);
+    jobNotificationChannel.poll();
+    jobNotificationChannel.poll();
+    assertEquals(1, jobExecutor.jobsAdded);
+    assertEquals("2:" + jobExecutor.getLockOwner(), getNotification());
+  }
+
+  protected void deployAndStart(BpmnModelInstance process) {
+    testRule.deploy(process);
+    engineRule.getRuntimeService().startProcessInstanceByKey("process");
+  }
+
+  protected String getNotification() {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<String>() {
+      public String execute(CommandContext commandContext) {
+        PropertyEntity property = commandContext.getPropertyManager().findPropertyById(DbJobNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+        return property != null ? property.getValue() : null;
+      }
+    });
+  }
+
+  protected void setNotification(final String notification) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        PropertyEntity property = commandContext.getPropertyManager().findPropertyById(DbJobNotificationChannel.NOTIFICATION_PROPERTY_NAME);
+        if (property == null) {
+          commandContext.getDbEntityManager().insert(new PropertyEntity(DbJobNotificationChannel.NOTIFICATION_PROPERTY_NAME, notification));
+        }
+        else {
+          property.setValue(notification);
+        }
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Pretends to be active without acquiring jobs and records wake ups.
+   */
+  public static class RecordingJobExecutor extends DefaultJobExecutor {
+
+    protected volatile int jobsAdded = 0;
+
+    public boolean isActive() {
+      return true;
+    }
+
+    public void jobWasAdded() {
+      jobsAdded++;
+    }
+  }
+
+}
@@ -0,0 +1,247 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.RenewJobPartitionLeasesCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitioning;
+import org.camunda.bpm.engine.impl.jobexecutor.SequentialJobAcquisitionRunnable;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobPartitioningTest {
+
+  protected static final int PARTITION_COUNT = 4;
+  protected static final long LEASE_TIME = 30000;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration
+        .setJobExecutorPartitioningEnabled(true)
+        .setJobExecutorPartitionCount(PARTITION_COUNT)
+        .setJobExecutorPartitionLeaseTimeInMillis(LEASE_TIME);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected JobPartitioning jobPartitioning;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    jobPartitioning = processEngineConfiguration.getJobPartitioning();
+  }
+
+  @After
+  public void releaseLeases() {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        for (PropertyEntity lease : commandContext.getPropertyManager().findPropertiesByNamePrefix(JobPartitioning.LEASE_PROPERTY_PREFIX)) {
+          lease.setValue("");
+        }
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void testLeasesAreCreatedOnStartup() {
+    assertEquals(PARTITION_COUNT, findLeases().size());
+  }
+
+  @Test
+  public void testPartitionsAreRebalancedWhenOwnerJoins() {
+    assertEquals(PARTITION_COUNT, getOwnedPartitions("owner1").size());
+
+    // owner2 takes over partitions of owner1
+    Set<Integer> partitionsOfOwner2 = getOwnedPartitions("owner2");
+    assertEquals(PARTITION_COUNT / 2, partitionsOfOwner2.size());
+
+    // owner1 notices it on the next heartbeat
+    jobPartitioning.requestHeartbeat();
+    Set<Integer> partitionsOfOwner1 = getOwnedPartitions("owner1");
+    assertEquals(PARTITION_COUNT / 2, partitionsOfOwner1.size());
+
+    assertTrue(Collections.disjoint(partitionsOfOwner1, partitionsOfOwner2));
+  }
+
+  @Test
+  public void testExpiredLeasesAreClaimed() {
+    assertEquals(PARTITION_COUNT, getOwnedPartitions("owner1").size());
+
+    // owner1 does not renew its leases
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + LEASE_TIME + 1));
+
+    assertEquals(PARTITION_COUNT, getOwnedPartitions("owner2").size());
+  }
+
+  @Test
+  public void testLeasesAreNotRegisteredOnRollback() {
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          jobPartitioning.getOwnedPartitions(commandContext, "owner1");
+          throw new ProcessEngineException("rollback");
+        }
+      });
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    // the leases are claimed again instead of being taken from the rolled back heartbeat
+    assertEquals(PARTITION_COUNT, getOwnedPartitions("owner1").size());
+
+    for (PropertyEntity lease : findLeases()) {
+      assertTrue(lease.getValue().startsWith("owner1:"));
+    }
+  }
+
+  @Test
+  public void testAcquisitionWaitsAtMostTheHeartbeatInterval() {
+    // the process engine is registered with its job executor
+    WaitTimeCappingAcquisition acquisition = new WaitTimeCappingAcquisition(processEngineConfiguration.getJobExecutor());
+
+    assertEquals(jobPartitioning.getHeartbeatIntervalInMillis(), acquisition.capWaitTime(60000));
+    assertEquals(100, acquisition.capWaitTime(100));
+  }
+
+  @Test
+  public void testLeasesAreRenewedWithoutAcquisition() {
+    getOwnedPartitions("owner1");
+    List<String> leaseValues = getLeaseValues();
+
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + jobPartitioning.getHeartbeatIntervalInMillis()));
+    Set<Integer> ownedPartitions = processEngineConfiguration.getCommandExecutorTxRequired()
+        .execute(new RenewJobPartitionLeasesCmd(jobPartitioning, "owner1"));
+
+    assertEquals(PARTITION_COUNT, ownedPartitions.size());
+    for (String leaseValue : getLeaseValues()) {
+      assertFalse(leaseValues.contains(leaseValue));
+    }
+  }
+
+  @Test
+  public void testJobsAreAcquiredFromOwnedPartitionsOnly() {
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done();
+    testRule.deploy(process);
+
+    for (int i = 0; i < 20; i++) {
+      engineRule.getRuntimeService().startProcessInstanceByKey("process");
+    }
+
+    Set<Integer> jobPartitions = new HashSet<Integer>();
+    for (Job job : engineRule.getManagementService().createJobQuery().list()) {
+      jobPartitions.add(jobPartitioning.getPartition(job.getId()));
+    }
+
+    for (Integer partition : jobPartitions) {
+      List<JobEntity> acquirableJobs = findAcquirableJobs(Collections.singleton(partition));
+      assertFalse(acquirableJobs.isEmpty());
+
+      for (JobEntity job : acquirableJobs) {
+        assertEquals(partition, job.getPartition());
+      }
+    }
+  }
+
+  protected Set<Integer> getOwnedPartitions(final String owner) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Set<Integer>>() {
+      public Set<Integer> execute(CommandContext commandContext) {
+        return jobPartitioning.getOwnedPartitions(commandContext, owner);
+      }
+    });
+  }
+
+  protected List<String> getLeaseValues() {
+    List<String> leaseValues = new ArrayList<String>();
+    for (PropertyEntity lease : findLeases()) {
+      leaseValues.add(lease.getValue());
+    }
+    return leaseValues;
+  }
+
+  protected List<PropertyEntity> findLeases() {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<PropertyEntity>>() {
+      public List<PropertyEntity> execute(CommandContext commandContext) {
+        return commandContext.getPropertyManager().findPropertiesByNamePrefix(JobPartitioning.LEASE_PROPERTY_PREFIX);
+      }
+    });
+  }
+
+  protected List<JobEntity> findAcquirableJobs(final Set<Integer> partitions) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<JobEntity>>() {
+      public List<JobEntity> execute(CommandContext commandContext) {
+        return commandContext
+          .getJobManager()
+          .findNextJobsToExecute(new Page(0, 100), partitions);
+      }
+    });
+  }
+
+  public static class WaitTimeCappingAcquisition extends SequentialJobAcquisitionRunnable {
+
+    public WaitTimeCappingAcquisition(JobExecutor jobExecutor) {
+      super(jobExecutor);
+    }
+
+    public long capWaitTime(long waitTime) {
+      return super.capWaitTime(waitTime);
+    }
+  }
+
+}
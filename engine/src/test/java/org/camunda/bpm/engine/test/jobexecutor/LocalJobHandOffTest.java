@@ -0,0 +1,242 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class LocalJobHandOffTest {
+
+  protected static final BpmnModelInstance TWO_ASYNC_STEPS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+        .camundaExpression("${true}")
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+        .camundaExpression("${true}")
+      .userTask()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance CALLING_PROCESS = Bpmn.createExecutableProcess("callingProcess")
+      .startEvent()
+      .callActivity()
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+        .calledElement("calledProcess")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance CALLED_PROCESS = Bpmn.createExecutableProcess("calledProcess")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+        .camundaExpression("${true}")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_EXCLUSIVE_STEPS_PROCESS = Bpmn.createExecutableProcess("parallelProcess")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+        .camundaExpression("${true}")
+      .parallelGateway("fork")
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaClass(ConcurrencyRecordingDelegate.class.getName())
+      .parallelGateway("join")
+      .userTask()
+      .endEvent()
+      .moveToNode("fork")
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaClass(ConcurrencyRecordingDelegate.class.getName())
+      .connectTo("join")
+      .done();
+
+  protected HandOffRejectingJobExecutor jobExecutor = new HandOffRejectingJobExecutor();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setJobExecutor(jobExecutor);
+      configuration.setJobExecutorLocalHandOffEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    testRule.deploy(TWO_ASYNC_STEPS_PROCESS);
+    ConcurrencyRecordingDelegate.maxConcurrentExecutions = 0;
+  }
+
+  @After
+  public void tearDown() {
+    jobExecutor.shutdown();
+  }
+
+  @Test
+  public void testJobCreatedByJobExecutorIsHandedOff() throws InterruptedException {
+    String processInstanceId = engineRule.getRuntimeService().startProcessInstanceByKey("process").getId();
+
+    jobExecutor.start();
+    assertNotNull(waitForTask(processInstanceId));
+
+    // only the job created by the test thread is acquired
+    assertEquals(1, getMeterValue(Metrics.JOB_HANDED_OFF));
+    assertEquals(1, getMeterValue(Metrics.JOB_ACQUIRED_SUCCESS));
+  }
+
+  @Test
+  public void testRejectedJobIsLeftToAcquisition() throws InterruptedException {
+    jobExecutor.rejectHandOff = true;
+    String processInstanceId = engineRule.getRuntimeService().startProcessInstanceByKey("process").getId();
+
+    jobExecutor.start();
+    assertNotNull(waitForTask(processInstanceId));
+
+    assertEquals(0, getMeterValue(Metrics.JOB_HANDED_OFF));
+    assertEquals(2, getMeterValue(Metrics.JOB_ACQUIRED_SUCCESS));
+  }
+
+  @Test
+  public void testJobOfUnregisteredDeploymentIsNotHandedOff() throws InterruptedException {
+    Deployment callingDeployment = testRule.deploy(CALLING_PROCESS);
+    testRule.deploy(CALLED_PROCESS);
+
+    processEngineConfiguration.setJobExecutorDeploymentAware(true);
+    engineRule.getManagementService().registerDeploymentForJobExecutor(callingDeployment.getId());
+
+    engineRule.getRuntimeService().startProcessInstanceByKey("callingProcess");
+
+    jobExecutor.start();
+    Job job = waitForJob("calledProcess");
+
+    // the job of the called process is neither handed off nor acquired
+    assertNotNull(job);
+    assertNull(((JobEntity) job).getLockOwner());
+    assertEquals(0, getMeterValue(Metrics.JOB_HANDED_OFF));
+    assertEquals(1, getMeterValue(Metrics.JOB_ACQUIRED_SUCCESS));
+  }
+
+  @Test
+  public void testExclusiveJobsAreNotHandedOff() throws InterruptedException {
+    testRule.deploy(PARALLEL_EXCLUSIVE_STEPS_PROCESS);
+    String processInstanceId = engineRule.getRuntimeService().startProcessInstanceByKey("parallelProcess").getId();
+
+    jobExecutor.start();
+    assertNotNull(waitForTask(processInstanceId));
+
+    // the exclusive jobs of the process instance are acquired together and executed one after the other
+    assertEquals(0, getMeterValue(Metrics.JOB_HANDED_OFF));
+    assertEquals(3, getMeterValue(Metrics.JOB_ACQUIRED_SUCCESS));
+    assertEquals(1, ConcurrencyRecordingDelegate.maxConcurrentExecutions);
+  }
+
+  protected Job waitForJob(String processDefinitionKey) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 20000;
+    Job job = null;
+    while (job == null && System.currentTimeMillis() < timeout) {
+      Thread.sleep(100);
+      job = engineRule.getManagementService().createJobQuery().processDefinitionKey(processDefinitionKey).singleResult();
+    }
+    return job;
+  }
+
+  protected Task waitForTask(String processInstanceId) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 20000;
+    Task task = null;
+    while (task == null && System.currentTimeMillis() < timeout) {
+      Thread.sleep(100);
+      task = engineRule.getTaskService().createTaskQuery().processInstanceId(processInstanceId).singleResult();
+    }
+    return task;
+  }
+
+  protected long getMeterValue(String name) {
+    return processEngineConfiguration.getMetricsRegistry().getMeterByName(name).get();
+  }
+
+  public static class ConcurrencyRecordingDelegate implements JavaDelegate {
+
+    protected static AtomicInteger concurrentExecutions = new AtomicInteger();
+    protected static volatile int maxConcurrentExecutions = 0;
+
+    public void execute(DelegateExecution execution) throws Exception {
+      int executions = concurrentExecutions.incrementAndGet();
+      maxConcurrentExecutions = Math.max(maxConcurrentExecutions, executions);
+      try {
+        // gives a concurrent execution the chance to overlap
+        Thread.sleep(200);
+      }
+      finally {
+        concurrentExecutions.decrementAndGet();
+      }
+    }
+  }
+
+  public static class HandOffRejectingJobExecutor extends DefaultJobExecutor {
+
+    protected volatile boolean rejectHandOff = false;
+
+    public boolean tryExecuteJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // hand-offs are submitted by job execution threads, acquired jobs by the acquisition thread
+      if (rejectHandOff && Context.getJobExecutorContext() != null) {
+        return false;
+      }
+      return super.tryExecuteJobs(jobIds, processEngine);
+    }
+  }
+
+}
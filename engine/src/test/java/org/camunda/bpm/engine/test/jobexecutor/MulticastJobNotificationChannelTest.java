@@ -0,0 +1,123 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.MulticastSocket;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.MulticastJobNotificationChannel;
+import org.camunda.bpm.engine.test.jobexecutor.DbJobNotificationChannelTest.RecordingJobExecutor;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Exchanges notifications between the channel of the process engine and a second
+ * channel pretending to be another node. The datagrams do not leave the host.
+ */
+public class MulticastJobNotificationChannelTest {
+
+  protected static final int PORT = 27127;
+  protected static final long TIMEOUT_MILLIS = 5000;
+
+  protected RecordingJobExecutor jobExecutor = new RecordingJobExecutor();
+  protected MulticastJobNotificationChannel jobNotificationChannel = createChannel();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setJobExecutor(jobExecutor);
+      return configuration.setJobNotificationChannel(jobNotificationChannel);
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule);
+
+  protected MulticastJobNotificationChannel otherNodeChannel;
+
+  @Before
+  public void startOtherNode() {
+    otherNodeChannel = new OtherNodeChannel();
+    otherNodeChannel.setPort(PORT);
+    otherNodeChannel.start((ProcessEngineImpl) engineRule.getProcessEngine());
+  }
+
+  @After
+  public void stopOtherNode() {
+    otherNodeChannel.stop();
+  }
+
+  @Test
+  public void testNotificationOfOtherNodeWakesUpAcquisition() {
+    otherNodeChannel.jobsAdded(null);
+
+    waitForJobsAdded(1);
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void testOwnNotificationIsIgnored() {
+    jobNotificationChannel.jobsAdded(null);
+    // the notification of the other node is received after the own one
+    otherNodeChannel.jobsAdded(null);
+
+    waitForJobsAdded(1);
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  protected MulticastJobNotificationChannel createChannel() {
+    MulticastJobNotificationChannel channel = new MulticastJobNotificationChannel();
+    channel.setPort(PORT);
+    return channel;
+  }
+
+  protected void waitForJobsAdded(int expected) {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (jobExecutor.jobsAdded < expected && System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sends notifications on behalf of another node but does not wake up
+   * the job executor of the process engine itself.
+   */
+  protected static class OtherNodeChannel extends MulticastJobNotificationChannel {
+
+    public synchronized void start(ProcessEngineImpl processEngine) {
+      super.start(processEngine);
+      nodeId = "otherNode";
+    }
+
+    protected void receive(MulticastSocket socket) {
+      // only the channel of the process engine receives notifications
+    }
+  }
+
+}
@@ -0,0 +1,190 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.BackoffJobAcquisitionStrategy;
+import org.camunda.bpm.engine.impl.jobexecutor.JobAcquisitionContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.RejectedJobsHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.SemaphoreJobExecutor;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class SemaphoreJobExecutorTest {
+
+  protected static final int MAX_ACTIVE_CONNECTIONS = 5;
+  protected static final int RESERVED_CONNECTIONS = 2;
+  protected static final int CONNECTION_LIMIT = MAX_ACTIVE_CONNECTIONS - RESERVED_CONNECTIONS;
+
+  protected BlockingJobExecutor jobExecutor = new BlockingJobExecutor();
+  protected List<List<String>> rejectedJobs = new CopyOnWriteArrayList<List<String>>();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      jobExecutor.setMaxConcurrentJobs(10);
+      jobExecutor.setReservedConnections(RESERVED_CONNECTIONS);
+
+      configuration.setJdbcMaxActiveConnections(MAX_ACTIVE_CONNECTIONS);
+      configuration.setJobExecutor(jobExecutor);
+      configuration.setCustomRejectedJobsHandler(new RejectedJobsHandler() {
+        public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine, JobExecutor jobExecutor) {
+          rejectedJobs.add(jobIds);
+        }
+      });
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule);
+
+  protected ProcessEngineImpl processEngine;
+
+  @Before
+  public void setUp() {
+    processEngine = (ProcessEngineImpl) engineRule.getProcessEngine();
+    jobExecutor.start();
+  }
+
+  @After
+  public void tearDown() {
+    jobExecutor.release();
+    jobExecutor.shutdown();
+  }
+
+  @Test
+  public void testConcurrentExecutionIsLimitedByConnections() throws InterruptedException {
+    assertEquals(CONNECTION_LIMIT, jobExecutor.getAvailableExecutionCapacity(processEngine.getName()));
+
+    // when submitting more job batches than connections are available
+    for (int i = 0; i < CONNECTION_LIMIT + 1; i++) {
+      jobExecutor.executeJobs(Arrays.asList("job" + i), processEngine);
+    }
+
+    // then the last batch is rejected
+    assertTrue(jobExecutor.awaitRunning(CONNECTION_LIMIT));
+    assertEquals(1, rejectedJobs.size());
+    assertEquals(Arrays.asList("job" + CONNECTION_LIMIT), rejectedJobs.get(0));
+    assertEquals(0, jobExecutor.getAvailableExecutionCapacity(processEngine.getName()));
+
+    // and the capacity is available again when the batches are finished
+    jobExecutor.release();
+    assertTrue(jobExecutor.awaitFinished(CONNECTION_LIMIT));
+    assertEquals(CONNECTION_LIMIT, jobExecutor.getAvailableExecutionCapacity(processEngine.getName()));
+  }
+
+  @Test
+  public void testAcquisitionFollowsAvailableCapacity() throws InterruptedException {
+    BackoffJobAcquisitionStrategy strategy = new BackoffJobAcquisitionStrategy(jobExecutor);
+    jobExecutor.executeJobs(Arrays.asList("job"), processEngine);
+    assertTrue(jobExecutor.awaitRunning(1));
+
+    // when reconfiguring after a successful acquisition
+    JobAcquisitionContext context = new JobAcquisitionContext();
+    context.submitAcquiredJobs(processEngine.getName(), new AcquiredJobs(jobExecutor.getMaxJobsPerAcquisition()));
+    strategy.reconfigure(context);
+
+    // then no more jobs are acquired than can be executed
+    assertEquals(Math.min(jobExecutor.getMaxJobsPerAcquisition(), CONNECTION_LIMIT - 1),
+        strategy.getNumJobsToAcquire(processEngine.getName()));
+  }
+
+  @Test
+  public void testSaturationWhenNoCapacityLeft() throws InterruptedException {
+    BackoffJobAcquisitionStrategy strategy = new BackoffJobAcquisitionStrategy(jobExecutor);
+    for (int i = 0; i < CONNECTION_LIMIT; i++) {
+      jobExecutor.executeJobs(Arrays.asList("job" + i), processEngine);
+    }
+    assertTrue(jobExecutor.awaitRunning(CONNECTION_LIMIT));
+
+    // when reconfiguring while all connections are in use
+    JobAcquisitionContext context = new JobAcquisitionContext();
+    context.submitAcquiredJobs(processEngine.getName(), new AcquiredJobs(0));
+    strategy.reconfigure(context);
+
+    // then no jobs are acquired and the strategy waits for free capacity
+    assertEquals(0, strategy.getNumJobsToAcquire(processEngine.getName()));
+    assertEquals(BackoffJobAcquisitionStrategy.DEFAULT_EXECUTION_SATURATION_WAIT_TIME, strategy.getWaitTime());
+  }
+
+  public static class BlockingJobExecutor extends SemaphoreJobExecutor {
+
+    protected CountDownLatch releaseLatch = new CountDownLatch(1);
+    protected CountDownLatch runningLatch = new CountDownLatch(CONNECTION_LIMIT);
+    protected CountDownLatch finishedLatch = new CountDownLatch(CONNECTION_LIMIT);
+
+    public Runnable getExecuteJobsRunnable(List<String> jobIds, ProcessEngineImpl processEngine) {
+      return new Runnable() {
+        public void run() {
+          runningLatch.countDown();
+          try {
+            releaseLatch.await();
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          finishedLatch.countDown();
+        }
+      };
+    }
+
+    public boolean awaitRunning(int batches) throws InterruptedException {
+      return awaitCount(runningLatch, batches);
+    }
+
+    public boolean awaitFinished(int batches) throws InterruptedException {
+      if (!awaitCount(finishedLatch, batches)) {
+        return false;
+      }
+      // the permits are released after the runnable returned
+      long timeout = System.currentTimeMillis() + 5000;
+      while (executionPermits.availablePermits() < maxConcurrentJobs && System.currentTimeMillis() < timeout) {
+        Thread.sleep(10);
+      }
+      return executionPermits.availablePermits() == maxConcurrentJobs;
+    }
+
+    public void release() {
+      releaseLatch.countDown();
+    }
+
+    protected boolean awaitCount(CountDownLatch latch, int count) throws InterruptedException {
+      long timeout = System.currentTimeMillis() + 5000;
+      while (CONNECTION_LIMIT - latch.getCount() < count && System.currentTimeMillis() < timeout) {
+        latch.await(10, TimeUnit.MILLISECONDS);
+      }
+      return CONNECTION_LIMIT - latch.getCount() >= count;
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.db.ConcurrentDbIdGenerator;
+import org.camunda.bpm.engine.impl.db.IdBlock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentDbIdGeneratorTest {
+
+  protected InMemoryIdGenerator idGenerator;
+
+  @Before
+  public void setUp() {
+    idGenerator = new InMemoryIdGenerator();
+    idGenerator.setIdBlockSize(100);
+    idGenerator.setSubBlockSize(10);
+    idGenerator.setMaxIdBlockSize(1000);
+  }
+
+  @After
+  public void tearDown() {
+    idGenerator.close();
+  }
+
+  @Test
+  public void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+    final Set<String> ids = Collections.synchronizedSet(new HashSet<String>());
+    final int idsPerThread = 5000;
+    List<Thread> threads = new ArrayList<Thread>();
+
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          for (int j = 0; j < idsPerThread; j++) {
+            ids.add(idGenerator.getNextId());
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(8 * idsPerThread, ids.size());
+  }
+
+  @Test
+  public void testBlockSizeGrowsWithConsumptionRate() {
+    idGenerator.setTargetBlockDurationMillis(60000);
+
+    for (int i = 0; i < 2000; i++) {
+      idGenerator.getNextId();
+    }
+
+    // the blocks were consumed much faster than the target duration
+    assertTrue(idGenerator.lastRequestedBlockSize.get() > 100);
+    assertTrue(idGenerator.lastRequestedBlockSize.get() <= 1000);
+  }
+
+  @Test
+  public void testReset() {
+    String firstId = idGenerator.getNextId();
+    idGenerator.reset();
+    String nextId = idGenerator.getNextId();
+
+    // a new block is fetched after reset
+    assertTrue(Long.parseLong(nextId) > Long.parseLong(firstId));
+    assertEquals(0, Long.parseLong(nextId) % 100);
+  }
+
+  protected static class InMemoryIdGenerator extends ConcurrentDbIdGenerator {
+
+    protected AtomicLong nextDbId = new AtomicLong();
+    protected AtomicInteger lastRequestedBlockSize = new AtomicInteger();
+
+    @Override
+    protected IdBlock fetchBlock(int blockSize) {
+      lastRequestedBlockSize.set(blockSize);
+      long oldValue = nextDbId.getAndAdd(blockSize);
+      return new IdBlock(oldValue, oldValue + blockSize - 1);
+    }
+  }
+
+}
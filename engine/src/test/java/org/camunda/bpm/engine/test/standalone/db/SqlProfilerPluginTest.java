@@ -0,0 +1,121 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.ProcessDefinitionQueryImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.profiler.SqlProfilerPlugin;
+import org.camunda.bpm.engine.management.CommandSqlStatistics;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class SqlProfilerPluginTest {
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      SqlProfilerPlugin sqlProfilerPlugin = new SqlProfilerPlugin();
+      sqlProfilerPlugin.setSamplingInterval(1);
+      configuration.getProcessEnginePlugins().add(sqlProfilerPlugin);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ManagementService managementService;
+  protected RepositoryService repositoryService;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    managementService = engineRule.getManagementService();
+    repositoryService = engineRule.getRepositoryService();
+
+    testRule.deploy("org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml");
+  }
+
+  @Test
+  public void testStatementsOfCommandAreRecorded() {
+    processEngineConfiguration.getSqlProfiler().reset();
+
+    // when
+    repositoryService.createProcessDefinitionQuery().list();
+
+    // then
+    CommandSqlStatistics statistics = getStatistics(ProcessDefinitionQueryImpl.class.getName());
+    assertEquals(1, statistics.getExecutionCount());
+    assertEquals(1, statistics.getStatementCount());
+    assertEquals(1, statistics.getRowCount());
+    assertTrue(statistics.getTotalTimeInMillis() >= statistics.getSqlTimeInMillis());
+  }
+
+  @Test
+  public void testEveryNthCommandIsSampled() {
+    processEngineConfiguration.getSqlProfiler().reset();
+    processEngineConfiguration.getSqlProfiler().setSamplingInterval(2);
+
+    // when
+    for (int i = 0; i < 4; i++) {
+      repositoryService.createProcessDefinitionQuery().list();
+    }
+
+    // then
+    assertEquals(2, getStatistics(ProcessDefinitionQueryImpl.class.getName()).getExecutionCount());
+  }
+
+  @Test
+  public void testStatisticsAreExposedViaJmx() throws Exception {
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = new ObjectName("org.camunda.bpm.engine:type=SqlProfiler,engine=" + ObjectName.quote(engineRule.getProcessEngine().getName()));
+
+    assertTrue(mBeanServer.isRegistered(objectName));
+    assertEquals(1, mBeanServer.getAttribute(objectName, "SamplingInterval"));
+
+    CompositeData[] statistics = (CompositeData[]) mBeanServer.getAttribute(objectName, "CommandStatistics");
+    assertTrue(statistics.length > 0);
+  }
+
+  protected CommandSqlStatistics getStatistics(String commandName) {
+    for (CommandSqlStatistics statistics : managementService.getCommandSqlStatistics()) {
+      if (statistics.getCommandName().equals(commandName)) {
+        return statistics;
+      }
+    }
+    fail("no statistics for " + commandName);
+    return null;
+  }
+
+}
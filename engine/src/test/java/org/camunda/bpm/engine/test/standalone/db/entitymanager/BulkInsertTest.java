@@ -0,0 +1,136 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Flushes several entities of each type which supports multi row inserts
+ * with {@link ProcessEngineConfigurationImpl#isJdbcBulkInsertEnabled()}.
+ */
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class BulkInsertTest {
+
+  protected static final BpmnModelInstance PARALLEL_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .userTask("task1")
+      .moveToNode("fork")
+        .userTask("task2")
+      .moveToNode("fork")
+        .userTask("task3")
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setJdbcBulkInsertEnabled(true);
+      // also flushes a single remaining row with the statement of one entity
+      configuration.setJdbcBulkInsertMaxRows(2);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+
+  @Before
+  public void initialize() {
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+  }
+
+  @Test
+  public void shouldInsertEntitiesInBulk() {
+    // given
+    testRule.deploy(PARALLEL_PROCESS);
+
+    VariableMap variables = Variables.createVariables()
+        .putValue("string1", "a")
+        .putValue("string2", "b")
+        .putValue("string3", "c")
+        .putValue("bytes1", "d".getBytes())
+        .putValue("bytes2", "e".getBytes());
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    // then
+    // variable instances with their byte arrays
+    VariableMap runtimeVariables = runtimeService.getVariablesTyped(processInstance.getId());
+    assertEquals(5, runtimeVariables.size());
+    assertEquals("a", runtimeVariables.get("string1"));
+    assertEquals("c", runtimeVariables.get("string3"));
+    assertArrayEquals("d".getBytes(), (byte[]) runtimeVariables.get("bytes1"));
+    assertArrayEquals("e".getBytes(), (byte[]) runtimeVariables.get("bytes2"));
+
+    // historic variable instances
+    assertEquals(5, historyService.createHistoricVariableInstanceQuery().count());
+    HistoricVariableInstance historicBytes = historyService.createHistoricVariableInstanceQuery()
+        .variableName("bytes2")
+        .singleResult();
+    assertArrayEquals("e".getBytes(), (byte[]) historicBytes.getValue());
+
+    // historic variable updates
+    assertEquals(5, historyService.createHistoricDetailQuery().variableUpdates().count());
+
+    // historic activity instances of the start event, the gateway and the user tasks
+    assertEquals(5, historyService.createHistoricActivityInstanceQuery().count());
+    assertEquals(3, historyService.createHistoricActivityInstanceQuery().unfinished().count());
+  }
+
+  @Test
+  public void shouldInsertEntitiesInBulkIntoExistingProcessInstance() {
+    // given
+    testRule.deploy(PARALLEL_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    runtimeService.setVariables(processInstance.getId(), Variables.createVariables()
+        .putValue("bytes1", "a".getBytes())
+        .putValue("bytes2", "b".getBytes())
+        .putValue("bytes3", "c".getBytes()));
+
+    // then
+    assertEquals(3, runtimeService.createVariableInstanceQuery().count());
+    assertArrayEquals("c".getBytes(), (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes3"));
+    assertEquals(3, historyService.createHistoricVariableInstanceQuery().count());
+    assertEquals(3, historyService.createHistoricDetailQuery().variableUpdates().count());
+  }
+
+}
@@ -15,14 +15,19 @@ package org.camunda.bpm.engine.test.standalone.db.entitymanager;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkInsertOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
@@ -245,6 +250,37 @@ public class DbOperationsOrderingTest {
     assertHappensAfter(execution2, execution1, insertOperations);
   }
 
+  @Test
+  public void testBulkInsert() {
+    Set<Class<?>> bulkInsertEntityTypes = new HashSet<Class<?>>();
+    bulkInsertEntityTypes.add(VariableInstanceEntity.class);
+    entityManager.getDbOperationManager().setBulkInsertEntityTypes(bulkInsertEntityTypes);
+    entityManager.getDbOperationManager().setBulkInsertMaxRows(3);
+
+    entityManager.insert(execution1);
+    entityManager.insert(execution2);
+    entityManager.insert(variable1);
+    entityManager.insert(variable2);
+    entityManager.insert(variable3);
+    entityManager.insert(variable4);
+
+    entityManager.flushEntityCache();
+    List<DbOperation> flush = entityManager.getDbOperationManager().calculateFlush();
+
+    // executions are not inserted in bulk
+    // variables are combined into one multi row insert of three rows and a single insert
+    assertEquals(4, flush.size());
+    assertEquals(DbOperationType.INSERT, flush.get(0).getOperationType());
+    assertEquals(DbOperationType.INSERT, flush.get(1).getOperationType());
+
+    DbBulkInsertOperation bulkInsert = (DbBulkInsertOperation) flush.get(2);
+    assertEquals(DbOperationType.INSERT_BULK, bulkInsert.getOperationType());
+    assertEquals(VariableInstanceEntity.class, bulkInsert.getEntityType());
+    assertEquals(Arrays.<DbEntity>asList(variable1, variable2, variable3), bulkInsert.getEntities());
+
+    assertEquals(variable4, ((DbEntityOperation) flush.get(3)).getEntity());
+  }
+
   public static class ExposingDbEntityManager extends DbEntityManager {
 
     public ExposingDbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
@@ -0,0 +1,147 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DefaultSharedDbEntityCache;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TenantEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedDbEntityCacheTest {
+
+  protected DefaultSharedDbEntityCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new DefaultSharedDbEntityCache(DefaultSharedDbEntityCache.defaultCacheableTypes(), 10, 60000);
+  }
+
+  @Test
+  public void testGetReturnsCopy() {
+    TenantEntity tenant = tenant("tenant", "Tenant", 1);
+    cache.put(tenant, cache.getLoadStamp());
+
+    TenantEntity cachedTenant = cache.get(TenantEntity.class, "tenant");
+    assertNotNull(cachedTenant);
+    assertNotSame(tenant, cachedTenant);
+    assertEquals("Tenant", cachedTenant.getName());
+    assertEquals(1, cachedTenant.getRevision());
+
+    // modifying the returned entity does not affect the cache
+    cachedTenant.setName("Changed");
+    assertEquals("Tenant", cache.get(TenantEntity.class, "tenant").getName());
+  }
+
+  @Test
+  public void testIgnoreNonCacheableTypes() {
+    cache.put(new PropertyEntity("next.dbid", "100"), cache.getLoadStamp());
+
+    assertNull(cache.get(PropertyEntity.class, "next.dbid"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidate() {
+    cache.put(tenant("tenant1", "Tenant 1", 1), cache.getLoadStamp());
+    cache.put(tenant("tenant2", "Tenant 2", 1), cache.getLoadStamp());
+
+    cache.invalidate(TenantEntity.class, "tenant1");
+    assertNull(cache.get(TenantEntity.class, "tenant1"));
+    assertNotNull(cache.get(TenantEntity.class, "tenant2"));
+
+    cache.invalidateAll(TenantEntity.class);
+    assertNull(cache.get(TenantEntity.class, "tenant2"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testOlderRevisionDoesNotReplaceEntry() {
+    cache.put(tenant("tenant", "New", 2), cache.getLoadStamp());
+    cache.put(tenant("tenant", "Old", 1), cache.getLoadStamp());
+
+    assertEquals("New", cache.get(TenantEntity.class, "tenant").getName());
+
+    cache.put(tenant("tenant", "Newer", 3), cache.getLoadStamp());
+    assertEquals("Newer", cache.get(TenantEntity.class, "tenant").getName());
+  }
+
+  @Test
+  public void testRejectLoadStartedBeforeInvalidation() {
+    cache.put(tenant("tenant", "Old", 1), cache.getLoadStamp());
+    long loadStamp = cache.getLoadStamp();
+
+    // the tenant is updated while another command loads the previous state
+    cache.invalidate(TenantEntity.class, "tenant");
+    cache.put(tenant("tenant", "Old", 1), loadStamp);
+
+    assertNull(cache.get(TenantEntity.class, "tenant"));
+
+    cache.put(tenant("tenant", "New", 2), cache.getLoadStamp());
+    assertEquals("New", cache.get(TenantEntity.class, "tenant").getName());
+  }
+
+  @Test
+  public void testRejectLoadStartedBeforeTypeInvalidation() {
+    long loadStamp = cache.getLoadStamp();
+
+    cache.invalidateAll(TenantEntity.class);
+    cache.put(tenant("tenant", "Old", 1), loadStamp);
+
+    assertNull(cache.get(TenantEntity.class, "tenant"));
+  }
+
+  @Test
+  public void testRejectLoadStartedBeforeDiscardedInvalidation() {
+    cache = new DefaultSharedDbEntityCache(DefaultSharedDbEntityCache.defaultCacheableTypes(), 1, -1);
+    long loadStamp = cache.getLoadStamp();
+
+    // the invalidations are discarded when their number exceeds the capacity
+    cache.invalidate(TenantEntity.class, "tenant1");
+    cache.invalidate(TenantEntity.class, "tenant2");
+    cache.put(tenant("tenant1", "Old", 1), loadStamp);
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testCapacity() {
+    for (int i = 0; i < 25; i++) {
+      cache.put(tenant("tenant" + i, "Tenant", 1), cache.getLoadStamp());
+    }
+
+    assertEquals(10, cache.size());
+  }
+
+  @Test
+  public void testExpiration() {
+    cache = new DefaultSharedDbEntityCache(DefaultSharedDbEntityCache.defaultCacheableTypes(), 10, 0);
+    cache.put(tenant("tenant", "Tenant", 1), cache.getLoadStamp());
+
+    assertNull(cache.get(TenantEntity.class, "tenant"));
+    assertEquals(0, cache.size());
+  }
+
+  protected TenantEntity tenant(String id, String name, int revision) {
+    TenantEntity tenant = new TenantEntity(id);
+    tenant.setName(name);
+    tenant.setRevision(revision);
+    return tenant;
+  }
+
+}
@@ -0,0 +1,267 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxDrainer;
+import org.camunda.bpm.engine.impl.history.outbox.HistoryOutboxSession;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class HistoryOutboxTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setHistoryOutboxEnabled(true);
+      // the test drains the outbox explicitly
+      configuration.setHistoryOutboxDrainIntervalInMillis(Integer.MAX_VALUE);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected HistoryOutboxDrainer drainer;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    historyService = engineRule.getHistoryService();
+    drainer = processEngineConfiguration.getHistoryOutboxDrainer();
+
+    testRule.deploy(PROCESS);
+    drainer.drain();
+  }
+
+  @After
+  public void tearDown() {
+    // the history is deleted together with the deployment
+    drainer.drain();
+  }
+
+  @Test
+  public void testHistoryIsWrittenWhenOutboxIsDrained() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    runtimeService.setVariable(processInstance.getId(), "var", "value");
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+    assertEquals(3, drainer.getBacklog());
+
+    drainer.drain();
+
+    assertEquals(0, drainer.getBacklog());
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertNotNull(historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+
+    // start and end of the user task were enqueued by different commands
+    HistoricActivityInstance historicTask = historyService.createHistoricActivityInstanceQuery()
+      .activityId("task")
+      .singleResult();
+    assertNotNull(historicTask.getStartTime());
+    assertNotNull(historicTask.getEndTime());
+    assertTrue(historicTask.getDurationInMillis() >= 0);
+
+    assertEquals(3, historyService.createHistoricActivityInstanceQuery().finished().count());
+    assertEquals(1, historyService.createHistoricVariableInstanceQuery().variableValueEquals("var", "value").count());
+    assertEquals(1, historyService.createHistoricTaskInstanceQuery().finished().count());
+  }
+
+  @Test
+  public void testStartTimesAreKeptWhenScopesEndInLaterDrain() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    drainer.drain();
+
+    Date processInstanceStartTime = historyService.createHistoricProcessInstanceQuery().singleResult().getStartTime();
+    Date taskStartTime = historyService.createHistoricActivityInstanceQuery().activityId("task").singleResult().getStartTime();
+
+    // the end events are drained separately from the start events
+    taskService.complete(taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId());
+    drainer.drain();
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertEquals(processInstanceStartTime, historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+
+    HistoricActivityInstance historicTask = historyService.createHistoricActivityInstanceQuery().activityId("task").singleResult();
+    assertEquals(taskStartTime, historicTask.getStartTime());
+    assertNotNull(historicTask.getEndTime());
+  }
+
+  @Test
+  public void testOutboxIsDrainedInSeveralBatches() {
+    drainer.setBatchSize(2);
+
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    assertEquals(5, drainer.drain());
+    assertEquals(5, historyService.createHistoricProcessInstanceQuery().unfinished().count());
+  }
+
+  @Test
+  public void testEntriesOfProcessInstanceAreNamedInOrder() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    runtimeService.setVariable(processInstance.getId(), "var", "value");
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    List<ByteArrayEntity> entries = findOutboxEntries(processInstance.getId());
+
+    assertEquals(3, entries.size());
+    String namePrefix = HistoryOutboxSession.getEntryNamePrefix(processInstance.getId());
+    assertEquals(namePrefix + "000000000001", entries.get(0).getName());
+    assertEquals(namePrefix + "000000000002", entries.get(1).getName());
+    assertEquals(namePrefix + "000000000003", entries.get(2).getName());
+  }
+
+  @Test
+  public void testDeletingHistoryDeletesPendingEntries() {
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getHistoricProcessInstanceManager().deleteHistoricProcessInstanceByIds(Arrays.asList(processInstance.getId()));
+        return null;
+      }
+    });
+
+    assertEquals(0, drainer.getBacklog());
+
+    drainer.drain();
+
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+  }
+
+  @Test
+  public void testDeletingDeploymentDeletesPendingEntries() {
+    Deployment deployment = repositoryService.createDeployment()
+      .addModelInstance("process.bpmn", PROCESS)
+      .deploy();
+    runtimeService.startProcessInstanceByKey("process");
+
+    repositoryService.deleteDeployment(deployment.getId(), true);
+
+    assertEquals(0, drainer.getBacklog());
+  }
+
+  @Test
+  public void testUpdateOfMissingHistoryFailsTheDrain() {
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    // drop the entry which contains the initial events of the process instance
+    final ByteArrayEntity firstEntry = findOutboxEntries(processInstance.getId()).get(0);
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getByteArrayManager().deleteByteArrayById(firstEntry.getId());
+        return null;
+      }
+    });
+
+    try {
+      drainer.drain();
+      fail("exception expected");
+    }
+    catch (OptimisticLockingException e) {
+      // the entry is drained again later on
+    }
+
+    assertEquals(1, drainer.getBacklog());
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getByteArrayManager().deleteHistoryOutboxEntriesByProcessInstanceIds(Arrays.asList(processInstance.getId()));
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void testMetrics() {
+    runtimeService.startProcessInstanceByKey("process");
+    drainer.drain();
+
+    long enqueued = processEngineConfiguration.getMetricsRegistry().getMeterByName(Metrics.HISTORY_OUTBOX_EVENTS_ENQUEUED).get();
+    long drained = processEngineConfiguration.getMetricsRegistry().getMeterByName(Metrics.HISTORY_OUTBOX_EVENTS_DRAINED).get();
+
+    assertTrue(enqueued > 0);
+    assertEquals(enqueued, drained);
+  }
+
+  protected List<ByteArrayEntity> findOutboxEntries(final String processInstanceId) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<ByteArrayEntity>>() {
+      public List<ByteArrayEntity> execute(CommandContext commandContext) {
+        return commandContext
+          .getByteArrayManager()
+          .findHistoryOutboxEntries(HistoryOutboxSession.getEntryNamePrefix(processInstanceId), Integer.MAX_VALUE);
+      }
+    });
+  }
+
+}
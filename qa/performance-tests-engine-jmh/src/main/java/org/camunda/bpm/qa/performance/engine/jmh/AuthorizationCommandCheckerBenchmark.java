@@ -0,0 +1,131 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import static org.camunda.bpm.engine.authorization.Authorization.ANY;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Permissions.CREATE;
+import static org.camunda.bpm.engine.authorization.Permissions.CREATE_INSTANCE;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+import static org.camunda.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
+import static org.camunda.bpm.engine.authorization.Resources.PROCESS_INSTANCE;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.AuthorizationService;
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.authorization.Permission;
+import org.camunda.bpm.engine.authorization.Resource;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationCommandChecker;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the checks of the {@link AuthorizationCommandChecker} for an authenticated
+ * user who is granted the permissions through one of their groups.</p>
+ *
+ * <p>Each check queries the authorization table of the in-memory database, which contains
+ * the given number of authorizations of other users in addition.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationCommandCheckerBenchmark extends CommandContextBenchmark {
+
+  protected static final String USER_ID = "demo";
+  protected static final String GROUP_ID = "sales";
+  protected static final String PROCESS_DEFINITION_KEY = "benchmarkProcess";
+
+  @Param({"0", "1000"})
+  public int otherAuthorizations;
+
+  protected AuthorizationCommandChecker commandChecker;
+  protected ProcessDefinitionEntity processDefinition;
+
+  @Setup
+  public void setUp() {
+    buildProcessEngine();
+
+    AuthorizationService authorizationService = processEngine.getAuthorizationService();
+    grantGroup(authorizationService, CREATE, PROCESS_INSTANCE, ANY);
+    grantGroup(authorizationService, READ, PROCESS_DEFINITION, PROCESS_DEFINITION_KEY);
+    grantGroup(authorizationService, CREATE_INSTANCE, PROCESS_DEFINITION, PROCESS_DEFINITION_KEY);
+
+    for (int i = 0; i < otherAuthorizations; i++) {
+      Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+      authorization.setUserId("user" + i);
+      authorization.setResource(PROCESS_DEFINITION);
+      authorization.setResourceId("process" + i);
+      authorization.addPermission(READ);
+      authorizationService.saveAuthorization(authorization);
+    }
+
+    processEngine.getIdentityService().setAuthentication(USER_ID, Arrays.asList(GROUP_ID));
+    openCommandContext();
+
+    commandChecker = new AuthorizationCommandChecker();
+    processDefinition = new ProcessDefinitionEntity();
+    processDefinition.setKey(PROCESS_DEFINITION_KEY);
+  }
+
+  @TearDown
+  public void tearDown() {
+    closeCommandContext();
+    processEngine.getIdentityService().clearAuthentication();
+    closeProcessEngine();
+  }
+
+  @Override
+  protected void configure(ProcessEngineConfigurationImpl configuration) {
+    configuration.setAuthorizationEnabled(true);
+  }
+
+  @Benchmark
+  public void checkReadProcessDefinition() {
+    commandChecker.checkReadProcessDefinition(processDefinition);
+  }
+
+  /**
+   * Checks two permissions on different resources.
+   */
+  @Benchmark
+  public void checkCreateProcessInstance() {
+    commandChecker.checkCreateProcessInstance(processDefinition);
+  }
+
+  protected void grantGroup(AuthorizationService authorizationService, Permission permission, Resource resource, String resourceId) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setGroupId(GROUP_ID);
+    authorization.setResource(resource);
+    authorization.setResourceId(resourceId);
+    authorization.addPermission(permission);
+    authorizationService.saveAuthorization(authorization);
+  }
+
+}
@@ -0,0 +1,137 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link BpmnParse} of a process with the given number of activities, using the
+ * parser of the process engine including its parse listeners, as done on deployment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BpmnParseBenchmark extends CommandContextBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int activities;
+
+  @Param({"true", "false"})
+  public boolean validateSchema;
+
+  protected BpmnParser bpmnParser;
+  protected DeploymentEntity deployment;
+  protected byte[] bpmnXml;
+
+  @Setup
+  public void setUp() {
+    buildProcessEngine();
+    openCommandContext();
+
+    bpmnParser = getBpmnParser();
+
+    deployment = new DeploymentEntity();
+    deployment.setId("benchmark-deployment");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Bpmn.writeModelToStream(outputStream, createProcess(activities));
+    bpmnXml = outputStream.toByteArray();
+
+    // fail fast if the process is invalid
+    parse();
+  }
+
+  @TearDown
+  public void tearDown() {
+    closeCommandContext();
+    closeProcessEngine();
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> parse() {
+    BpmnParse bpmnParse = bpmnParser
+        .createParse()
+        .sourceInputStream(new ByteArrayInputStream(bpmnXml))
+        .deployment(deployment)
+        .name("benchmark.bpmn");
+
+    if (!validateSchema) {
+      bpmnParse.setSchemaResource(null);
+    }
+
+    bpmnParse.execute();
+    return bpmnParse.getProcessDefinitions();
+  }
+
+  protected BpmnParser getBpmnParser() {
+    for (Deployer deployer : processEngineConfiguration.getDeployers()) {
+      if (deployer instanceof BpmnDeployer) {
+        return ((BpmnDeployer) deployer).getBpmnParser();
+      }
+    }
+    throw new IllegalStateException("process engine has no BPMN deployer");
+  }
+
+  /**
+   * Creates a sequence of service tasks with expressions, every tenth asynchronous, and
+   * user tasks with candidate users and input parameters.
+   */
+  protected static BpmnModelInstance createProcess(int activities) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("benchmarkProcess")
+      .startEvent("start");
+
+    for (int i = 0; i < activities; i++) {
+      if (i % 2 == 0) {
+        builder = builder.serviceTask("serviceTask" + i)
+          .camundaExpression("${amount > " + i + "}")
+          .camundaAsyncBefore(i % 10 == 0);
+      }
+      else {
+        builder = builder.userTask("userTask" + i)
+          .camundaCandidateUsers("demo")
+          .camundaInputParameter("index", "${" + i + "}");
+      }
+    }
+
+    return builder.endEvent("end").done();
+  }
+
+}
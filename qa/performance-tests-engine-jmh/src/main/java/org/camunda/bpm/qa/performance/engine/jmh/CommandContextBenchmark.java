@@ -0,0 +1,90 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.UUID;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandInvocationContext;
+
+/**
+ * <p>Base class of benchmarks which call engine internals that expect to be invoked inside
+ * a command, e.g. because they look up the process engine configuration from the {@link Context}.</p>
+ *
+ * <p>Builds a process engine on an in-memory H2 database and opens a single command context
+ * on the benchmark thread. The measured operations are therefore not disturbed by the
+ * command interceptor chain. Subclasses must be thread-scoped states so that the context
+ * is opened by the thread which executes the benchmark.</p>
+ */
+public abstract class CommandContextBenchmark {
+
+  protected ProcessEngine processEngine;
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  protected CommandInvocationContext commandInvocationContext;
+  protected CommandContext commandContext;
+
+  protected void buildProcessEngine() {
+    String name = getClass().getSimpleName() + "-" + UUID.randomUUID();
+
+    StandaloneInMemProcessEngineConfiguration configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setProcessEngineName(name);
+    configuration.setJdbcUrl("jdbc:h2:mem:" + name);
+    configuration.setMetricsEnabled(false);
+    configuration.setDbMetricsReporterActivate(false);
+    configure(configuration);
+
+    processEngine = configuration.buildProcessEngine();
+    processEngineConfiguration = configuration;
+  }
+
+  /**
+   * Hook to adjust the configuration before the process engine is built.
+   */
+  protected void configure(ProcessEngineConfigurationImpl configuration) {
+  }
+
+  protected void openCommandContext() {
+    commandInvocationContext = new CommandInvocationContext(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        return null;
+      }
+    });
+    commandContext = processEngineConfiguration.getCommandContextFactory().createCommandContext();
+
+    Context.setCommandInvocationContext(commandInvocationContext);
+    Context.setCommandContext(commandContext);
+    Context.setProcessEngineConfiguration(processEngineConfiguration);
+  }
+
+  protected void closeCommandContext() {
+    try {
+      commandContext.close(commandInvocationContext);
+    }
+    finally {
+      Context.removeCommandInvocationContext();
+      Context.removeCommandContext();
+      Context.removeProcessEngineConfiguration();
+    }
+  }
+
+  protected void closeProcessEngine() {
+    processEngine.close();
+  }
+
+}
@@ -0,0 +1,88 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the {@link DbEntityCache} of a command with the given number of executions,
+ * as filled when an execution tree is loaded and read when it is traversed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DbEntityCacheBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int entities;
+
+  protected ExecutionEntity[] executions;
+  protected DbEntityCache filledCache;
+
+  @Setup
+  public void setUp() {
+    executions = new ExecutionEntity[entities];
+    for (int i = 0; i < entities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution" + i);
+      execution.setProcessInstanceId("execution0");
+      if (i > 0) {
+        execution.setParentId("execution" + (i - 1) / 2);
+      }
+      executions[i] = execution;
+    }
+
+    filledCache = putPersistent();
+  }
+
+  @Benchmark
+  public DbEntityCache putPersistent() {
+    DbEntityCache cache = new DbEntityCache();
+    for (ExecutionEntity execution : executions) {
+      cache.putPersistent(execution);
+    }
+    return cache;
+  }
+
+  @Benchmark
+  public void get(Blackhole blackhole) {
+    for (ExecutionEntity execution : executions) {
+      blackhole.consume(filledCache.get(ExecutionEntity.class, execution.getId()));
+    }
+  }
+
+  @Benchmark
+  public List<ExecutionEntity> getEntitiesByType() {
+    return filledCache.getEntitiesByType(ExecutionEntity.class);
+  }
+
+}
@@ -0,0 +1,117 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.DELETE;
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.UPDATE;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures {@link DbOperationManager#calculateFlush()} which orders the operations of a
+ * command before they are flushed.</p>
+ *
+ * <p>The flush contains inserts of a tree of executions with variables, updates of the
+ * executions and deletes of the variables. Both entity types implement {@link HasDbReferences},
+ * so that their operations are sorted by references.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DbOperationManagerBenchmark {
+
+  /**
+   * the number of executions and the number of variables
+   */
+  @Param({"10", "100", "1000"})
+  public int entities;
+
+  /**
+   * the maximum number of rows of a multi row insert, 1 disables multi row inserts
+   */
+  @Param({"1", "50"})
+  public int bulkInsertMaxRows;
+
+  protected DbOperationManager dbOperationManager;
+
+  @Setup
+  public void setUp() {
+    dbOperationManager = new DbOperationManager();
+    dbOperationManager.setBulkInsertMaxRows(bulkInsertMaxRows);
+
+    Set<Class<?>> bulkInsertEntityTypes = new HashSet<Class<?>>();
+    bulkInsertEntityTypes.add(ExecutionEntity.class);
+    bulkInsertEntityTypes.add(VariableInstanceEntity.class);
+    dbOperationManager.setBulkInsertEntityTypes(bulkInsertEntityTypes);
+
+    for (int i = 0; i < entities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution" + i);
+      execution.setProcessInstanceId("execution0");
+      if (i > 0) {
+        execution.setParentId("execution" + (i - 1) / 2);
+      }
+
+      VariableInstanceEntity variable = new VariableInstanceEntity();
+      variable.setId("variable" + i);
+      variable.setExecutionId(execution.getId());
+      variable.setProcessInstanceId("execution0");
+
+      addOperation(execution, INSERT);
+      addOperation(variable, INSERT);
+      addOperation(execution, UPDATE);
+      addOperation(variable, DELETE);
+    }
+  }
+
+  @Benchmark
+  public List<DbOperation> calculateFlush() {
+    return dbOperationManager.calculateFlush();
+  }
+
+  protected void addOperation(DbEntity entity, DbOperationType operationType) {
+    DbEntityOperation operation = new DbEntityOperation();
+    operation.setEntity(entity);
+    operation.setOperationType(operationType);
+    operation.setFlushRelevantEntityReferences(((HasDbReferences) entity).getReferencedEntityIds());
+    dbOperationManager.addOperation(operation);
+  }
+
+}
@@ -0,0 +1,139 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.el.Expression;
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.pvm.runtime.ExecutionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the creation and the evaluation of JUEL expressions by the {@link ExpressionManager}
+ * of the process engine, as done for conditions, listeners and input/output mappings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionManagerBenchmark extends CommandContextBenchmark {
+
+  protected static final String COMPARISON = "${amount > 100}";
+  protected static final String ARITHMETIC = "${amount * 2 + discount > limit && approved}";
+  protected static final String BEAN_PROPERTY = "${order.customer == 'demo' && order.total > 100}";
+  protected static final String METHOD_INVOCATION = "${order.hasMoreItemsThan(2)}";
+
+  protected ExpressionManager expressionManager;
+  protected ExecutionImpl variableScope;
+
+  protected Expression comparison;
+  protected Expression arithmetic;
+  protected Expression beanProperty;
+  protected Expression methodInvocation;
+
+  @Setup
+  public void setUp() {
+    buildProcessEngine();
+    openCommandContext();
+
+    expressionManager = processEngineConfiguration.getExpressionManager();
+
+    variableScope = new ExecutionImpl();
+    variableScope.setVariable("amount", 150);
+    variableScope.setVariable("discount", 10);
+    variableScope.setVariable("limit", 250);
+    variableScope.setVariable("approved", true);
+    variableScope.setVariable("order", new Order("demo", 150.0, 3));
+
+    comparison = expressionManager.createExpression(COMPARISON);
+    arithmetic = expressionManager.createExpression(ARITHMETIC);
+    beanProperty = expressionManager.createExpression(BEAN_PROPERTY);
+    methodInvocation = expressionManager.createExpression(METHOD_INVOCATION);
+  }
+
+  @TearDown
+  public void tearDown() {
+    closeCommandContext();
+    closeProcessEngine();
+  }
+
+  /**
+   * Creates an expression which was created before, as done on every parse of a process.
+   */
+  @Benchmark
+  public Expression createExpression() {
+    return expressionManager.createExpression(ARITHMETIC);
+  }
+
+  @Benchmark
+  public Object evaluateComparison() {
+    return comparison.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object evaluateArithmetic() {
+    return arithmetic.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object evaluateBeanProperty() {
+    return beanProperty.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object evaluateMethodInvocation() {
+    return methodInvocation.getValue(variableScope);
+  }
+
+  public static class Order implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected String customer;
+    protected double total;
+    protected int items;
+
+    public Order(String customer, double total, int items) {
+      this.customer = customer;
+      this.total = total;
+      this.items = items;
+    }
+
+    public String getCustomer() {
+      return customer;
+    }
+
+    public double getTotal() {
+      return total;
+    }
+
+    public boolean hasMoreItemsThan(int count) {
+      return items > count;
+    }
+  }
+
+}
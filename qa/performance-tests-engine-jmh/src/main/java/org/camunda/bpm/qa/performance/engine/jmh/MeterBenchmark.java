@@ -0,0 +1,82 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MeterHandle;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.management.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the throughput of marking a meter which is shared by all benchmark threads,
+ * as the activity instance meters are shared by all threads executing processes.</p>
+ *
+ * <p>{@link #markAtomicLong()} is the baseline of a single shared counter. Running the
+ * benchmark with an increasing number of threads (JMH option <code>-t</code>) shows how
+ * the other variants scale.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterBenchmark {
+
+  protected AtomicLong atomicLong;
+  protected MetricsRegistry metricsRegistry;
+  protected Meter meter;
+  protected MeterHandle meterHandle;
+
+  @Setup
+  public void setUp() {
+    atomicLong = new AtomicLong();
+    metricsRegistry = new MetricsRegistry();
+    meter = metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_START);
+    meterHandle = new MeterHandle(Metrics.ACTIVTY_INSTANCE_START);
+  }
+
+  @Benchmark
+  public long markAtomicLong() {
+    return atomicLong.incrementAndGet();
+  }
+
+  @Benchmark
+  public void markMeter() {
+    meter.mark();
+  }
+
+  @Benchmark
+  public void markMeterHandle() {
+    meterHandle.mark(metricsRegistry);
+  }
+
+  @Benchmark
+  public void markOccurrenceByName() {
+    metricsRegistry.markOccurrence(Metrics.ACTIVTY_INSTANCE_START);
+  }
+
+}
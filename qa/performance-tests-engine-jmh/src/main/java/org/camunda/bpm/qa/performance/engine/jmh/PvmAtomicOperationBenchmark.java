@@ -0,0 +1,112 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.pvm.ProcessDefinitionBuilder;
+import org.camunda.bpm.engine.impl.pvm.PvmProcessDefinition;
+import org.camunda.bpm.engine.impl.pvm.PvmProcessInstance;
+import org.camunda.bpm.engine.impl.pvm.PvmTransition;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityBehavior;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
+import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the chain of atomic operations of {@link PvmExecutionImpl} which executes a
+ * process instance through a sequence of activities without wait states.</p>
+ *
+ * <p>The process runs on transient executions, so that the benchmark covers the activity
+ * instance and scope handling of the PVM but not the persistence of the executions.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PvmAtomicOperationBenchmark {
+
+  @Param({"10", "100"})
+  public int activities;
+
+  /**
+   * if true, every activity is a scope and gets its own child execution
+   */
+  @Param({"false", "true"})
+  public boolean scopes;
+
+  protected PvmProcessDefinition processDefinition;
+
+  @Setup
+  public void setUp() {
+    ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder("benchmarkProcess");
+
+    for (int i = 0; i < activities; i++) {
+      builder.createActivity("activity" + i);
+      if (i == 0) {
+        builder.initial();
+      }
+      if (scopes) {
+        builder.scope();
+      }
+      builder.behavior(new Automatic());
+      if (i < activities - 1) {
+        builder.transition("activity" + (i + 1));
+      }
+      builder.endActivity();
+    }
+
+    processDefinition = builder.buildProcessDefinition();
+  }
+
+  @Benchmark
+  public PvmProcessInstance startProcessInstance() {
+    PvmProcessInstance processInstance = processDefinition.createProcessInstance();
+    processInstance.start();
+
+    if (!processInstance.isEnded()) {
+      throw new IllegalStateException("process instance is expected to end");
+    }
+    return processInstance;
+  }
+
+  /**
+   * Takes the first outgoing transition or ends the execution if there is none.
+   */
+  public static class Automatic implements ActivityBehavior {
+
+    public void execute(ActivityExecution execution) throws Exception {
+      List<PvmTransition> outgoingTransitions = execution.getActivity().getOutgoingTransitions();
+      if (outgoingTransitions.isEmpty()) {
+        execution.end(true);
+      }
+      else {
+        execution.leaveActivityViaTransition(outgoingTransitions.get(0));
+      }
+    }
+  }
+
+}
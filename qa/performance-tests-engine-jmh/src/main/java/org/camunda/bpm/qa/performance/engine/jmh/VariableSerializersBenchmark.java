@@ -0,0 +1,120 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFieldsImpl;
+import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.Variables.SerializationDataFormats;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the {@link VariableSerializers} of the process engine write a variable value
+ * to the fields of a variable instance and read it back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableSerializersBenchmark extends CommandContextBenchmark {
+
+  @Param({"string", "long", "date", "bytes", "serializable"})
+  public String valueType;
+
+  protected VariableSerializers variableSerializers;
+  protected TypedValue value;
+
+  protected TypedValueSerializer<?> serializer;
+  protected ValueFields serializedFields;
+
+  @Setup
+  public void setUp() {
+    buildProcessEngine();
+    openCommandContext();
+
+    variableSerializers = processEngineConfiguration.getVariableSerializers();
+    value = createValue(valueType);
+
+    serializer = variableSerializers.findSerializerForValue(value);
+    serializedFields = serialize();
+  }
+
+  @TearDown
+  public void tearDown() {
+    closeCommandContext();
+    closeProcessEngine();
+  }
+
+  @Benchmark
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public ValueFields serialize() {
+    TypedValueSerializer valueSerializer = variableSerializers.findSerializerForValue(value);
+
+    ValueFieldsImpl valueFields = new ValueFieldsImpl();
+    valueSerializer.writeValue(value, valueFields);
+    return valueFields;
+  }
+
+  @Benchmark
+  public TypedValue deserialize() {
+    return serializer.readValue(serializedFields, true);
+  }
+
+  protected static TypedValue createValue(String valueType) {
+    if ("string".equals(valueType)) {
+      return Variables.stringValue("a string value which is neither very short nor very long");
+    }
+    else if ("long".equals(valueType)) {
+      return Variables.longValue(Long.MAX_VALUE);
+    }
+    else if ("date".equals(valueType)) {
+      return Variables.dateValue(new Date());
+    }
+    else if ("bytes".equals(valueType)) {
+      return Variables.byteArrayValue(new byte[1024]);
+    }
+    else if ("serializable".equals(valueType)) {
+      HashMap<String, Object> map = new HashMap<String, Object>();
+      for (int i = 0; i < 20; i++) {
+        map.put("key" + i, "value" + i);
+      }
+      return Variables.objectValue(map)
+          .serializationDataFormat(SerializationDataFormats.JAVA)
+          .create();
+    }
+    else {
+      throw new IllegalArgumentException("unknown value type " + valueType);
+    }
+  }
+
+}
@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.benchmark;
+
+import java.io.File;
+
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.StepLatencyAggregator;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+import org.camunda.bpm.qa.performance.engine.framework.report.SectionedHtmlReportBuilder;
+import org.camunda.bpm.qa.performance.engine.util.CsvUtil;
+import org.camunda.bpm.qa.performance.engine.util.FileUtil;
+
+/**
+ * Writes the latency percentiles of the steps of each benchmark pass as HTML and CSV report.
+ */
+public class StepLatencyReport {
+
+  public static void main(String[] args) {
+
+    final String resultsFolder = "target"+File.separatorChar+"results";
+    final String reportsFolder = "target"+File.separatorChar+"reports";
+
+    final String htmlReportFilename = reportsFolder + File.separatorChar + "step-latency-report.html";
+    final String csvReportFilename = reportsFolder + File.separatorChar + "step-latency-report.csv";
+
+    // make sure reports folder exists
+    File reportsFolderFile = new File(reportsFolder);
+    if(!reportsFolderFile.exists()) {
+      reportsFolderFile.mkdir();
+    }
+
+    SectionedHtmlReportBuilder htmlBuilder = new SectionedHtmlReportBuilder("Step Latency Report");
+
+    TabularResultSet aggregatedResults = new StepLatencyAggregator(resultsFolder, htmlBuilder).execute();
+
+    String report = htmlBuilder.execute();
+    FileUtil.writeStringToFile(report, htmlReportFilename);
+
+    CsvUtil.saveResultSetToFile(csvReportFilename, aggregatedResults);
+  }
+
+}
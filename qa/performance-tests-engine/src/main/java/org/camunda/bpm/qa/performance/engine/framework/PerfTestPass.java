@@ -12,13 +12,17 @@
  */
 package org.camunda.bpm.qa.performance.engine.framework;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
 import org.camunda.bpm.engine.impl.persistence.StrongUuidGenerator;
 import org.camunda.bpm.qa.performance.engine.framework.activitylog.ActivityPerfTestResult;
 
@@ -38,6 +42,8 @@ public class PerfTestPass {
   protected PerfTestResult result;
   protected boolean completed;
   protected Map<String, PerfTestRun> runs;
+  /** latencies of each step in microseconds, in the order of the steps */
+  protected Map<PerfTestStep, Histogram> stepLatencies;
   protected long startTime;
   protected long endTime;
 
@@ -56,6 +62,12 @@ public class PerfTestPass {
       runs.put(runId, new PerfTestRun(runner, runId, firstStep));
     }
     runs = Collections.unmodifiableMap(runs);
+
+    stepLatencies = new LinkedHashMap<PerfTestStep, Histogram>();
+    for (PerfTestStep step = firstStep; step != null; step = step.getNextStep()) {
+      stepLatencies.put(step, new Histogram(step.getStepName()));
+    }
+    stepLatencies = Collections.unmodifiableMap(stepLatencies);
   }
 
   public int getNumberOfThreads() {
@@ -98,13 +110,30 @@ public class PerfTestPass {
     endTime = System.currentTimeMillis();
     result.setDuration(endTime - startTime);
     result.setNumberOfThreads(numberOfThreads);
+    result.setStepLatencies(getStepLatencyResults());
     completed = true;
   }
 
+  protected List<PerfTestStepLatency> getStepLatencyResults() {
+    List<PerfTestStepLatency> stepLatencyResults = new ArrayList<PerfTestStepLatency>();
+    int stepNumber = 1;
+    for (Histogram histogram : stepLatencies.values()) {
+      stepLatencyResults.add(new PerfTestStepLatency(stepNumber++, histogram.getName(), histogram.getSnapshot()));
+    }
+    return stepLatencyResults;
+  }
+
   public void logStepResult(PerfTestStep currentStep, Object stepResult) {
     result.logStepResult(currentStep, stepResult);
   }
 
+  /**
+   * @param stepDuration the duration of the step in nanoseconds
+   */
+  public void logStepLatency(PerfTestStep step, long stepDuration) {
+    stepLatencies.get(step).record(TimeUnit.NANOSECONDS.toMicros(stepDuration));
+  }
+
   public void logActivityResult(String identifier, List<ActivityPerfTestResult> results) {
     result.logActivityResult(identifier, results);
   }
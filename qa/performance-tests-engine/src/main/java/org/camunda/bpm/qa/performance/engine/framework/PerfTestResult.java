@@ -32,6 +32,8 @@ public class PerfTestResult {
 
   protected List<PerfTestStepResult> stepResults = Collections.synchronizedList(new ArrayList<PerfTestStepResult>());
 
+  protected List<PerfTestStepLatency> stepLatencies = new ArrayList<PerfTestStepLatency>();
+
   protected final Map<String, List<ActivityPerfTestResult>> activityResults = Collections.synchronizedMap(new HashMap<String, List<ActivityPerfTestResult>>());
 
   public long getDuration() {
@@ -58,6 +60,14 @@ public class PerfTestResult {
     this.stepResults = stepResults;
   }
 
+  public List<PerfTestStepLatency> getStepLatencies() {
+    return stepLatencies;
+  }
+
+  public void setStepLatencies(List<PerfTestStepLatency> stepLatencies) {
+    this.stepLatencies = stepLatencies;
+  }
+
   public Map<String, List<ActivityPerfTestResult>> getActivityResults() {
     return activityResults;
   }
@@ -33,6 +33,7 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
   protected long runStartTime;
   protected long runEndTime;
 
+  /** start and end of the current step in nanoseconds, see {@link System#nanoTime()} */
   protected long stepStartTime;
   protected long stepEndTime;
 
@@ -68,6 +69,8 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
 
       PerfTestRunContext.currentContext.set(this);
 
+      startStep();
+
       if(!currentStep.isWaitStep()) {
         continueRun();
       }
@@ -84,6 +87,14 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
     }
   }
 
+  public void startStep() {
+    stepStartTime = System.nanoTime();
+  }
+
+  public void endStep() {
+    stepEndTime = System.nanoTime();
+  }
+
   protected void continueRun() {
     notifyWatchersBeforeStep();
     currentStep.getStepBehavior().execute(this);
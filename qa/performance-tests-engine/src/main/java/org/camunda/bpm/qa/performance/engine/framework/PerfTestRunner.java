@@ -215,6 +215,9 @@ public class PerfTestRunner {
    * @param currentStep the completed step
    */
   public void completedStep(PerfTestRun run, PerfTestStep currentStep) {
+    run.endStep();
+    currentPass.logStepLatency(currentStep, run.getStepEndTime() - run.getStepStartTime());
+
     PerfTestStep nextStep = currentStep.getNextStep();
 
     if(nextStep != null) {
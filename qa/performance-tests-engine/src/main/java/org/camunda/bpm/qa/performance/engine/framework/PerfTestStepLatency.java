@@ -0,0 +1,132 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.framework;
+
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
+
+/**
+ * <p>The latency distribution of a step of a performance test in a pass.</p>
+ *
+ * <p>The latency of a step is the time from the moment a thread starts the step
+ * until the step is completed. For a wait step this includes the time until the
+ * run is signaled. All latencies are in microseconds.</p>
+ */
+public class PerfTestStepLatency {
+
+  /** the position of the step in the test, starting with 1 */
+  protected int stepNumber;
+
+  protected String stepName;
+
+  protected long count;
+
+  protected double mean;
+
+  protected long max;
+
+  protected long p50;
+
+  protected long p90;
+
+  protected long p99;
+
+  protected long p999;
+
+  public PerfTestStepLatency() {
+  }
+
+  public PerfTestStepLatency(int stepNumber, String stepName, HistogramSnapshot snapshot) {
+    this.stepNumber = stepNumber;
+    this.stepName = stepName;
+    this.count = snapshot.getCount();
+    this.mean = snapshot.getMean();
+    this.max = snapshot.getMax();
+    this.p50 = snapshot.getValueAtPercentile(50);
+    this.p90 = snapshot.getValueAtPercentile(90);
+    this.p99 = snapshot.getValueAtPercentile(99);
+    this.p999 = snapshot.getValueAtPercentile(99.9);
+  }
+
+  public int getStepNumber() {
+    return stepNumber;
+  }
+
+  public void setStepNumber(int stepNumber) {
+    this.stepNumber = stepNumber;
+  }
+
+  public String getStepName() {
+    return stepName;
+  }
+
+  public void setStepName(String stepName) {
+    this.stepName = stepName;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  public void setMean(double mean) {
+    this.mean = mean;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public void setMax(long max) {
+    this.max = max;
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public void setP50(long p50) {
+    this.p50 = p50;
+  }
+
+  public long getP90() {
+    return p90;
+  }
+
+  public void setP90(long p90) {
+    this.p90 = p90;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public void setP99(long p99) {
+    this.p99 = p99;
+  }
+
+  public long getP999() {
+    return p999;
+  }
+
+  public void setP999(long p999) {
+    this.p999 = p999;
+  }
+
+}
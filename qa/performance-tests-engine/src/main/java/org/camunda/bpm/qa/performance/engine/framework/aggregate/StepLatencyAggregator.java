@@ -0,0 +1,107 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.framework.aggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResult;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResults;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepLatency;
+import org.camunda.bpm.qa.performance.engine.framework.report.SectionedHtmlReportBuilder;
+
+/**
+ * <p>Aggregates the latency distributions of the steps of each test and pass.</p>
+ *
+ * <p>The aggregated result set contains a row per test, pass and step. If a
+ * {@link SectionedHtmlReportBuilder} is given, the aggregator adds a section per test
+ * to it which contains a table for each pass.</p>
+ */
+public class StepLatencyAggregator extends TabularResultAggregator {
+
+  public static final String TEST_NAME = "Test Name";
+  public static final String THREADS = "Threads";
+  public static final String STEP = "Step";
+  public static final String COUNT = "Count";
+  public static final String MEAN = "Mean (ms)";
+  public static final String P50 = "p50 (ms)";
+  public static final String P90 = "p90 (ms)";
+  public static final String P99 = "p99 (ms)";
+  public static final String P999 = "p99.9 (ms)";
+  public static final String MAX = "Max (ms)";
+
+  protected SectionedHtmlReportBuilder htmlBuilder;
+
+  public StepLatencyAggregator(String resultsFolderPath) {
+    this(resultsFolderPath, null);
+  }
+
+  public StepLatencyAggregator(String resultsFolderPath, SectionedHtmlReportBuilder htmlBuilder) {
+    super(resultsFolderPath);
+    this.htmlBuilder = htmlBuilder;
+  }
+
+  protected TabularResultSet createAggregatedResultsInstance() {
+    TabularResultSet tabularResultSet = new TabularResultSet();
+    tabularResultSet.getResultColumnNames().addAll(Arrays.asList(TEST_NAME, THREADS, STEP, COUNT, MEAN, P50, P90, P99, P999, MAX));
+    return tabularResultSet;
+  }
+
+  protected void processResults(PerfTestResults results, TabularResultSet tabularResultSet) {
+    Map<String, Object> passSections = new LinkedHashMap<String, Object>();
+
+    for (PerfTestResult passResult : results.getPassResults()) {
+      TabularResultSet passResultSet = new TabularResultSet();
+      passResultSet.getResultColumnNames().addAll(Arrays.asList(STEP, COUNT, MEAN, P50, P90, P99, P999, MAX));
+
+      for (PerfTestStepLatency stepLatency : passResult.getStepLatencies()) {
+        List<Object> latencyColumns = getLatencyColumns(stepLatency);
+
+        List<Object> row = new ArrayList<Object>();
+        row.add(results.getTestName());
+        row.add(passResult.getNumberOfThreads());
+        row.addAll(latencyColumns);
+        tabularResultSet.addResultRow(row);
+
+        passResultSet.addResultRow(latencyColumns);
+      }
+
+      passSections.put("Threads: " + passResult.getNumberOfThreads() + ", Duration: " + passResult.getDuration() + " ms", passResultSet);
+    }
+
+    if (htmlBuilder != null) {
+      htmlBuilder.addSection(results.getTestName() + " (Runs: " + results.getConfiguration().getNumberOfRuns() + ")", passSections);
+    }
+  }
+
+  protected List<Object> getLatencyColumns(PerfTestStepLatency stepLatency) {
+    List<Object> columns = new ArrayList<Object>();
+    columns.add(stepLatency.getStepNumber() + ". " + stepLatency.getStepName());
+    columns.add(stepLatency.getCount());
+    columns.add(toMillis(stepLatency.getMean()));
+    columns.add(toMillis(stepLatency.getP50()));
+    columns.add(toMillis(stepLatency.getP90()));
+    columns.add(toMillis(stepLatency.getP99()));
+    columns.add(toMillis(stepLatency.getP999()));
+    columns.add(toMillis(stepLatency.getMax()));
+    return columns;
+  }
+
+  protected String toMillis(double micros) {
+    return String.format("%.3f", micros / 1000);
+  }
+
+}
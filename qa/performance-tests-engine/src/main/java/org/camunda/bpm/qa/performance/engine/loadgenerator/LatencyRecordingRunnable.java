@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+
+/**
+ * Records the time from the intended start of a task until it is completed,
+ * including the time the task waited for a free thread.
+ */
+public class LatencyRecordingRunnable extends CompletionSignalingRunnable {
+
+  protected long intendedStartTime;
+  protected Histogram latencies;
+
+  /**
+   * @param intendedStartTime in nanoseconds, see {@link System#nanoTime()}
+   * @param latencies records the latency in microseconds
+   */
+  public LatencyRecordingRunnable(Runnable delegate, CountDownLatch latch, long intendedStartTime, Histogram latencies) {
+    super(delegate, latch);
+    this.intendedStartTime = intendedStartTime;
+    this.latencies = latencies;
+  }
+
+  public void run() {
+    try {
+      delegate.run();
+    }
+    catch(Exception e) {
+      e.printStackTrace();
+    }
+    finally {
+      latencies.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartTime));
+      latch.countDown();
+    }
+  }
+
+}
@@ -19,6 +19,11 @@ import java.util.TimerTask;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
 
 /**
  * @author Daniel Meyer
@@ -65,12 +70,20 @@ public class LoadGenerator {
 
     System.out.println("Generating load. Total tasks: "+taskCount+"... ");
 
-    for (int i = 1; i <= numberOfIterations; i++) {
+    Histogram latencies = null;
 
-      for (Runnable runnable : configuration.getWorkerTasks()) {
-        executorService.execute(wrap(runnable, sync));
-      }
+    if (configuration.getArrivalRate() > 0) {
+      latencies = new Histogram("latency");
+      startWorkersAtFixedRate(executorService, sync, latencies);
+    }
+    else {
+      for (int i = 1; i <= numberOfIterations; i++) {
+
+        for (Runnable runnable : configuration.getWorkerTasks()) {
+          executorService.execute(wrap(runnable, sync));
+        }
 
+      }
     }
 
     sync.await();
@@ -81,9 +94,52 @@ public class LoadGenerator {
     System.out.println("Finished generating load.");
     if(configuration.isColor()) System.out.print(ANSI_RESET);
 
+    if (latencies != null) {
+      printLatencies(latencies.getSnapshot());
+    }
+
     executorService.shutdown();
   }
 
+  /**
+   * Starts the worker tasks at the configured arrival rate without waiting for
+   * previous tasks to complete. If the threads cannot keep up, tasks queue up
+   * and their waiting time is part of the recorded latency, so that a slow
+   * system cannot hide its latency by slowing down the load.
+   */
+  private void startWorkersAtFixedRate(ExecutorService executorService, CountDownLatch sync, Histogram latencies) {
+    final long interval = TimeUnit.SECONDS.toNanos(1) / configuration.getArrivalRate();
+    final long startTime = System.nanoTime();
+    long taskNumber = 0;
+
+    for (int i = 1; i <= configuration.getNumberOfIterations(); i++) {
+
+      for (Runnable runnable : configuration.getWorkerTasks()) {
+        long intendedStartTime = startTime + taskNumber++ * interval;
+
+        long delay = intendedStartTime - System.nanoTime();
+        while (delay > 0) {
+          LockSupport.parkNanos(delay);
+          delay = intendedStartTime - System.nanoTime();
+        }
+
+        executorService.execute(new LatencyRecordingRunnable(runnable, sync, intendedStartTime, latencies));
+      }
+
+    }
+  }
+
+  private void printLatencies(HistogramSnapshot snapshot) {
+    System.out.println(String.format("Latency at %d tasks/s in ms: mean %.3f, p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f",
+        configuration.getArrivalRate(),
+        snapshot.getMean() / 1000,
+        snapshot.getValueAtPercentile(50) / 1000d,
+        snapshot.getValueAtPercentile(90) / 1000d,
+        snapshot.getValueAtPercentile(99) / 1000d,
+        snapshot.getValueAtPercentile(99.9) / 1000d,
+        snapshot.getMax() / 1000d));
+  }
+
   private void runSetup(ExecutorService executorService) throws InterruptedException {
     CountDownLatch sync = new CountDownLatch(configuration.getSetupTasks().length);
 
@@ -30,6 +30,14 @@ public class LoadGeneratorConfiguration {
 
   protected boolean color = true;
 
+  /**
+   * the number of worker tasks started per second. If greater than 0, the tasks are started
+   * at a fixed rate regardless of how long previous tasks take (open loop) and the latency of
+   * each task is measured from its intended start time. Otherwise, each thread starts the next
+   * task as soon as it completed the previous one (closed loop).
+   */
+  protected int arrivalRate = 0;
+
   public int getNumOfThreads() {
     return numOfThreads;
   }
@@ -70,4 +78,12 @@ public class LoadGeneratorConfiguration {
     this.color = color;
   }
 
+  public int getArrivalRate() {
+    return arrivalRate;
+  }
+
+  public void setArrivalRate(int arrivalRate) {
+    this.arrivalRate = arrivalRate;
+  }
+
 }
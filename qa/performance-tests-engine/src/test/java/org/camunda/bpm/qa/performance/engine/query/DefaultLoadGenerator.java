@@ -48,6 +48,7 @@ public class DefaultLoadGenerator {
     final LoadGeneratorConfiguration config = new LoadGeneratorConfiguration();
     config.setColor(Boolean.parseBoolean(properties.getProperty("loadGenerator.colorOutput", "false")));
     config.setNumberOfIterations(Integer.parseInt(properties.getProperty("loadGenerator.numberOfIterations", "10000")));
+    config.setArrivalRate(Integer.parseInt(properties.getProperty("loadGenerator.arrivalRate", "0")));
 
     final List<BpmnModelInstance> modelInstances = createProcesses(config.getNumberOfIterations());
 